@@ -61,6 +61,8 @@ import io.hops.hopsworks.exceptions.KafkaException;
 import io.hops.hopsworks.exceptions.ServiceException;
 import io.hops.hopsworks.jwt.annotation.JWTRequired;
 import io.hops.hopsworks.jwt.exception.JWTException;
+import io.hops.hopsworks.persistence.cache.EntityCacheProfiler;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
 import io.hops.hopsworks.persistence.entity.host.Hosts;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.persistence.entity.util.Variables;
@@ -87,6 +89,7 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -274,6 +277,22 @@ public class SystemAdminService {
     return Response.ok().entity(values).build();
   }
   
+  @ApiOperation(value = "Get the second level cache hits and misses per entity")
+  @GET
+  @Path("/cache/entities")
+  public Response getEntityCacheStatistics(@Context SecurityContext sc) {
+    return noCacheResponse.getNoCacheResponseBuilder(Response.Status.OK)
+      .entity(EntityCacheProfiler.getCounters()).build();
+  }
+  
+  @ApiOperation(value = "Get the metrics of the internal caches, pools and queues of this instance")
+  @GET
+  @Path("/metrics")
+  public Response getMetrics(@Context SecurityContext sc) {
+    Map<String, Map<String, Number>> metrics = MetricsRegistry.getMetrics();
+    return noCacheResponse.getNoCacheResponseBuilder(Response.Status.OK).entity(metrics).build();
+  }
+  
   @GET
   @Path("/elastic/admintoken")
   public Response getElasticAdminToken(@Context SecurityContext sc) throws OpenSearchException {
@@ -15,6 +15,7 @@
  */
 package io.hops.hopsworks.api.admin.hosts;
 
+import io.hops.hopsworks.common.agent.HostHeartbeatBuffer;
 import io.hops.hopsworks.common.api.ResourceRequest;
 import io.hops.hopsworks.common.dao.AbstractFacade;
 import io.hops.hopsworks.common.dao.host.HostsFacade;
@@ -38,6 +39,8 @@ public class HostsBuilder {
   private HostsFacade hostsFacade;
   @EJB
   private HostsController hostsController;
+  @EJB
+  private HostHeartbeatBuffer hostHeartbeatBuffer;
   
   public HostsDTO build(UriInfo uriInfo, ResourceRequest resourceRequest) {
     HostsDTO dto = new HostsDTO();
@@ -59,6 +62,8 @@ public class HostsBuilder {
   private HostsDTO build(UriInfo uriInfo, ResourceRequest resourceRequest, Hosts host) {
     HostsDTO dto;
     if (expand(resourceRequest)) {
+      // The latest heartbeat might not be flushed to the database yet
+      hostHeartbeatBuffer.overlay(host);
       dto = new HostsDTO(host);
     } else {
       dto = new HostsDTO();
@@ -91,6 +96,7 @@ public class HostsBuilder {
   
   public HostsDTO buildByHostname(UriInfo uriInfo, String hostname) throws ServiceException {
     Hosts h = hostsController.findByHostname(hostname);
+    hostHeartbeatBuffer.overlay(h);
     HostsDTO dto = new HostsDTO(h);
     dto.setHref(uriHost(uriInfo, h));
     return dto;
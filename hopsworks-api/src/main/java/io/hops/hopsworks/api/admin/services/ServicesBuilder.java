@@ -16,6 +16,7 @@
 package io.hops.hopsworks.api.admin.services;
 
 import io.hops.hopsworks.common.admin.services.HostServicesController;
+import io.hops.hopsworks.common.agent.HostHeartbeatBuffer;
 import io.hops.hopsworks.common.api.ResourceRequest;
 import io.hops.hopsworks.common.dao.AbstractFacade;
 import io.hops.hopsworks.common.dao.kagent.HostServicesFacade;
@@ -37,6 +38,8 @@ public class ServicesBuilder {
   private HostServicesFacade hostServicesFacade;
   @EJB
   private HostServicesController hostServicesController;
+  @EJB
+  private HostHeartbeatBuffer hostHeartbeatBuffer;
   
   private ServiceDTO uri(ServiceDTO dto, UriInfo uriInfo) {
     dto.setHref(uriInfo.getBaseUriBuilder()
@@ -124,6 +127,8 @@ public class ServicesBuilder {
   public ServiceDTO build(UriInfo uriInfo, HostServices service) {
     ServiceDTO dto = new ServiceDTO();
     uri(dto, uriInfo, service);
+    // The latest heartbeat might not be flushed to the database yet
+    hostHeartbeatBuffer.overlay(service);
     dto.setId(service.getId());
     dto.setHostId(service.getHost().getId());
     dto.setPid(service.getPid());
@@ -147,6 +152,7 @@ public class ServicesBuilder {
   
   public ServiceDTO buildItem(UriInfo uriInfo, String hostname, String name) throws ServiceException {
     HostServices service = hostServicesController.findByName(name, hostname);
+    hostHeartbeatBuffer.overlay(service);
     ServiceDTO dto = new ServiceDTO(service);
     uri(dto, uriInfo, name, hostname);
     return dto;
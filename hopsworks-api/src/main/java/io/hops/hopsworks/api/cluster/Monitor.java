@@ -43,6 +43,7 @@ import io.hops.hopsworks.api.filter.Audience;
 import io.hops.hopsworks.api.filter.NoCacheResponse;
 import io.hops.hopsworks.api.util.RESTApiJsonResponse;
 import io.hops.hopsworks.common.admin.services.HostServicesController;
+import io.hops.hopsworks.common.agent.HostHeartbeatBuffer;
 import io.hops.hopsworks.common.dao.host.HostsFacade;
 import io.hops.hopsworks.common.dao.kagent.HostServicesFacade;
 import io.hops.hopsworks.common.dao.kagent.ServiceStatusDTO;
@@ -89,12 +90,14 @@ public class Monitor {
   private NoCacheResponse noCacheResponse;
   @EJB
   private HostServicesController hostServicesController;
+  @EJB
+  private HostHeartbeatBuffer hostHeartbeatBuffer;
 
   @GET
   @Path("/services")
   @Produces(MediaType.APPLICATION_JSON)
   public Response getAllRoles(@Context SecurityContext sc) {
-    List<HostServices> list = hostServicesFacade.findAll();
+    List<HostServices> list = overlayServices(hostServicesFacade.findAll());
     GenericEntity<List<HostServices>> services = new GenericEntity<List<HostServices>>(list) {
     };
     return noCacheResponse.getNoCacheResponseBuilder(Response.Status.OK).entity(services).build();
@@ -104,7 +107,7 @@ public class Monitor {
   @Path("/groups/{groupName}")
   @Produces(MediaType.APPLICATION_JSON)
   public Response getServiceRoles(@PathParam("groupName") String groupName, @Context SecurityContext sc) {
-    List<HostServices> list = hostServicesFacade.findGroupServices(groupName);
+    List<HostServices> list = overlayServices(hostServicesFacade.findGroupServices(groupName));
     // Do not leak Host data back to clients!
     List<ServiceStatusDTO> groupStatus = new ArrayList<>();
     for (HostServices h : list) {
@@ -118,7 +121,7 @@ public class Monitor {
   @Path("/hosts/{hostId}/services")
   @Produces(MediaType.APPLICATION_JSON)
   public Response getHostRoles(@PathParam("hostId") String hostname, @Context SecurityContext sc) {
-    List<HostServices> list = hostServicesFacade.findByHostname(hostname);
+    List<HostServices> list = overlayServices(hostServicesFacade.findByHostname(hostname));
     GenericEntity<List<HostServices>> services = new GenericEntity<List<HostServices>>(list) {
     };
     return noCacheResponse.getNoCacheResponseBuilder(Response.Status.OK).entity(services).build();
@@ -129,7 +132,7 @@ public class Monitor {
   @Produces(MediaType.APPLICATION_JSON)
   public Response getRoles(@PathParam("groupName") String groupName, @PathParam("serviceName") String serviceName,
     @Context SecurityContext sc) {
-    List<HostServices> list = hostServicesFacade.findServices(serviceName);
+    List<HostServices> list = overlayServices(hostServicesFacade.findServices(serviceName));
     GenericEntity<List<HostServices>> services = new GenericEntity<List<HostServices>>(list) {
     };
     return noCacheResponse.getNoCacheResponseBuilder(Response.Status.OK).entity(services).build();
@@ -141,6 +144,7 @@ public class Monitor {
   @Produces(MediaType.APPLICATION_JSON)
   public Response getHosts(@Context SecurityContext sc) {
     List<Hosts> list = hostEjb.findAll();
+    list.forEach(hostHeartbeatBuffer::overlay);
     GenericEntity<List<Hosts>> hosts = new GenericEntity<List<Hosts>>(list) {
     };
     return noCacheResponse.getNoCacheResponseBuilder(Response.Status.OK).entity(hosts).build();
@@ -153,6 +157,7 @@ public class Monitor {
   public Response getHosts(@PathParam("hostId") String hostId, @Context SecurityContext sc) {
     Optional<Hosts> optional = hostEjb.findByHostname(hostId);
     if (optional.isPresent()) {
+      hostHeartbeatBuffer.overlay(optional.get());
       GenericEntity<Hosts> host = new GenericEntity<Hosts>(optional.get()) {
       };
       return noCacheResponse.getNoCacheResponseBuilder(Response.Status.OK).entity(host).build();
@@ -200,4 +205,10 @@ public class Monitor {
     json.setSuccessMessage(hostServicesController.serviceOnHostOp(groupName, serviceName, hostId, action.getAction()));
     return noCacheResponse.getNoCacheResponseBuilder(Response.Status.OK).entity(json).build();
   }
+
+  // Not in a transaction, the entities read are not managed and overlaying them writes nothing
+  private List<HostServices> overlayServices(List<HostServices> services) {
+    services.forEach(hostHeartbeatBuffer::overlay);
+    return services;
+  }
 }
@@ -45,11 +45,11 @@ import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.ws.rs.core.UriInfo;
-import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Date;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -241,150 +241,111 @@ public class DatasetBuilder {
     uri(dto, uriInfo);
     expand(dto, resourceRequest);
     if (dto.isExpand()) {
-      DatasetDTO ownedDatasets =
-        ownItems(new DatasetDTO(), uriInfo, resourceRequest, accessProject, user, parentPath, dirOwner);
-      DatasetDTO sharedDatasets =
-        sharedItems(new DatasetDTO(), uriInfo, sharedDatasetResourceRequest, accessProject, user, parentPath, dirOwner);
-      return mergeAndApplyOffsetAndLimit(dto, resourceRequest, ownedDatasets, sharedDatasets);
+      int offset = resourceRequest.getOffset() == null || resourceRequest.getOffset() < 0 ? 0 :
+        resourceRequest.getOffset();
+      // a large limit must not wrap around, past Integer.MAX_VALUE the page is not limited
+      long requestedEnd = resourceRequest.getLimit() == null || resourceRequest.getLimit() <= 0 ? Integer.MAX_VALUE :
+        (long) offset + resourceRequest.getLimit();
+      int end = (int) Math.min(requestedEnd, Integer.MAX_VALUE);
+      // Both sources are sorted by the database, so at most offset + limit rows of each can end up in the page
+      Integer fetchLimit = end == Integer.MAX_VALUE ? null : end;
+      // The dataset id breaks the ties of the requested sort, so that both queries and the merge agree on a total
+      // order and no dataset moves from one page to another
+      Set<AbstractFacade.SortBy> ownedSort = withIdTieBreaker(resourceRequest.getSort(), new DatasetSortBy("ID"));
+      Set<AbstractFacade.SortBy> sharedSort = withIdTieBreaker(sharedDatasetResourceRequest.getSort(),
+        new DatasetSharedWithSortBy("ID"));
+      AbstractFacade.CollectionInfo<Dataset> ownedDatasets = datasetFacade.findAllDatasetByProject(null, fetchLimit,
+        resourceRequest.getFilter(), ownedSort, accessProject);
+      AbstractFacade.CollectionInfo<DatasetSharedWith> sharedDatasets =
+        datasetSharedWithFacade.findAllDatasetByProject(null, fetchLimit, sharedDatasetResourceRequest.getFilter(),
+          sharedSort, accessProject);
+      dto.setCount(ownedDatasets.getCount() + sharedDatasets.getCount());
+      // without a sort order the owned datasets come first
+      DatasetComparator comparator = resourceRequest.getSort() == null || resourceRequest.getSort().isEmpty() ? null :
+        new DatasetComparator(ownedSort);
+      mergePage(dto, uriInfo, resourceRequest, accessProject, user, parentPath, dirOwner, ownedDatasets.getItems(),
+        sharedDatasets.getItems(), comparator, offset, end);
     }
     return dto;
   }
 
-  // datasets in the project
-  private DatasetDTO ownItems(DatasetDTO dto, UriInfo uriInfo, ResourceRequest resourceRequest,
-                              Project accessProject, Users user, String parentPath, Users dirOwner)
-    throws DatasetException, MetadataException, SchematizedTagException {
-    AbstractFacade.CollectionInfo collectionInfo = datasetFacade.findAllDatasetByProject(null, null,
-      resourceRequest.getFilter(), resourceRequest.getSort(), accessProject);
-    dto.setCount(collectionInfo.getCount());
-    return datasetItems(dto, uriInfo, resourceRequest, collectionInfo.getItems(), accessProject, user, parentPath,
-      dirOwner);
-  }
-
-  // shared datasets
-  private DatasetDTO sharedItems(DatasetDTO dto, UriInfo uriInfo, ResourceRequest resourceRequest,
-                                 Project accessProject, Users user, String parentPath, Users dirOwner)
-    throws DatasetException, MetadataException, SchematizedTagException {
-    AbstractFacade.CollectionInfo collectionInfo = datasetSharedWithFacade.findAllDatasetByProject(null, null,
-      resourceRequest.getFilter(), resourceRequest.getSort(), accessProject);
-    dto.setCount(collectionInfo.getCount());
-    return datasetSharedWithItems(dto, uriInfo, resourceRequest, accessProject, user, collectionInfo.getItems(),
-      parentPath, dirOwner);
-  }
-
-  // create dto from a list of dataset
-  private DatasetDTO datasetItems(DatasetDTO dto, UriInfo uriInfo, ResourceRequest resourceRequest,
-    List<Dataset> datasets, Project accessProject, Users user, String parentPath, Users dirOwner)
-    throws DatasetException, MetadataException, SchematizedTagException {
-    if (datasets != null && !datasets.isEmpty()) {
-      for(Dataset dataset : datasets) {
-        DatasetPath datasetPath = datasetHelper.getTopLevelDatasetPath(accessProject, dataset);
-        dto.addItem(buildItems(uriInfo, resourceRequest, user, datasetPath, parentPath, dirOwner));
-      }
+  private Set<AbstractFacade.SortBy> withIdTieBreaker(Set<? extends AbstractFacade.SortBy> sort,
+                                                      AbstractFacade.SortBy idSort) {
+    Set<AbstractFacade.SortBy> sortWithId = new LinkedHashSet<>();
+    if (sort != null) {
+      sortWithId.addAll(sort);
     }
-    return dto;
+    if (sortWithId.stream().noneMatch(s -> s != null && DatasetFacade.Sorts.ID.getValue().equals(s.getValue()))) {
+      sortWithId.add(idSort);
+    }
+    return sortWithId;
   }
 
-  // create dto from a list of DatasetSharedWith objects
-  private DatasetDTO datasetSharedWithItems(DatasetDTO dto, UriInfo uriInfo, ResourceRequest resourceRequest,
-                                            Project accessProject, Users user,
-                                            List<DatasetSharedWith> datasetSharedWithList, String parentPath,
-                                            Users dirOwner)
+  // merge the sorted owned and shared datasets, and build the DTOs of the requested page only
+  private void mergePage(DatasetDTO dto, UriInfo uriInfo, ResourceRequest resourceRequest, Project accessProject,
+                         Users user, String parentPath, Users dirOwner, List<Dataset> owned,
+                         List<DatasetSharedWith> shared, DatasetComparator comparator, int offset, int end)
     throws DatasetException, MetadataException, SchematizedTagException {
-    if (datasetSharedWithList != null && !datasetSharedWithList.isEmpty()) {
-      for(DatasetSharedWith datasetSharedWith : datasetSharedWithList) {
-        DatasetPath datasetPath = datasetHelper.getTopLevelDatasetPath(accessProject, datasetSharedWith);
-        dto.addItem(buildItems(uriInfo, resourceRequest, user, datasetPath, parentPath, dirOwner));
+    int i = 0;
+    int j = 0;
+    for (int position = 0; position < end && (i < owned.size() || j < shared.size()); position++) {
+      boolean nextOwned = j >= shared.size() || (i < owned.size() &&
+        (comparator == null || comparator.compare(owned.get(i), shared.get(j).getDataset()) <= 0));
+      if (nextOwned) {
+        if (position >= offset) {
+          DatasetPath datasetPath = datasetHelper.getTopLevelDatasetPath(accessProject, owned.get(i));
+          dto.addItem(buildItems(uriInfo, resourceRequest, user, datasetPath, parentPath, dirOwner));
+        }
+        i++;
+      } else {
+        if (position >= offset) {
+          DatasetPath datasetPath = datasetHelper.getTopLevelDatasetPath(accessProject, shared.get(j));
+          dto.addItem(buildItems(uriInfo, resourceRequest, user, datasetPath, parentPath, dirOwner));
+        }
+        j++;
       }
     }
-    return dto;
   }
 
-  public DatasetDTOComparator getComparator(ResourceRequest property) {
-    Set<DatasetFacade.SortBy> sortBy = (Set<DatasetFacade.SortBy>) property.getSort();
-    if (property.getSort() != null && !property.getSort().isEmpty()) {
-      return new DatasetDTOComparator(sortBy);
-    }
-    return null;
-  }
-
-  class DatasetDTOComparator implements Comparator<DatasetDTO> {
+  /**
+   * Compares datasets the same way the dataset queries sort them. Shared datasets are compared by the dataset they
+   * point to, as in DatasetSharedWithFacade.
+   */
+  class DatasetComparator implements Comparator<Dataset> {
 
     Set<DatasetFacade.SortBy> sortBy;
 
-    public DatasetDTOComparator(Set<DatasetFacade.SortBy> sortBy) {
+    public DatasetComparator(Set<DatasetFacade.SortBy> sortBy) {
       this.sortBy = sortBy;
     }
 
-    private int compare(DatasetDTO a, DatasetDTO b, DatasetFacade.SortBy sortBy) {
+    private int compare(Dataset a, Dataset b, DatasetFacade.SortBy sortBy) {
       switch (DatasetFacade.Sorts.valueOf(sortBy.getValue())) {
         case ID:
           return order(a.getId(), b.getId(), sortBy.getParam());
         case NAME:
-          return order(a.getName(), b.getName(), sortBy.getParam());
+          // BINARY(LOWER(d.name)) in the query. Dataset names are ASCII, so comparing the lower-cased code points is
+          // the byte order the database uses
+          return order(a.getName().toLowerCase(Locale.ROOT), b.getName().toLowerCase(Locale.ROOT), sortBy.getParam());
         case PUBLIC:
-          return order(a.getPublicDataset(), b.getPublicDataset(), sortBy.getParam());
+          return order(a.getPublicDs(), b.getPublicDs(), sortBy.getParam());
         case SIZE:
-          return order(a.getAttributes().getSize(), b.getAttributes().getSize(), sortBy.getParam());
+          return order(a.getInode().getSize(), b.getInode().getSize(), sortBy.getParam());
         case TYPE:
-          return order(a.getDatasetType().name(), b.getDatasetType().name(), sortBy.getParam());
+          // dsType is stored as its ordinal
+          return order(a.getDsType().ordinal(), b.getDsType().ordinal(), sortBy.getParam());
         case SEARCHABLE:
           return order(a.isSearchable(), b.isSearchable(), sortBy.getParam());
         case MODIFICATION_TIME:
-          return order(a.getAttributes().getModificationTime(), b.getAttributes().getModificationTime(),
-            sortBy.getParam());
+          return order(a.getInode().getModificationTime(), b.getInode().getModificationTime(), sortBy.getParam());
         case ACCESS_TIME:
-          return order(a.getAttributes().getAccessTime(), b.getAttributes().getAccessTime(), sortBy.getParam());
+          return order(a.getInode().getAccessTime(), b.getInode().getAccessTime(), sortBy.getParam());
         default:
           throw new UnsupportedOperationException("Sort By " + sortBy + " not supported");
       }
     }
 
-    private int order(String a, String b, AbstractFacade.OrderBy orderBy) {
-      switch (orderBy) {
-        case ASC:
-          return String.CASE_INSENSITIVE_ORDER.compare(a, b);
-        case DESC:
-          return String.CASE_INSENSITIVE_ORDER.compare(b, a);
-        default:
-          throw new UnsupportedOperationException("Order By " + orderBy + " not supported");
-      }
-    }
-
-    private int order(Boolean a, Boolean b, AbstractFacade.OrderBy orderBy) {
-      switch (orderBy) {
-        case ASC:
-          return a.compareTo(b);
-        case DESC:
-          return b.compareTo(a);
-        default:
-          throw new UnsupportedOperationException("Order By " + orderBy + " not supported");
-      }
-    }
-
-    private int order(Integer a, Integer b, AbstractFacade.OrderBy orderBy) {
-      switch (orderBy) {
-        case ASC:
-          return a.compareTo(b);
-        case DESC:
-          return b.compareTo(a);
-        default:
-          throw new UnsupportedOperationException("Order By " + orderBy + " not supported");
-      }
-    }
-
-    private int order(Long a, Long b, AbstractFacade.OrderBy orderBy) {
-      switch (orderBy) {
-        case ASC:
-          return a.compareTo(b);
-        case DESC:
-          return b.compareTo(a);
-        default:
-          throw new UnsupportedOperationException("Order By " + orderBy + " not supported");
-      }
-    }
-
-    private int order(Date a, Date b, AbstractFacade.OrderBy orderBy) {
+    private <T extends Comparable<T>> int order(T a, T b, AbstractFacade.OrderBy orderBy) {
       switch (orderBy) {
         case ASC:
           return a.compareTo(b);
@@ -396,7 +357,7 @@ public class DatasetBuilder {
     }
 
     @Override
-    public int compare(DatasetDTO a, DatasetDTO b) {
+    public int compare(Dataset a, Dataset b) {
       Iterator<DatasetFacade.SortBy> sort = sortBy.iterator();
       int c = compare(a, b, sort.next());
       for (; sort.hasNext() && c == 0; ) {
@@ -405,64 +366,4 @@ public class DatasetBuilder {
       return c;
     }
   }
-
-  private DatasetDTO mergeAndApplyOffsetAndLimit(DatasetDTO dto, ResourceRequest resourceRequest, DatasetDTO dto1,
-    DatasetDTO dto2) {
-    if ((dto1 == null || dto1.getItems() == null || dto1.getItems().isEmpty()) &&
-      (dto2 == null || dto2.getItems() == null || dto2.getItems().isEmpty())) {
-      return dto;
-    } else if (dto1 == null || dto1.getItems() == null || dto1.getItems().isEmpty()) {
-      applyOffsetAndLimit(dto, dto2.getItems(), resourceRequest.getOffset(), resourceRequest.getLimit());
-    } else if (dto2 == null || dto2.getItems() == null || dto2.getItems().isEmpty()) {
-      applyOffsetAndLimit(dto, dto1.getItems(), resourceRequest.getOffset(), resourceRequest.getLimit());
-    } else {
-      applyOffsetAndLimit(dto, merge(dto1.getItems(), dto2.getItems(), resourceRequest), resourceRequest.getOffset(),
-        resourceRequest.getLimit());
-    }
-    return dto;
-  }
-
-  private List<DatasetDTO> merge(List<DatasetDTO> items1, List<DatasetDTO> items2, ResourceRequest resourceRequest) {
-    DatasetDTOComparator comparator = getComparator(resourceRequest);
-    List<DatasetDTO> items = new ArrayList<>();
-    if (comparator == null) {
-      items.addAll(items1);
-      items.addAll(items2);
-    } else {
-      int i = 0, j = 0;
-      while (i < items1.size() && j < items2.size()) {
-        if (comparator.compare(items1.get(i), items2.get(j)) < 0) {
-          items.add(items1.get(i));
-          i++;
-        } else if (comparator.compare(items1.get(i), items2.get(j)) > 0) {
-          items.add(items2.get(j));
-          j++;
-        } else {
-          items.add(items1.get(i));
-          items.add(items2.get(j));
-          i++;
-          j++;
-        }
-      }
-      if (i < items1.size()) {
-        items.addAll(items1.subList(i, items1.size()));
-      }
-      if (j < items2.size()) {
-        items.addAll(items2.subList(j, items2.size()));
-      }
-    }
-    return items;
-  }
-
-  private void applyOffsetAndLimit(DatasetDTO dto, List<DatasetDTO> items, Integer offset, Integer limit) {
-    if (offset == null || offset < 0) {
-      offset = 0;
-    }
-    if (limit == null || limit <= 0) {
-      limit = items.size();
-    }
-    List<DatasetDTO> subItems = items.stream().skip(offset).limit(limit).collect(Collectors.toList());
-    dto.setItems(subItems);
-    dto.setCount((long)items.size());
-  }
-}
\ No newline at end of file
+}
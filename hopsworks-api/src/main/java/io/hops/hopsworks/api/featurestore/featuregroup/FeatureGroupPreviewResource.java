@@ -43,12 +43,15 @@ import javax.enterprise.context.RequestScoped;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.BeanParam;
 import javax.ws.rs.GET;
+import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
+import java.io.IOException;
 import java.util.logging.Level;
 
 @RequestScoped
@@ -93,7 +96,51 @@ public class FeatureGroupPreviewResource {
                              @Context UriInfo uriInfo, @Context SecurityContext sc)
       throws FeaturestoreException, HopsSecurityException {
     Users user = jwtHelper.getUserPrincipal(sc);
+    validate(featureGroupPreviewBeanParam);
 
+    PreviewDTO previewDTO = previewBuilder.build(uriInfo, user, project, featuregroup,
+        featureGroupPreviewBeanParam.getPartition(),
+        isOnline(featureGroupPreviewBeanParam),
+        getLimit(featureGroupPreviewBeanParam));
+
+    return Response.ok().entity(previewDTO).build();
+  }
+
+  @ApiOperation(value = "Stream the feature group preview as typed JSON: " +
+    "{\"columns\":[{\"name\":...,\"type\":...}],\"rows\":[[...]]}. The rows are written as they are read.",
+    response = StreamingOutput.class)
+  @GET
+  @Path("stream")
+  @Produces(MediaType.APPLICATION_JSON)
+  @AllowedProjectRoles({AllowedProjectRoles.DATA_OWNER, AllowedProjectRoles.DATA_SCIENTIST})
+  @JWTRequired(acceptedTokens = {Audience.API}, allowedUserRoles = {"HOPS_ADMIN", "HOPS_USER", "HOPS_SERVICE_USER"})
+  @ApiKeyRequired(acceptedScopes = {ApiScope.FEATURESTORE},
+    allowedUserRoles = {"HOPS_ADMIN", "HOPS_USER", "HOPS_SERVICE_USER"})
+  public Response streamPreview(@BeanParam FeatureGroupPreviewBeanParam featureGroupPreviewBeanParam,
+                                @Context HttpServletRequest req, @Context SecurityContext sc)
+      throws FeaturestoreException {
+    Users user = jwtHelper.getUserPrincipal(sc);
+    validate(featureGroupPreviewBeanParam);
+
+    boolean online = isOnline(featureGroupPreviewBeanParam);
+    // fail before the response is committed, the controllers only check it when the stream is written
+    if (online && !isOnlineEnabled()) {
+      throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.FEATUREGROUP_NOT_ONLINE, Level.FINE);
+    }
+    String partition = featureGroupPreviewBeanParam.getPartition();
+    int limit = getLimit(featureGroupPreviewBeanParam);
+
+    StreamingOutput preview = out -> {
+      try {
+        previewBuilder.write(out, user, project, featuregroup, partition, online, limit);
+      } catch (FeaturestoreException | HopsSecurityException e) {
+        throw new IOException(e);
+      }
+    };
+    return Response.ok(preview).build();
+  }
+
+  private void validate(FeatureGroupPreviewBeanParam featureGroupPreviewBeanParam) throws FeaturestoreException {
     // validate user input
     if (featureGroupPreviewBeanParam.getLimit() != null && (
         featureGroupPreviewBeanParam.getLimit() < 0  ||
@@ -108,22 +155,24 @@ public class FeatureGroupPreviewResource {
           RESTCodes.FeaturestoreErrorCode.PREVIEW_NOT_SUPPORTED_FOR_ON_DEMAND_FEATUREGROUPS,
           Level.FINE, "featuregroupId: " + featuregroup.getId());
     }
+  }
 
+  private boolean isOnline(FeatureGroupPreviewBeanParam featureGroupPreviewBeanParam) {
     // set online flag. if the user doesn't provide the storage flag and the feature group
     // is available online, return the data from the online feature store as it's faster.
-    boolean online;
     if (featureGroupPreviewBeanParam.getStorage() == null) {
-      online = (featuregroup.getStreamFeatureGroup() != null && featuregroup.getStreamFeatureGroup().isOnlineEnabled())
-          || (featuregroup.getCachedFeaturegroup() != null && featuregroup.getCachedFeaturegroup().isOnlineEnabled());
+      return isOnlineEnabled();
     } else {
-      online = featureGroupPreviewBeanParam.getStorage().equals(FeatureGroupStorage.ONLINE);
+      return featureGroupPreviewBeanParam.getStorage().equals(FeatureGroupStorage.ONLINE);
     }
+  }
 
-    PreviewDTO previewDTO = previewBuilder.build(uriInfo, user, project, featuregroup,
-        featureGroupPreviewBeanParam.getPartition(),
-        online,
-        featureGroupPreviewBeanParam.getLimit() == null ? 20 : featureGroupPreviewBeanParam.getLimit());
+  private boolean isOnlineEnabled() {
+    return (featuregroup.getStreamFeatureGroup() != null && featuregroup.getStreamFeatureGroup().isOnlineEnabled())
+        || (featuregroup.getCachedFeaturegroup() != null && featuregroup.getCachedFeaturegroup().isOnlineEnabled());
+  }
 
-    return Response.ok().entity(previewDTO).build();
+  private int getLimit(FeatureGroupPreviewBeanParam featureGroupPreviewBeanParam) {
+    return featureGroupPreviewBeanParam.getLimit() == null ? 20 : featureGroupPreviewBeanParam.getLimit();
   }
 }
@@ -20,6 +20,8 @@ import io.hops.hopsworks.common.api.ResourceRequest;
 import io.hops.hopsworks.common.featurestore.featuregroup.cached.CachedFeaturegroupController;
 import io.hops.hopsworks.common.featurestore.featuregroup.cached.FeatureGroupStorage;
 import io.hops.hopsworks.common.featurestore.featuregroup.cached.FeaturegroupPreview;
+import io.hops.hopsworks.common.featurestore.featuregroup.cached.FeaturegroupPreviewWriter;
+import io.hops.hopsworks.common.featurestore.featuregroup.cached.ResultSetReader;
 import io.hops.hopsworks.common.featurestore.featuregroup.stream.StreamFeatureGroupController;
 import io.hops.hopsworks.exceptions.FeaturestoreException;
 import io.hops.hopsworks.exceptions.HopsSecurityException;
@@ -34,6 +36,8 @@ import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.ws.rs.core.UriInfo;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.sql.SQLException;
 import java.util.logging.Level;
@@ -64,19 +68,8 @@ public class PreviewBuilder {
                           String partition, boolean online, int limit)
       throws FeaturestoreException, HopsSecurityException {
 
-    FeaturegroupPreview preview = null;
-    try {
-      if (featuregroup.getStreamFeatureGroup() != null) {
-        preview = streamFeaturegroupController
-          .getFeaturegroupPreview(featuregroup, project, user, partition, online, limit);
-      } else {
-        preview = cachedFeaturegroupController
-          .getFeaturegroupPreview(featuregroup, project, user, partition, online, limit);
-      }
-    } catch (SQLException e) {
-      throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_PREVIEW_FEATUREGROUP,
-          Level.SEVERE, "Feature Group id: " + featuregroup.getId(), e.getMessage(), e);
-    }
+    FeaturegroupPreview preview = getPreview(user, project, featuregroup, partition, online, limit,
+        cachedFeaturegroupController::parseResultset);
     FeatureGroupStorage storage = online ? FeatureGroupStorage.ONLINE : FeatureGroupStorage.OFFLINE;
 
     PreviewDTO previewDTO = new PreviewDTO();
@@ -92,4 +85,38 @@ public class PreviewBuilder {
     return previewDTO;
   }
 
+  /**
+   * Writes the preview to the stream as typed JSON while the rows are read, see {@link FeaturegroupPreviewWriter}
+   */
+  public void write(OutputStream out, Users user, Project project, Featuregroup featuregroup,
+                    String partition, boolean online, int limit)
+      throws FeaturestoreException, HopsSecurityException, IOException {
+    FeaturegroupPreviewWriter writer = new FeaturegroupPreviewWriter(out);
+    try {
+      getPreview(user, project, featuregroup, partition, online, limit, writer);
+    } catch (RuntimeException e) {
+      if (writer.getWriteError() != null) {
+        throw writer.getWriteError();
+      }
+      throw e;
+    }
+  }
+
+  private <T> T getPreview(Users user, Project project, Featuregroup featuregroup, String partition,
+                           boolean online, int limit, ResultSetReader<T> reader)
+      throws FeaturestoreException, HopsSecurityException {
+    try {
+      if (featuregroup.getStreamFeatureGroup() != null) {
+        return streamFeaturegroupController
+          .getFeaturegroupPreview(featuregroup, project, user, partition, online, limit, reader);
+      } else {
+        return cachedFeaturegroupController
+          .getFeaturegroupPreview(featuregroup, project, user, partition, online, limit, reader);
+      }
+    } catch (SQLException e) {
+      throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_PREVIEW_FEATUREGROUP,
+          Level.SEVERE, "Feature Group id: " + featuregroup.getId(), e.getMessage(), e);
+    }
+  }
+
 }
@@ -25,6 +25,7 @@ import io.hops.hopsworks.api.util.RESTApiJsonResponse;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.jwt.AlgorithmFactory;
 import io.hops.hopsworks.jwt.JWTController;
+import io.hops.hopsworks.jwt.VerifiedTokenCache;
 import io.hops.hopsworks.jwt.annotation.JWTRequired;
 import io.hops.hopsworks.jwt.exception.SigningKeyNotFoundException;
 import io.hops.hopsworks.jwt.filter.JWTFilter;
@@ -62,6 +63,8 @@ public class AuthFilter extends JWTFilter {
   @EJB
   private AlgorithmFactory algorithmFactory;
   @EJB
+  private VerifiedTokenCache verifiedTokenCache;
+  @EJB
   private Settings settings;
   
   @Context
@@ -72,6 +75,16 @@ public class AuthFilter extends JWTFilter {
     return algorithmFactory.getAlgorithm(jwt);
   }
 
+  @Override
+  public DecodedJWT getVerifiedToken(String token, String issuer) {
+    return verifiedTokenCache.get(token, issuer);
+  }
+
+  @Override
+  public void tokenVerified(String token, String issuer, DecodedJWT jwt, int expLeeway) {
+    verifiedTokenCache.put(token, issuer, jwt, expLeeway);
+  }
+
   @Override
   public boolean isTokenValid(DecodedJWT jwt) {
     return !jwtController.isTokenInvalidated(jwt);
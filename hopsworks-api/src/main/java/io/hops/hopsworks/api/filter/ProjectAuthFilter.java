@@ -19,6 +19,7 @@ import io.hops.hopsworks.api.util.RESTApiJsonResponse;
 import io.hops.hopsworks.common.dao.project.ProjectFacade;
 import io.hops.hopsworks.common.dao.project.team.ProjectTeamFacade;
 import io.hops.hopsworks.common.dao.user.UserFacade;
+import io.hops.hopsworks.common.project.ProjectRoleCache;
 import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.restutils.JsonResponse;
@@ -34,10 +35,15 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.Provider;
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -59,11 +65,16 @@ public class ProjectAuthFilter implements ContainerRequestFilter {
   
   @EJB
   private UserFacade userFacade;
+  @EJB
+  private ProjectRoleCache projectRoleCache;
 
   @Context
   private ResourceInfo resourceInfo;
 
   private static final Logger LOGGER = Logger.getLogger(ProjectAuthFilter.class.getName());
+  // Roles allowed by the AllowedProjectRoles annotation of resource methods and classes, empty if not annotated
+  private static final ConcurrentMap<AnnotatedElement, Optional<Set<String>>> ALLOWED_ROLES =
+      new ConcurrentHashMap<>();
 
   @Override
   public void filter(ContainerRequestContext requestContext) {
@@ -81,49 +92,46 @@ public class ProjectAuthFilter implements ContainerRequestFilter {
     }
     JsonResponse jsonResponse = new RESTApiJsonResponse();
     Integer id = null;
-    String userRole;
     try {
       id = Integer.valueOf(projectId);
     } catch (NumberFormatException ne) {
       //
     }
 
-    Project project = id != null ? projectBean.find(id) : projectBean.findByName(projectName);
-    if (project == null) {
-      jsonResponse.setErrorCode(RESTCodes.ProjectErrorCode.PROJECT_NOT_FOUND.getCode());
-      jsonResponse.setErrorMsg(RESTCodes.ProjectErrorCode.PROJECT_NOT_FOUND.getMessage());
-      requestContext.abortWith(Response.status(Response.Status.NOT_FOUND).entity(jsonResponse).build());
-      return;
-    }
-    LOGGER.log(Level.FINEST, "Filtering project request path: {0}", project.getName());
+    String userRole = getCachedRole(requestContext, id, projectName);
+    if (userRole == null) {
+      Project project = id != null ? projectBean.find(id) : projectBean.findByName(projectName);
+      if (project == null) {
+        jsonResponse.setErrorCode(RESTCodes.ProjectErrorCode.PROJECT_NOT_FOUND.getCode());
+        jsonResponse.setErrorMsg(RESTCodes.ProjectErrorCode.PROJECT_NOT_FOUND.getMessage());
+        requestContext.abortWith(Response.status(Response.Status.NOT_FOUND).entity(jsonResponse).build());
+        return;
+      }
+      LOGGER.log(Level.FINEST, "Filtering project request path: {0}", project.getName());
 
-    AllowedProjectRoles methodProjectRolesAnnotation = method.getAnnotation(AllowedProjectRoles.class);
-    AllowedProjectRoles classProjectRolesAnnotation = resourceClass.getAnnotation(AllowedProjectRoles.class);
+      if (requestContext.getSecurityContext().getUserPrincipal() == null) {
+        LOGGER.log(Level.WARNING, "Authentication not done. No user found.");
+        jsonResponse.setErrorCode(RESTCodes.SecurityErrorCode.EJB_ACCESS_LOCAL.getCode());
+        jsonResponse.setErrorMsg(RESTCodes.SecurityErrorCode.EJB_ACCESS_LOCAL.getMessage());
+        requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED).entity(jsonResponse).build());
+        return;
+      }
+      String username = requestContext.getSecurityContext().getUserPrincipal().getName();
+      Users user = userFacade.findByUsername(username);
 
-    AllowedProjectRoles rolesAnnotation = methodProjectRolesAnnotation != null ? methodProjectRolesAnnotation
-        : classProjectRolesAnnotation;
-    Set<String> rolesSet;
-    rolesSet = new HashSet<>(Arrays.asList(rolesAnnotation.value()));
+      if (user == null) {
+        LOGGER.log(Level.WARNING, "User not found.");
+        jsonResponse.setErrorCode(RESTCodes.SecurityErrorCode.EJB_ACCESS_LOCAL.getCode());
+        jsonResponse.setErrorMsg(RESTCodes.SecurityErrorCode.EJB_ACCESS_LOCAL.getMessage());
+        requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED).entity(jsonResponse).build());
+        return;
+      }
 
-    if (requestContext.getSecurityContext().getUserPrincipal() == null) {
-      LOGGER.log(Level.WARNING, "Authentication not done. No user found.");
-      jsonResponse.setErrorCode(RESTCodes.SecurityErrorCode.EJB_ACCESS_LOCAL.getCode());
-      jsonResponse.setErrorMsg(RESTCodes.SecurityErrorCode.EJB_ACCESS_LOCAL.getMessage());
-      requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED).entity(jsonResponse).build());
-      return;
+      userRole = projectTeamBean.findCurrentRole(project, user);
+      projectRoleCache.putRole(project, username, userRole);
     }
-    String username = requestContext.getSecurityContext().getUserPrincipal().getName();
-    Users user = userFacade.findByUsername(username);
-    
-    if (user == null) {
-      LOGGER.log(Level.WARNING, "User not found.");
-      jsonResponse.setErrorCode(RESTCodes.SecurityErrorCode.EJB_ACCESS_LOCAL.getCode());
-      jsonResponse.setErrorMsg(RESTCodes.SecurityErrorCode.EJB_ACCESS_LOCAL.getMessage());
-      requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED).entity(jsonResponse).build());
-      return;
-    }
-    
-    userRole = projectTeamBean.findCurrentRole(project, user);
+
+    Set<String> rolesSet = getAllowedRoles(resourceClass, method);
 
     //If the resource is allowed for all roles check if user is a member of the project. 
     if (userRole != null && !userRole.isEmpty() && rolesSet.contains(AllowedProjectRoles.ANYONE)) {
@@ -145,4 +153,29 @@ public class ProjectAuthFilter implements ContainerRequestFilter {
       requestContext.abortWith(Response.status(Response.Status.FORBIDDEN).entity(jsonResponse).build());
     }
   }
+
+  /**
+   * Get the role of the authenticated user in the project from the cache, without querying the database.
+   *
+   * @return the cached role, ProjectRoleCache.NO_ROLE if the user is not a member, or null if it is not cached
+   */
+  private String getCachedRole(ContainerRequestContext requestContext, Integer id, String projectName) {
+    if (requestContext.getSecurityContext().getUserPrincipal() == null) {
+      return null;
+    }
+    Integer cachedId = id != null ? id : projectName != null ? projectRoleCache.getProjectId(projectName) : null;
+    if (cachedId == null) {
+      return null;
+    }
+    return projectRoleCache.getRole(cachedId, requestContext.getSecurityContext().getUserPrincipal().getName());
+  }
+
+  private Set<String> getAllowedRoles(Class<?> resourceClass, Method method) {
+    return getAllowedRoles(method).orElseGet(() -> getAllowedRoles(resourceClass).orElse(Collections.emptySet()));
+  }
+
+  private static Optional<Set<String>> getAllowedRoles(AnnotatedElement element) {
+    return ALLOWED_ROLES.computeIfAbsent(element, e -> Optional.ofNullable(e.getAnnotation(AllowedProjectRoles.class))
+        .map(rolesAnnotation -> Collections.unmodifiableSet(new HashSet<>(Arrays.asList(rolesAnnotation.value())))));
+  }
 }
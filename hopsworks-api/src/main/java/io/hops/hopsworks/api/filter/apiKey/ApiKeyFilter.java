@@ -20,11 +20,11 @@ import io.hops.hopsworks.api.filter.util.Subject;
 import io.hops.hopsworks.api.util.RESTApiJsonResponse;
 import io.hops.hopsworks.common.user.UsersController;
 import io.hops.hopsworks.common.user.security.apiKey.ApiKeyController;
+import io.hops.hopsworks.common.user.security.apiKey.VerifiedApiKey;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.ApiKeyException;
 import io.hops.hopsworks.jwt.annotation.JWTRequired;
 import io.hops.hopsworks.persistence.entity.user.Users;
-import io.hops.hopsworks.persistence.entity.user.security.apiKey.ApiKey;
 import io.hops.hopsworks.persistence.entity.user.security.apiKey.ApiScope;
 import io.hops.hopsworks.restutils.JsonResponse;
 import io.hops.hopsworks.restutils.RESTCodes;
@@ -103,10 +103,10 @@ public class ApiKeyFilter implements ContainerRequestFilter {
     
     String key = authorizationHeader.substring(API_KEY.length()).trim();
     try {
-      ApiKey apiKey = apiKeyController.getApiKey(key);
+      VerifiedApiKey apiKey = apiKeyController.verifyKey(key);
       Users user = apiKey.getUser();
       List<String> roles = usersController.getUserRoles(user);
-      Set<ApiScope> scopes = apiKeyController.getScopes(apiKey);
+      Set<ApiScope> scopes = apiKey.getScopes();
       checkRole(roles);
       checkScope(scopes);
       Subject subject = new Subject(user.getUsername(), roles);
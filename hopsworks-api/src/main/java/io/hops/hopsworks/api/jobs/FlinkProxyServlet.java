@@ -29,7 +29,6 @@ import io.hops.hopsworks.exceptions.ApiKeyException;
 import io.hops.hopsworks.persistence.entity.hdfs.user.HdfsUsers;
 import io.hops.hopsworks.persistence.entity.jobs.history.YarnApplicationstate;
 import io.hops.hopsworks.persistence.entity.user.Users;
-import io.hops.hopsworks.persistence.entity.user.security.apiKey.ApiKey;
 import org.apache.hadoop.yarn.api.records.YarnApplicationState;
 import org.apache.http.client.utils.URIUtils;
 
@@ -80,8 +79,7 @@ public class FlinkProxyServlet extends ProxyServlet {
       } else {
         try {
           String key = authorizationHeader.substring(ApiKeyFilter.API_KEY.length()).trim();
-          ApiKey apiKey = apiKeyController.getApiKey(key);
-          user = apiKey.getUser();
+          user = apiKeyController.verifyKey(key).getUser();
         } catch (ApiKeyException e) {
           servletResponse.sendError(401, "Could not validate API key");
           return;
@@ -54,6 +54,7 @@ import io.hops.hopsworks.common.hdfs.DistributedFileSystemOps;
 import io.hops.hopsworks.common.hdfs.DistributedFsService;
 import io.hops.hopsworks.common.hdfs.HdfsUsersController;
 import io.hops.hopsworks.common.project.ProjectController;
+import io.hops.hopsworks.common.util.DownloadMetrics;
 import io.hops.hopsworks.common.util.LongRunningHttpRequests;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.DatasetException;
@@ -71,6 +72,7 @@ import io.hops.hopsworks.restutils.RESTCodes;
 import io.swagger.annotations.ApiOperation;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IOUtils;
 
 import javax.ejb.EJB;
 import javax.ejb.TransactionAttribute;
@@ -82,21 +84,25 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.StreamingOutput;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.javatuples.Pair;
-
 @RequestScoped
 @TransactionAttribute(TransactionAttributeType.NEVER)
 public class DownloadService {
 
   private static final Logger LOGGER = Logger.getLogger(DownloadService.class.getName());
+  private static final String RANGE = "Range";
+  private static final String ACCEPT_RANGES = "Accept-Ranges";
+  private static final String CONTENT_RANGE = "Content-Range";
+  private static final String BYTES_UNIT = "bytes";
 
   @EJB
   private DistributedFsService dfs;
@@ -116,6 +122,8 @@ public class DownloadService {
   private DatasetHelper datasetHelper;
   @EJB
   private LongRunningHttpRequests longRunningHttpRequests;
+  @EJB
+  private DownloadMetrics downloadMetrics;
 
   public DownloadService() {
   }
@@ -187,7 +195,7 @@ public class DownloadService {
     String fullPath = datasetPath.getFullPath().toString();
     DecodedJWT djwt = jWTHelper.verifyOneTimeToken(token, fullPath);
     Users user = userFacade.findByUsername(djwt.getSubject());
-    return download(project, datasetPath, user);
+    return download(project, datasetPath, user, req.getHeader(RANGE));
   }
 
   @GET
@@ -206,15 +214,13 @@ public class DownloadService {
     Project project = this.getProject();
     DatasetPath datasetPath = datasetHelper.getDatasetPathIfFileExist(project, path, datasetType);
     Users user = jWTHelper.getUserPrincipal(sc);
-    return download(project, datasetPath, user);
+    return download(project, datasetPath, user, req.getHeader(RANGE));
   }
 
-  private Response download(Project project, DatasetPath datasetPath, Users user) throws DatasetException {
+  private Response download(Project project, DatasetPath datasetPath, Users user, String range)
+    throws DatasetException {
     doCheck();
-    Pair<Path, StreamingOutput> pathStreamPair = downloadFromHDFS(project, datasetPath, user);
-    Response.ResponseBuilder response = Response.ok(pathStreamPair.getValue1());
-    response.header("Content-disposition", "attachment; filename=\"" + pathStreamPair.getValue0().getName() + "\"");
-    return response.build();
+    return downloadFromHDFS(project, datasetPath, user, range);
   }
 
   private void doCheck() throws DatasetException {
@@ -233,9 +239,10 @@ public class DownloadService {
    * @param project
    * @param datasetPath
    * @param user
+   * @param range value of the Range header, null to download the whole file
    * @return
    */
-  private Pair<Path, StreamingOutput> downloadFromHDFS(Project project, DatasetPath datasetPath, Users user)
+  private Response downloadFromHDFS(Project project, DatasetPath datasetPath, Users user, String range)
     throws DatasetException {
 
     String fullPath = datasetPath.getFullPath().toString();
@@ -245,47 +252,168 @@ public class DownloadService {
     if (ds.isShared(project) && ds.getFilePermissions().equals(DatasetPermissions.OWNER_ONLY) && !ds.isPublicDs()) {
       throw new DatasetException(RESTCodes.DatasetErrorCode.DOWNLOAD_ERROR, Level.FINE);
     }
+    if (projectUsername == null) {
+      throw new DatasetException(RESTCodes.DatasetErrorCode.DOWNLOAD_ERROR, Level.WARNING);
+    }
 
-    FSDataInputStream stream;
-    DistributedFileSystemOps udfso;
+    DistributedFileSystemOps udfso = dfs.getDfsOps(projectUsername);
+    FSDataInputStream stream = null;
     try {
-      if (projectUsername != null) {
-        udfso = dfs.getDfsOps(projectUsername);
-        Path p = new Path(fullPath);
-        stream = udfso.open(p);
-        return new Pair<>(p, buildOutputStream(stream, udfso));
-
+      Path p = new Path(fullPath);
+      long fileLength = udfso.getFileStatus(p).getLen();
+      ByteRange byteRange = ByteRange.parse(range, fileLength);
+      if (byteRange != null) {
+        downloadMetrics.rangeRequested();
+      }
+      if (byteRange != null && !byteRange.isSatisfiable()) {
+        dfs.closeDfsClient(udfso);
+        return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+          .header(CONTENT_RANGE, BYTES_UNIT + " */" + fileLength)
+          .build();
+      }
+      stream = udfso.open(p);
+      setReadahead(stream);
+      Response.ResponseBuilder response;
+      if (byteRange == null) {
+        response = Response.ok(buildOutputStream(stream, udfso, p, 0, fileLength))
+          .header(HttpHeaders.CONTENT_LENGTH, fileLength);
       } else {
-        throw new DatasetException(RESTCodes.DatasetErrorCode.DOWNLOAD_ERROR, Level.WARNING);
+        response = Response.status(Response.Status.PARTIAL_CONTENT)
+          .entity(buildOutputStream(stream, udfso, p, byteRange.getStart(), byteRange.getLength()))
+          .header(CONTENT_RANGE,
+            BYTES_UNIT + " " + byteRange.getStart() + "-" + byteRange.getEnd() + "/" + fileLength)
+          .header(HttpHeaders.CONTENT_LENGTH, byteRange.getLength());
       }
-
+      return response.header(ACCEPT_RANGES, BYTES_UNIT)
+        .header("Content-disposition", "attachment; filename=\"" + p.getName() + "\"")
+        .build();
     } catch (IOException ex) {
+      // the client goes back to the pool, it must not keep the stream open
+      IOUtils.closeStream(stream);
+      dfs.closeDfsClient(udfso);
       throw new DatasetException(RESTCodes.DatasetErrorCode.DOWNLOAD_ERROR, Level.SEVERE, "path: " + fullPath,
         ex.getMessage(), ex);
     }
   }
 
+  private void setReadahead(FSDataInputStream stream) throws IOException {
+    try {
+      stream.setReadahead(settings.getDownloadReadahead());
+    } catch (UnsupportedOperationException e) {
+      LOGGER.log(Level.FINE, "Readahead not supported by the input stream", e);
+    }
+  }
+
   /**
+   * Copies count bytes starting at offset start of the file to the response.
    *
    * @param stream
    * @return
    */
-  private StreamingOutput buildOutputStream(final FSDataInputStream stream, final DistributedFileSystemOps udfso) {
+  private StreamingOutput buildOutputStream(final FSDataInputStream stream, final DistributedFileSystemOps udfso,
+    final Path path, final long start, final long count) {
+    final int bufferSize = (int) Math.max(1, Math.min(settings.getDownloadBufferSize(), count));
     return out -> {
       longRunningHttpRequests.increment();
-      try {
+      long startTime = System.nanoTime();
+      long copied = 0;
+      try (FSDataInputStream in = stream) {
+        if (start > 0) {
+          in.seek(start);
+        }
+        byte[] buffer = new byte[bufferSize];
         int length;
-        byte[] buffer = new byte[1024];
-        while ((length = stream.read(buffer)) != -1) {
+        while (copied < count && (length = in.read(buffer, 0, (int) Math.min(buffer.length, count - copied))) != -1) {
           out.write(buffer, 0, length);
+          copied += length;
         }
         out.flush();
-        stream.close();
       } finally {
         longRunningHttpRequests.decrement();
         dfs.closeDfsClient(udfso);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        downloadMetrics.downloaded(copied, millis);
+        LOGGER.log(Level.FINE, "Downloaded {0} of {1} bytes of {2} in {3} ms, {4} KB/s",
+          new Object[]{copied, count, path, millis, copied * 1000 / Math.max(millis, 1) / 1024});
       }
     };
   }
 
+  /**
+   * A single byte range of a Range request header, see RFC 7233.
+   */
+  static class ByteRange {
+    private final long start;
+    private final long end;
+    private final boolean satisfiable;
+
+    private ByteRange(long start, long end, boolean satisfiable) {
+      this.start = start;
+      this.end = end;
+      this.satisfiable = satisfiable;
+    }
+
+    /**
+     * @param range value of the Range header
+     * @param fileLength
+     * @return the requested range, or null if the whole file should be sent. Headers that can not be parsed and
+     * requests for multiple ranges are ignored.
+     */
+    static ByteRange parse(String range, long fileLength) {
+      if (range == null || !range.startsWith(BYTES_UNIT + "=") || range.contains(",")) {
+        return null;
+      }
+      String spec = range.substring(BYTES_UNIT.length() + 1).trim();
+      int dash = spec.indexOf('-');
+      if (dash < 0) {
+        return null;
+      }
+      String first = spec.substring(0, dash).trim();
+      String last = spec.substring(dash + 1).trim();
+      try {
+        long start;
+        long end;
+        if (first.isEmpty()) {
+          // suffix range, the last bytes of the file
+          if (last.isEmpty()) {
+            return null;
+          }
+          long suffix = Long.parseLong(last);
+          start = Math.max(0, fileLength - suffix);
+          end = fileLength - 1;
+          if (suffix <= 0) {
+            return new ByteRange(start, end, false);
+          }
+        } else {
+          start = Long.parseLong(first);
+          // an open-ended range starting at or past the end of the file is unsatisfiable, not invalid
+          end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+          if (start < 0 || end < start) {
+            return null;
+          }
+          end = Math.min(end, fileLength - 1);
+        }
+        return new ByteRange(start, end, start < fileLength);
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+
+    long getStart() {
+      return start;
+    }
+
+    long getEnd() {
+      return end;
+    }
+
+    long getLength() {
+      return end - start + 1;
+    }
+
+    boolean isSatisfiable() {
+      return satisfiable;
+    }
+  }
+
 }
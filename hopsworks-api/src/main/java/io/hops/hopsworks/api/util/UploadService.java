@@ -93,7 +93,12 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -123,6 +128,8 @@ public class UploadService {
   private HdfsUsersController hdfsUsersBean;
   @EJB
   private ProjectFacade projectFacade;
+  @EJB
+  private ResumableInfoStorage resumableInfoStorage;
 
   private String path;
   private DatasetType datasetType;
@@ -313,32 +320,46 @@ public class UploadService {
       this.path);
     String fileName = info.getResumableFilename();
 
-    long content_length;
-    //Seek to position
-    try (RandomAccessFile raf = new RandomAccessFile(info.getResumableFilePath(), "rw");
-         InputStream is = uploadedInputStream) {
-      //Seek to position
-      raf.seek((resumableChunkNumber - 1) * (long) info.getResumableChunkSize());
+    long content_length = HttpUtils.toLong(flowCurrentChunkSize, -1);
+    ResumableInfo.ResumableChunkNumber chunkNumber = new ResumableInfo.ResumableChunkNumber(resumableChunkNumber);
+    if (!info.isValidChunk(chunkNumber)) {
+      throw new DatasetException(RESTCodes.DatasetErrorCode.UPLOAD_RESUMABLEINFO_INVALID, Level.FINE,
+        "Chunk number " + resumableChunkNumber + " is out of range, the upload has at most " + info.getTotalChunks()
+          + " chunks");
+    }
+    //Chunks of the same file can be uploaded in parallel, each one writes at its own position
+    long position = (resumableChunkNumber - 1) * (long) info.getResumableChunkSize();
+    if (content_length < 0 || position + content_length > info.getResumableTotalSize()) {
+      throw new DatasetException(RESTCodes.DatasetErrorCode.UPLOAD_RESUMABLEINFO_INVALID, Level.FINE,
+        "Chunk " + resumableChunkNumber + " of " + content_length + " bytes does not fit in the file");
+    }
+    try (FileChannel channel = FileChannel.open(Paths.get(info.getResumableFilePath()), StandardOpenOption.CREATE,
+           StandardOpenOption.WRITE);
+         ReadableByteChannel in = Channels.newChannel(uploadedInputStream)) {
       //Save to file
       long readed = 0;
-      content_length = HttpUtils.toLong(flowCurrentChunkSize, -1);
-      byte[] bytes = new byte[1024 * 1024];//Default chunk size for ng-flow.js is set to chunkSize: 1024 * 1024
+      //Default chunk size for ng-flow.js is set to chunkSize: 1024 * 1024
+      ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(1, Math.min(content_length, 1024 * 1024)));
       while (readed < content_length) {
-        int r = is.read(bytes);
+        int r = in.read(buffer);
         if (r < 0) {
           break;
         }
-        raf.write(bytes, 0, r);
-        readed += r;
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+          readed += channel.write(buffer, position + readed);
+        }
+        buffer.clear();
       }
+      resumableInfoStorage.chunkUploaded(readed);
     }
 
     boolean finished = false;
 
     //Mark as uploaded and check if finished
-    if (info.addChunkAndCheckIfFinished(new ResumableInfo.ResumableChunkNumber(resumableChunkNumber), content_length)) {
+    if (info.addChunkAndCheckIfFinished(chunkNumber, content_length)) {
       //Check if all chunks uploaded, and change filename
-      ResumableInfoStorage.getInstance().remove(info);
+      resumableInfoStorage.uploadFinished(info);
       logger.log(Level.INFO, "All finished.");
       finished = true;
     } else {
@@ -420,12 +441,10 @@ public class UploadService {
     //Here we add a ".temp" to every upload file to indicate NON-FINISHED
     String resumableFilePath = file.getAbsolutePath() + ".temp";
 
-    ResumableInfoStorage storage = ResumableInfoStorage.getInstance();
-
-    ResumableInfo info = storage.get(resumableChunkSize, resumableTotalSize, resumableIdentifier, resumableFilename,
-      resumableRelativePath, resumableFilePath);
+    ResumableInfo info = resumableInfoStorage.get(resumableChunkSize, resumableTotalSize, resumableIdentifier,
+      resumableFilename, resumableRelativePath, resumableFilePath);
     if (!info.valid()) {
-      storage.remove(info);
+      resumableInfoStorage.remove(info);
       throw new DatasetException(RESTCodes.DatasetErrorCode.UPLOAD_RESUMABLEINFO_INVALID, Level.WARNING);
     }
     return info;
@@ -463,12 +482,10 @@ public class UploadService {
     //Here we add a ".temp" to every upload file to indicate NON-FINISHED
     String resumableFilePath = file.getAbsolutePath() + ".temp";
 
-    ResumableInfoStorage storage = ResumableInfoStorage.getInstance();
-
-    ResumableInfo info = storage.get(resumableChunkSize, resumableTotalSize, flowIdentifier, flowFilename,
+    ResumableInfo info = resumableInfoStorage.get(resumableChunkSize, resumableTotalSize, flowIdentifier, flowFilename,
       flowRelativePath, resumableFilePath);
     if (!info.valid()) {
-      storage.remove(info);
+      resumableInfoStorage.remove(info);
       throw new DatasetException(RESTCodes.DatasetErrorCode.UPLOAD_RESUMABLEINFO_INVALID, Level.WARNING);
     }
     return info;
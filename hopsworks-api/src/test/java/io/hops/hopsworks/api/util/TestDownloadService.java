@@ -0,0 +1,99 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.api.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestDownloadService {
+  
+  private static final long FILE_LENGTH = 1000;
+  
+  @Test
+  public void testParse_closedRange() {
+    DownloadService.ByteRange range = DownloadService.ByteRange.parse("bytes=0-499", FILE_LENGTH);
+    assertRange(range, 0, 499);
+    Assert.assertEquals(500, range.getLength());
+  }
+  
+  @Test
+  public void testParse_endPastFileIsClamped() {
+    assertRange(DownloadService.ByteRange.parse("bytes=900-1500", FILE_LENGTH), 900, 999);
+  }
+  
+  @Test
+  public void testParse_openEndedRange() {
+    assertRange(DownloadService.ByteRange.parse("bytes=500-", FILE_LENGTH), 500, 999);
+    assertRange(DownloadService.ByteRange.parse("bytes=999-", FILE_LENGTH), 999, 999);
+  }
+  
+  @Test
+  public void testParse_suffixRange() {
+    assertRange(DownloadService.ByteRange.parse("bytes=-200", FILE_LENGTH), 800, 999);
+  }
+  
+  @Test
+  public void testParse_suffixLongerThanFile() {
+    assertRange(DownloadService.ByteRange.parse("bytes=-2000", FILE_LENGTH), 0, 999);
+  }
+  
+  @Test
+  public void testParse_emptySuffixIsUnsatisfiable() {
+    assertUnsatisfiable(DownloadService.ByteRange.parse("bytes=-0", FILE_LENGTH));
+  }
+  
+  @Test
+  public void testParse_startAtOrPastEndIsUnsatisfiable() {
+    assertUnsatisfiable(DownloadService.ByteRange.parse("bytes=1000-", FILE_LENGTH));
+    assertUnsatisfiable(DownloadService.ByteRange.parse("bytes=1000-1500", FILE_LENGTH));
+    assertUnsatisfiable(DownloadService.ByteRange.parse("bytes=5000-", FILE_LENGTH));
+  }
+  
+  @Test
+  public void testParse_emptyFileIsUnsatisfiable() {
+    assertUnsatisfiable(DownloadService.ByteRange.parse("bytes=0-", 0));
+    assertUnsatisfiable(DownloadService.ByteRange.parse("bytes=-10", 0));
+  }
+  
+  @Test
+  public void testParse_multipleRangesAreIgnored() {
+    Assert.assertNull(DownloadService.ByteRange.parse("bytes=0-1,5-10", FILE_LENGTH));
+  }
+  
+  @Test
+  public void testParse_malformedRangesAreIgnored() {
+    Assert.assertNull(DownloadService.ByteRange.parse(null, FILE_LENGTH));
+    Assert.assertNull(DownloadService.ByteRange.parse("", FILE_LENGTH));
+    Assert.assertNull(DownloadService.ByteRange.parse("items=0-1", FILE_LENGTH));
+    Assert.assertNull(DownloadService.ByteRange.parse("bytes=abc", FILE_LENGTH));
+    Assert.assertNull(DownloadService.ByteRange.parse("bytes=a-b", FILE_LENGTH));
+    Assert.assertNull(DownloadService.ByteRange.parse("bytes=-", FILE_LENGTH));
+    Assert.assertNull(DownloadService.ByteRange.parse("bytes=5-3", FILE_LENGTH));
+    Assert.assertNull(DownloadService.ByteRange.parse("bytes=-5-3", FILE_LENGTH));
+  }
+  
+  private void assertRange(DownloadService.ByteRange range, long start, long end) {
+    Assert.assertNotNull(range);
+    Assert.assertTrue(range.isSatisfiable());
+    Assert.assertEquals(start, range.getStart());
+    Assert.assertEquals(end, range.getEnd());
+  }
+  
+  private void assertUnsatisfiable(DownloadService.ByteRange range) {
+    Assert.assertNotNull(range);
+    Assert.assertFalse(range.isSatisfiable());
+  }
+}
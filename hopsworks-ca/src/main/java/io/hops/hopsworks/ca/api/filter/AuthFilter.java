@@ -24,6 +24,7 @@ import io.hops.hopsworks.restutils.JsonResponse;
 import io.hops.hopsworks.restutils.RESTCodes;
 import io.hops.hopsworks.jwt.AlgorithmFactory;
 import io.hops.hopsworks.jwt.JWTController;
+import io.hops.hopsworks.jwt.VerifiedTokenCache;
 import io.hops.hopsworks.jwt.annotation.JWTRequired;
 import io.hops.hopsworks.jwt.exception.SigningKeyNotFoundException;
 import io.hops.hopsworks.jwt.filter.JWTFilter;
@@ -54,6 +55,8 @@ public class AuthFilter extends JWTFilter {
   @EJB
   private AlgorithmFactory algorithmFactory;
   @EJB
+  private VerifiedTokenCache verifiedTokenCache;
+  @EJB
   private CAConf CAConf;
 
   @Context
@@ -66,6 +69,16 @@ public class AuthFilter extends JWTFilter {
     return algorithmFactory.getAlgorithm(jwt);
   }
 
+  @Override
+  public DecodedJWT getVerifiedToken(String token, String issuer) {
+    return verifiedTokenCache.get(token, issuer);
+  }
+
+  @Override
+  public void tokenVerified(String token, String issuer, DecodedJWT jwt, int expLeeway) {
+    verifiedTokenCache.put(token, issuer, jwt, expLeeway);
+  }
+
   @Override
   public boolean isTokenValid(DecodedJWT jwt) {
     return !jwtController.isTokenInvalidated(jwt);
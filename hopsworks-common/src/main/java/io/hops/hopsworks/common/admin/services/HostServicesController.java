@@ -15,14 +15,11 @@
  */
 package io.hops.hopsworks.common.admin.services;
 
-import io.hops.hopsworks.common.agent.AgentController;
 import io.hops.hopsworks.common.dao.kagent.HostServicesFacade;
-import io.hops.hopsworks.common.hosts.HostsController;
 import io.hops.hopsworks.common.util.WebCommunication;
 import io.hops.hopsworks.exceptions.GenericException;
 import io.hops.hopsworks.exceptions.ServiceException;
 import io.hops.hopsworks.persistence.entity.host.Hosts;
-import io.hops.hopsworks.persistence.entity.host.ServiceStatus;
 import io.hops.hopsworks.persistence.entity.kagent.Action;
 import io.hops.hopsworks.persistence.entity.kagent.HostServices;
 import io.hops.hopsworks.restutils.RESTCodes;
@@ -32,7 +29,6 @@ import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.ws.rs.core.Response;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -48,8 +44,6 @@ public class HostServicesController {
   private HostServicesFacade hostServicesFacade;
   @EJB
   private WebCommunication web;
-  @EJB
-  private HostsController hostsController;
   
   private static final Logger LOGGER = Logger.getLogger(HostServicesController.class.getName());
   
@@ -146,70 +140,4 @@ public class HostServicesController {
     }
     return result.toString();
   }
-  
-  public List<HostServices> updateHostServices(AgentController.AgentHeartbeatDTO heartbeat) throws ServiceException {
-    Hosts host = hostsController.findByHostname(heartbeat.getHostId());
-    final List<HostServices> hostServices = new ArrayList<>(heartbeat.getServices().size());
-    for (final AgentController.AgentServiceDTO service : heartbeat.getServices()) {
-      final String name = service.getName();
-      final String group = service.getGroup();
-      HostServices hostService;
-      try {
-        hostService = hostServicesFacade.findByHostnameServiceNameGroup(heartbeat.getHostId(), group, name)
-          .orElse(null);
-      } catch (Exception ex) {
-        LOGGER.log(Level.WARNING, "Could not find service for " + heartbeat.getHostId() + "/" + group + "/" + name);
-        continue;
-      }
-      
-      if (hostService == null) {
-        hostService = new HostServices();
-        hostService.setHost(host);
-        hostService.setGroup(group);
-        hostService.setName(name);
-        hostService.setStartTime(heartbeat.getAgentTime());
-      }
-      
-      final Integer pid = service.getPid() != null ? service.getPid(): -1;
-      hostService.setPid(pid);
-      if (service.getStatus() != null) {
-        if ((hostService.getStatus() == null || hostService.getStatus() != ServiceStatus.Started)
-          && service.getStatus() == ServiceStatus.Started) {
-          hostService.setStartTime(heartbeat.getAgentTime());
-        }
-        hostService.setStatus(service.getStatus());
-      } else {
-        hostService.setStatus(ServiceStatus.None);
-      }
-      
-      if (service.getStatus() == ServiceStatus.Started) {
-        hostService.setStopTime(heartbeat.getAgentTime());
-      }
-      final Long startTime = hostService.getStartTime();
-      final Long stopTime = hostService.getStopTime();
-      if (startTime != null && stopTime != null) {
-        hostService.setUptime(stopTime - startTime);
-      } else {
-        hostService.setUptime(0L);
-      }
-      
-      store(hostService);
-      hostServices.add(hostService);
-    }
-    return hostServices;
-  }
-  
-  public void store(HostServices service) {
-    Optional<HostServices> s = hostServicesFacade.findByHostnameServiceNameGroup(
-      service.getHost().getHostname(),
-      service.getGroup(),
-      service.getName());
-    
-    if (s.isPresent()) {
-      service.setId(s.get().getId());
-      hostServicesFacade.update(service);
-    } else {
-      hostServicesFacade.save(service);
-    }
-  }
 }
@@ -16,7 +16,6 @@
 
 package io.hops.hopsworks.common.agent;
 
-import io.hops.hopsworks.common.admin.services.HostServicesController;
 import io.hops.hopsworks.common.dao.command.HeartbeatReplyDTO;
 import io.hops.hopsworks.common.dao.command.SystemCommandFacade;
 import io.hops.hopsworks.common.dao.host.HostsFacade;
@@ -34,7 +33,6 @@ import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Date;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -54,7 +52,7 @@ public class AgentController {
   @EJB
   private HostsController hostsController;
   @EJB
-  private HostServicesController hostServicesController;
+  private HostHeartbeatBuffer hostHeartbeatBuffer;
 
   public void register(String hostId, String password) throws ServiceException {
     Hosts host = hostsController.findByHostname(hostId);
@@ -74,8 +72,8 @@ public class AgentController {
     }
 
     agentLivenessMonitor.alive(host);
-    updateHostMetrics(host, heartbeat);
-    updateServices(heartbeat);
+    // Host metrics and services are written to the database in batches by the buffer
+    hostHeartbeatBuffer.heartbeat(host, heartbeat);
     processSystemCommands(heartbeat);
 
     if (heartbeat.recover != null && heartbeat.recover) {
@@ -112,19 +110,6 @@ public class AgentController {
     response.setSystemCommands(newSystemCommands);
   }
 
-  private void updateHostMetrics(final Hosts host, final AgentHeartbeatDTO heartbeat) {
-    host.setLastHeartbeat(new Date().getTime());
-    host.setNumGpus(heartbeat.numGpus);
-    host.setPrivateIp(heartbeat.privateIp);
-    host.setCores(heartbeat.cores);
-    host.setMemoryCapacity(heartbeat.memoryCapacity);
-    hostsFacade.update(host);
-  }
-
-  private void updateServices(AgentHeartbeatDTO heartbeat) throws ServiceException {
-    hostServicesController.updateHostServices(heartbeat);
-  }
-
   private void processSystemCommands(AgentHeartbeatDTO heartbeat) {
     if (heartbeat.systemCommands == null) {
       return;
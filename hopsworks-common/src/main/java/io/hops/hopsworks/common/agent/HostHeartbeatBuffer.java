@@ -0,0 +1,463 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.agent;
+
+import io.hops.hopsworks.common.dao.host.HostsFacade;
+import io.hops.hopsworks.common.dao.kagent.HostServicesFacade;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.persistence.entity.host.Hosts;
+import io.hops.hopsworks.persistence.entity.host.ServiceStatus;
+import io.hops.hopsworks.persistence.entity.kagent.HostServices;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.Timeout;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Latest state of the hosts and their services as reported by the kagent heartbeats. Heartbeats only update this
+ * in-memory state, the hosts and services that changed since the last flush are written to the database every
+ * kagent_heartbeat_flush_interval, in one transaction.
+ * <p/>
+ * The admin hosts and services APIs and the nodemanager check before starting a job overlay this state on the rows
+ * they read, so they see the latest heartbeat even if it is not flushed yet. With several Hopsworks instances the heartbeats of a host may be received by
+ * another instance, rows with a newer heartbeat than the one in memory are neither overlaid nor overwritten.
+ * <p/>
+ * What a flush writes is marked as written once its transaction commits. If it rolls back, it is written again by
+ * the next flush.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class HostHeartbeatBuffer {
+
+  private static final Logger LOGGER = Logger.getLogger(HostHeartbeatBuffer.class.getName());
+
+  @EJB
+  private Settings settings;
+  @EJB
+  private HostsFacade hostsFacade;
+  @EJB
+  private HostServicesFacade hostServicesFacade;
+  @Resource
+  private TimerService timerService;
+  @Resource
+  private TransactionSynchronizationRegistry txRegistry;
+
+  // Key is the hostname
+  private final ConcurrentMap<String, HostState> hosts = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  public void init() {
+    long interval = settings.getKagentHeartbeatFlushInterval();
+    timerService.createIntervalTimer(interval, interval, new TimerConfig("kagent heartbeat flush", false));
+  }
+
+  /**
+   * Apply a heartbeat to the state of the host and its services.
+   *
+   * @param host registered host that sent the heartbeat
+   * @param heartbeat
+   */
+  public void heartbeat(Hosts host, AgentController.AgentHeartbeatDTO heartbeat) {
+    HostState state = hosts.get(host.getHostname());
+    if (state == null) {
+      // Loaded outside of the map, the query must not block the other hosts of its bin. If two heartbeats of the
+      // same host race, the first state put in the map is kept.
+      HostState loaded = loadHostState(host);
+      state = hosts.putIfAbsent(host.getHostname(), loaded);
+      if (state == null) {
+        state = loaded;
+      }
+    }
+    synchronized (state) {
+      state.lastHeartbeat = System.currentTimeMillis();
+      state.numGpus = heartbeat.getNumGpus();
+      state.privateIp = heartbeat.getPrivateIp();
+      state.cores = heartbeat.getCores();
+      state.memoryCapacity = heartbeat.getMemoryCapacity();
+      state.dirty = true;
+      if (heartbeat.getServices() == null) {
+        return;
+      }
+      for (AgentController.AgentServiceDTO service : heartbeat.getServices()) {
+        ServiceState serviceState = state.services.computeIfAbsent(serviceKey(service.getGroup(), service.getName()),
+          k -> new ServiceState(service.getGroup(), service.getName(), heartbeat.getAgentTime()));
+        updateService(serviceState, service, heartbeat.getAgentTime());
+      }
+    }
+  }
+
+  /**
+   * Overlay the latest heartbeat on a host read from the database. The host must not be managed by a persistence
+   * context.
+   *
+   * @param host
+   */
+  public void overlay(Hosts host) {
+    HostState state = host != null ? hosts.get(host.getHostname()) : null;
+    if (state == null) {
+      return;
+    }
+    synchronized (state) {
+      if (!isLatest(state, host)) {
+        return;
+      }
+      host.setLastHeartbeat(state.lastHeartbeat);
+      host.setNumGpus(state.numGpus);
+      host.setPrivateIp(state.privateIp);
+      host.setCores(state.cores);
+      host.setMemoryCapacity(state.memoryCapacity);
+    }
+  }
+
+  /**
+   * Overlay the latest heartbeat on a service read from the database. The service must not be managed by a
+   * persistence context.
+   *
+   * @param service
+   */
+  public void overlay(HostServices service) {
+    HostState state = service != null ? hosts.get(service.getHost().getHostname()) : null;
+    if (state == null) {
+      return;
+    }
+    synchronized (state) {
+      // Services carry no heartbeat time, the one of their host tells which state is the latest
+      if (!isLatest(state, service.getHost())) {
+        return;
+      }
+      ServiceState serviceState = state.services.get(serviceKey(service.getGroup(), service.getName()));
+      if (serviceState != null) {
+        serviceState.copyTo(service);
+      }
+    }
+  }
+
+  // Callers must hold the lock of the state
+  private boolean isLatest(HostState state, Hosts host) {
+    // The host may already be overlaid, an equal heartbeat is the same one
+    return host.getLastHeartbeat() == null
+      || (state.lastHeartbeat != null && state.lastHeartbeat >= host.getLastHeartbeat());
+  }
+
+  /**
+   * Forget the state of a host, used when the host is removed.
+   *
+   * @param hostname
+   */
+  public void remove(String hostname) {
+    hosts.remove(hostname);
+  }
+
+  @Timeout
+  @TransactionAttribute(TransactionAttributeType.REQUIRED)
+  public void flush() {
+    int hostUpdates = 0;
+    int serviceUpdates = 0;
+    List<FlushedHost> flushed = new ArrayList<>();
+    // Registered first, the flags cleared before a failure must be set again
+    txRegistry.registerInterposedSynchronization(new FlushCompletion(flushed));
+    for (Map.Entry<String, HostState> entry : hosts.entrySet()) {
+      HostState state = entry.getValue();
+      HostState snapshot;
+      Long written;
+      FlushedHost flushedHost = new FlushedHost(state);
+      List<ServiceState> services = new ArrayList<>();
+      List<ServiceState> dirtyServices = new ArrayList<>();
+      synchronized (state) {
+        if (!state.dirty) {
+          continue;
+        }
+        state.dirty = false;
+        flushed.add(flushedHost);
+        snapshot = state.copy();
+        written = state.writtenHeartbeat;
+        for (Map.Entry<String, ServiceState> service : state.services.entrySet()) {
+          ServiceState copy = service.getValue().copy();
+          services.add(copy);
+          if (service.getValue().dirty) {
+            service.getValue().dirty = false;
+            flushedHost.clearedServices.add(service.getKey());
+            dirtyServices.add(copy);
+          }
+        }
+      }
+      Hosts host = hostsFacade.find(snapshot.hostId);
+      if (host == null) {
+        // Removed in the meantime
+        hosts.remove(entry.getKey(), state);
+        continue;
+      }
+      if (host.getLastHeartbeat() != null && snapshot.lastHeartbeat != null
+        && host.getLastHeartbeat() > snapshot.lastHeartbeat) {
+        // Another instance received a later heartbeat
+        continue;
+      }
+      if (!Objects.equals(host.getLastHeartbeat(), written)) {
+        // Another instance wrote the host since this one did, the services it wrote may differ from the ones here
+        dirtyServices = services;
+      }
+      // Only the fields that changed are written, the others are left untouched by the persistence context
+      host.setLastHeartbeat(snapshot.lastHeartbeat);
+      host.setNumGpus(snapshot.numGpus);
+      host.setPrivateIp(snapshot.privateIp);
+      host.setCores(snapshot.cores);
+      host.setMemoryCapacity(snapshot.memoryCapacity);
+      hostUpdates++;
+      flushedHost.heartbeat = snapshot.lastHeartbeat;
+      flushedHost.written = true;
+      for (ServiceState service : dirtyServices) {
+        flushService(host, service, flushedHost);
+        serviceUpdates++;
+      }
+    }
+    LOGGER.log(Level.FINE, "Flushed heartbeats of {0} hosts and {1} services", new Object[]{hostUpdates,
+      serviceUpdates});
+  }
+
+  private void flushService(Hosts host, ServiceState snapshot, FlushedHost flushedHost) {
+    HostServices hostService = null;
+    if (snapshot.id != null) {
+      hostService = hostServicesFacade.find(snapshot.id);
+    }
+    if (hostService == null) {
+      hostService = hostServicesFacade.findByHostnameServiceNameGroup(host.getHostname(), snapshot.group,
+        snapshot.name).orElse(null);
+    }
+    if (hostService == null) {
+      hostService = new HostServices();
+      hostService.setHost(host);
+      hostService.setGroup(snapshot.group);
+      hostService.setName(snapshot.name);
+      snapshot.copyTo(hostService);
+      hostServicesFacade.save(hostService);
+    } else {
+      snapshot.copyTo(hostService);
+    }
+    // The id of a new service is known once the flush committed
+    flushedHost.services.put(serviceKey(snapshot.group, snapshot.name), hostService);
+  }
+
+  private HostState loadHostState(Hosts host) {
+    HostState state = new HostState(host.getId());
+    state.lastHeartbeat = host.getLastHeartbeat();
+    state.writtenHeartbeat = host.getLastHeartbeat();
+    state.numGpus = host.getNumGpus();
+    state.privateIp = host.getPrivateIp();
+    state.cores = host.getCores();
+    state.memoryCapacity = host.getMemoryCapacity();
+    for (HostServices hostService : hostServicesFacade.findByHostname(host.getHostname())) {
+      ServiceState serviceState = new ServiceState(hostService.getGroup(), hostService.getName(), null);
+      serviceState.id = hostService.getId();
+      serviceState.pid = hostService.getPid();
+      serviceState.status = hostService.getStatus();
+      serviceState.startTime = hostService.getStartTime();
+      serviceState.stopTime = hostService.getStopTime();
+      serviceState.uptime = hostService.getUptime();
+      serviceState.dirty = false;
+      state.services.put(serviceKey(serviceState.group, serviceState.name), serviceState);
+    }
+    return state;
+  }
+
+  private void updateService(ServiceState serviceState, AgentController.AgentServiceDTO service, Long agentTime) {
+    Integer pid = service.getPid() != null ? service.getPid() : -1;
+    Long startTime = serviceState.startTime;
+    ServiceStatus status;
+    if (service.getStatus() != null) {
+      if ((serviceState.status == null || serviceState.status != ServiceStatus.Started)
+        && service.getStatus() == ServiceStatus.Started) {
+        startTime = agentTime;
+      }
+      status = service.getStatus();
+    } else {
+      status = ServiceStatus.None;
+    }
+
+    Long stopTime = service.getStatus() == ServiceStatus.Started ? agentTime : serviceState.stopTime;
+    Long uptime = startTime != null && stopTime != null ? stopTime - startTime : 0L;
+
+    // Stopped services report the same state on every heartbeat, they are only written when it changes
+    if (!Objects.equals(pid, serviceState.pid) || status != serviceState.status
+      || !Objects.equals(startTime, serviceState.startTime) || !Objects.equals(stopTime, serviceState.stopTime)
+      || !Objects.equals(uptime, serviceState.uptime)) {
+      serviceState.pid = pid;
+      serviceState.status = status;
+      serviceState.startTime = startTime;
+      serviceState.stopTime = stopTime;
+      serviceState.uptime = uptime;
+      serviceState.dirty = true;
+    }
+  }
+
+  private String serviceKey(String group, String name) {
+    return group + "/" + name;
+  }
+
+  /**
+   * Marks what a flush wrote as written once its transaction commits, or to be written again if it rolls back.
+   */
+  private class FlushCompletion implements Synchronization {
+    private final List<FlushedHost> flushed;
+
+    FlushCompletion(List<FlushedHost> flushed) {
+      this.flushed = flushed;
+    }
+
+    @Override
+    public void beforeCompletion() {
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+      boolean committed = status == Status.STATUS_COMMITTED;
+      for (FlushedHost flushedHost : flushed) {
+        HostState state = flushedHost.state;
+        synchronized (state) {
+          if (!committed) {
+            state.dirty = true;
+            for (String key : flushedHost.clearedServices) {
+              setDirty(state, key);
+            }
+            for (String key : flushedHost.services.keySet()) {
+              setDirty(state, key);
+            }
+            continue;
+          }
+          if (flushedHost.written) {
+            state.writtenHeartbeat = flushedHost.heartbeat;
+          }
+          for (Map.Entry<String, HostServices> service : flushedHost.services.entrySet()) {
+            ServiceState current = state.services.get(service.getKey());
+            if (current != null) {
+              current.id = service.getValue().getId();
+            }
+          }
+        }
+      }
+    }
+  }
+
+  // Callers must hold the lock of the state
+  private void setDirty(HostState state, String serviceKey) {
+    ServiceState current = state.services.get(serviceKey);
+    if (current != null) {
+      current.dirty = true;
+    }
+  }
+
+  private static class FlushedHost {
+    private final HostState state;
+    // The host row was written with this heartbeat
+    private boolean written;
+    private Long heartbeat;
+    // group/name of the services whose dirty flag the flush cleared
+    private final List<String> clearedServices = new ArrayList<>();
+    // Key is group/name, services written by the flush
+    private final Map<String, HostServices> services = new HashMap<>();
+
+    FlushedHost(HostState state) {
+      this.state = state;
+    }
+  }
+
+  private static class HostState {
+    private final Integer hostId;
+    private Long lastHeartbeat;
+    private Integer numGpus;
+    private String privateIp;
+    private Integer cores;
+    private Long memoryCapacity;
+    private boolean dirty;
+    // Last heartbeat this instance read or wrote to the database
+    private Long writtenHeartbeat;
+    // Key is group/name
+    private final Map<String, ServiceState> services = new ConcurrentHashMap<>();
+
+    HostState(Integer hostId) {
+      this.hostId = hostId;
+    }
+
+    HostState copy() {
+      HostState copy = new HostState(hostId);
+      copy.lastHeartbeat = lastHeartbeat;
+      copy.numGpus = numGpus;
+      copy.privateIp = privateIp;
+      copy.cores = cores;
+      copy.memoryCapacity = memoryCapacity;
+      return copy;
+    }
+  }
+
+  private static class ServiceState {
+    private final String group;
+    private final String name;
+    private Long id;
+    private Integer pid;
+    private ServiceStatus status;
+    private Long startTime;
+    private Long stopTime;
+    private Long uptime;
+    private boolean dirty = true;
+
+    ServiceState(String group, String name, Long startTime) {
+      this.group = group;
+      this.name = name;
+      this.startTime = startTime;
+    }
+
+    ServiceState copy() {
+      ServiceState copy = new ServiceState(group, name, startTime);
+      copy.id = id;
+      copy.pid = pid;
+      copy.status = status;
+      copy.stopTime = stopTime;
+      copy.uptime = uptime;
+      return copy;
+    }
+
+    void copyTo(HostServices hostService) {
+      hostService.setPid(pid);
+      hostService.setStatus(status);
+      hostService.setStartTime(startTime);
+      hostService.setStopTime(stopTime);
+      hostService.setUptime(uptime);
+    }
+  }
+}
@@ -82,6 +82,18 @@ public class CertsFacade {
     return new UserCerts();
   }
 
+  /**
+   * @return the encrypted key password of the certificates of the user in the project, a new one is generated every
+   * time the certificates are issued. Null if the user has no certificates in the project
+   */
+  public String findUserKeyPwd(String projectName, String username) {
+    TypedQuery<String> query = em.createNamedQuery("UserCerts.findUserProjectKeyPwd", String.class);
+    query.setParameter("projectname", projectName);
+    query.setParameter("username", username);
+    List<String> res = query.getResultList();
+    return res.isEmpty() ? null : res.get(0);
+  }
+
   public List<UserCerts> findAllUserCerts() {
     TypedQuery<UserCerts> query = em.createNamedQuery(
         "UserCerts.findAll", UserCerts.class);
@@ -280,7 +280,8 @@ public class DatasetFacade extends AbstractFacade<Dataset> {
   
   public enum Sorts {
     ID("ID", "d.id ", "ASC"),
-    NAME("NAME", "LOWER(d.name) ", "ASC"),
+    // Byte order, DatasetBuilder merges owned and shared datasets and compares the names the same way
+    NAME("NAME", "FUNCTION('BINARY', LOWER(d.name)) ", "ASC"),
     SEARCHABLE("SEARCHABLE", "d.searchable ", "ASC"),
     MODIFICATION_TIME("MODIFICATION_TIME", "d.inode.modificationTime ", "ASC"),
     ACCESS_TIME("ACCESS_TIME", "d.inode.accessTime ", "ASC"),
@@ -133,7 +133,8 @@ public class DatasetSharedWithFacade extends AbstractFacade<DatasetSharedWith> {
   
   public enum Sorts {
     ID("ID", "d.dataset.id ", "ASC"),
-    NAME("NAME", "LOWER(d.dataset.name) ", "ASC"),
+    // Byte order, DatasetBuilder merges owned and shared datasets and compares the names the same way
+    NAME("NAME", "FUNCTION('BINARY', LOWER(d.dataset.name)) ", "ASC"),
     SEARCHABLE("SEARCHABLE", "d.dataset.searchable ", "ASC"),
     MODIFICATION_TIME("MODIFICATION_TIME", "d.dataset.inode.modificationTime ", "ASC"),
     ACCESS_TIME("ACCESS_TIME", "d.dataset.inode.accessTime ", "ASC"),
@@ -42,11 +42,13 @@ import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import javax.ejb.Stateless;
+import javax.persistence.Cache;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.TypedQuery;
 
+import io.hops.hopsworks.persistence.entity.featurestore.Featurestore;
 import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.common.dao.AbstractFacade;
@@ -256,6 +258,18 @@ public class ProjectFacade extends AbstractFacade<Project> {
     em.merge(newProject);
   }
 
+  /**
+   * Evict a removed project from the second level cache. The project row, and the feature store rows referencing
+   * it, are deleted by the database when the project directory is removed, not through JPA.
+   * <p/>
+   * @param project
+   */
+  public void evictFromCache(Project project) {
+    Cache cache = em.getEntityManagerFactory().getCache();
+    cache.evict(Project.class, project.getId());
+    cache.evict(Featurestore.class);
+  }
+
   public void setDockerImage(Project project, String dockerImage) {
     project.setDockerImage(dockerImage);
     em.merge(project);
@@ -999,6 +999,7 @@ public class DatasetController {
       String owner = udfso.getFileStatus(sourcePath).getOwner();
 
       udfso.moveWithinHdfs(sourcePath, destPath);
+      inodeController.invalidatePath(sourcePath.toUri().getPath());
 
       // Change permissions recursively
       recChangeOwnershipAndPermission(destPath, permission, owner, group, dfso, udfso);
@@ -1134,6 +1135,7 @@ public class DatasetController {
         } else {
           success = dfso.rm(fullPath, true);
         }
+        inodeController.invalidatePath(fullPath.toUri().getPath());
       } catch (AccessControlException ae) {
         throw new DatasetException(RESTCodes.DatasetErrorCode.DATASET_ACCESS_PERMISSION_DENIED, Level.FINE,
           "path: " + fullPath.toString(), ae.getMessage(), ae);
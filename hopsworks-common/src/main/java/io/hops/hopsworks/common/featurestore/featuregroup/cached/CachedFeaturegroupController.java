@@ -30,9 +30,12 @@ import io.hops.hopsworks.common.featurestore.online.OnlineFeaturestoreController
 import io.hops.hopsworks.common.featurestore.query.ConstructorController;
 import io.hops.hopsworks.common.featurestore.query.Feature;
 import io.hops.hopsworks.common.featurestore.utils.FeaturestoreUtils;
+import io.hops.hopsworks.common.featurestore.utils.JdbcConnectionPool;
+import io.hops.hopsworks.common.hdfs.HdfsUsersController;
 import io.hops.hopsworks.common.hdfs.Utils;
 import io.hops.hopsworks.common.hive.HiveController;
 import io.hops.hopsworks.common.security.CertificateMaterializer;
+import io.hops.hopsworks.common.security.UserCertsKeyPwdCache;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.CryptoPasswordNotFoundException;
 import io.hops.hopsworks.exceptions.FeaturestoreException;
@@ -125,6 +128,12 @@ public class CachedFeaturegroupController {
   private ExpectationSuiteController expectationSuiteController;
   @EJB
   private FeaturegroupController featuregroupController;
+  @EJB
+  private JdbcConnectionPool jdbcConnectionPool;
+  @EJB
+  private HdfsUsersController hdfsUsersController;
+  @EJB
+  private UserCertsKeyPwdCache userCertsKeyPwdCache;
 
   private static final Logger LOGGER = Logger.getLogger(CachedFeaturegroupController.class.getName());
   private static final List<String> HUDI_SPEC_FEATURE_NAMES = Arrays.asList("_hoodie_record_key",
@@ -150,9 +159,15 @@ public class CachedFeaturegroupController {
    * @throws FeaturestoreException
    */
   private Connection initConnection(String databaseName, Project project, Users user) throws FeaturestoreException {
+    String hiveEndpoint;
     try {
       // Create connection url
-      String hiveEndpoint = hiveController.getHiveServerInternalEndpoint();
+      hiveEndpoint = hiveController.getHiveServerInternalEndpoint();
+    } catch (ServiceDiscoveryException e) {
+      throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.CERTIFICATES_NOT_FOUND, Level.SEVERE,
+          "project: " + project.getName() + ", hive database: " + databaseName, e.getMessage(), e);
+    }
+    try {
       //Materialize certs
       certificateMaterializer.materializeCertificatesLocal(user.getUsername(), project.getName());
 
@@ -168,7 +183,8 @@ public class CachedFeaturegroupController {
           "keyStorePassword=" + password;
   
       return DriverManager.getConnection(jdbcString);
-    } catch (FileNotFoundException | CryptoPasswordNotFoundException | ServiceDiscoveryException e) {
+    } catch (FileNotFoundException | CryptoPasswordNotFoundException e) {
+      certificateMaterializer.removeCertificatesLocal(user.getUsername(), project.getName());
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.CERTIFICATES_NOT_FOUND, Level.SEVERE,
           "project: " + project.getName() + ", hive database: " + databaseName, e.getMessage(), e);
     } catch (SQLException | IOException e) {
@@ -196,12 +212,28 @@ public class CachedFeaturegroupController {
   public FeaturegroupPreview getFeaturegroupPreview(Featuregroup featuregroup, Project project,
                                                     Users user, String partition, boolean online, int limit)
       throws SQLException, FeaturestoreException, HopsSecurityException {
+    return getFeaturegroupPreview(featuregroup, project, user, partition, online, limit, this::parseResultset);
+  }
+
+  /**
+   * Same as {@link #getFeaturegroupPreview(Featuregroup, Project, Users, String, boolean, int)} but hands the rows
+   * to the given reader instead of collecting them in a FeaturegroupPreview
+   *
+   * @param reader          consumes the result set of the preview query
+   * @return what the reader built out of the rows
+   * @throws SQLException
+   * @throws FeaturestoreException
+   * @throws HopsSecurityException
+   */
+  public <T> T getFeaturegroupPreview(Featuregroup featuregroup, Project project, Users user, String partition,
+                                      boolean online, int limit, ResultSetReader<T> reader)
+      throws SQLException, FeaturestoreException, HopsSecurityException {
     if (online && featuregroup.getCachedFeaturegroup().isOnlineEnabled()) {
-      return onlineFeaturegroupController.getFeaturegroupPreview(featuregroup, project, user, limit);
+      return onlineFeaturegroupController.getFeaturegroupPreview(featuregroup, project, user, limit, reader);
     } else if (online) {
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.FEATUREGROUP_NOT_ONLINE, Level.FINE);
     } else {
-      return getOfflineFeaturegroupPreview(featuregroup, project, user, partition, limit);
+      return getOfflineFeaturegroupPreview(featuregroup, project, user, partition, limit, reader);
     }
   }
   
@@ -220,6 +252,12 @@ public class CachedFeaturegroupController {
   public FeaturegroupPreview getOfflineFeaturegroupPreview(Featuregroup featuregroup, Project project,
                                                            Users user, String partition, int limit)
       throws FeaturestoreException, HopsSecurityException, SQLException {
+    return getOfflineFeaturegroupPreview(featuregroup, project, user, partition, limit, this::parseResultset);
+  }
+
+  public <T> T getOfflineFeaturegroupPreview(Featuregroup featuregroup, Project project, Users user,
+                                             String partition, int limit, ResultSetReader<T> reader)
+      throws FeaturestoreException, HopsSecurityException, SQLException {
     String tbl = featuregroupController.getTblName(featuregroup.getName(), featuregroup.getVersion());
 
     List<FeatureGroupFeatureDTO> features =  featuregroupController.getFeatures(featuregroup, project, user);
@@ -244,10 +282,13 @@ public class CachedFeaturegroupController {
     String db = featurestoreController.getOfflineFeaturestoreDbName(featuregroup.getFeaturestore().getProject());
     try {
       return executeReadHiveQuery(
-        select.toSqlString(new HiveSqlDialect(SqlDialect.EMPTY_CONTEXT)).getSql(), db, project, user);
+        select.toSqlString(new HiveSqlDialect(SqlDialect.EMPTY_CONTEXT)).getSql(), db, project, user, reader);
     } catch(Exception e) {
+      if (!reader.isRetryable()) {
+        throw e;
+      }
       return executeReadHiveQuery(
-        select.toSqlString(new HiveSqlDialect(SqlDialect.EMPTY_CONTEXT)).getSql(), db, project, user);
+        select.toSqlString(new HiveSqlDialect(SqlDialect.EMPTY_CONTEXT)).getSql(), db, project, user, reader);
     }
   }
 
@@ -494,13 +535,19 @@ public class CachedFeaturegroupController {
     ResultSetMetaData rsmd = rs.getMetaData();
     FeaturegroupPreview featuregroupPreview = new FeaturegroupPreview();
 
+    // the column labels are the same for every row, parse them once and share them between the rows
+    int columnCount = rsmd.getColumnCount();
+    String[] columnLabels = new String[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      columnLabels[i] = parseColumnLabel(rsmd.getColumnLabel(i + 1));
+    }
+
     while (rs.next()) {
-      FeaturegroupPreview.Row row = new FeaturegroupPreview.Row();
+      FeaturegroupPreview.Row row = new FeaturegroupPreview.Row(columnCount);
 
-      for (int i = 1; i <= rsmd.getColumnCount(); i++) {
-        Object columnValue = rs.getObject(i);
-        row.addValue(new Pair<>(parseColumnLabel(rsmd.getColumnLabel(i)),
-            columnValue == null ? null : columnValue.toString()));
+      for (int i = 0; i < columnCount; i++) {
+        Object columnValue = rs.getObject(i + 1);
+        row.addValue(new Pair<>(columnLabels[i], columnValue == null ? null : columnValue.toString()));
       }
       featuregroupPreview.addRow(row);
     }
@@ -513,9 +560,11 @@ public class CachedFeaturegroupController {
    * @param columnLabel
    * @return
    */
-  private String parseColumnLabel(String columnLabel) {
-    if (columnLabel.contains(".")) {
-      return columnLabel.split("\\.")[1];
+  static String parseColumnLabel(String columnLabel) {
+    int start = columnLabel.indexOf('.') + 1;
+    if (start > 0) {
+      int end = columnLabel.indexOf('.', start);
+      return columnLabel.substring(start, end < 0 ? columnLabel.length() : end);
     }
     return columnLabel;
   }
@@ -528,21 +577,30 @@ public class CachedFeaturegroupController {
    * @param databaseName the name of the Hive database
    * @param project      the project that owns the Hive database
    * @param user         the user making the request
-   * @return parsed resultset
+   * @param reader       consumes the result set
+   * @return what the reader built out of the result set
    * @throws SQLException
    * @throws HopsSecurityException
    * @throws FeaturestoreException
    */
-  private FeaturegroupPreview executeReadHiveQuery(String query, String databaseName, Project project, Users user)
+  private <T> T executeReadHiveQuery(String query, String databaseName, Project project, Users user,
+                                     ResultSetReader<T> reader)
       throws SQLException, FeaturestoreException, HopsSecurityException {
     Connection conn = null;
-    Statement stmt = null;
+    boolean reusable = false;
     try {
-      //Re-create the connection every time since the connection is database and user-specific
-      conn = initConnection(databaseName, project, user);
-      stmt = conn.createStatement();
-      ResultSet rs = stmt.executeQuery(query);
-      return parseResultset(rs);
+      //Connections are database and user-specific, reuse the ones opened by previous reads of the same user.
+      //The certificates stay materialized as long as the connection is open.
+      String hdfsUsername = hdfsUsersController.getHdfsUserName(project, user);
+      conn = jdbcConnectionPool.getConnection(hdfsUsername, "hive:" + databaseName,
+        userCertsKeyPwdCache.get(hdfsUsername), () -> initConnection(databaseName, project, user),
+        () -> certificateMaterializer.removeCertificatesLocal(user.getUsername(), project.getName()));
+      try (Statement stmt = conn.createStatement()) {
+        ResultSet rs = stmt.executeQuery(query);
+        T result = reader.read(rs);
+        reusable = true;
+        return result;
+      }
     } catch (SQLException e) {
       //Hive throws a generic HiveSQLException not a specific AuthorizationException
       if (e.getMessage().toLowerCase().contains("permission denied")) {
@@ -555,29 +613,7 @@ public class CachedFeaturegroupController {
             e.getMessage(), e);
       }
     } finally {
-      if (stmt != null) {
-        stmt.close();
-      }
-      closeConnection(conn, user, project);
-    }
-  }
-
-  /**
-   * Checks if the JDBC connection to HS2 is open, and if so closes it.
-   *
-   * @param conn the JDBC connection
-   * @param user the user using the connection
-   * @param project the project where the connection is used
-   */
-  private void closeConnection(Connection conn, Users user, Project project) {
-    try {
-      if (conn != null) {
-        conn.close();
-      }
-    } catch (SQLException e) {
-      LOGGER.log(Level.WARNING, "Error closing Hive JDBC connection: " +  e);
-    } finally {
-      certificateMaterializer.removeCertificatesLocal(user.getUsername(), project.getName());
+      jdbcConnectionPool.releaseConnection(conn, reusable);
     }
   }
 
@@ -0,0 +1,98 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.featurestore.featuregroup.cached;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
+import org.apache.hadoop.hive.metastore.api.SQLDefaultConstraint;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default constraints of the feature group tables, read from the Hive metastore every time a feature group DTO is
+ * built. A feature group version only changes schema through OfflineFeatureGroupController, which invalidates the
+ * entries of this instance. Other instances see the change once their entry expires.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class DefaultConstraintsCache {
+
+  private static final long MAX_SIZE = 10000;
+  private static final long TTL_SEC = 60;
+
+  // Key is db.table, the table name contains the feature group version
+  private Cache<String, List<SQLDefaultConstraint>> constraints;
+
+  @PostConstruct
+  public void init() {
+    constraints = Caffeine.newBuilder()
+      .maximumSize(MAX_SIZE)
+      .expireAfterWrite(TTL_SEC, TimeUnit.SECONDS)
+      .recordStats()
+      .build();
+    MetricsRegistry.register("defaultConstraintsCache", this::getMetrics);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("defaultConstraintsCache");
+  }
+
+  /**
+   * @return a copy of the cached constraints, or null if the table is not cached
+   */
+  public List<SQLDefaultConstraint> get(String dbName, String tableName) {
+    List<SQLDefaultConstraint> cached = constraints.getIfPresent(key(dbName, tableName));
+    return cached == null ? null : new ArrayList<>(cached);
+  }
+
+  public void put(String dbName, String tableName, List<SQLDefaultConstraint> defaultConstraints) {
+    constraints.put(key(dbName, tableName), Collections.unmodifiableList(new ArrayList<>(defaultConstraints)));
+  }
+
+  public void invalidate(String dbName, String tableName) {
+    constraints.invalidate(key(dbName, tableName));
+  }
+
+  /**
+   * @return size, hits and misses of the cache
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("tables", constraints.estimatedSize());
+    metrics.put("hits", constraints.stats().hitCount());
+    metrics.put("misses", constraints.stats().missCount());
+    return metrics;
+  }
+
+  private String key(String dbName, String tableName) {
+    return dbName + "." + tableName;
+  }
+}
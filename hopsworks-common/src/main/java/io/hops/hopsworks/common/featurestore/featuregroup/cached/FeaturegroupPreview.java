@@ -24,9 +24,14 @@ import java.util.List;
 public class FeaturegroupPreview {
 
   public static class Row {
-    private List<Pair<String, String>> values = new ArrayList<>();
+    private List<Pair<String, String>> values;
 
     public Row() {
+      values = new ArrayList<>();
+    }
+
+    public Row(int columnCount) {
+      values = new ArrayList<>(columnCount);
     }
 
     public void addValue(Pair<String, String> value) {
@@ -0,0 +1,187 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.featurestore.featuregroup.cached;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Writes the rows of a preview query to a stream as JSON while they are read from the result set:
+ * {"columns":[{"name":"id","type":"INT"}],"rows":[[1,"a"],[2,null]]}
+ * Numbers and booleans are written as JSON numbers and booleans, the other types as the same strings the
+ * FeaturegroupPreview has. Only the current row is held in memory. A writer can be used for one result set only, a
+ * retry after a failure would append to what was already written, so the query is not retried once it started reading.
+ */
+public class FeaturegroupPreviewWriter implements ResultSetReader<Long> {
+
+  // A failure must not close the open arrays and objects, so that the client gets invalid JSON instead of a truncated
+  // preview that looks complete
+  private static final JsonFactory JSON_FACTORY = new JsonFactory()
+    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+    .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+  private enum ValueType {
+    INTEGER,
+    FLOATING,
+    DECIMAL,
+    BOOLEAN,
+    STRING
+  }
+
+  private final OutputStream out;
+  private boolean used = false;
+  private IOException writeError;
+
+  public FeaturegroupPreviewWriter(OutputStream out) {
+    this.out = out;
+  }
+
+  /**
+   * @return the number of rows written
+   */
+  @Override
+  public Long read(ResultSet rs) throws SQLException {
+    if (used) {
+      throw new IllegalStateException("The preview was already written to the stream");
+    }
+    used = true;
+
+    ResultSetMetaData rsmd = rs.getMetaData();
+    int columnCount = rsmd.getColumnCount();
+    ValueType[] valueTypes = new ValueType[columnCount];
+    long rows = 0;
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+      generator.writeStartObject();
+      generator.writeArrayFieldStart("columns");
+      for (int i = 0; i < columnCount; i++) {
+        valueTypes[i] = getValueType(rsmd.getColumnType(i + 1));
+        generator.writeStartObject();
+        generator.writeStringField("name", CachedFeaturegroupController.parseColumnLabel(rsmd.getColumnLabel(i + 1)));
+        generator.writeStringField("type", rsmd.getColumnTypeName(i + 1));
+        generator.writeEndObject();
+      }
+      generator.writeEndArray();
+
+      generator.writeArrayFieldStart("rows");
+      while (rs.next()) {
+        generator.writeStartArray();
+        for (int i = 0; i < columnCount; i++) {
+          writeValue(generator, rs, i + 1, valueTypes[i]);
+        }
+        generator.writeEndArray();
+        rows++;
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+    } catch (IOException e) {
+      writeError = e;
+      throw new UncheckedIOException(e);
+    }
+    return rows;
+  }
+
+  @Override
+  public boolean isRetryable() {
+    return !used;
+  }
+
+  /**
+   * The UncheckedIOException thrown by read reaches the caller wrapped in an EJBException when the reader is passed
+   * through a bean, or not at all when the bean retries the query.
+   *
+   * @return the error writing to the stream if any
+   */
+  public IOException getWriteError() {
+    return writeError;
+  }
+
+  private ValueType getValueType(int sqlType) {
+    switch (sqlType) {
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+      case Types.BIGINT:
+        return ValueType.INTEGER;
+      case Types.REAL:
+      case Types.FLOAT:
+      case Types.DOUBLE:
+        return ValueType.FLOATING;
+      case Types.DECIMAL:
+      case Types.NUMERIC:
+        return ValueType.DECIMAL;
+      case Types.BIT:
+      case Types.BOOLEAN:
+        return ValueType.BOOLEAN;
+      default:
+        return ValueType.STRING;
+    }
+  }
+
+  private void writeValue(JsonGenerator generator, ResultSet rs, int column, ValueType valueType)
+      throws SQLException, IOException {
+    switch (valueType) {
+      case INTEGER:
+        long longValue = rs.getLong(column);
+        if (rs.wasNull()) {
+          generator.writeNull();
+        } else {
+          generator.writeNumber(longValue);
+        }
+        break;
+      case FLOATING:
+        double doubleValue = rs.getDouble(column);
+        if (rs.wasNull()) {
+          generator.writeNull();
+        } else {
+          generator.writeNumber(doubleValue);
+        }
+        break;
+      case DECIMAL:
+        BigDecimal decimalValue = rs.getBigDecimal(column);
+        if (decimalValue == null) {
+          generator.writeNull();
+        } else {
+          generator.writeNumber(decimalValue);
+        }
+        break;
+      case BOOLEAN:
+        boolean booleanValue = rs.getBoolean(column);
+        if (rs.wasNull()) {
+          generator.writeNull();
+        } else {
+          generator.writeBoolean(booleanValue);
+        }
+        break;
+      default:
+        Object value = rs.getObject(column);
+        if (value == null) {
+          generator.writeNull();
+        } else {
+          generator.writeString(value.toString());
+        }
+    }
+  }
+}
@@ -17,15 +17,11 @@
 package io.hops.hopsworks.common.featurestore.featuregroup.cached;
 
 import com.google.common.base.Strings;
-import com.logicalclocks.servicediscoverclient.exceptions.ServiceDiscoveryException;
-import com.logicalclocks.servicediscoverclient.service.Service;
 import io.hops.hopsworks.common.featurestore.FeaturestoreController;
 import io.hops.hopsworks.common.featurestore.feature.FeatureGroupFeatureDTO;
 import io.hops.hopsworks.common.hdfs.HdfsUsersController;
-import io.hops.hopsworks.common.hosts.ServiceDiscoveryController;
-import io.hops.hopsworks.common.security.CertificateMaterializer;
+import io.hops.hopsworks.common.hive.HiveMetastoreClientPool;
 import io.hops.hopsworks.common.util.Settings;
-import io.hops.hopsworks.exceptions.CryptoPasswordNotFoundException;
 import io.hops.hopsworks.exceptions.FeaturestoreException;
 import io.hops.hopsworks.exceptions.ServiceException;
 import io.hops.hopsworks.persistence.entity.featurestore.Featurestore;
@@ -47,13 +43,7 @@ import org.apache.hadoop.hive.metastore.api.ThriftHiveMetastore;
 import org.apache.hadoop.hive.metastore.api.hive_metastoreConstants;
 import org.apache.hadoop.hive.metastore.conf.MetastoreConf;
 import org.apache.hadoop.hive.serde.serdeConstants;
-import org.apache.thrift.TConfiguration;
 import org.apache.thrift.TException;
-import org.apache.thrift.protocol.TBinaryProtocol;
-import org.apache.thrift.protocol.TProtocol;
-import org.apache.thrift.transport.TSSLTransportFactory;
-import org.apache.thrift.transport.TSocket;
-import org.apache.thrift.transport.TTransport;
 
 import javax.annotation.PostConstruct;
 import javax.ejb.EJB;
@@ -80,9 +70,9 @@ public class OfflineFeatureGroupController {
   @EJB
   private Settings settings;
   @EJB
-  private CertificateMaterializer certificateMaterializer;
+  private HiveMetastoreClientPool metastoreClientPool;
   @EJB
-  private ServiceDiscoveryController serviceDiscoveryController;
+  private DefaultConstraintsCache defaultConstraintsCache;
 
   private Configuration metastoreConf;
 
@@ -93,7 +83,6 @@ public class OfflineFeatureGroupController {
   }
 
   private static final String COMMENT = "comment";
-  private static final int CONNECTION_TIMEOUT = 600000;
 
   public enum Formats {
     ORC("org.apache.hadoop.hive.ql.io.orc.OrcInputFormat",
@@ -138,7 +127,6 @@ public class OfflineFeatureGroupController {
       throws FeaturestoreException {
     String dbName = featurestoreController.getOfflineFeaturestoreDbName(featurestore.getProject());
     Table table = getEmptyTable(dbName, tableName, hdfsUsersController.getHdfsUserName(project, user), format);
-    ThriftHiveMetastore.Client client = getMetaStoreClient(project, user);
 
     // add table description, skip if null
     if (!Strings.isNullOrEmpty(tableDesc)) {
@@ -165,18 +153,26 @@ public class OfflineFeatureGroupController {
       }
     }
 
-    createTable(client, table, defaultConstraints, project, user);
-    finalizeMetastoreOperation(project, user, client);
+    ThriftHiveMetastore.Client client = getMetaStoreClient(project, user);
+    try {
+      createTable(client, table, defaultConstraints, project, user);
+    } finally {
+      finalizeMetastoreOperation(client);
+    }
+    defaultConstraintsCache.invalidate(dbName, tableName);
   }
   
   public void alterHiveTableDescription(Featurestore featurestore, String tableName, String description,
     Project project, Users user) throws FeaturestoreException {
     String dbName = featurestoreController.getOfflineFeaturestoreDbName(featurestore.getProject());
     ThriftHiveMetastore.Client client = getMetaStoreClient(project, user);
-    Table table = getTable(client, dbName, tableName, project, user);
-    table.getParameters().put(COMMENT, description);
-    alterTable(client, table, project, user);
-    finalizeMetastoreOperation(project, user, client);
+    try {
+      Table table = getTable(client, dbName, tableName, project, user);
+      table.getParameters().put(COMMENT, description);
+      alterTable(client, table, project, user);
+    } finally {
+      finalizeMetastoreOperation(client);
+    }
   }
 
   public void alterHiveTableFeatures(Featurestore featurestore, String tableName,
@@ -184,24 +180,28 @@ public class OfflineFeatureGroupController {
     String dbName = featurestoreController.getOfflineFeaturestoreDbName(featurestore.getProject());
 
     ThriftHiveMetastore.Client client = getMetaStoreClient(project, user);
-    Table table = getTable(client, dbName, tableName, project, user);
- 
-    // modify columns here
-    List<SQLDefaultConstraint> defaultConstraints = getDefaultConstraints(client, featurestore, tableName, project,
-      user);
-    for (FeatureGroupFeatureDTO featureDTO : featureDTOs) {
-      table.getSd().addToCols(
-        new FieldSchema(featureDTO.getName(), featureDTO.getType().toLowerCase(), null));
-      if (featureDTO.getDefaultValue() != null) {
-        defaultConstraints.add(new SQLDefaultConstraint(table.getCatName(), table.getDbName(),
-          table.getTableName(), featureDTO.getName(), featureDTO.getDefaultValue(),
-          dbName + "_" + tableName + "_" + featureDTO.getName() + "_dc", true, false,
-          false));
+    try {
+      Table table = getTable(client, dbName, tableName, project, user);
+
+      // modify columns here
+      List<SQLDefaultConstraint> defaultConstraints = getDefaultConstraints(client, featurestore, tableName, project,
+        user);
+      for (FeatureGroupFeatureDTO featureDTO : featureDTOs) {
+        table.getSd().addToCols(
+          new FieldSchema(featureDTO.getName(), featureDTO.getType().toLowerCase(), null));
+        if (featureDTO.getDefaultValue() != null) {
+          defaultConstraints.add(new SQLDefaultConstraint(table.getCatName(), table.getDbName(),
+            table.getTableName(), featureDTO.getName(), featureDTO.getDefaultValue(),
+            dbName + "_" + tableName + "_" + featureDTO.getName() + "_dc", true, false,
+            false));
+        }
       }
+      alterTable(client, table, project, user);
+      addDefaultConstraints(client, defaultConstraints, project, user);
+    } finally {
+      finalizeMetastoreOperation(client);
+      defaultConstraintsCache.invalidate(dbName, tableName);
     }
-    alterTable(client, table, project, user);
-    addDefaultConstraints(client, defaultConstraints, project, user);
-    finalizeMetastoreOperation(project, user, client);
   }
 
   private void createTable(ThriftHiveMetastore.Client client, Table table,
@@ -210,7 +210,7 @@ public class OfflineFeatureGroupController {
     try {
       client.create_table_with_constraints(table, null, null, null, null, defaultConstraints, null);
     } catch (TException e) {
-      finalizeMetastoreOperation(project, user, client);
+      metastoreClientPool.invalidateClient(client);
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_CREATE_FEATUREGROUP, Level.SEVERE,
           "Error creating feature group table in the Hive Metastore: " + e.getMessage(), e.getMessage(), e);
     }
@@ -218,9 +218,20 @@ public class OfflineFeatureGroupController {
   
   public List<SQLDefaultConstraint> getDefaultConstraints(Featurestore featurestore, String tableName, Project project,
                                                            Users user) throws FeaturestoreException {
+    String dbName = featurestoreController.getOfflineFeaturestoreDbName(featurestore.getProject());
+    List<SQLDefaultConstraint> constraints = defaultConstraintsCache.get(dbName, tableName);
+    if (constraints != null) {
+      return constraints;
+    }
     ThriftHiveMetastore.Client client = getMetaStoreClient(project, user);
-    List<SQLDefaultConstraint> constraints = getDefaultConstraints(client, featurestore, tableName, project, user);
-    finalizeMetastoreOperation(project, user, client);
+    try {
+      constraints = getDefaultConstraints(client, project, user, "hive", dbName, tableName);
+    } finally {
+      finalizeMetastoreOperation(client);
+    }
+    if (constraints != null) {
+      defaultConstraintsCache.put(dbName, tableName, constraints);
+    }
     return constraints;
   }
   
@@ -239,7 +250,7 @@ public class OfflineFeatureGroupController {
       DefaultConstraintsRequest constraintRequest = new DefaultConstraintsRequest(catName, dbName, tableName);
       return client.get_default_constraints(constraintRequest).getDefaultConstraints();
     } catch (TException e) {
-      finalizeMetastoreOperation(project, user, client);
+      metastoreClientPool.invalidateClient(client);
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_GET_FEATURE_GROUP_METADATA,
         Level.SEVERE, "Error getting feature group default constraints from the Hive Metastore: " + e.getMessage(),
         e.getMessage(), e);
@@ -251,7 +262,7 @@ public class OfflineFeatureGroupController {
     try {
       client.alter_table_with_cascade(table.getDbName(), table.getTableName(), table, true);
     } catch (TException e) {
-      finalizeMetastoreOperation(project, user, client);
+      metastoreClientPool.invalidateClient(client);
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_ALTER_FEAUTURE_GROUP_METADATA,
         Level.SEVERE, "Error altering feature group table in the Hive Metastore: " + e.getMessage(), e.getMessage(), e);
     }
@@ -264,7 +275,7 @@ public class OfflineFeatureGroupController {
       constraintRequest.setDefaultConstraintCols(defaultConstraints);
       client.add_default_constraint(constraintRequest);
     } catch (TException e) {
-      finalizeMetastoreOperation(project, user, client);
+      metastoreClientPool.invalidateClient(client);
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_ALTER_FEAUTURE_GROUP_METADATA,
         Level.SEVERE, "Error adding default constraints to feature group in the Hive Metastore: " + e.getMessage(),
         e.getMessage(), e);
@@ -276,7 +287,7 @@ public class OfflineFeatureGroupController {
     try {
       return client.get_table(dbName, tableName);
     } catch (TException e) {
-      finalizeMetastoreOperation(project, user, client);
+      metastoreClientPool.invalidateClient(client);
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_GET_FEATURE_GROUP_METADATA,
         Level.SEVERE, "Error getting feature group table from Hive Metastore: " + e.getMessage(), e.getMessage(), e);
     }
@@ -284,95 +295,33 @@ public class OfflineFeatureGroupController {
   
   private ThriftHiveMetastore.Client getMetaStoreClient(Project project, Users user) throws FeaturestoreException {
     try {
-      return openMetastoreClient(project, user);
+      return metastoreClientPool.borrowClient(project, user);
     } catch (ServiceException | IOException e) {
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.ERROR_CREATING_HIVE_METASTORE_CLIENT,
         Level.SEVERE, "Error opening the Hive Metastore client: " + e.getMessage(), e.getMessage(), e);
     }
   }
 
-  private void finalizeMetastoreOperation(Project project, Users user, ThriftHiveMetastore.Client client) {
-    certificateMaterializer.removeCertificatesLocal(user.getUsername(), project.getName());
-    if (client != null) {
-      try {
-        client.shutdown();
-      } catch (TException e) {
-        LOGGER.log(Level.SEVERE, "Error closing Metastore connection", e);
-      }
-    }
+  // no-op if the client was invalidated after a failure
+  private void finalizeMetastoreOperation(ThriftHiveMetastore.Client client) {
+    metastoreClientPool.returnClient(client);
   }
 
   public void dropFeatureGroup(String dbName, String tableName, Project project, Users user)
       throws FeaturestoreException, ServiceException, IOException {
-    ThriftHiveMetastore.Client client = null;
+    ThriftHiveMetastore.Client client = metastoreClientPool.borrowClient(project, user);
     try {
-      client = openMetastoreClient(project, user);
       client.drop_table(dbName, tableName, true);
     } catch (TException e) {
+      metastoreClientPool.invalidateClient(client);
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_DELETE_FEATUREGROUP, Level.SEVERE,
           "Error dropping feature group in the Hive Metastore: " +  e.getMessage(), e.getMessage(), e);
     } finally {
-      finalizeMetastoreOperation(project, user, client);
+      finalizeMetastoreOperation(client);
+      defaultConstraintsCache.invalidate(dbName, tableName);
     }
   }
 
-  // Here we can't use the HiveMetaStoreClient.java wrapper as we would need to export environment variables and so on
-  // instead we assemble directly the thirft client, which is what the HiveMetaStoreClient does behind the scenes.
-  private ThriftHiveMetastore.Client openMetastoreClient(Project project, Users user)
-      throws ServiceException, IOException {
-    String hdfsUsername = hdfsUsersController.getHdfsUserName(project, user);
-    ThriftHiveMetastore.Client client = null;
-
-    try {
-      certificateMaterializer.materializeCertificatesLocal(user.getUsername(), project.getName());
-      CertificateMaterializer.CryptoMaterial userMaterial =
-          certificateMaterializer.getUserMaterial(user.getUsername(), project.getName());
-
-      // read Password
-      String password = String.copyValueOf(userMaterial.getPassword());
-
-      // Get metastore service information from consul
-      Service metastoreService = serviceDiscoveryController
-          .getAnyAddressOfServiceWithDNS(ServiceDiscoveryController.HopsworksService.HIVE_METASTORE);
-
-      TTransport transport;
-      if (settings.getHopsRpcTls()) {
-        // Setup secure connection with the Hive metastore.
-        TSSLTransportFactory.TSSLTransportParameters params =
-            new TSSLTransportFactory.TSSLTransportParameters();
-        params.setTrustStore(certificateMaterializer.getUserTransientTruststorePath(project, user), password);
-        params.setKeyStore(certificateMaterializer.getUserTransientKeystorePath(project, user), password);
-
-        transport = TSSLTransportFactory.getClientSocket(metastoreService.getAddress(),
-            metastoreService.getPort(), CONNECTION_TIMEOUT, params);
-      } else {
-        transport = new TSocket(TConfiguration.DEFAULT, metastoreService.getAddress(), metastoreService.getPort(),
-          CONNECTION_TIMEOUT);
-      }
-
-      TProtocol protocol = new TBinaryProtocol(transport);
-      client = new ThriftHiveMetastore.Client(protocol);
-
-      // Open transport
-      if (!transport.isOpen()) {
-        transport.open();
-      }
-
-      // Set the UGI on the metastore side
-      client.set_ugi(hdfsUsername, new ArrayList<>());
-
-      if (settings.getHopsRpcTls()) {
-        // Send the certificate to the metastore so it can operate with the fs.
-        client.set_crypto(userMaterial.getKeyStore(), password, userMaterial.getTrustStore(), password, false);
-      }
-    } catch (CryptoPasswordNotFoundException | ServiceDiscoveryException | TException e) {
-      throw new ServiceException(RESTCodes.ServiceErrorCode.METASTORE_CONNECTION_ERROR, Level.SEVERE,
-          "Hive metastore connection error", e.getMessage(), e);
-    }
-
-    return client;
-  }
-
   private Table getEmptyTable(String databaseName, String tableName, String username, Formats format) {
     StorageDescriptor sd = new StorageDescriptor();
     {
@@ -0,0 +1,37 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.featurestore.featuregroup.cached;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Consumes the result set of a preview query while the statement that produced it is still open
+ *
+ * @param <T> what is built out of the rows
+ */
+@FunctionalInterface
+public interface ResultSetReader<T> {
+  T read(ResultSet rs) throws SQLException;
+
+  /**
+   * @return whether read can be called again with the result set of a new query, after a failure of the previous one
+   */
+  default boolean isRetryable() {
+    return true;
+  }
+}
@@ -24,6 +24,7 @@ import io.hops.hopsworks.common.featurestore.feature.FeatureGroupFeatureDTO;
 import io.hops.hopsworks.common.featurestore.featuregroup.FeaturegroupController;
 import io.hops.hopsworks.common.featurestore.featuregroup.cached.CachedFeaturegroupController;
 import io.hops.hopsworks.common.featurestore.featuregroup.cached.FeaturegroupPreview;
+import io.hops.hopsworks.common.featurestore.featuregroup.cached.ResultSetReader;
 import io.hops.hopsworks.common.featurestore.online.OnlineFeaturestoreController;
 import io.hops.hopsworks.common.featurestore.online.OnlineFeaturestoreFacade;
 import io.hops.hopsworks.common.featurestore.query.ConstructorController;
@@ -346,6 +347,12 @@ public class OnlineFeaturegroupController {
    */
   public FeaturegroupPreview getFeaturegroupPreview(Featuregroup featuregroup, Project project, Users user, int limit)
       throws FeaturestoreException, SQLException {
+    return getFeaturegroupPreview(featuregroup, project, user, limit, cachedFeaturegroupController::parseResultset);
+  }
+
+  public <T> T getFeaturegroupPreview(Featuregroup featuregroup, Project project, Users user, int limit,
+                                      ResultSetReader<T> reader)
+      throws FeaturestoreException, SQLException {
     String tbl = featuregroupController.getTblName(featuregroup.getName(), featuregroup.getVersion());
 
     List<FeatureGroupFeatureDTO> features =  featuregroupController.getFeatures(featuregroup, project, user);
@@ -368,10 +375,13 @@ public class OnlineFeaturegroupController {
     String db = onlineFeaturestoreController.getOnlineFeaturestoreDbName(featuregroup.getFeaturestore().getProject());
     try {
       return onlineFeaturestoreController.executeReadJDBCQuery(
-          select.toSqlString(new MysqlSqlDialect(SqlDialect.EMPTY_CONTEXT)).getSql(), db, project, user);
+          select.toSqlString(new MysqlSqlDialect(SqlDialect.EMPTY_CONTEXT)).getSql(), db, project, user, reader);
     } catch(Exception e) {
+      if (!reader.isRetryable()) {
+        throw e;
+      }
       return onlineFeaturestoreController.executeReadJDBCQuery(
-          select.toSqlString(new MysqlSqlDialect(SqlDialect.EMPTY_CONTEXT)).getSql(), db, project, user);
+          select.toSqlString(new MysqlSqlDialect(SqlDialect.EMPTY_CONTEXT)).getSql(), db, project, user, reader);
     }
   }
 
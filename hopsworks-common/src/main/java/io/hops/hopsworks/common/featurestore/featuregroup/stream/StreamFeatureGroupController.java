@@ -24,6 +24,7 @@ import io.hops.hopsworks.common.featurestore.featuregroup.FeaturegroupDTO;
 import io.hops.hopsworks.common.featurestore.featuregroup.cached.CachedFeaturegroupController;
 import io.hops.hopsworks.common.featurestore.featuregroup.cached.FeaturegroupPreview;
 import io.hops.hopsworks.common.featurestore.featuregroup.cached.OfflineFeatureGroupController;
+import io.hops.hopsworks.common.featurestore.featuregroup.cached.ResultSetReader;
 import io.hops.hopsworks.common.featurestore.featuregroup.online.OnlineFeaturegroupController;
 import io.hops.hopsworks.common.featurestore.utils.FeaturestoreUtils;
 import io.hops.hopsworks.common.hdfs.Utils;
@@ -201,12 +202,20 @@ public class StreamFeatureGroupController {
   public FeaturegroupPreview getFeaturegroupPreview(Featuregroup featuregroup, Project project,
     Users user, String partition, boolean online, int limit)
     throws SQLException, FeaturestoreException, HopsSecurityException {
+    return getFeaturegroupPreview(featuregroup, project, user, partition, online, limit,
+      cachedFeaturegroupController::parseResultset);
+  }
+
+  public <T> T getFeaturegroupPreview(Featuregroup featuregroup, Project project, Users user, String partition,
+    boolean online, int limit, ResultSetReader<T> reader)
+    throws SQLException, FeaturestoreException, HopsSecurityException {
     if (online && featuregroup.getStreamFeatureGroup().isOnlineEnabled()) {
-      return onlineFeaturegroupController.getFeaturegroupPreview(featuregroup, project, user, limit);
+      return onlineFeaturegroupController.getFeaturegroupPreview(featuregroup, project, user, limit, reader);
     } else if (online) {
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.FEATUREGROUP_NOT_ONLINE, Level.FINE);
     } else {
-      return cachedFeaturegroupController.getOfflineFeaturegroupPreview(featuregroup, project, user, partition, limit);
+      return cachedFeaturegroupController.getOfflineFeaturegroupPreview(featuregroup, project, user, partition, limit,
+        reader);
     }
   }
   
@@ -23,9 +23,13 @@ import io.hops.hopsworks.common.featurestore.FeaturestoreConstants;
 import io.hops.hopsworks.common.featurestore.OptionDTO;
 import io.hops.hopsworks.common.featurestore.featuregroup.cached.CachedFeaturegroupController;
 import io.hops.hopsworks.common.featurestore.featuregroup.cached.FeaturegroupPreview;
+import io.hops.hopsworks.common.featurestore.featuregroup.cached.ResultSetReader;
 import io.hops.hopsworks.common.featurestore.storageconnectors.FeaturestoreConnectorFacade;
 import io.hops.hopsworks.common.featurestore.storageconnectors.StorageConnectorUtil;
+import io.hops.hopsworks.common.featurestore.utils.JdbcConnectionPool;
+import io.hops.hopsworks.common.hdfs.HdfsUsersController;
 import io.hops.hopsworks.common.hosts.ServiceDiscoveryController;
+import io.hops.hopsworks.common.security.UserCertsKeyPwdCache;
 import io.hops.hopsworks.common.security.secrets.SecretsController;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.FeaturestoreException;
@@ -93,6 +97,12 @@ public class OnlineFeaturestoreController {
   private FeaturestoreConnectorFacade featurestoreConnectorFacade;
   @EJB
   private StorageConnectorUtil storageConnectorUtil;
+  @EJB
+  private JdbcConnectionPool jdbcConnectionPool;
+  @EJB
+  private HdfsUsersController hdfsUsersController;
+  @EJB
+  private UserCertsKeyPwdCache userCertsKeyPwdCache;
   
   @PostConstruct
   public void init() {
@@ -178,23 +188,40 @@ public class OnlineFeaturestoreController {
    */
   public FeaturegroupPreview executeReadJDBCQuery(String query, String databaseName, Project project, Users user)
       throws SQLException, FeaturestoreException {
+    return executeReadJDBCQuery(query, databaseName, project, user, cachedFeaturegroupController::parseResultset);
+  }
+
+  /**
+   * Runs a Read-SQL query against an online featurestore database, impersonating the user making the request,
+   * and hands the result set to the given reader
+   *
+   * @param reader       consumes the result set
+   * @return what the reader built out of the result set
+   * @throws SQLException
+   * @throws FeaturestoreException
+   */
+  public <T> T executeReadJDBCQuery(String query, String databaseName, Project project, Users user,
+                                    ResultSetReader<T> reader)
+      throws SQLException, FeaturestoreException {
     Connection conn = null;
-    Statement stmt = null;
+    boolean reusable = false;
     try {
-      //Re-create the connection every time since the connection is database and user-specific
-      conn = initConnection(databaseName, project, user);
-      stmt = conn.createStatement();
-      ResultSet rs = stmt.executeQuery(query);
-      return cachedFeaturegroupController.parseResultset(rs);
+      //Connections are database and user-specific, reuse the ones opened by previous reads of the same user
+      String hdfsUsername = hdfsUsersController.getHdfsUserName(project, user);
+      conn = jdbcConnectionPool.getConnection(hdfsUsername, "mysql:" + databaseName,
+        userCertsKeyPwdCache.get(hdfsUsername), () -> initConnection(databaseName, project, user), null);
+      try (Statement stmt = conn.createStatement()) {
+        ResultSet rs = stmt.executeQuery(query);
+        T result = reader.read(rs);
+        reusable = true;
+        return result;
+      }
     } catch (SQLException e) {
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.MYSQL_JDBC_READ_QUERY_ERROR, Level.SEVERE,
           "project: " + project.getName() + ", mysql database: " + databaseName + " jdbc query: " + query,
           e.getMessage(), e);
     } finally {
-      if (stmt != null) {
-        stmt.close();
-      }
-      closeConnection(conn);
+      jdbcConnectionPool.releaseConnection(conn, reusable);
     }
   }
 
@@ -0,0 +1,206 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.featurestore.query;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.hops.hopsworks.common.featurestore.query.filter.Filter;
+import io.hops.hopsworks.common.featurestore.query.filter.FilterLogic;
+import io.hops.hopsworks.common.featurestore.query.join.Join;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
+import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.Featuregroup;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL strings rendered by ConstructorController, keyed by a fingerprint of everything in the Query the rendering
+ * depends on: feature groups with their ids, versions and event time, selected and available features with their
+ * types and default values, joins, filters, ordering and the engine dialect.
+ * A schema change or a different feature view query yields a different fingerprint, so entries never need to be
+ * invalidated for correctness and unused ones age out.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class ConstructedQueryCache {
+
+  private static final long MAX_SIZE = 5000;
+  private static final long TTL_MIN = 60;
+  private static final char SEP = '\u001f';
+
+  private Cache<String, ConstructedQuery> queries;
+
+  @PostConstruct
+  public void init() {
+    queries = Caffeine.newBuilder()
+      .maximumSize(MAX_SIZE)
+      .expireAfterAccess(TTL_MIN, TimeUnit.MINUTES)
+      .recordStats()
+      .build();
+    MetricsRegistry.register("constructedQueryCache", this::getMetrics);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("constructedQueryCache");
+  }
+
+  public ConstructedQuery get(String fingerprint) {
+    return queries.getIfPresent(fingerprint);
+  }
+
+  public void put(String fingerprint, ConstructedQuery constructedQuery) {
+    queries.put(fingerprint, constructedQuery);
+  }
+
+  public void invalidateAll() {
+    queries.invalidateAll();
+  }
+
+  /**
+   * @return size, hits and misses of the cache
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("queries", queries.estimatedSize());
+    metrics.put("hits", queries.stats().hitCount());
+    metrics.put("misses", queries.stats().missCount());
+    return metrics;
+  }
+
+  /**
+   * Must be computed before the SQL is generated, the generation modifies the features of the query.
+   */
+  public String fingerprint(Query query, boolean pitEnabled, boolean isTrainingDataset) {
+    StringBuilder sb = new StringBuilder(512);
+    sb.append(pitEnabled).append(SEP).append(isTrainingDataset).append(SEP);
+    appendQuery(sb, query);
+    return sb.toString();
+  }
+
+  private void appendQuery(StringBuilder sb, Query query) {
+    sb.append('Q').append(query.getFeatureStore()).append(SEP).append(query.getProject()).append(SEP)
+      .append(query.getAs()).append(SEP).append(query.getHiveEngine()).append(SEP)
+      .append(query.getLeftFeatureGroupStartTimestamp()).append(SEP)
+      .append(query.getLeftFeatureGroupEndTimestamp()).append(SEP)
+      .append(query.getLeftFeatureGroupEndCommitId()).append(SEP);
+    appendFeaturegroup(sb, query.getFeaturegroup());
+    appendFeatures(sb, query.getFeatures());
+    appendFeatures(sb, query.getAvailableFeatures());
+    appendFeatures(sb, query.getOrderByFeatures());
+    appendFilterLogic(sb, query.getFilter());
+    if (query.getJoins() != null) {
+      for (Join join : query.getJoins()) {
+        // the left query of a join is the query itself, identify it without recursing
+        sb.append('J').append(join.getJoinType()).append(SEP).append(join.getPrefix()).append(SEP)
+          .append(join.getJoinOperator()).append(SEP)
+          .append(join.getLeftQuery() == null ? null : join.getLeftQuery().getAs()).append(SEP);
+        appendFeatures(sb, join.getLeftOn());
+        appendFeatures(sb, join.getRightOn());
+        appendQuery(sb, join.getRightQuery());
+      }
+    }
+    sb.append(';');
+  }
+
+  private void appendFeaturegroup(StringBuilder sb, Featuregroup featuregroup) {
+    if (featuregroup == null) {
+      sb.append(SEP);
+      return;
+    }
+    sb.append(featuregroup.getId()).append(SEP).append(featuregroup.getName()).append(SEP)
+      .append(featuregroup.getVersion()).append(SEP).append(featuregroup.getFeaturegroupType()).append(SEP)
+      .append(featuregroup.getEventTime()).append(SEP);
+    if (featuregroup.getCachedFeaturegroup() != null) {
+      sb.append(featuregroup.getCachedFeaturegroup().getTimeTravelFormat());
+    }
+    sb.append(SEP);
+  }
+
+  private void appendFeatures(StringBuilder sb, List<Feature> features) {
+    sb.append('[');
+    if (features != null) {
+      for (Feature f : features) {
+        sb.append(f.getName()).append(SEP).append(f.getFgAlias()).append(SEP).append(f.getFgAlias(true)).append(SEP)
+          .append(f.getType()).append(SEP).append(f.isPrimary()).append(SEP).append(f.getDefaultValue()).append(SEP)
+          .append(f.getPrefix()).append(SEP).append(f.getIdx()).append(SEP)
+          .append(f.getFeatureGroup() == null ? null : f.getFeatureGroup().getId()).append(SEP);
+      }
+    }
+    sb.append(']');
+  }
+
+  private void appendFilterLogic(StringBuilder sb, FilterLogic filterLogic) {
+    if (filterLogic == null) {
+      sb.append(SEP);
+      return;
+    }
+    sb.append('(').append(filterLogic.getType()).append(SEP);
+    appendFilter(sb, filterLogic.getLeftFilter());
+    appendFilter(sb, filterLogic.getRightFilter());
+    appendFilterLogic(sb, filterLogic.getLeftLogic());
+    appendFilterLogic(sb, filterLogic.getRightLogic());
+    sb.append(')');
+  }
+
+  private void appendFilter(StringBuilder sb, Filter filter) {
+    if (filter == null) {
+      sb.append(SEP);
+      return;
+    }
+    sb.append('F').append(filter.getCondition()).append(SEP);
+    appendFeatures(sb, filter.getFeatures());
+    if (filter.getValue() != null) {
+      sb.append(filter.getValue().getFeatureGroupId()).append(SEP).append(filter.getValue().makeSqlValue());
+    }
+    sb.append(SEP);
+  }
+
+  public static class ConstructedQuery {
+    private final String query;
+    private final String queryOnline;
+    private final String pitQuery;
+
+    public ConstructedQuery(String query, String queryOnline, String pitQuery) {
+      this.query = query;
+      this.queryOnline = queryOnline;
+      this.pitQuery = pitQuery;
+    }
+
+    public String getQuery() {
+      return query;
+    }
+
+    public String getQueryOnline() {
+      return queryOnline;
+    }
+
+    public String getPitQuery() {
+      return pitQuery;
+    }
+  }
+}
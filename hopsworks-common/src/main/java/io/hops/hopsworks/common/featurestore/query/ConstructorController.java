@@ -80,6 +80,8 @@ public class ConstructorController {
   private PitJoinController pitJoinController;
   @EJB
   private FeaturestoreFacade featurestoreFacade;
+  @EJB
+  private ConstructedQueryCache constructedQueryCache;
 
   public ConstructorController() {
   }
@@ -95,6 +97,16 @@ public class ConstructorController {
     this.joinController = joinController;
   }
 
+  // For testing
+  public ConstructorController(FeaturegroupController featuregroupController,
+      CachedFeaturegroupController cachedFeaturegroupController,
+      FilterController filterController,
+      JoinController joinController,
+      ConstructedQueryCache constructedQueryCache) {
+    this(featuregroupController, cachedFeaturegroupController, filterController, joinController);
+    this.constructedQueryCache = constructedQueryCache;
+  }
+
   public FsQueryDTO construct(Query query, boolean pitEnabled, Project project, Users user)
       throws FeaturestoreException, ServiceException {
     return construct(query, pitEnabled, false, project, user);
@@ -110,6 +122,20 @@ public class ConstructorController {
       return fsQueryDTO;
     }
 
+    String fingerprint = constructedQueryCache == null ? null :
+        constructedQueryCache.fingerprint(query, pitEnabled, isTrainingDataset);
+    ConstructedQueryCache.ConstructedQuery constructedQuery =
+        fingerprint == null ? null : constructedQueryCache.get(fingerprint);
+    if (constructedQuery != null) {
+      fsQueryDTO.setQuery(constructedQuery.getQuery());
+      // aliases are not cached, they carry storage connector credentials and resolved locations
+      fsQueryDTO.setHudiCachedFeatureGroups(getHudiAliases(query));
+      fsQueryDTO.setOnDemandFeatureGroups(getOnDemandAliases(user, project, query));
+      fsQueryDTO.setQueryOnline(constructedQuery.getQueryOnline());
+      fsQueryDTO.setPitQuery(constructedQuery.getPitQuery());
+      return fsQueryDTO;
+    }
+
     fsQueryDTO.setQuery(makeOfflineQuery(query));
     fsQueryDTO.setHudiCachedFeatureGroups(getHudiAliases(query));
     fsQueryDTO.setOnDemandFeatureGroups(getOnDemandAliases(user, project, query));
@@ -124,6 +150,10 @@ public class ConstructorController {
       fsQueryDTO.setPitQuery(makePitQuery(query, isTrainingDataset));
     }
 
+    if (fingerprint != null) {
+      constructedQueryCache.put(fingerprint, new ConstructedQueryCache.ConstructedQuery(fsQueryDTO.getQuery(),
+          fsQueryDTO.getQueryOnline(), fsQueryDTO.getPitQuery()));
+    }
     return fsQueryDTO;
   }
 
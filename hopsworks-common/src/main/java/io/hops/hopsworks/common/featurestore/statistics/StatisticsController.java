@@ -16,6 +16,7 @@
 
 package io.hops.hopsworks.common.featurestore.statistics;
 
+import io.hops.hopsworks.common.dao.hdfs.inode.InodeFacade;
 import io.hops.hopsworks.common.dataset.DatasetController;
 import io.hops.hopsworks.common.featurestore.activity.FeaturestoreActivityFacade;
 import io.hops.hopsworks.common.featurestore.featuregroup.cached.FeatureGroupCommitController;
@@ -41,19 +42,29 @@ import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.restutils.RESTCodes;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.permission.FsPermission;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import javax.annotation.Resource;
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 
 @Stateless
@@ -63,6 +74,8 @@ public class StatisticsController {
   @EJB
   private InodeController inodeController;
   @EJB
+  private InodeFacade inodeFacade;
+  @EJB
   private DistributedFsService dfs;
   @EJB
   private DatasetController datasetController;
@@ -74,6 +87,8 @@ public class StatisticsController {
   private FeatureGroupCommitController featureGroupCommitCommitController;
   @EJB
   private FeaturestoreActivityFacade fsActivityFacade;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
 
   public String readStatisticsContent(Project project, Users user, FeaturestoreStatistic statistic)
       throws FeaturestoreException {
@@ -114,7 +129,7 @@ public class StatisticsController {
       }
     }
 
-    Inode statisticsInode = registerStatistics(project, user, statisticsCommitTimeStamp, statisticsJson.toString(),
+    Inode statisticsInode = registerStatistics(project, user, statisticsCommitTimeStamp, statisticsJson,
         featuregroup.getName(), "FeatureGroups", featuregroup.getVersion(), null, false);
     Timestamp commitTime = new Timestamp(statisticsCommitTimeStamp);
 
@@ -136,10 +151,9 @@ public class StatisticsController {
                                                   boolean forTransformation)
       throws FeaturestoreException, DatasetException, HopsSecurityException, IOException {
 
-    String statContent =  null;
+    JSONObject statContent =  null;
     if (content != null) {
-      JSONObject statisticsJson = extractJsonFromContent(content);
-      statContent = statisticsJson.toString();
+      statContent = extractJsonFromContent(content);
     }
 
     Map<String, JSONObject> splitStatJson = null;
@@ -168,9 +182,9 @@ public class StatisticsController {
     return featurestoreStatistic;
   }
 
-  private Inode registerStatistics(Project project, Users user, Long commitTime, String content, String entityName,
-                                   String entitySubDir, Integer version, Map<String, JSONObject> splitStatistics,
-                                   boolean forTransformation)
+  private Inode registerStatistics(Project project, Users user, Long commitTime, JSONObject content,
+                                   String entityName, String entitySubDir, Integer version,
+                                   Map<String, JSONObject> splitStatistics, boolean forTransformation)
       throws DatasetException, HopsSecurityException, IOException {
 
     DistributedFileSystemOps udfso = null;
@@ -180,39 +194,129 @@ public class StatisticsController {
       String dirName = entityName + "_" + version;
       Dataset statistics = getOrCreateStatisticsDataset(project, user);
 
-      // Create the directory
+      // Create the directory, mkdirs is a no-op if the entity directory already exists
       Path subDir = new Path(datasetController.getDatasetPath(statistics), entitySubDir);
-      if (!udfso.isDir(subDir.toString())) {
-        udfso.mkdir(subDir.toString());
-      }
       Path dirPath = new Path(subDir, dirName);
-      if (!udfso.isDir(dirPath.toString())) {
-        udfso.mkdir(dirPath.toString());
-      }
+      udfso.mkdirs(dirPath, FsPermission.getDefault());
 
-      Inode inode;
+      // the path of the entity directory is served by the inode path cache after the first registration
+      Inode dirInode = inodeController.getInodeAtPath(dirPath.toString());
       if (splitStatistics != null && !splitStatistics.isEmpty()){
-        for (Map.Entry<String, JSONObject> entry: splitStatistics.entrySet()){
-          Path filePath = new Path(dirPath,  splitStatisticsFileName(entry.getKey(), commitTime));
-          udfso.create(filePath, entry.getValue().toString());
-        }
-        inode = inodeController.getInodeAtPath(dirPath.toString());
+        writeSplitStatistics(udfso, dirPath, commitTime, splitStatistics);
+        return dirInode;
       } else {
-        Path filePath;
+        String fileName;
         if (forTransformation) {
-          filePath = new Path(dirPath, transformationFnStatisticsFileName(commitTime));
+          fileName = transformationFnStatisticsFileName(commitTime);
         } else {
-          filePath = new Path(dirPath, commitTime + ".json");
+          fileName = commitTime + ".json";
         }
-        udfso.create(filePath, content);
-        inode = inodeController.getInodeAtPath(filePath.toString());
+        writeStatistics(udfso, new Path(dirPath, fileName), content);
+        return inodeFacade.findByParentAndName(dirInode, fileName);
       }
-      return inode;
     } finally {
       dfs.closeDfsClient(udfso);
     }
   }
 
+  private void writeSplitStatistics(DistributedFileSystemOps udfso, Path dirPath, Long commitTime,
+                                    Map<String, JSONObject> splitStatistics) throws IOException {
+    if (splitStatistics.size() == 1) {
+      Map.Entry<String, JSONObject> entry = splitStatistics.entrySet().iterator().next();
+      writeStatistics(udfso, new Path(dirPath, splitStatisticsFileName(entry.getKey(), commitTime)), entry.getValue());
+      return;
+    }
+    SplitWrites splitWrites = new SplitWrites();
+    List<Future<Void>> writes = new ArrayList<>(splitStatistics.size());
+    for (Map.Entry<String, JSONObject> entry : splitStatistics.entrySet()) {
+      Path filePath = new Path(dirPath, splitStatisticsFileName(entry.getKey(), commitTime));
+      writes.add(executorService.submit(() -> {
+        if (!splitWrites.start()) {
+          return null;
+        }
+        try {
+          writeStatistics(udfso, filePath, entry.getValue());
+        } finally {
+          splitWrites.finish();
+        }
+        return null;
+      }));
+    }
+    // wait for all the writes, the client is closed once this method returns
+    IOException failure = null;
+    for (Future<Void> write : writes) {
+      try {
+        write.get();
+      } catch (InterruptedException e) {
+        // the writes still running must not use the client once it is back in the pool
+        splitWrites.abort();
+        for (Future<Void> outstanding : writes) {
+          outstanding.cancel(true);
+        }
+        splitWrites.awaitRunning();
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while writing split statistics", e);
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Tracks the split statistics writes running on the executor, so that an aborted registration can wait for them
+   * before the client they share is released.
+   */
+  private static class SplitWrites {
+    private int running = 0;
+    private boolean aborted = false;
+
+    /**
+     * @return false if the writes were aborted and this one must not start
+     */
+    synchronized boolean start() {
+      if (aborted) {
+        return false;
+      }
+      running++;
+      return true;
+    }
+
+    synchronized void finish() {
+      running--;
+      notifyAll();
+    }
+
+    synchronized void abort() {
+      aborted = true;
+    }
+
+    /**
+     * Wait for the started writes to finish, even if interrupted again. Call after abort.
+     */
+    synchronized void awaitRunning() {
+      while (running > 0) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          // keep waiting, the caller restores the interrupt status
+        }
+      }
+    }
+  }
+
+  private void writeStatistics(DistributedFileSystemOps udfso, Path filePath, JSONObject content)
+      throws IOException {
+    // serialize straight into the file instead of building the whole JSON string first
+    try (Writer writer = new OutputStreamWriter(udfso.getFilesystem().create(filePath), StandardCharsets.UTF_8)) {
+      content.write(writer);
+    }
+  }
+
   public void deleteStatistics(Project project, Users user, Featuregroup featuregroup)
       throws FeaturestoreException {
     deleteStatistics(project, user, featuregroup.getName(), "FeatureGroups", featuregroup.getVersion());
@@ -0,0 +1,195 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.featurestore.utils;
+
+import io.hops.hopsworks.common.util.KeyedObjectPool;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.exceptions.FeaturestoreException;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Timer;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool of the JDBC connections used to read from the online feature store (MySQL) and from HiveServer2. Connections
+ * are specific to a database and a project user, callers identify them with both and provide the factory used to
+ * open a new connection on a miss. The connections of a project user are closed with {@link #invalidateUser(String)}
+ * when the user is removed from the project or its certificates are revoked.
+ * <p/>
+ * Connections must be given back with either {@link #releaseConnection(Connection)}, or
+ * {@link #invalidateConnection(Connection)} if a statement failed and the connection can not be trusted anymore.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class JdbcConnectionPool {
+
+  private static final Logger LOGGER = Logger.getLogger(JdbcConnectionPool.class.getName());
+
+  private static final long BORROW_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+  // connections idle for longer than this are validated before being reused
+  private static final long VALIDATION_INTERVAL_MS = 30000;
+  private static final int VALIDATION_TIMEOUT_SEC = 5;
+  // connections are re-opened periodically so that credential changes are picked up
+  private static final long MAX_LIFETIME_MS = TimeUnit.HOURS.toMillis(1);
+  // project user names can not contain it
+  private static final String KEY_SEPARATOR = "/";
+
+  @EJB
+  private Settings settings;
+
+  private KeyedObjectPool<Connection> pool;
+
+  public interface ConnectionFactory {
+    Connection open() throws FeaturestoreException;
+  }
+
+  @PostConstruct
+  public void init() {
+    pool = new KeyedObjectPool<>("JDBC connection", new ConnectionHandler(),
+      () -> Math.max(settings.getFeaturestoreJdbcPoolMaxPerKey(), 1), () -> Integer.MAX_VALUE, MAX_LIFETIME_MS,
+      VALIDATION_INTERVAL_MS, BORROW_TIMEOUT_MS);
+    MetricsRegistry.register("jdbcConnectionPool", this::getMetrics);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("jdbcConnectionPool");
+    pool.close();
+  }
+
+  /**
+   * Get a connection of the project user to the database, reusing an idle one if possible.
+   *
+   * @param hdfsUsername project user the connection authenticates as
+   * @param database identifies the server and the database of the connection
+   * @param credentials identifies the credentials the connection is opened with, idle connections opened with other
+   * credentials are closed. Can be null
+   * @param factory opens a new connection if there is no idle one
+   * @param onClose run after the connection is closed, to release what the factory acquired. Can be null
+   * @return a connection that must be given back to the pool once the statement is done
+   */
+  public Connection getConnection(String hdfsUsername, String database, String credentials, ConnectionFactory factory,
+    Runnable onClose) throws FeaturestoreException, SQLException {
+    String key = hdfsUsername + KEY_SEPARATOR + database;
+    try {
+      return pool.borrow(key, credentials, factory::open, onClose);
+    } catch (TimeoutException e) {
+      throw new SQLTransientConnectionException("Timed out waiting for a connection to " + key, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a connection to " + key, e);
+    }
+  }
+
+  /**
+   * Give a connection back to the pool so it can be reused.
+   *
+   * @param connection
+   */
+  public void releaseConnection(Connection connection) {
+    pool.release(connection);
+  }
+
+  /**
+   * Give a connection back to the pool, closing it if it can not be reused.
+   *
+   * @param connection
+   * @param reusable false if a statement failed on the connection
+   */
+  public void releaseConnection(Connection connection, boolean reusable) {
+    if (reusable) {
+      releaseConnection(connection);
+    } else {
+      invalidateConnection(connection);
+    }
+  }
+
+  /**
+   * Close a connection that failed, it will not be reused.
+   *
+   * @param connection
+   */
+  public void invalidateConnection(Connection connection) {
+    pool.invalidate(connection);
+  }
+
+  /**
+   * Close the idle connections of a project user to any database, and the borrowed ones once they are given back.
+   *
+   * @param hdfsUsername
+   */
+  public void invalidateUser(String hdfsUsername) {
+    String prefix = hdfsUsername + KEY_SEPARATOR;
+    pool.invalidateKeys(key -> key.startsWith(prefix));
+  }
+
+  @Schedule(persistent = false, minute = "*/1", hour = "*")
+  public void evictIdleConnections(Timer timer) {
+    pool.evictIdle(settings.getFeaturestoreJdbcPoolIdleTimeout());
+  }
+
+  /**
+   * @return statistics of the pool
+   */
+  public Map<String, Number> getMetrics() {
+    return pool.getMetrics();
+  }
+
+  private static class ConnectionHandler implements KeyedObjectPool.Handler<Connection> {
+    @Override
+    public boolean isClosed(Connection connection) {
+      try {
+        return connection.isClosed();
+      } catch (SQLException e) {
+        return true;
+      }
+    }
+
+    @Override
+    public boolean validate(Connection connection) {
+      try {
+        return connection.isValid(VALIDATION_TIMEOUT_SEC);
+      } catch (SQLException e) {
+        LOGGER.log(Level.FINE, "Discarding broken JDBC connection", e);
+        return false;
+      }
+    }
+
+    @Override
+    public void close(Connection connection) throws SQLException {
+      connection.close();
+    }
+  }
+}
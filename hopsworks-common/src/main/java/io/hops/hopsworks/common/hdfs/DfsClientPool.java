@@ -0,0 +1,145 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.hdfs;
+
+import io.hops.hopsworks.common.util.KeyedObjectPool;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Timer;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idle HopsFS clients of DistributedFsService, per HDFS user. Building a client means a new proxy UGI, a copy of the
+ * Hadoop configuration, materializing the user certificates and a TLS handshake with the NameNode, so clients given
+ * back through DistributedFsService#closeDfsClient are kept for the next call of the same user.
+ * <p/>
+ * Borrowing never blocks: if there is no idle client a new one is built, and clients given back when the user
+ * already has hdfs_client_pool_max_idle_per_user idle ones are closed.
+ * Clients are re-created after MAX_LIFETIME_MS, and when the credentials they were built with changed, so rotated
+ * certificates are picked up.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class DfsClientPool {
+
+  private static final long MAX_LIFETIME_MS = TimeUnit.MINUTES.toMillis(30);
+
+  @EJB
+  private Settings settings;
+
+  private KeyedObjectPool<DistributedFileSystemOps> pool;
+
+  @PostConstruct
+  public void init() {
+    pool = new KeyedObjectPool<>("HopsFS client", new ClientHandler(), () -> 0,
+      () -> settings.getHdfsClientPoolMaxIdlePerUser(), MAX_LIFETIME_MS, 0, 0);
+    MetricsRegistry.register("dfsClientPool", this::getMetrics);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("dfsClientPool");
+    pool.close();
+  }
+
+  /**
+   * Get a client of the user, reusing an idle one if possible.
+   *
+   * @param username HDFS user of the client
+   * @param credentials identifies the certificates the client is built with, idle clients built with other
+   * credentials are closed. Can be null
+   * @param factory builds a new client if there is no idle one, returns null on failure
+   * @param onClose run after the client is closed, to release what the factory acquired. Can be null
+   * @return a client that must be given back with {@link #release(DistributedFileSystemOps)}, or null if the
+   * factory failed
+   */
+  public DistributedFileSystemOps borrow(String username, String credentials,
+      Supplier<DistributedFileSystemOps> factory, Runnable onClose) {
+    try {
+      return pool.borrow(username, credentials, factory::get, onClose);
+    } catch (TimeoutException | InterruptedException e) {
+      // the number of borrowed clients is not bounded, borrowing never waits
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Give a client back to the pool.
+   *
+   * @param ops
+   * @return false if the client was not built by the pool, the caller is in charge of closing it
+   */
+  public boolean release(DistributedFileSystemOps ops) {
+    return pool.release(ops);
+  }
+
+  /**
+   * Close the idle clients of a user, and the borrowed ones once they are given back. Used when the user or its
+   * certificates are removed.
+   *
+   * @param username
+   */
+  public void invalidate(String username) {
+    pool.invalidateKey(username);
+  }
+
+  @Schedule(persistent = false, minute = "*/1", hour = "*")
+  public void evictIdleClients(Timer timer) {
+    // Clients closed directly by their borrower are never given back, the pool also releases what they hold
+    pool.evictIdle(settings.getHdfsClientPoolIdleTimeout());
+  }
+
+  /**
+   * @return statistics of the pool
+   */
+  public Map<String, Number> getMetrics() {
+    return pool.getMetrics();
+  }
+
+  private static class ClientHandler implements KeyedObjectPool.Handler<DistributedFileSystemOps> {
+    @Override
+    public boolean isClosed(DistributedFileSystemOps ops) {
+      return ops.isClosed();
+    }
+
+    @Override
+    public boolean validate(DistributedFileSystemOps ops) {
+      return true;
+    }
+
+    @Override
+    public void close(DistributedFileSystemOps ops) {
+      ops.close();
+    }
+  }
+}
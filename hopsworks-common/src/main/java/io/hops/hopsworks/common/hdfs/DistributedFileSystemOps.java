@@ -75,6 +75,7 @@ public class DistributedFileSystemOps {
   private final DistributedFileSystem dfs;
   private Configuration conf;
   private final String effectiveUser;
+  private volatile boolean closed = false;
 
   public enum StoragePolicy {
     CLOUD("CLOUD"),
@@ -147,6 +148,10 @@ public class DistributedFileSystemOps {
     return effectiveUser;
   }
 
+  public boolean isClosed() {
+    return closed;
+  }
+
   /**
    * Get the contents of the file at the given path.
    * <p/>
@@ -572,6 +577,7 @@ public class DistributedFileSystemOps {
    * Closes the distributed file system.
    */
   public void close() {
+    closed = true;
     try {
       dfs.close();
     } catch (IOException ex) {
@@ -59,6 +59,7 @@ import javax.ejb.TransactionAttributeType;
 
 import io.hops.hopsworks.exceptions.CryptoPasswordNotFoundException;
 import io.hops.hopsworks.common.security.BaseHadoopClientsService;
+import io.hops.hopsworks.common.security.UserCertsKeyPwdCache;
 import io.hops.hopsworks.common.util.Settings;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.CommonConfigurationKeys;
@@ -92,6 +93,10 @@ public class DistributedFsService {
   private Settings settings;
   @EJB
   private BaseHadoopClientsService bhcs;
+  @EJB
+  private DfsClientPool dfsClientPool;
+  @EJB
+  private UserCertsKeyPwdCache userCertsKeyPwdCache;
 
   private Configuration conf;
   private String hadoopConfDir;
@@ -146,11 +151,19 @@ public class DistributedFsService {
   }
 
   /**
-   * creates a new distributed file system operations with the super user
+   * Get a distributed file system operations with the super user. Clients are pooled, give it back with
+   * {@link #closeDfsClient(DistributedFileSystemOps)}.
    * <p>
    * @return DistributedFileSystemOps
    */
   public DistributedFileSystemOps getDfsOps() {
+    String username = loginUser.getUserName();
+    // Pooled clients built with a previous super keystore are discarded once the certificate is rotated
+    String credentials = settings.getHopsRpcTls() ? bhcs.getSuperKeystorePassword() : null;
+    return dfsClientPool.borrow(username, credentials, this::createSuperUserDfsOps, null);
+  }
+
+  private DistributedFileSystemOps createSuperUserDfsOps() {
     if (settings.getHopsRpcTls()) {
       Configuration newConf = new Configuration(conf);
   
@@ -189,7 +202,8 @@ public class DistributedFsService {
   }
   
   /**
-   * Returns the user specific distributed file system operations
+   * Returns the user specific distributed file system operations. Clients are pooled per user, give it back with
+   * {@link #closeDfsClient(DistributedFileSystemOps)}.
    * <p>
    * @param username
    * @return
@@ -198,6 +212,14 @@ public class DistributedFsService {
     if (username == null || username.isEmpty()) {
       throw new IllegalArgumentException("username not provided.");
     }
+    // A pooled client keeps the user certificates materialized until it is closed
+    Runnable onClose = settings.getHopsRpcTls() ? () -> bhcs.removeNonSuperUserCertificate(username) : null;
+    // Pooled clients built with certificates that were issued again since are discarded
+    String credentials = settings.getHopsRpcTls() ? userCertsKeyPwdCache.get(username) : null;
+    return dfsClientPool.borrow(username, credentials, () -> createUserDfsOps(username), onClose);
+  }
+
+  private DistributedFileSystemOps createUserDfsOps(String username) {
     UserGroupInformation ugi;
     try {
       ugi = UserGroupInformation.createProxyUser(username, UserGroupInformation.
@@ -226,8 +248,16 @@ public class DistributedFsService {
     return new DistributedFileSystemOps(ugi, conf);
   }
 
+  /**
+   * Give back a client obtained from this service. Pooled clients are kept for reuse, the others are closed.
+   * <p>
+   * @param udfso
+   */
   public void closeDfsClient(DistributedFileSystemOps udfso) {
     if (null != udfso) {
+      if (dfsClientPool.release(udfso)) {
+        return;
+      }
       if (settings.getHopsRpcTls()
           && !udfso.getEffectiveUser().equals(loginUser.getUserName())) {
         bhcs.removeNonSuperUserCertificate(udfso.getEffectiveUser());
@@ -290,6 +320,7 @@ public class DistributedFsService {
     if (username == null || username.isEmpty()) {
       return;
     }
+    dfsClientPool.invalidate(username);
     UserGroupInformation ugi = ugiService.remove(username);
     if (ugi == null) {
       return;
@@ -30,8 +30,9 @@ import javax.ejb.TransactionAttributeType;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 @Stateless
@@ -41,6 +42,8 @@ public class InodeController {
   private static final Logger LOGGER = Logger.getLogger(InodeController.class.getName());
   @EJB
   private InodeFacade inodeFacade;
+  @EJB
+  private InodePathCache inodePathCache;
   /**
    * Get all the children of <i>parent</i>. Alias of findByParent().
    * <p/>
@@ -155,19 +158,61 @@ public class InodeController {
     if(i == null) {
       throw new IllegalArgumentException("Inode was not provided.");
     }
+    if (i.getId() == HopsUtils.ROOT_INODE_ID) {
+      return "";
+    }
+    long[] cachedIds = inodePathCache.getById(i.getId());
+    if (cachedIds != null) {
+      Inode[] chain = loadChain(cachedIds, null);
+      if (chain != null) {
+        inodePathCache.recordHit(chain.length);
+        StringBuilder path = new StringBuilder();
+        for (Inode inode : chain) {
+          path.append("/").append(inode.getInodePK().getName());
+        }
+        return path.toString();
+      }
+      inodePathCache.recordStale();
+      inodePathCache.invalidateById(i.getId());
+    } else {
+      inodePathCache.recordMiss();
+    }
+    
     List<String> pathComponents = new ArrayList<>();
+    List<Long> ids = new ArrayList<>();
     Inode parent = i;
-    while (parent.getId() != 1) {
+    while (parent.getId() != HopsUtils.ROOT_INODE_ID) {
       pathComponents.add(parent.getInodePK().getName());
+      ids.add(parent.getId());
       parent = inodeFacade.findParent(parent);
     }
     StringBuilder path = new StringBuilder();
-    for (int j = pathComponents.size() - 1; j >= 0; j--) {
+    String[] components = new String[pathComponents.size()];
+    long[] chainIds = new long[ids.size()];
+    for (int j = pathComponents.size() - 1, k = 0; j >= 0; j--, k++) {
       path.append("/").append(pathComponents.get(j));
+      components[k] = pathComponents.get(j);
+      chainIds[k] = ids.get(j);
+    }
+    if (chainIds.length > 0) {
+      inodePathCache.put(components, chainIds);
     }
     return path.toString();
   }
   
+  /**
+   * Drop the cached resolution of a path and of everything below it. To be called when Hopsworks moves or deletes
+   * a path, entries changed directly in HopsFS are detected as stale on their next lookup.
+   * <p/>
+   * @param path
+   */
+  public void invalidatePath(String path) {
+    String[] p = splitPath(path);
+    if (p.length > 0) {
+      inodePathCache.invalidate(p);
+    }
+  }
+  
   /**
    * Get the inodes in the directory pointed to by the given absolute HDFS path.
    * <p/>
@@ -242,7 +287,7 @@ public class InodeController {
     return size;
   }
   
-  private Inode getInode(String path) {
+  private String[] splitPath(String path) {
     // Get the path components
     String[] p;
     if (path.charAt(0) == '/') {
@@ -254,11 +299,74 @@ public class InodeController {
     } else {
       p = path.split("/");
     }
-    
+    return p;
+  }
+  
+  private Inode getInode(String path) {
+    String[] p = splitPath(path);
     if (p.length < 1) {
       return null;
     }
-    return getInode(inodeFacade.getRootNode(p[0]), 1, Arrays.copyOfRange(p, 1, p.length));
+    
+    long[] cachedIds = inodePathCache.getByPath(p);
+    if (cachedIds != null) {
+      Inode[] chain = loadChain(cachedIds, p);
+      if (chain != null) {
+        inodePathCache.recordHit(chain.length);
+        return chain[chain.length - 1];
+      }
+      inodePathCache.recordStale();
+      inodePathCache.invalidateByPath(p);
+    } else {
+      inodePathCache.recordMiss();
+    }
+    
+    //Walk down the path one level at a time, remembering the ids for the next lookup
+    Inode curr = inodeFacade.getRootNode(p[0]);
+    if (curr == null) {
+      return null;
+    }
+    long[] ids = new long[p.length];
+    ids[0] = curr.getId();
+    for (int i = 1; i < p.length; i++) {
+      long partitionId = HopsUtils.calculatePartitionId(curr.getId(), p[i], i + 1);
+      curr = inodeFacade.findByInodePK(curr, p[i], partitionId);
+      if (curr == null) {
+        return null;
+      }
+      ids[i] = curr.getId();
+    }
+    inodePathCache.put(p, ids);
+    return curr;
+  }
+  
+  /**
+   * Load the inodes of a cached chain of ids with a single query and check they still form a path starting at the
+   * root directory, with the expected names if provided.
+   *
+   * @return the inodes ordered from the top-level directory down, or null if the chain is stale
+   */
+  private Inode[] loadChain(long[] ids, String[] names) {
+    List<Long> idList = new ArrayList<>(ids.length);
+    for (long id : ids) {
+      idList.add(id);
+    }
+    Map<Long, Inode> inodes = new HashMap<>();
+    for (Inode inode : inodeFacade.findByIdList(idList)) {
+      inodes.put(inode.getId(), inode);
+    }
+    Inode[] chain = new Inode[ids.length];
+    long parentId = HopsUtils.ROOT_INODE_ID;
+    for (int i = 0; i < ids.length; i++) {
+      Inode inode = inodes.get(ids[i]);
+      if (inode == null || inode.getInodePK().getParentId() != parentId
+        || (names != null && !names[i].equals(inode.getInodePK().getName()))) {
+        return null;
+      }
+      chain[i] = inode;
+      parentId = inode.getId();
+    }
+    return chain;
   }
   
   private Inode getInode(Inode inode, int depth, String[] p) {
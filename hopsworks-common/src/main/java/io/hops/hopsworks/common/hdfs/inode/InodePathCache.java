@@ -0,0 +1,143 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.hdfs.inode;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the inode ids along resolved paths, from the first directory under the root down to the resolved inode.
+ * HopsFS changes the namespace without going through Hopsworks, so the cached ids are only a hint: callers load all
+ * the inodes of a chain with a single query and check that they still form the path before using them.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class InodePathCache {
+  
+  private static final long MAX_SIZE = 20000;
+  
+  // path components joined with / -> inode ids along the path
+  private Cache<String, long[]> pathToIds;
+  // inode id -> inode ids from the first directory under the root down to the inode
+  private Cache<Long, long[]> idToAncestors;
+  
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong stale = new AtomicLong();
+  private final AtomicLong queriesSaved = new AtomicLong();
+  
+  @PostConstruct
+  public void init() {
+    pathToIds = Caffeine.newBuilder().maximumSize(MAX_SIZE).build();
+    idToAncestors = Caffeine.newBuilder().maximumSize(MAX_SIZE).build();
+    MetricsRegistry.register("inodePathCache", this::getMetrics);
+  }
+  
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("inodePathCache");
+  }
+  
+  public long[] getByPath(String[] components) {
+    return pathToIds.getIfPresent(toKey(components));
+  }
+  
+  public long[] getById(Long id) {
+    return idToAncestors.getIfPresent(id);
+  }
+  
+  public void put(String[] components, long[] ids) {
+    pathToIds.put(toKey(components), ids);
+    idToAncestors.put(ids[ids.length - 1], ids);
+  }
+  
+  /**
+   * Drop the cached entries of a path and of everything below it, and of the inodes the path was resolved to.
+   * @param components path components
+   */
+  public void invalidate(String[] components) {
+    String key = toKey(components);
+    long[] ids = pathToIds.getIfPresent(key);
+    String prefix = key + "/";
+    pathToIds.asMap().keySet().removeIf(k -> k.equals(key) || k.startsWith(prefix));
+    if (ids != null) {
+      long id = ids[ids.length - 1];
+      idToAncestors.asMap().values().removeIf(chain -> contains(chain, id));
+    }
+  }
+  
+  public void invalidateByPath(String[] components) {
+    pathToIds.invalidate(toKey(components));
+  }
+  
+  public void invalidateById(Long id) {
+    idToAncestors.invalidate(id);
+  }
+  
+  public void recordHit(int depth) {
+    hits.incrementAndGet();
+    // one query instead of one per path component
+    queriesSaved.addAndGet(Math.max(depth - 1, 0));
+  }
+  
+  public void recordMiss() {
+    misses.incrementAndGet();
+  }
+  
+  public void recordStale() {
+    stale.incrementAndGet();
+  }
+  
+  /**
+   * @return sizes, hits, misses and stale entries of the cache, and the queries it saved
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("paths", pathToIds.estimatedSize());
+    metrics.put("inodes", idToAncestors.estimatedSize());
+    metrics.put("hits", hits.get());
+    metrics.put("misses", misses.get());
+    metrics.put("stale", stale.get());
+    metrics.put("queriesSaved", queriesSaved.get());
+    return metrics;
+  }
+  
+  private boolean contains(long[] chain, long id) {
+    for (long l : chain) {
+      if (l == id) {
+        return true;
+      }
+    }
+    return false;
+  }
+  
+  private String toKey(String[] components) {
+    return String.join("/", components);
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.hive;
+
+import com.logicalclocks.servicediscoverclient.exceptions.ServiceDiscoveryException;
+import com.logicalclocks.servicediscoverclient.service.Service;
+import io.hops.hopsworks.common.hdfs.HdfsUsersController;
+import io.hops.hopsworks.common.hosts.ServiceDiscoveryController;
+import io.hops.hopsworks.common.security.CertificateMaterializer;
+import io.hops.hopsworks.common.security.UserCertsKeyPwdCache;
+import io.hops.hopsworks.common.util.KeyedObjectPool;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.exceptions.CryptoPasswordNotFoundException;
+import io.hops.hopsworks.exceptions.ServiceException;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
+import io.hops.hopsworks.persistence.entity.project.Project;
+import io.hops.hopsworks.persistence.entity.user.Users;
+import io.hops.hopsworks.restutils.RESTCodes;
+import org.apache.hadoop.hive.metastore.api.ThriftHiveMetastore;
+import org.apache.hadoop.hive.metastore.conf.MetastoreConf;
+import org.apache.thrift.TConfiguration;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TSSLTransportFactory;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Timer;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool of Hive metastore Thrift clients, keyed by project user. Opening a client means materializing the user
+ * certificates, a TLS handshake, set_ugi and set_crypto, so clients are kept open and reused by later operations of
+ * the same project user until they have been idle for longer than the configured timeout, or until the user is removed
+ * from the project or its certificates are revoked.
+ * <p/>
+ * Clients are borrowed with {@link #borrowClient(Project, Users)} and must be given back with either
+ * {@link #returnClient(ThriftHiveMetastore.Client)}, or {@link #invalidateClient(ThriftHiveMetastore.Client)} if an
+ * operation failed and the connection can not be trusted anymore.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class HiveMetastoreClientPool {
+
+  private static final Logger LOGGER = Logger.getLogger(HiveMetastoreClientPool.class.getName());
+
+  private static final int CONNECTION_TIMEOUT = 600000;
+  private static final long BORROW_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+  // clients idle for longer than this are checked with a round trip to the metastore before being reused
+  private static final long VALIDATION_INTERVAL_MS = 30000;
+
+  @EJB
+  private Settings settings;
+  @EJB
+  private HdfsUsersController hdfsUsersController;
+  @EJB
+  private CertificateMaterializer certificateMaterializer;
+  @EJB
+  private ServiceDiscoveryController serviceDiscoveryController;
+  @EJB
+  private UserCertsKeyPwdCache userCertsKeyPwdCache;
+
+  private KeyedObjectPool<ThriftHiveMetastore.Client> pool;
+
+  @PostConstruct
+  public void init() {
+    pool = new KeyedObjectPool<>("Hive metastore client", new ClientHandler(),
+      () -> Math.max(settings.getHiveMetastoreClientPoolMaxPerKey(), 1), () -> Integer.MAX_VALUE, 0,
+      VALIDATION_INTERVAL_MS, BORROW_TIMEOUT_MS);
+    MetricsRegistry.register("hiveMetastoreClientPool", this::getMetrics);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("hiveMetastoreClientPool");
+    pool.close();
+  }
+
+  /**
+   * Get an authenticated client for the project user, reusing an idle one if possible.
+   *
+   * @param project
+   * @param user
+   * @return a client that must be given back to the pool once the operation is done
+   */
+  public ThriftHiveMetastore.Client borrowClient(Project project, Users user) throws ServiceException, IOException {
+    String key = hdfsUsersController.getHdfsUserName(project, user);
+    // Pooled clients built with certificates that were issued again since are discarded
+    String credentials = settings.getHopsRpcTls() ? userCertsKeyPwdCache.get(key) : null;
+    try {
+      return pool.borrow(key, credentials, () -> {
+        try {
+          return open(project, user, key);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }, () -> certificateMaterializer.removeCertificatesLocal(user.getUsername(), project.getName()));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } catch (TimeoutException e) {
+      throw new ServiceException(RESTCodes.ServiceErrorCode.METASTORE_CONNECTION_ERROR, Level.WARNING,
+        "Timed out waiting for a Hive metastore connection");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServiceException(RESTCodes.ServiceErrorCode.METASTORE_CONNECTION_ERROR, Level.WARNING,
+        "Interrupted while waiting for a Hive metastore connection", e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Give a client back to the pool so it can be reused.
+   *
+   * @param client
+   */
+  public void returnClient(ThriftHiveMetastore.Client client) {
+    pool.release(client);
+  }
+
+  /**
+   * Close a client that failed, it will not be reused.
+   *
+   * @param client
+   */
+  public void invalidateClient(ThriftHiveMetastore.Client client) {
+    pool.invalidate(client);
+  }
+
+  /**
+   * Close the idle clients of a project user, and the borrowed ones once they are given back. Used when the user is
+   * removed from the project or its certificates are revoked.
+   *
+   * @param hdfsUsername
+   */
+  public void invalidate(String hdfsUsername) {
+    pool.invalidateKey(hdfsUsername);
+  }
+
+  @Schedule(persistent = false, minute = "*/1", hour = "*")
+  public void evictIdleClients(Timer timer) {
+    pool.evictIdle(settings.getHiveMetastoreClientPoolIdleTimeout());
+  }
+
+  /**
+   * @return statistics of the pool
+   */
+  public Map<String, Number> getMetrics() {
+    return pool.getMetrics();
+  }
+
+  // Here we can't use the HiveMetaStoreClient.java wrapper as we would need to export environment variables and so on
+  // instead we assemble directly the thirft client, which is what the HiveMetaStoreClient does behind the scenes.
+  private ThriftHiveMetastore.Client open(Project project, Users user, String hdfsUsername)
+    throws ServiceException, IOException {
+    certificateMaterializer.materializeCertificatesLocal(user.getUsername(), project.getName());
+    TTransport transport = null;
+    try {
+      CertificateMaterializer.CryptoMaterial userMaterial =
+        certificateMaterializer.getUserMaterial(user.getUsername(), project.getName());
+
+      // read Password
+      String password = String.copyValueOf(userMaterial.getPassword());
+
+      // Get metastore service information from consul
+      Service metastoreService = serviceDiscoveryController
+        .getAnyAddressOfServiceWithDNS(ServiceDiscoveryController.HopsworksService.HIVE_METASTORE);
+
+      if (settings.getHopsRpcTls()) {
+        // Setup secure connection with the Hive metastore.
+        TSSLTransportFactory.TSSLTransportParameters params =
+          new TSSLTransportFactory.TSSLTransportParameters();
+        params.setTrustStore(certificateMaterializer.getUserTransientTruststorePath(project, user), password);
+        params.setKeyStore(certificateMaterializer.getUserTransientKeystorePath(project, user), password);
+
+        transport = TSSLTransportFactory.getClientSocket(metastoreService.getAddress(),
+          metastoreService.getPort(), CONNECTION_TIMEOUT, params);
+      } else {
+        transport = new TSocket(TConfiguration.DEFAULT, metastoreService.getAddress(), metastoreService.getPort(),
+          CONNECTION_TIMEOUT);
+      }
+
+      TProtocol protocol = new TBinaryProtocol(transport);
+      ThriftHiveMetastore.Client client = new ThriftHiveMetastore.Client(protocol);
+
+      // Open transport
+      if (!transport.isOpen()) {
+        transport.open();
+      }
+
+      // Set the UGI on the metastore side
+      client.set_ugi(hdfsUsername, new ArrayList<>());
+
+      if (settings.getHopsRpcTls()) {
+        // Send the certificate to the metastore so it can operate with the fs.
+        client.set_crypto(userMaterial.getKeyStore(), password, userMaterial.getTrustStore(), password, false);
+      }
+      return client;
+    } catch (CryptoPasswordNotFoundException | ServiceDiscoveryException | TException e) {
+      if (transport != null) {
+        transport.close();
+      }
+      certificateMaterializer.removeCertificatesLocal(user.getUsername(), project.getName());
+      throw new ServiceException(RESTCodes.ServiceErrorCode.METASTORE_CONNECTION_ERROR, Level.SEVERE,
+        "Hive metastore connection error", e.getMessage(), e);
+    } catch (IOException | RuntimeException e) {
+      if (transport != null) {
+        transport.close();
+      }
+      certificateMaterializer.removeCertificatesLocal(user.getUsername(), project.getName());
+      throw e;
+    }
+  }
+
+  private static class ClientHandler implements KeyedObjectPool.Handler<ThriftHiveMetastore.Client> {
+    @Override
+    public boolean isClosed(ThriftHiveMetastore.Client client) {
+      return !client.getInputProtocol().getTransport().isOpen();
+    }
+
+    @Override
+    public boolean validate(ThriftHiveMetastore.Client client) {
+      try {
+        client.getMetaConf(MetastoreConf.ConfVars.TRY_DIRECT_SQL.getVarname());
+        return true;
+      } catch (TException e) {
+        LOGGER.log(Level.FINE, "Discarding broken metastore connection", e);
+        return false;
+      }
+    }
+
+    @Override
+    public void close(ThriftHiveMetastore.Client client) {
+      try {
+        client.shutdown();
+      } catch (TException e) {
+        LOGGER.log(Level.FINE, "Error closing Metastore connection", e);
+      } finally {
+        client.getInputProtocol().getTransport().close();
+      }
+    }
+  }
+}
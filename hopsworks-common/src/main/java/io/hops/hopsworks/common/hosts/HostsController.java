@@ -16,6 +16,7 @@
 package io.hops.hopsworks.common.hosts;
 
 import com.google.common.base.Strings;
+import io.hops.hopsworks.common.agent.HostHeartbeatBuffer;
 import io.hops.hopsworks.common.api.ResourceRequest;
 import io.hops.hopsworks.common.dao.host.HostDTO;
 import io.hops.hopsworks.persistence.entity.host.Hosts;
@@ -39,6 +40,8 @@ public class HostsController {
   
   @EJB
   private HostsFacade hostsFacade;
+  @EJB
+  private HostHeartbeatBuffer hostHeartbeatBuffer;
   
   public Hosts findByHostname(String hostname) throws ServiceException {
     Optional<Hosts> optional = hostsFacade.findByHostname(hostname);
@@ -57,6 +60,7 @@ public class HostsController {
     Optional<Hosts> optional = hostsFacade.findByHostname(hostname);
     if (optional.isPresent()) {
       hostsFacade.remove(optional.get());
+      hostHeartbeatBuffer.remove(hostname);
       return true;
     }
     return false;
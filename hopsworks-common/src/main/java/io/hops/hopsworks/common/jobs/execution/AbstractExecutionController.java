@@ -17,6 +17,7 @@
 package io.hops.hopsworks.common.jobs.execution;
 
 import com.google.common.base.Strings;
+import io.hops.hopsworks.common.agent.HostHeartbeatBuffer;
 import io.hops.hopsworks.common.dao.jobhistory.ExecutionFacade;
 import io.hops.hopsworks.common.dao.jobhistory.YarnApplicationAttemptStateFacade;
 import io.hops.hopsworks.common.dao.jobhistory.YarnApplicationstateFacade;
@@ -54,6 +55,7 @@ import io.hops.hopsworks.persistence.entity.jobs.configuration.spark.SparkJobCon
 import io.hops.hopsworks.persistence.entity.jobs.description.Jobs;
 import io.hops.hopsworks.persistence.entity.jobs.history.Execution;
 import io.hops.hopsworks.persistence.entity.jobs.history.YarnApplicationstate;
+import io.hops.hopsworks.persistence.entity.kagent.HostServices;
 import io.hops.hopsworks.persistence.entity.project.PaymentType;
 import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.user.Users;
@@ -115,6 +117,8 @@ public abstract class AbstractExecutionController implements ExecutionController
   @EJB
   private HostServicesFacade hostServicesFacade;
   @EJB
+  private HostHeartbeatBuffer hostHeartbeatBuffer;
+  @EJB
   private QuotasEnforcement quotasEnforcement;
 
   @Override
@@ -138,7 +142,10 @@ public abstract class AbstractExecutionController implements ExecutionController
     //Check if checking for nodemanager status is enabled
     //If enabled and nodemanagers are all offline throw an JobException exception
     if(settings.isCheckingForNodemanagerStatusEnabled() && job.getJobType() != JobType.PYTHON) {
-      hostServicesFacade.findServices("nodemanager").stream().filter(s -> s.getStatus()
+      List<HostServices> nodemanagers = hostServicesFacade.findServices("nodemanager");
+      // The rows are written every kagent_heartbeat_flush_interval, the heartbeats received since are overlaid
+      nodemanagers.forEach(hostHeartbeatBuffer::overlay);
+      nodemanagers.stream().filter(s -> s.getStatus()
               == ServiceStatus.Started).findFirst().orElseThrow(() ->
               new JobException(RESTCodes.JobErrorCode.NODEMANAGERS_OFFLINE, Level.SEVERE));
     }
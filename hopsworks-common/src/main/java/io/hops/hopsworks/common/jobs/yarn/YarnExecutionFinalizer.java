@@ -53,9 +53,9 @@ import io.hops.hopsworks.common.yarn.YarnClientService;
 import io.hops.hopsworks.common.yarn.YarnClientWrapper;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.hadoop.yarn.api.records.LogAggregationStatus;
 import org.apache.hadoop.yarn.exceptions.YarnException;
 
-import javax.ejb.AsyncResult;
 import javax.ejb.Asynchronous;
 import javax.ejb.DependsOn;
 import javax.ejb.EJB;
@@ -64,10 +64,10 @@ import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -87,39 +87,80 @@ public class YarnExecutionFinalizer {
   @EJB
   private YarnClientService ycs;
 
-  @Asynchronous
-  public Future<Execution> copyLogs(Execution exec) {
-    DistributedFileSystemOps udfso = dfs.getDfsOps(exec.getHdfsUser());
-    ApplicationId applicationId = ApplicationId.fromString(exec.getAppId());
+  /**
+   * Read the log aggregation status of the applications of the executions once, without waiting for it to finish.
+   * Used by YarnLogCopyScheduler to wait for the aggregation outside of its copy slots.
+   *
+   * @return the status of each execution in the order of execs, null if it could not be read
+   */
+  public List<LogAggregationStatus> getLogAggregationStatus(List<Execution> execs) {
+    List<LogAggregationStatus> statuses = new ArrayList<>(execs.size());
     YarnClientWrapper yarnClientWrapper = ycs.getYarnClientSuper(settings.getConfiguration());
-    YarnMonitor monitor = new YarnMonitor(applicationId, yarnClientWrapper, ycs);
+    try {
+      for (Execution exec : execs) {
+        try {
+          statuses.add(yarnClientWrapper.getYarnClient()
+            .getApplicationReport(ApplicationId.fromString(exec.getAppId())).getLogAggregationStatus());
+        } catch (IOException | YarnException ex) {
+          LOGGER.log(Level.WARNING, "Could not read the log aggregation status of execution " + exec.getId(), ex);
+          statuses.add(null);
+        }
+      }
+    } finally {
+      ycs.closeYarnClient(yarnClientWrapper);
+    }
+    return statuses;
+  }
 
+  /**
+   * Copy the aggregated logs of a finished application to the project. The log aggregation must have finished, runs
+   * on the bounded executor of YarnLogCopyScheduler, use YarnLogCopyScheduler#submit.
+   *
+   * @param logAggregationStatus the final log aggregation status of the application
+   * @return the number of bytes copied
+   */
+  public long copyLogs(Execution exec, LogAggregationStatus logAggregationStatus) {
+    DistributedFileSystemOps udfso = dfs.getDfsOps(exec.getHdfsUser());
     try {
       String stdOutPath = settings.getAggregatedLogPath(exec.getHdfsUser(), exec.getAppId());
-      String[] logOutputPaths = Utils.getJobLogLocation(exec.getJob().getProject().getName(),
-        exec.getJob().getJobType());
-      String stdOutFinalDestination = logOutputPaths[0] + exec.getAppId() + File.separator + "stdout.log";
-      String stdErrFinalDestination = logOutputPaths[1] + exec.getAppId() + File.separator + "stderr.log";
-  
+      String[] destinations = getLogDestinations(exec);
+      long copied = 0;
       try {
         String[] desiredOutLogTypes = {"out"};
-        YarnLogUtil.copyAggregatedYarnLogs(udfso, stdOutPath, stdOutFinalDestination,
-            desiredOutLogTypes, monitor);
+        copied += YarnLogUtil.copyAggregatedYarnLogs(udfso, stdOutPath, destinations[0],
+            desiredOutLogTypes, logAggregationStatus);
         String[] desiredErrLogTypes = {"err", ".log"};
-        YarnLogUtil.copyAggregatedYarnLogs(udfso, stdOutPath, stdErrFinalDestination,
-                desiredErrLogTypes, monitor);
-      } catch (IOException | InterruptedException | YarnException ex) {
+        copied += YarnLogUtil.copyAggregatedYarnLogs(udfso, stdOutPath, destinations[1],
+                desiredErrLogTypes, logAggregationStatus);
+      } catch (IOException ex) {
         LOGGER.log(Level.SEVERE,"error while aggregation logs" + ex.toString());
       }
-      Execution execution = updateExecutionSTDPaths(stdOutFinalDestination, stdErrFinalDestination, exec);
-      finalize(exec, exec.getState());
-      return new AsyncResult<>(execution);
+      return copied;
     } finally {
       dfs.closeDfsClient(udfso);
-      monitor.close();
     }
   }
 
+  /**
+   * Point the execution to its copied logs and finalize it.
+   */
+  public void finalizeLogCopy(Execution exec) {
+    String[] destinations = getLogDestinations(exec);
+    updateExecutionSTDPaths(destinations[0], destinations[1], exec);
+    finalize(exec, exec.getState());
+  }
+
+  /**
+   * @return the stdout and stderr destinations of the logs of the execution
+   */
+  private String[] getLogDestinations(Execution exec) {
+    String[] logOutputPaths = Utils.getJobLogLocation(exec.getJob().getProject().getName(),
+      exec.getJob().getJobType());
+    return new String[]{
+      logOutputPaths[0] + exec.getAppId() + File.separator + "stdout.log",
+      logOutputPaths[1] + exec.getAppId() + File.separator + "stderr.log"};
+  }
+
   @Asynchronous
   public void finalize(Execution exec, JobState jobState) {
     //The execution won't exist in the database, if the job has been deleted.
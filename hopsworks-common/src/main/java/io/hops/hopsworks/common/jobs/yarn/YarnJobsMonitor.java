@@ -45,14 +45,22 @@ import io.hops.hopsworks.common.jobs.execution.ExecutionUpdateController;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.common.yarn.YarnClientService;
 import io.hops.hopsworks.common.yarn.YarnClientWrapper;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
 import io.hops.hopsworks.persistence.entity.jobs.configuration.history.JobFinalStatus;
 import io.hops.hopsworks.persistence.entity.jobs.configuration.history.JobState;
 import io.hops.hopsworks.persistence.entity.jobs.history.Execution;
 import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.hadoop.yarn.api.records.ApplicationReport;
 import org.apache.hadoop.yarn.api.records.FinalApplicationStatus;
 import org.apache.hadoop.yarn.api.records.YarnApplicationState;
+import org.apache.hadoop.yarn.client.api.YarnClient;
 import org.apache.hadoop.yarn.exceptions.YarnException;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
 import javax.ejb.DependsOn;
 import javax.ejb.EJB;
 import javax.ejb.Schedule;
@@ -60,23 +68,39 @@ import javax.ejb.Singleton;
 import javax.ejb.Timer;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 @Singleton
 @DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
 @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
 public class YarnJobsMonitor implements JobsMonitor {
 
   private static final Logger LOGGER = Logger.getLogger(YarnJobsMonitor.class.getName());
 
+  private static final long MONITOR_PERIOD_MS = 5000;
+  private static final int MAX_PARALLEL_UPDATES = 10;
+  // Reports of the applications in these states are fetched with a single call per run. Applications that left them
+  // since the previous run are fetched one by one, which happens once per application as they are then finalized.
+  private static final EnumSet<YarnApplicationState> ACTIVE_STATES = EnumSet.of(YarnApplicationState.NEW,
+      YarnApplicationState.NEW_SAVING, YarnApplicationState.SUBMITTED, YarnApplicationState.ACCEPTED,
+      YarnApplicationState.RUNNING);
+
   @EJB
   private Settings settings;
   @EJB
@@ -86,103 +110,178 @@ public class YarnJobsMonitor implements JobsMonitor {
   @EJB
   private YarnExecutionFinalizer execFinalizer;
   @EJB
+  private YarnLogCopyScheduler logCopyScheduler;
+  @EJB
   private YarnClientService ycs;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
 
   private int maxStatusPollRetry;
 
-  Map<String, YarnMonitor> monitors = new HashMap<>();
-  Map<String, Integer> failures = new HashMap<>();
-  private final Map<ApplicationId, Future<Execution>> copyLogsFutures = new HashMap<>();
+  // Shared by all the applications, only created and closed by the monitor thread
+  private YarnClientWrapper yarnClientWrapper;
+  private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+  private final Map<ApplicationId, Future<Void>> copyLogsFutures = new ConcurrentHashMap<>();
+
+  private long lastRunStart = 0;
+  private volatile long lastRunDuration = 0;
+  private volatile long maxRunDuration = 0;
+  private volatile long lastRunLag = 0;
+  private volatile int monitoredApplications = 0;
+
+  @PostConstruct
+  public void init() {
+    MetricsRegistry.register("yarnJobsMonitor", this::getMetrics);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("yarnJobsMonitor");
+    closeYarnClient();
+  }
 
   @Schedule(persistent = false,
       second = "*/5",
       minute = "*",
       hour = "*")
+  // Runs one at a time, the other methods don't touch the state of the monitor or only read volatile fields
   public synchronized void monitor(Timer timer) {
+    long start = System.currentTimeMillis();
+    if (lastRunStart > 0) {
+      lastRunLag = Math.max(0, start - lastRunStart - MONITOR_PERIOD_MS);
+    }
+    lastRunStart = start;
     try {
       Map<String, Execution> executions = new HashMap<>();
       List<Execution> execs = executionFacade.findNotFinished();
-      if (execs != null && !execs.isEmpty()) {
+      if (execs != null) {
         for (Execution exec : execs) {
           if (exec.getAppId() != null) {
             executions.put(exec.getAppId(), exec);
           }
         }
-        //Remove (Close) all monitors of deleted jobs
-        Iterator<Map.Entry<String, YarnMonitor>> monitorsIter = monitors.entrySet().iterator();
-        while (monitorsIter.hasNext()) {
-          Map.Entry<String, YarnMonitor> entry = monitorsIter.next();
-          // Check if Value associated with Key is 10
-          if (!executions.keySet().contains(entry.getKey())) {
-            // Remove the element
-            entry.getValue().close();
-            monitorsIter.remove();
-          }
-        }
+      }
+      // Forget the failures of deleted jobs
+      failures.keySet().retainAll(executions.keySet());
+      monitoredApplications = executions.size();
+      if (!executions.isEmpty()) {
         maxStatusPollRetry = settings.getMaxStatusPollRetry();
-        List<String> toRemove = new ArrayList<>();
-        for (Map.Entry<String, Execution> entry : executions.entrySet()) {
-          YarnMonitor monitor = monitors.get(entry.getKey());
-          if (monitor == null) {
-            ApplicationId appId = ApplicationId.fromString(entry.getKey());
-            YarnClientWrapper newYarnclientWrapper = ycs.getYarnClientSuper(settings
-              .getConfiguration());
-            monitor = new YarnMonitor(appId, newYarnclientWrapper, ycs);
-            monitors.put(entry.getKey(), monitor);
-          }
-          Execution exec = internalMonitor(executions.get(entry.getKey()), monitor);
-          if (exec == null) {
-            toRemove.add(entry.getKey());
-            monitor.close();
-          }
+        if (yarnClientWrapper == null) {
+          yarnClientWrapper = ycs.getYarnClientSuper(settings.getConfiguration());
         }
-        for (String appID : toRemove) {
-          failures.remove(appID);
-          monitors.remove(appID);
+        YarnClient yarnClient = yarnClientWrapper.getYarnClient();
+        Map<String, ApplicationReport> activeReports = getActiveApplicationReports(yarnClient);
+        updateExecutions(executions.values(), yarnClient, activeReports);
+        if (activeReports == null) {
+          // start over with a new client in the next run
+          closeYarnClient();
         }
-        // This is here to do bookkeeping. Remove from the map all the executions which have finished copying the logs
-        copyLogsFutures.entrySet().removeIf(futureResult -> futureResult.getValue().isDone());
       }
+      // This is here to do bookkeeping. Remove from the map all the executions which have finished copying the logs
+      copyLogsFutures.entrySet().removeIf(futureResult -> futureResult.getValue().isDone());
     } catch (Exception ex) {
       LOGGER.log(Level.SEVERE, "Error while monitoring jobs", ex);
+    } finally {
+      lastRunDuration = System.currentTimeMillis() - start;
+      maxRunDuration = Math.max(maxRunDuration, lastRunDuration);
+      if (lastRunDuration > MONITOR_PERIOD_MS) {
+        LOGGER.log(Level.WARNING, "Monitoring {0} applications took {1} ms, longer than the monitoring period",
+            new Object[]{monitoredApplications, lastRunDuration});
+      }
     }
   }
-  
-  private Execution internalMonitor(Execution exec, YarnMonitor monitor) {
+
+  /**
+   * @return the reports of the applications in ACTIVE_STATES keyed by application id, or null if they could not be
+   * fetched, in which case every application is fetched on its own and failures are accounted per application
+   */
+  private Map<String, ApplicationReport> getActiveApplicationReports(YarnClient yarnClient) {
+    try {
+      List<ApplicationReport> reports = yarnClient.getApplications(ACTIVE_STATES);
+      Map<String, ApplicationReport> reportsById = new HashMap<>(reports.size() * 2);
+      for (ApplicationReport report : reports) {
+        reportsById.put(report.getApplicationId().toString(), report);
+      }
+      return reportsById;
+    } catch (IOException | YarnException ex) {
+      LOGGER.log(Level.WARNING, "Failed to list the active applications, falling back to per application reports",
+          ex);
+      return null;
+    }
+  }
+
+  private void updateExecutions(Collection<Execution> executions, YarnClient yarnClient,
+      Map<String, ApplicationReport> activeReports) throws InterruptedException {
+    Semaphore permits = new Semaphore(MAX_PARALLEL_UPDATES);
+    List<Future<?>> updates = new ArrayList<>(executions.size());
+    for (Execution exec : executions) {
+      permits.acquire();
+      try {
+        updates.add(executorService.submit(() -> {
+          try {
+            internalMonitor(exec, yarnClient, activeReports);
+          } finally {
+            permits.release();
+          }
+        }));
+      } catch (RejectedExecutionException ex) {
+        permits.release();
+        throw ex;
+      }
+    }
+    for (Future<?> update : updates) {
+      try {
+        update.get();
+      } catch (ExecutionException ex) {
+        LOGGER.log(Level.SEVERE, "Error while monitoring job", ex.getCause());
+      }
+    }
+  }
+
+  private void internalMonitor(Execution exec, YarnClient yarnClient, Map<String, ApplicationReport> activeReports) {
+    ApplicationId appId = ApplicationId.fromString(exec.getAppId());
     try {
-      YarnApplicationState appState = monitor.getApplicationState();
-      FinalApplicationStatus finalAppStatus = monitor.getFinalApplicationStatus();
-      float progress = monitor.getProgress();
-      exec = updateProgress(progress, exec);
-      exec = updateState(JobState.getJobState(appState), exec);
-      exec = updateFinalStatus(JobFinalStatus.getJobFinalStatus(finalAppStatus), exec);
-      
+      ApplicationReport report = activeReports == null ? null : activeReports.get(exec.getAppId());
+      if (report == null) {
+        report = yarnClient.getApplicationReport(appId);
+      }
+      YarnApplicationState appState = report.getYarnApplicationState();
+      FinalApplicationStatus finalAppStatus = report.getFinalApplicationStatus();
+      failures.remove(exec.getAppId());
+
+      // Only write what changed since the previous run
+      if (exec.getProgress() != report.getProgress()) {
+        exec = updateProgress(report.getProgress(), exec);
+      }
+      JobState state = JobState.getJobState(appState);
+      if (exec.getState() != state) {
+        exec = updateState(state, exec);
+      }
+      JobFinalStatus finalStatus = JobFinalStatus.getJobFinalStatus(finalAppStatus);
+      if (exec.getFinalStatus() != finalStatus) {
+        exec = updateFinalStatus(finalStatus, exec);
+      }
+
       if ((appState == YarnApplicationState.FAILED
           || appState == YarnApplicationState.FINISHED
           || appState == YarnApplicationState.KILLED)
-          && !copyLogsFutures.containsKey(monitor.getApplicationId())) {
-        
+          && !copyLogsFutures.containsKey(appId)) {
+
         exec = executionFacade.updateState(exec, JobState.AGGREGATING_LOGS);
-        // Async call
-        Future<Execution> futureResult = execFinalizer.copyLogs(exec);
-        copyLogsFutures.put(monitor.getApplicationId(), futureResult);
-        return null;
+        // Queued on the bounded log copy executor
+        Future<Void> futureResult = logCopyScheduler.submit(exec);
+        copyLogsFutures.put(appId, futureResult);
       }
+      return;
     } catch (IOException | YarnException ex) {
-      Integer failure = failures.get(exec.getAppId());
-      if (failure == null) {
-        failure = 1;
-      } else {
-        failure++;
-      }
-      failures.put(exec.getAppId(), failure);
-      LOGGER.log(Level.WARNING, "Failed to get application state for execution " + exec + ". Tried " + failures
+      int failure = failures.merge(exec.getAppId(), 1, Integer::sum);
+      LOGGER.log(Level.WARNING, "Failed to get application state for execution " + exec + ". Tried " + failure
           + " time(s).", ex);
     }
-    if (failures.get(exec.getAppId()) != null && failures.get(exec.getAppId()) > maxStatusPollRetry) {
+    if (failures.getOrDefault(exec.getAppId(), 0) > maxStatusPollRetry) {
       try {
         LOGGER.log(Level.SEVERE, "Killing application, {0}, because unable to poll for status.", exec);
-        monitor.cancelJob(monitor.getApplicationId().toString());
+        yarnClient.killApplication(appId);
         exec = updateFinalStatus(JobFinalStatus.KILLED, exec);
         exec = updateProgress(0, exec);
         execFinalizer.finalize(exec, JobState.KILLED);
@@ -190,9 +289,28 @@ public class YarnJobsMonitor implements JobsMonitor {
         LOGGER.log(Level.SEVERE, "Failed to cancel execution, " + exec + " after failing to poll for status.", ex);
         execFinalizer.finalize(exec, JobState.FRAMEWORK_FAILURE);
       }
-      return null;
+      failures.remove(exec.getAppId());
     }
-    return exec;
+  }
+
+  private void closeYarnClient() {
+    if (yarnClientWrapper != null) {
+      ycs.closeYarnClient(yarnClientWrapper);
+      yarnClientWrapper = null;
+    }
+  }
+
+  /**
+   * @return the duration of the last and longest runs, how much later than its period the last run started because
+   * the previous one was still running, and the number of applications monitored by the last run
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("lastRunDurationMs", lastRunDuration);
+    metrics.put("maxRunDurationMs", maxRunDuration);
+    metrics.put("lastRunLagMs", lastRunLag);
+    metrics.put("monitoredApplications", monitoredApplications);
+    return metrics;
   }
   
   @Override
@@ -208,4 +326,4 @@ public class YarnJobsMonitor implements JobsMonitor {
   private Execution updateFinalStatus(JobFinalStatus finalStatus, Execution execution) {
     return executionUpdateController.updateFinalStatusAndSendAlert(finalStatus, execution);
   }
-}
\ No newline at end of file
+}
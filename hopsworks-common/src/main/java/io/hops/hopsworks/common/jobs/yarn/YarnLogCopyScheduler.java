@@ -0,0 +1,275 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.jobs.yarn;
+
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
+import io.hops.hopsworks.persistence.entity.jobs.configuration.history.JobFinalStatus;
+import io.hops.hopsworks.persistence.entity.jobs.history.Execution;
+import org.apache.hadoop.yarn.api.records.LogAggregationStatus;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Timer;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Copies the aggregated logs of finished applications with at most yarn_log_copy_max_concurrent copies running, so
+ * that a burst of applications finishing together doesn't take over the application server.
+ * Waiting copies of failed or killed executions go first, users are waiting to read why they failed. Within each
+ * priority the projects are served round robin, a project finishing many applications at once doesn't hold back
+ * the copies of the others.
+ * A copy only takes a slot once the log aggregation of its application has finished, the aggregation status is
+ * checked every 2 seconds outside of the slots.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class YarnLogCopyScheduler {
+
+  private static final Logger LOGGER = Logger.getLogger(YarnLogCopyScheduler.class.getName());
+
+  @EJB
+  private Settings settings;
+  @EJB
+  private YarnExecutionFinalizer execFinalizer;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
+
+  // Copies waiting for the log aggregation of their application to finish. Guarded by this.
+  private final Set<LogCopy> aggregating = new LinkedHashSet<>();
+  // Waiting copies per project, in the order the projects are served. Guarded by this.
+  private final Map<String, Deque<LogCopy>> failedQueues = new LinkedHashMap<>();
+  private final Map<String, Deque<LogCopy>> queues = new LinkedHashMap<>();
+  private int queued = 0;
+  private int running = 0;
+
+  private final AtomicBoolean checking = new AtomicBoolean();
+
+  private final AtomicLong completedCopies = new AtomicLong();
+  private final AtomicLong copiedBytes = new AtomicLong();
+  private final AtomicLong copyMillis = new AtomicLong();
+
+  public YarnLogCopyScheduler() { }
+
+  // For testing
+  protected YarnLogCopyScheduler(Settings settings, YarnExecutionFinalizer execFinalizer,
+      ManagedExecutorService executorService) {
+    this.settings = settings;
+    this.execFinalizer = execFinalizer;
+    this.executorService = executorService;
+  }
+
+  @PostConstruct
+  public void init() {
+    MetricsRegistry.register("yarnLogCopyScheduler", this::getMetrics);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("yarnLogCopyScheduler");
+  }
+
+  /**
+   * Queue the log copy and finalization of a finished execution.
+   *
+   * @param exec execution of a finished application
+   * @return completes once the logs are copied and the execution finalized
+   */
+  public Future<Void> submit(Execution exec) {
+    LogCopy copy = new LogCopy(exec);
+    synchronized (this) {
+      aggregating.add(copy);
+    }
+    return copy.result;
+  }
+
+  /**
+   * Queue the copies whose log aggregation has finished. NOT_START is given up on after
+   * YarnLogUtil.MAX_NOT_START_RETRIES checks, as YarnLogUtil#waitForLogAggregation does.
+   */
+  @Schedule(persistent = false,
+      second = "*/2",
+      minute = "*",
+      hour = "*")
+  public void checkLogAggregation(Timer timer) {
+    List<LogCopy> copies;
+    synchronized (this) {
+      if (aggregating.isEmpty()) {
+        return;
+      }
+      copies = new ArrayList<>(aggregating);
+    }
+    // Skip the check if the previous one is still reading the statuses
+    if (!checking.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      List<Execution> execs = new ArrayList<>(copies.size());
+      for (LogCopy copy : copies) {
+        execs.add(copy.exec);
+      }
+      List<LogAggregationStatus> statuses = execFinalizer.getLogAggregationStatus(execs);
+      synchronized (this) {
+        for (int i = 0; i < copies.size(); i++) {
+          LogCopy copy = copies.get(i);
+          LogAggregationStatus status = statuses.get(i);
+          if (YarnLogUtil.isFinal(status) || (status == LogAggregationStatus.NOT_START
+              && ++copy.notStartChecks > YarnLogUtil.MAX_NOT_START_RETRIES)) {
+            copy.logAggregationStatus = status;
+            aggregating.remove(copy);
+            enqueue(copy);
+          }
+        }
+        dispatch();
+      }
+    } catch (RuntimeException ex) {
+      LOGGER.log(Level.WARNING, "Could not check the log aggregation of the finished executions", ex);
+    } finally {
+      checking.set(false);
+    }
+  }
+
+  // Callers must hold the lock of this
+  private void enqueue(LogCopy copy) {
+    Execution exec = copy.exec;
+    boolean failed = exec.getFinalStatus() == JobFinalStatus.FAILED || exec.getFinalStatus() == JobFinalStatus.KILLED;
+    (failed ? failedQueues : queues)
+      .computeIfAbsent(exec.getJob().getProject().getName(), k -> new ArrayDeque<>())
+      .addLast(copy);
+    queued++;
+  }
+
+  // Callers must hold the lock of this
+  private void dispatch() {
+    int maxConcurrent = settings.getYarnLogCopyMaxConcurrent();
+    while (running < maxConcurrent) {
+      LogCopy next = poll(failedQueues);
+      if (next == null) {
+        next = poll(queues);
+      }
+      if (next == null) {
+        return;
+      }
+      queued--;
+      running++;
+      LogCopy copy = next;
+      try {
+        executorService.submit(() -> run(copy));
+      } catch (RejectedExecutionException ex) {
+        running--;
+        LOGGER.log(Level.WARNING, "Could not schedule the log copy of execution " + copy.exec.getId(), ex);
+        copy.result.completeExceptionally(ex);
+      }
+    }
+  }
+
+  /**
+   * Take the oldest copy of the first project and move the project to the back of the queue.
+   */
+  private LogCopy poll(Map<String, Deque<LogCopy>> projectQueues) {
+    Iterator<Map.Entry<String, Deque<LogCopy>>> iterator = projectQueues.entrySet().iterator();
+    if (!iterator.hasNext()) {
+      return null;
+    }
+    Map.Entry<String, Deque<LogCopy>> first = iterator.next();
+    iterator.remove();
+    LogCopy copy = first.getValue().pollFirst();
+    if (!first.getValue().isEmpty()) {
+      projectQueues.put(first.getKey(), first.getValue());
+    }
+    return copy;
+  }
+
+  private void run(LogCopy copy) {
+    try {
+      long start = System.currentTimeMillis();
+      long copied = execFinalizer.copyLogs(copy.exec, copy.logAggregationStatus);
+      long millis = System.currentTimeMillis() - start;
+      completedCopies.incrementAndGet();
+      copiedBytes.addAndGet(copied);
+      copyMillis.addAndGet(millis);
+      LOGGER.log(Level.FINE, "Copied {0} bytes of logs of execution {1} in {2} ms",
+        new Object[]{copied, copy.exec.getId(), millis});
+      execFinalizer.finalizeLogCopy(copy.exec);
+      copy.result.complete(null);
+    } catch (RuntimeException ex) {
+      LOGGER.log(Level.SEVERE, "Error while copying the logs of execution " + copy.exec.getId(), ex);
+      copy.result.completeExceptionally(ex);
+    } finally {
+      synchronized (this) {
+        running--;
+        dispatch();
+      }
+    }
+  }
+
+  /**
+   * @return the copies waiting for log aggregation, waiting for a slot, running and completed, the bytes copied and
+   * the average bytes per second of the completed copies
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    synchronized (this) {
+      metrics.put("aggregating", aggregating.size());
+      metrics.put("queued", queued);
+      metrics.put("running", running);
+    }
+    metrics.put("completedCopies", completedCopies.get());
+    metrics.put("copiedBytes", copiedBytes.get());
+    metrics.put("bytesPerSecond", copiedBytes.get() * 1000 / Math.max(copyMillis.get(), 1));
+    return metrics;
+  }
+
+  private static class LogCopy {
+    private final Execution exec;
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+    // Set by checkLogAggregation under the lock of the scheduler
+    private LogAggregationStatus logAggregationStatus;
+    private int notStartChecks = 0;
+
+    LogCopy(Execution exec) {
+      this.exec = exec;
+    }
+  }
+}
@@ -40,16 +40,21 @@
 package io.hops.hopsworks.common.jobs.yarn;
 
 import io.hops.hopsworks.common.hdfs.DistributedFileSystemOps;
+import java.io.BufferedWriter;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.yarn.api.records.ApplicationId;
@@ -62,6 +67,11 @@ import org.apache.hadoop.yarn.logaggregation.AggregatedLogFormat.ContainerLogsRe
 public class YarnLogUtil {
 
   private static final Logger LOGGER = Logger.getLogger(YarnLogUtil.class.getName());
+  private static final int COPY_BUFFER_SIZE = 65536;
+  /**
+   * Number of checks, 2 seconds apart, after which a log aggregation that has not started is given up on.
+   */
+  public static final int MAX_NOT_START_RETRIES = 30;
   
   public static void writeLog(DistributedFileSystemOps dfs, String dst,
     String message) {
@@ -101,32 +111,52 @@ public class YarnLogUtil {
    * @param dst destination path to copy to
    * @param desiredLogTypes stderr or stdout or stdlog
    * @param monitor the monitor to check the log aggregation status
+   * @return the number of bytes written to dst
    */
-  public static void copyAggregatedYarnLogs(DistributedFileSystemOps dfs, String src, String dst,
+  public static long copyAggregatedYarnLogs(DistributedFileSystemOps dfs, String src, String dst,
       String[] desiredLogTypes, YarnMonitor monitor) throws YarnException, IOException, InterruptedException {
   
     LogAggregationStatus logAggregationStatus = waitForLogAggregation(monitor.getYarnClient(),
         monitor.getApplicationId());
+    return copyAggregatedYarnLogs(dfs, src, dst, desiredLogTypes, logAggregationStatus);
+  }
+
+  /**
+   * Copies the desired log type of an application whose log aggregation has already finished, without waiting for it.
+   *
+   * @param dfs
+   * @param src aggregated yarn log path
+   * @param dst destination path to copy to
+   * @param desiredLogTypes stderr or stdout or stdlog
+   * @param logAggregationStatus the final log aggregation status of the application
+   * @return the number of bytes written to dst
+   */
+  public static long copyAggregatedYarnLogs(DistributedFileSystemOps dfs, String src, String dst,
+      String[] desiredLogTypes, LogAggregationStatus logAggregationStatus) throws IOException {
     if (logAggregationStatus == null) {
       // ServiceStatus might be null if there were issues starting the application
       // most likely on the yarn side.
-      return;
+      return 0;
     }
 
-    PrintStream writer = null;
+    // Container logs are streamed chunk by chunk from the aggregated files to the destination
+    FSDataOutputStream out = null;
+    Writer writer = null;
+    long copied = 0;
     String[] srcs;
     try {   
       srcs = getAggregatedLogFilePaths(src, dfs);
       if (!logFilesReady(srcs, dfs)) {
         LOGGER.log(Level.SEVERE, "Error getting logs");
       }
-      writer = new PrintStream(dfs.create(dst));
+      out = dfs.create(dst);
+      writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), COPY_BUFFER_SIZE);
       switch (logAggregationStatus) {
         case FAILED:
-          writer.print("The log aggregation failed");
+          writer.write("The log aggregation failed");
           break;
         case TIME_OUT:
-          writer.print("*** WARNING: Log aggregation has timed-out for some of the containers\n\n\n");
+          writer.write("*** WARNING: Log aggregation has timed-out for some of the containers\n\n\n");
           for (String desiredLogType : desiredLogTypes) {
             writeLogs(dfs, srcs, writer, desiredLogType);
           }
@@ -137,20 +167,29 @@ public class YarnLogUtil {
           }
           break;
         default :
-          writer.print("Something went wrong during log aggregation phase! Log aggregation status is: "
+          writer.write("Something went wrong during log aggregation phase! Log aggregation status is: "
               + logAggregationStatus.name());
       }
     } catch (Exception ex) {
       if (writer != null) {
-        writer.print(YarnLogUtil.class.getName() + ": Failed to get aggregated logs.\n" + ex.getMessage());
+        try {
+          writer.write(YarnLogUtil.class.getName() + ": Failed to get aggregated logs.\n" + ex.getMessage());
+        } catch (IOException e) {
+          LOGGER.log(Level.FINE, "Failed to write the log copy error to " + dst, e);
+        }
       }
       LOGGER.log(Level.SEVERE, null, ex);
     } finally {
       if (writer != null) {
-        writer.flush();
-        writer.close();
+        try {
+          writer.flush();
+          copied = out.getPos();
+        } finally {
+          writer.close();
+        }
       }
     }
+    return copied;
   }
   
   public static LogAggregationStatus waitForLogAggregation(YarnClient yarnClient, ApplicationId appId)
@@ -167,7 +206,7 @@ public class YarnLogUtil {
       // (b) Application has succeeded but the moment we probe for status,
       // log aggregation hasn't started yet.
       if (logAggregationStatus.equals(LogAggregationStatus.NOT_START)) {
-        if (++not_startRetries > 30) {
+        if (++not_startRetries > MAX_NOT_START_RETRIES) {
           break;
         }
       }
@@ -175,7 +214,11 @@ public class YarnLogUtil {
     return logAggregationStatus;
   }
 
-  private static boolean isFinal(LogAggregationStatus status){
+  /**
+   * @return whether the log aggregation will not change anymore. NOT_START is not final, callers give up on it after
+   * MAX_NOT_START_RETRIES checks.
+   */
+  public static boolean isFinal(LogAggregationStatus status){
     if (status == null) {
       // ServiceStatus might be null if there were issues starting the application
       // most likely on the yarn side.
@@ -193,7 +236,7 @@ public class YarnLogUtil {
   }
   
   private static void writeLogs(DistributedFileSystemOps dfs, String[] srcs,
-          PrintStream writer, String desiredLogType) {
+          Writer writer, String desiredLogType) {
     ArrayList<AggregatedLogFormat.LogKey> containerNames = new ArrayList<>();
     LogReader reader = null;
     DataInputStream valueStream;
@@ -315,11 +358,11 @@ public class YarnLogUtil {
 
   //Mostly taken from org.apache.hadoop.yarn.webapp.log.AggregatedLogsBlock
   private static boolean readContainerLogs(
-          AggregatedLogFormat.ContainerLogsReader logReader, PrintStream writer,
+          AggregatedLogFormat.ContainerLogsReader logReader, Writer writer,
           String desiredLogType, AggregatedLogFormat.LogKey containerKey,
           String nodename) throws
           IOException {
-    int bufferSize = 65536;
+    int bufferSize = COPY_BUFFER_SIZE;
     char[] cbuf = new char[bufferSize];
     boolean foundLog = false;
     String logType = logReader.nextLog();
@@ -347,7 +390,7 @@ public class YarnLogUtil {
                 : (int) logLength;
         while (logLength > 0 && (len = logReader.read(cbuf, 0, currentToRead))
                 > 0) {
-          writer.append(new String(cbuf, 0, len));
+          writer.write(cbuf, 0, len);
           logLength = logLength - len;
           currentToRead = logLength > bufferSize ? bufferSize : (int) logLength;
         }
@@ -72,6 +72,7 @@ import io.hops.hopsworks.common.experiments.tensorboard.TensorBoardController;
 import io.hops.hopsworks.common.featurestore.FeaturestoreController;
 import io.hops.hopsworks.common.featurestore.online.OnlineFeaturestoreController;
 import io.hops.hopsworks.common.featurestore.transformationFunction.TransformationFunctionController;
+import io.hops.hopsworks.common.featurestore.utils.JdbcConnectionPool;
 import io.hops.hopsworks.common.hdfs.DistributedFileSystemOps;
 import io.hops.hopsworks.common.hdfs.DistributedFsService;
 import io.hops.hopsworks.common.hdfs.FsPermissions;
@@ -79,6 +80,7 @@ import io.hops.hopsworks.common.hdfs.HdfsUsersController;
 import io.hops.hopsworks.common.hdfs.Utils;
 import io.hops.hopsworks.common.hdfs.inode.InodeController;
 import io.hops.hopsworks.common.hive.HiveController;
+import io.hops.hopsworks.common.hive.HiveMetastoreClientPool;
 import io.hops.hopsworks.common.jobs.JobController;
 import io.hops.hopsworks.common.jobs.execution.ExecutionController;
 import io.hops.hopsworks.common.jobs.yarn.YarnLogUtil;
@@ -218,6 +220,8 @@ public class ProjectController {
   @EJB
   private ProjectTeamFacade projectTeamFacade;
   @EJB
+  private ProjectRoleCache projectRoleCache;
+  @EJB
   private YarnProjectsQuotaFacade yarnProjectsQuotaFacade;
   @EJB
   private UserFacade userFacade;
@@ -240,6 +244,10 @@ public class ProjectController {
   @EJB
   private DistributedFsService dfs;
   @EJB
+  private HiveMetastoreClientPool hiveMetastoreClientPool;
+  @EJB
+  private JdbcConnectionPool jdbcConnectionPool;
+  @EJB
   private YarnClientService ycs;
   @EJB
   private InodeFacade inodeFacade;
@@ -936,6 +944,7 @@ public class ProjectController {
     st.setUser(serviceUser);
     st.setProject(project);//Not fetched by jpa from project id in PK
     projectTeamFacade.persistProjectTeam(st);
+    projectRoleCache.invalidate(project, serviceUser);
     // Create the Hdfs user
     hdfsUsersController.addNewMember(st);
     // Create the certificate for this project user
@@ -1646,6 +1655,8 @@ public class ProjectController {
         List<HdfsUsers> usersToClean = getUsersToClean(project);
         List<HdfsGroups> groupsToClean = getGroupsToClean(project);
         removeProjectInt(project, usersToClean, groupsToClean, projectCreationFutures, decreaseCreatedProj, owner);
+        projectRoleCache.invalidateProject(project);
+        projectFacade.evictFromCache(project);
         removeCertificatesFromMaterializer(project);
         //Delete online featurestore database
         onlineFeaturestoreController.removeOnlineFeatureStore(project);
@@ -1797,6 +1808,7 @@ public class ProjectController {
     TransactionAttributeType.REQUIRES_NEW)
   private List<ProjectTeam> updateProjectTeamRole(Project project, ProjectRoleTypes teamRole) throws ProjectException {
     List<ProjectTeam> projectTeams = projectTeamFacade.updateTeamRole(project, teamRole);
+    projectRoleCache.invalidateProject(project);
     ProjectTeamRoleHandler.runProjectTeamRoleUpdateMembersHandlers(projectTeamRoleHandlers, project,
       projectTeams.stream().map(ProjectTeam::getUser).collect(Collectors.toList()), teamRole);
     return projectTeams;
@@ -1923,6 +1935,7 @@ public class ProjectController {
       projectTeam.setUser(newMember);
       project.getProjectTeamCollection().add(projectTeam);
       projectFacade.update(project);
+      projectRoleCache.invalidate(project, newMember);
       hdfsUsersController.addNewProjectMember(projectTeam, dfso);
 
       //if online-featurestore service is enabled in the project, give new member access to it
@@ -1961,6 +1974,7 @@ public class ProjectController {
         LOGGER.log(Level.SEVERE, "error while creating certificates, jupyter kernel: " + ex.getMessage(), ex);
         hdfsUsersController.removeMember(projectTeam);
         projectTeamFacade.removeProjectTeam(project, newMember);
+        projectRoleCache.invalidate(project, newMember);
         throw new EJBException("Could not create certificates for user");
       }
   
@@ -2119,6 +2133,7 @@ public class ProjectController {
       throw new ProjectException(RESTCodes.ProjectErrorCode.PROJECT_OWNER_NOT_ALLOWED, Level.FINE);
     }
     projectTeamFacade.removeProjectTeam(project, userToBeRemoved);
+    projectRoleCache.invalidate(project, userToBeRemoved);
     String hdfsUser = hdfsUsersController.getHdfsUserName(project, userToBeRemoved);
     
     YarnClientWrapper yarnClientWrapper = ycs.getYarnClientSuper(settings.getConfiguration());
@@ -2178,6 +2193,11 @@ public class ProjectController {
       onlineFeaturestoreController.removeOnlineFeaturestoreUser(featurestore, userToBeRemoved);
     }
 
+    // Close the pooled HopsFS clients, metastore clients and JDBC connections of the member before their
+    // certificates go away
+    dfs.removeDfsOps(hdfsUser);
+    hiveMetastoreClientPool.invalidate(hdfsUser);
+    jdbcConnectionPool.invalidateUser(hdfsUser);
     certificateMaterializer.forceRemoveLocalMaterial(userToBeRemoved.getUsername(), project.getName(), null, false);
     try {
       certificatesController.revokeUserSpecificCertificates(project, userToBeRemoved);
@@ -2251,6 +2271,7 @@ public class ProjectController {
     projectTeam.setTeamRole(newRole);
     projectTeam.setTimestamp(new Date());
     projectTeamFacade.update(projectTeam);
+    projectRoleCache.invalidate(project, user);
   
     hdfsUsersController.changeMemberRole(projectTeam);
 
@@ -0,0 +1,181 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.project;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
+import io.hops.hopsworks.persistence.entity.project.Project;
+import io.hops.hopsworks.persistence.entity.user.Users;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Project ids and the roles users have in them, as checked by the project authorization filter on every request to
+ * a project resource. Entries are invalidated by ProjectController when members are added, removed or change role
+ * and when a project is deleted. They also expire after project_role_cache_ttl, for changes made elsewhere.
+ * <p/>
+ * Invalidations made in a transaction take effect once it completes. Invalidating right away would let a request
+ * reading the not yet committed membership cache the old role again until the entry expires.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.SUPPORTS)
+public class ProjectRoleCache {
+
+  /**
+   * Cached role of a user that is not a member of the project
+   */
+  public static final String NO_ROLE = "";
+
+  private static final long MAX_PROJECTS = 10000;
+  private static final long MAX_ROLES = 100000;
+
+  @EJB
+  private Settings settings;
+  @Resource
+  private TransactionSynchronizationRegistry txRegistry;
+
+  // Key is the project name
+  private Cache<String, Integer> projectIds;
+  // Key is projectId:username
+  private Cache<String, String> roles;
+
+  @PostConstruct
+  public void init() {
+    long ttl = settings.getProjectRoleCacheTtl();
+    projectIds = Caffeine.newBuilder()
+      .maximumSize(MAX_PROJECTS)
+      .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+      .build();
+    roles = Caffeine.newBuilder()
+      .maximumSize(MAX_ROLES)
+      .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+      .recordStats()
+      .build();
+    MetricsRegistry.register("projectRoleCache", this::getMetrics);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("projectRoleCache");
+  }
+
+  /**
+   * @param projectName
+   * @return the id of the project, or null if it is not cached
+   */
+  public Integer getProjectId(String projectName) {
+    return projectIds.getIfPresent(projectName);
+  }
+
+  /**
+   * @param projectId
+   * @param username
+   * @return the role of the user in the project, NO_ROLE if the user is not a member, or null if it is not cached
+   */
+  public String getRole(Integer projectId, String username) {
+    return roles.getIfPresent(roleKey(projectId, username));
+  }
+
+  /**
+   * Cache the role of a user in a project.
+   *
+   * @param project
+   * @param username
+   * @param role role of the user, null if the user is not a member of the project
+   */
+  public void putRole(Project project, String username, String role) {
+    projectIds.put(project.getName(), project.getId());
+    roles.put(roleKey(project.getId(), username), role != null ? role : NO_ROLE);
+  }
+
+  /**
+   * Forget the role of a user in a project, once the transaction of the caller completes.
+   *
+   * @param project
+   * @param user
+   */
+  public void invalidate(Project project, Users user) {
+    String key = roleKey(project.getId(), user.getUsername());
+    afterCompletion(() -> roles.invalidate(key));
+  }
+
+  /**
+   * Forget a project and the roles of all its members, once the transaction of the caller completes.
+   *
+   * @param project
+   */
+  public void invalidateProject(Project project) {
+    String projectName = project.getName();
+    String prefix = project.getId() + ":";
+    afterCompletion(() -> {
+      projectIds.invalidate(projectName);
+      roles.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    });
+  }
+
+  /**
+   * @return number of cached projects and roles, and hits and misses of the roles
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("projects", projectIds.estimatedSize());
+    metrics.put("roles", roles.estimatedSize());
+    metrics.put("hits", roles.stats().hitCount());
+    metrics.put("misses", roles.stats().missCount());
+    return metrics;
+  }
+
+  private void afterCompletion(Runnable invalidation) {
+    if (txRegistry.getTransactionKey() == null) {
+      invalidation.run();
+      return;
+    }
+    // Run on rollback as well, an extra miss is harmless
+    txRegistry.registerInterposedSynchronization(new Synchronization() {
+      @Override
+      public void beforeCompletion() {
+      }
+
+      @Override
+      public void afterCompletion(int status) {
+        invalidation.run();
+      }
+    });
+  }
+
+  private String roleKey(Integer projectId, String username) {
+    return projectId + ":" + username;
+  }
+}
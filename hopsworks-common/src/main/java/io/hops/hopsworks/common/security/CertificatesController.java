@@ -39,6 +39,9 @@
 package io.hops.hopsworks.common.security;
 
 import io.hops.hopsworks.common.dao.certificates.CertsFacade;
+import io.hops.hopsworks.common.featurestore.utils.JdbcConnectionPool;
+import io.hops.hopsworks.common.hdfs.DistributedFsService;
+import io.hops.hopsworks.common.hive.HiveMetastoreClientPool;
 import io.hops.hopsworks.persistence.entity.certificates.UserCerts;
 import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.project.team.ProjectTeam;
@@ -122,6 +125,14 @@ public class CertificatesController {
   private Instance<CertificateHandler> certificateHandlers;
   @EJB
   private CAProxy caProxy;
+  @EJB
+  private DistributedFsService dfs;
+  @EJB
+  private UserCertsKeyPwdCache userCertsKeyPwdCache;
+  @EJB
+  private HiveMetastoreClientPool hiveMetastoreClientPool;
+  @EJB
+  private JdbcConnectionPool jdbcConnectionPool;
 
   private KeyPairGenerator keyPairGenerator = null;
   private CertificateFactory certificateFactory = null;
@@ -206,6 +217,11 @@ public class CertificatesController {
       String certificateIdentifier = projectName + Settings.HOPS_USERNAME_SEPARATOR + user2delete.getUsername();
       // Ordering here is important
       // *First* revoke and *then* delete the certificate
+      // Pooled HopsFS clients, metastore clients and JDBC connections of the user hold the certificates
+      dfs.removeDfsOps(certificateIdentifier);
+      hiveMetastoreClientPool.invalidate(certificateIdentifier);
+      jdbcConnectionPool.invalidateUser(certificateIdentifier);
+      userCertsKeyPwdCache.invalidate(certificateIdentifier);
       revokeCertificate(certificateIdentifier, Endpoint.PROJECT);
 
       // Run custom handlers
@@ -221,7 +237,12 @@ public class CertificatesController {
 
     // Ordering here is important
     // *First* revoke and *then* delete the certificate
+    // Pooled HopsFS clients, metastore clients and JDBC connections of the user hold the certificates
+    dfs.removeDfsOps(certificateIdentifier);
+    hiveMetastoreClientPool.invalidate(certificateIdentifier);
+    jdbcConnectionPool.invalidateUser(certificateIdentifier);
     certsFacade.removeUserProjectCerts(project.getName(), user.getUsername());
+    userCertsKeyPwdCache.invalidate(certificateIdentifier);
     revokeCertificate(certificateIdentifier, Endpoint.PROJECT);
 
     // Run custom handlers
@@ -101,6 +101,8 @@ public class CertificatesMgmService {
   private SystemCommandFacade systemCommandFacade;
   @EJB
   private HostsFacade hostsFacade;
+  @EJB
+  private DerivedKeyCache derivedKeyCache;
   @Inject
   @Any
   private Instance<MasterPasswordHandler> handlers;
@@ -113,6 +115,8 @@ public class CertificatesMgmService {
   }
   
   private File masterPasswordFile;
+  // Master password read from masterPasswordFile, re-read when the file is modified
+  private volatile MasterPassword masterPassword;
   private final Map<Class, MasterPasswordChangeResult> handlersResult = new HashMap<>();
   private Cache<Integer, UPDATE_STATUS> updateStatus;
   private Random rand;
@@ -183,7 +187,14 @@ public class CertificatesMgmService {
   @Lock(LockType.READ)
   @AccessTimeout(value = 3, unit = TimeUnit.SECONDS)
   public String getMasterEncryptionPassword() throws IOException {
-    return FileUtils.readFileToString(masterPasswordFile).trim();
+    MasterPassword cached = masterPassword;
+    long lastModified = masterPasswordFile.lastModified();
+    if (cached != null && cached.lastModified == lastModified) {
+      return cached.password;
+    }
+    String password = FileUtils.readFileToString(masterPasswordFile).trim();
+    masterPassword = new MasterPassword(password, lastModified);
+    return password;
   }
   
   /**
@@ -298,7 +309,13 @@ public class CertificatesMgmService {
   }
   
   private void updateMasterEncryptionPassword(String newPassword) throws IOException {
-    FileUtils.writeStringToFile(masterPasswordFile, newPassword);
+    try {
+      FileUtils.writeStringToFile(masterPasswordFile, newPassword);
+    } finally {
+      // The file might have been written within the modification time granularity, re-read it
+      masterPassword = null;
+      derivedKeyCache.invalidateAll();
+    }
   }
   
   private void sendSuccessfulMessage(StringBuilder successLog, String userRequested) {
@@ -314,4 +331,14 @@ public class CertificatesMgmService {
     Users from = userFacade.findByEmail(settings.getAdminEmail());
     messageController.send(to, from, "Master encryption password changed", preview, message, "");
   }
+  
+  private static class MasterPassword {
+    private final String password;
+    private final long lastModified;
+    
+    MasterPassword(String password, long lastModified) {
+      this.password = password;
+      this.lastModified = lastModified;
+    }
+  }
 }
@@ -0,0 +1,153 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.crypto.SecretKey;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Singleton;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keys derived by SymmetricEncryptionService. PBKDF2 is expensive on purpose, while the same secrets are
+ * decrypted over and over with the same password and the salt stored along the ciphertext.
+ * Entries are keyed by the salt and a digest of the password, the password itself is not kept.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class DerivedKeyCache {
+
+  private static final long MAX_KEYS = 10000;
+  private static final long EXPIRE_AFTER_ACCESS_MIN = 60;
+
+  private Cache<KeyId, SecretKey> keys;
+
+  @PostConstruct
+  public void init() {
+    keys = Caffeine.newBuilder()
+      .maximumSize(MAX_KEYS)
+      .expireAfterAccess(EXPIRE_AFTER_ACCESS_MIN, TimeUnit.MINUTES)
+      .recordStats()
+      .build();
+    MetricsRegistry.register("derivedKeyCache", this::getMetrics);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("derivedKeyCache");
+  }
+
+  /**
+   * Get the key derived from a password and salt, deriving it if it is not cached.
+   *
+   * @param password password the key is derived from
+   * @param salt salt of the key derivation
+   * @param derivation derives the key on a miss
+   * @return the derived key
+   * @throws GeneralSecurityException
+   */
+  public SecretKey get(char[] password, byte[] salt, KeyDerivation derivation) throws GeneralSecurityException {
+    try {
+      return keys.get(new KeyId(password, salt), k -> {
+        try {
+          return derivation.derive();
+        } catch (GeneralSecurityException e) {
+          throw new KeyDerivationException(e);
+        }
+      });
+    } catch (KeyDerivationException e) {
+      throw (GeneralSecurityException) e.getCause();
+    }
+  }
+
+  /**
+   * Forget all the derived keys. Called when the master encryption password changes.
+   */
+  public void invalidateAll() {
+    keys.invalidateAll();
+  }
+
+  /**
+   * @return number of cached keys, hits and misses, each miss being a key derivation
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("keys", keys.estimatedSize());
+    metrics.put("hits", keys.stats().hitCount());
+    metrics.put("misses", keys.stats().missCount());
+    return metrics;
+  }
+
+  @FunctionalInterface
+  public interface KeyDerivation {
+    SecretKey derive() throws GeneralSecurityException;
+  }
+
+  private static final class KeyId {
+    private final byte[] passwordDigest;
+    private final byte[] salt;
+    private final int hash;
+
+    private KeyId(char[] password, byte[] salt) {
+      ByteBuffer passwordBytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(password));
+      byte[] bytes = new byte[passwordBytes.remaining()];
+      passwordBytes.get(bytes);
+      this.passwordDigest = DigestUtils.sha256(bytes);
+      Arrays.fill(bytes, (byte) 0);
+      Arrays.fill(passwordBytes.array(), (byte) 0);
+      this.salt = salt.clone();
+      this.hash = 31 * Arrays.hashCode(passwordDigest) + Arrays.hashCode(this.salt);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof KeyId)) {
+        return false;
+      }
+      KeyId other = (KeyId) o;
+      return Arrays.equals(passwordDigest, other.passwordDigest) && Arrays.equals(salt, other.salt);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private static class KeyDerivationException extends RuntimeException {
+    KeyDerivationException(GeneralSecurityException cause) {
+      super(cause);
+    }
+  }
+}
@@ -16,8 +16,6 @@
 
 package io.hops.hopsworks.common.security;
 
-import org.apache.commons.lang3.tuple.Pair;
-
 import javax.annotation.PostConstruct;
 import javax.crypto.Cipher;
 import javax.crypto.NoSuchPaddingException;
@@ -26,12 +24,12 @@ import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
+import javax.ejb.EJB;
 import javax.ejb.Stateless;
 import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
-import java.security.spec.KeySpec;
 
 @Stateless
 /**
@@ -58,6 +56,9 @@ public class SymmetricEncryptionService {
   
   SecureRandom rand;
   
+  @EJB
+  private DerivedKeyCache derivedKeyCache;
+  
   @PostConstruct
   public void init() {
     try {
@@ -96,13 +97,13 @@ public class SymmetricEncryptionService {
       generateRandom(iv);
     }
     
-    Pair<KeySpec, SecretKey> keyMaterial = buildSecretKey(descriptor.getPassword(), salt);
+    SecretKey key = buildSecretKey(descriptor.getPassword(), salt);
     
     Cipher cipher = getCipher();
-    cipher.init(Cipher.ENCRYPT_MODE, keyMaterial.getRight(), getGCMSpec(iv));
+    cipher.init(Cipher.ENCRYPT_MODE, key, getGCMSpec(iv));
     byte[] ciphertext = cipher.doFinal(descriptor.getInput());
     
-    clearPasswords(keyMaterial.getLeft(), descriptor);
+    descriptor.clearPassword();
     
     return new SymmetricEncryptionDescriptor.Builder()
         .setOutput(ciphertext)
@@ -125,13 +126,13 @@ public class SymmetricEncryptionService {
     if (descriptor.getSalt() == null || descriptor.getIv() == null || descriptor.getPassword() == null) {
       throw new IllegalArgumentException("Cryptographic primitives are empty");
     }
-    Pair<KeySpec, SecretKey> keyMaterial = buildSecretKey(descriptor.getPassword(), descriptor.getSalt());
+    SecretKey key = buildSecretKey(descriptor.getPassword(), descriptor.getSalt());
     
     Cipher cipher = getCipher();
-    cipher.init(Cipher.DECRYPT_MODE, keyMaterial.getRight(), getGCMSpec(descriptor.getIv()));
+    cipher.init(Cipher.DECRYPT_MODE, key, getGCMSpec(descriptor.getIv()));
     byte[] plaintext = cipher.doFinal(descriptor.getInput());
     
-    clearPasswords(keyMaterial.getLeft(), descriptor);
+    descriptor.clearPassword();
     return new SymmetricEncryptionDescriptor.Builder()
         .setOutput(plaintext)
         .build();
@@ -177,16 +178,16 @@ public class SymmetricEncryptionService {
   }
   
   /**
-   * Clear the password from the key specification. Call this only after you are done
-   * with the encryption/decryption
-   * @param keySpec
-   * @param descriptor
+   * Get the secret key for a password and salt. Keys derived with @KEY_DERIVATION_ALGORITHM
+   * are cached, so decrypting the same payload again does not derive the key again
+   *
+   * @param password Password to use
+   * @param salt Salt for the key derivation function
+   * @return The secret key
+   * @throws GeneralSecurityException
    */
-  private void clearPasswords(KeySpec keySpec, SymmetricEncryptionDescriptor descriptor) {
-    if (keySpec instanceof PBEKeySpec) {
-      ((PBEKeySpec) keySpec).clearPassword();
-    }
-    descriptor.clearPassword();
+  private SecretKey buildSecretKey(char[] password, byte[] salt) throws GeneralSecurityException {
+    return derivedKeyCache.get(password, salt, () -> deriveSecretKey(password, salt));
   }
   
   /**
@@ -194,16 +195,20 @@ public class SymmetricEncryptionService {
    *
    * @param password Password to use
    * @param salt Salt for the key derivation function
-   * @return A pair of the key specification and the key itself
+   * @return The secret key
    * @throws NoSuchAlgorithmException
    * @throws InvalidKeySpecException
    */
-  private Pair<KeySpec, SecretKey> buildSecretKey(char[] password, byte[] salt) throws NoSuchAlgorithmException,
+  private SecretKey deriveSecretKey(char[] password, byte[] salt) throws NoSuchAlgorithmException,
       InvalidKeySpecException {
     SecretKeyFactory secretKeyFactory = SecretKeyFactory.getInstance(KEY_DERIVATION_ALGORITHM);
-    KeySpec keySpec = new PBEKeySpec(password, salt, KEY_DERIVATION_ITERATIONS, KEY_SIZE);
-    SecretKey key = secretKeyFactory.generateSecret(keySpec);
-    return Pair.of(keySpec, new SecretKeySpec(key.getEncoded(), ENCRYPTION_ALGORITHM));
+    PBEKeySpec keySpec = new PBEKeySpec(password, salt, KEY_DERIVATION_ITERATIONS, KEY_SIZE);
+    try {
+      SecretKey key = secretKeyFactory.generateSecret(keySpec);
+      return new SecretKeySpec(key.getEncoded(), ENCRYPTION_ALGORITHM);
+    } finally {
+      keySpec.clearPassword();
+    }
   }
   
   private Cipher getCipher() throws NoSuchAlgorithmException, NoSuchPaddingException {
@@ -0,0 +1,79 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.hops.hopsworks.common.dao.certificates.CertsFacade;
+import io.hops.hopsworks.common.util.Settings;
+
+import javax.annotation.PostConstruct;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encrypted key passwords of the project user certificates, keyed by HDFS user. A new password is generated every
+ * time the certificates are issued, so the client pools use it to tell clients built with older certificates apart
+ * without reading UserCerts on every borrow. Entries are invalidated by CertificatesController when the certificates
+ * are revoked, and expire after a short time for certificates issued elsewhere.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class UserCertsKeyPwdCache {
+
+  private static final long MAX_USERS = 10000;
+  private static final long EXPIRE_AFTER_WRITE_SEC = 30;
+
+  @EJB
+  private CertsFacade certsFacade;
+
+  // Key is the HDFS user, projectName__username
+  private Cache<String, String> keyPwds;
+
+  @PostConstruct
+  public void init() {
+    keyPwds = Caffeine.newBuilder()
+      .maximumSize(MAX_USERS)
+      .expireAfterWrite(EXPIRE_AFTER_WRITE_SEC, TimeUnit.SECONDS)
+      .build();
+  }
+
+  /**
+   * @param hdfsUsername
+   * @return the encrypted key password of the certificates of the HDFS user, or null if the user has no certificates
+   */
+  public String get(String hdfsUsername) {
+    String[] tokens = hdfsUsername.split(Settings.HOPS_USERNAME_SEPARATOR, 2);
+    if (tokens.length != 2) {
+      return null;
+    }
+    // null is not cached, users without certificates can not build clients anyway
+    return keyPwds.get(hdfsUsername, k -> certsFacade.findUserKeyPwd(tokens[0], tokens[1]));
+  }
+
+  /**
+   * Forget the key password of the HDFS user. Called when its certificates are revoked.
+   *
+   * @param hdfsUsername
+   */
+  public void invalidate(String hdfsUsername) {
+    keyPwds.invalidate(hdfsUsername);
+  }
+}
@@ -18,7 +18,9 @@ package io.hops.hopsworks.common.serving.inference;
 
 import io.hops.common.Pair;
 import io.hops.hopsworks.common.dao.serving.ServingFacade;
+import io.hops.hopsworks.common.serving.inference.logger.InferenceLog;
 import io.hops.hopsworks.common.serving.inference.logger.InferenceLogger;
+import io.hops.hopsworks.common.serving.inference.logger.InferenceLoggingQueue;
 import io.hops.hopsworks.exceptions.ApiKeyException;
 import io.hops.hopsworks.exceptions.InferenceException;
 import io.hops.hopsworks.exceptions.ServingException;
@@ -30,8 +32,6 @@ import javax.ejb.EJB;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
-import javax.enterprise.inject.Any;
-import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 import java.util.List;
 import java.util.logging.Level;
@@ -53,9 +53,8 @@ public class InferenceController {
   @Inject
   private ServingInferenceController servingInferenceController;
 
-  @Inject
-  @Any
-  private Instance<InferenceLogger> inferenceLoggers;
+  @EJB
+  private InferenceLoggingQueue inferenceLoggingQueue;
   
   
   /**
@@ -91,16 +90,9 @@ public class InferenceController {
     Pair<Integer, String> inferenceResult =
       servingInferenceController.infer(username, serving, modelVersion, verb, inferenceRequestJson, authHeader);
 
-    // Log the inference
-    for (InferenceLogger inferenceLogger : inferenceLoggers) {
-      try {
-        inferenceLogger.logInferenceRequest(serving, inferenceRequestJson,
-            inferenceResult.getL(), inferenceResult.getR());
-      } catch (Exception e) {
-        // We don't want to fill the logs with inference logging errors
-        logger.log(Level.FINE, "Error logging inference for logger: " + inferenceLogger.getClassName(), e);
-      }
-    }
+    // Log the inference, the actual logging happens in the background
+    inferenceLoggingQueue.offer(new InferenceLog(serving, inferenceRequestJson,
+        inferenceResult.getL(), inferenceResult.getR()));
 
     // If the inference server returned something different than 200 then throw an exception to the user
     if (inferenceResult.getL() >= 500) {
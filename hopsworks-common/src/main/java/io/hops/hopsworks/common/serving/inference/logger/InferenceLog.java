@@ -0,0 +1,65 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.serving.inference.logger;
+
+import io.hops.hopsworks.persistence.entity.serving.Serving;
+
+/**
+ * A single inference request/response pair waiting to be logged. The request timestamp is taken when the inference
+ * is made, not when the log is written, as logging happens asynchronously.
+ */
+public class InferenceLog {
+
+  private final Serving serving;
+  private final String inferenceRequest;
+  private final Integer responseHttpCode;
+  private final String inferenceResponse;
+  private final long requestTimestamp;
+
+  public InferenceLog(Serving serving, String inferenceRequest, Integer responseHttpCode, String inferenceResponse) {
+    this(serving, inferenceRequest, responseHttpCode, inferenceResponse, System.currentTimeMillis());
+  }
+
+  public InferenceLog(Serving serving, String inferenceRequest, Integer responseHttpCode, String inferenceResponse,
+    long requestTimestamp) {
+    this.serving = serving;
+    this.inferenceRequest = inferenceRequest;
+    this.responseHttpCode = responseHttpCode;
+    this.inferenceResponse = inferenceResponse;
+    this.requestTimestamp = requestTimestamp;
+  }
+
+  public Serving getServing() {
+    return serving;
+  }
+
+  public String getInferenceRequest() {
+    return inferenceRequest;
+  }
+
+  public Integer getResponseHttpCode() {
+    return responseHttpCode;
+  }
+
+  public String getInferenceResponse() {
+    return inferenceResponse;
+  }
+
+  public long getRequestTimestamp() {
+    return requestTimestamp;
+  }
+}
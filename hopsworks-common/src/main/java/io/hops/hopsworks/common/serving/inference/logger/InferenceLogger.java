@@ -18,12 +18,38 @@ package io.hops.hopsworks.common.serving.inference.logger;
 
 import io.hops.hopsworks.persistence.entity.serving.Serving;
 
+import java.util.List;
+
 public interface InferenceLogger {
 
+  /**
+   * Log an inference. Inferences are logged asynchronously, after the response was sent.
+   *
+   * @param serving the serving the inference belongs to
+   * @param inferenceRequest
+   * @param responseHttpCode
+   * @param inferenceResult
+   * @param requestTimestamp when the inference request was received, in milliseconds since the epoch
+   */
   void logInferenceRequest(Serving serving,
                            String inferenceRequest,
                            Integer responseHttpCode,
-                           String inferenceResult) throws Exception;
+                           String inferenceResult,
+                           long requestTimestamp) throws Exception;
+
+  /**
+   * Log a batch of inferences of the same serving. Loggers that can write several records at once should override
+   * this method, by default every inference is logged one by one.
+   *
+   * @param serving the serving all the inferences belong to
+   * @param inferenceLogs the inferences to log
+   */
+  default void logInferenceRequests(Serving serving, List<InferenceLog> inferenceLogs) throws Exception {
+    for (InferenceLog inferenceLog : inferenceLogs) {
+      logInferenceRequest(serving, inferenceLog.getInferenceRequest(), inferenceLog.getResponseHttpCode(),
+        inferenceLog.getInferenceResponse(), inferenceLog.getRequestTimestamp());
+    }
+  }
 
   String getClassName();
 }
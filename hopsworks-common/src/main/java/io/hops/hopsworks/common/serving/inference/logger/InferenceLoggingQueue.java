@@ -0,0 +1,203 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.serving.inference.logger;
+
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Decouples inference logging from the inference request path. Inferences are put in a bounded in-memory queue and a
+ * dedicated drainer thread hands them in batches, grouped per serving, to all the available {@link InferenceLogger}s.
+ * When the queue is full the caller waits at most the configured offer timeout, after which the inference log is
+ * dropped and counted.
+ */
+@Singleton
+@Startup
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NEVER)
+public class InferenceLoggingQueue {
+
+  private static final Logger LOGGER = Logger.getLogger(InferenceLoggingQueue.class.getName());
+  private static final long POLL_TIMEOUT_MS = 1000L;
+  private static final long DRAINER_STOP_TIMEOUT_MS = 5000L;
+
+  @EJB
+  private Settings settings;
+  @Inject
+  @Any
+  private Instance<InferenceLogger> inferenceLoggers;
+  // The drainer runs for the lifetime of the application, it gets its own thread instead of holding one of the
+  // shared executor service
+  @Resource
+  private ManagedThreadFactory threadFactory;
+
+  private ArrayBlockingQueue<InferenceLog> queue;
+  private int batchSize;
+  private long offerTimeoutMs;
+  private Thread drainer;
+  private volatile boolean running;
+
+  private final AtomicLong enqueued = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong batches = new AtomicLong();
+  private final AtomicLong batchLatencyTotalMs = new AtomicLong();
+  private final AtomicLong lastBatchLatencyMs = new AtomicLong();
+
+  @PostConstruct
+  public void init() {
+    queue = new ArrayBlockingQueue<>(Math.max(settings.getServingInferenceLoggerQueueSize(), 1));
+    batchSize = Math.max(settings.getServingInferenceLoggerBatchSize(), 1);
+    offerTimeoutMs = Math.max(settings.getServingInferenceLoggerOfferTimeout(), 0L);
+    running = true;
+    drainer = threadFactory.newThread(new InferenceLogDrainer());
+    drainer.setName("inference-logging-drainer");
+    drainer.setDaemon(true);
+    drainer.start();
+    MetricsRegistry.register("inferenceLoggingQueue", this::getMetrics);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("inferenceLoggingQueue");
+    running = false;
+    if (drainer != null) {
+      drainer.interrupt();
+      try {
+        drainer.join(DRAINER_STOP_TIMEOUT_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Queue an inference to be logged.
+   *
+   * @param inferenceLog the inference to log
+   * @return false if the queue was full and the inference log was dropped
+   */
+  public boolean offer(InferenceLog inferenceLog) {
+    boolean accepted;
+    try {
+      accepted = offerTimeoutMs > 0 ? queue.offer(inferenceLog, offerTimeoutMs, TimeUnit.MILLISECONDS)
+        : queue.offer(inferenceLog);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      accepted = false;
+    }
+    if (accepted) {
+      enqueued.incrementAndGet();
+    } else {
+      long droppedSoFar = dropped.incrementAndGet();
+      // Don't fill the logs when the queue stays full
+      if (droppedSoFar % 1000 == 1) {
+        LOGGER.log(Level.WARNING, "Inference logging queue is full, dropped " + droppedSoFar + " inference logs");
+      }
+    }
+    return accepted;
+  }
+
+  /**
+   * @return queue depth, enqueued and dropped inference logs, and the number and latency of the batches logged
+   */
+  public Map<String, Number> getMetrics() {
+    long batchCount = batches.get();
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("queueDepth", queue.size());
+    metrics.put("queueCapacity", queue.size() + queue.remainingCapacity());
+    metrics.put("enqueued", enqueued.get());
+    metrics.put("dropped", dropped.get());
+    metrics.put("batches", batchCount);
+    metrics.put("lastBatchLatencyMs", lastBatchLatencyMs.get());
+    metrics.put("averageBatchLatencyMs", batchCount == 0 ? 0 : (double) batchLatencyTotalMs.get() / batchCount);
+    return metrics;
+  }
+
+  private void logBatch(List<InferenceLog> batch) {
+    long start = System.currentTimeMillis();
+    // Group per serving, keeping the order in which the inferences were made
+    Map<Integer, List<InferenceLog>> perServing = new LinkedHashMap<>();
+    for (InferenceLog inferenceLog : batch) {
+      perServing.computeIfAbsent(inferenceLog.getServing().getId(), k -> new ArrayList<>()).add(inferenceLog);
+    }
+    for (List<InferenceLog> servingLogs : perServing.values()) {
+      for (InferenceLogger inferenceLogger : inferenceLoggers) {
+        try {
+          inferenceLogger.logInferenceRequests(servingLogs.get(0).getServing(), servingLogs);
+        } catch (Exception e) {
+          // We don't want to fill the logs with inference logging errors
+          LOGGER.log(Level.FINE, "Error logging inference for logger: " + inferenceLogger.getClassName(), e);
+        }
+      }
+    }
+    long latency = System.currentTimeMillis() - start;
+    lastBatchLatencyMs.set(latency);
+    batchLatencyTotalMs.addAndGet(latency);
+    batches.incrementAndGet();
+  }
+
+  private class InferenceLogDrainer implements Runnable {
+
+    @Override
+    public void run() {
+      List<InferenceLog> batch = new ArrayList<>(batchSize);
+      while (running && !Thread.currentThread().isInterrupted()) {
+        try {
+          InferenceLog first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+          if (first == null) {
+            continue;
+          }
+          batch.add(first);
+          queue.drainTo(batch, batchSize - 1);
+          logBatch(batch);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+          LOGGER.log(Level.FINE, "Error draining the inference logging queue", ex);
+        } finally {
+          batch.clear();
+        }
+      }
+    }
+  }
+}
@@ -16,34 +16,17 @@
 
 package io.hops.hopsworks.common.serving.inference.logger;
 
-import com.twitter.bijection.Injection;
-import com.twitter.bijection.avro.GenericAvroCodecs;
-import io.hops.hopsworks.common.dao.kafka.KafkaConst;
-import io.hops.hopsworks.common.kafka.KafkaBrokers;
-import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.serving.Serving;
-import io.hops.hopsworks.common.security.CertificateMaterializer;
-import io.hops.hopsworks.common.util.HopsUtils;
-import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.CryptoPasswordNotFoundException;
-import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
-import org.apache.avro.generic.GenericRecord;
-import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.producer.KafkaProducer;
-import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
-import org.apache.kafka.common.config.SslConfigs;
-import org.apache.kafka.common.serialization.ByteArraySerializer;
-import org.apache.kafka.common.serialization.StringSerializer;
 
-import javax.annotation.PostConstruct;
-import javax.ejb.Asynchronous;
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
-import java.io.File;
 import java.io.IOException;
-import java.util.Properties;
+import java.util.Collections;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -53,108 +36,93 @@ public class KafkaInferenceLogger implements InferenceLogger {
   private static final Logger LOGGER = Logger.getLogger(KafkaInferenceLogger.class.getName());
 
   @EJB
-  private Settings settings;
-  @EJB
-  private CertificateMaterializer certificateMaterializer;
-  @EJB
-  private KafkaBrokers kafkaBrokers;
+  private KafkaInferenceProducerPool kafkaInferenceProducerPool;
 
   public static final String SERVING_MANAGER_USERNAME = "srvmanager";
-  private Properties props;
-
-  @PostConstruct
-  public void init() {
-    // Setup default properties
-    props = new Properties();
-    props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaBrokers.getKafkaBrokersString());
-    props.put(ProducerConfig.CLIENT_ID_CONFIG, "KafkaServing");
-    props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG,
-        StringSerializer.class.getName());
-    props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
-        ByteArraySerializer.class.getName());
 
+  @Override
+  public void logInferenceRequest(Serving serving, String inferenceRequest,
+                                  Integer responseHttpCode, String inferenceResponse, long requestTimestamp) {
+    logInferenceRequests(serving, Collections.singletonList(
+      new InferenceLog(serving, inferenceRequest, responseHttpCode, inferenceResponse, requestTimestamp)));
   }
 
   @Override
-  @Asynchronous
-  public void logInferenceRequest(Serving serving, String inferenceRequest,
-                                  Integer responseHttpCode, String inferenceResponse) {
+  public void logInferenceRequests(Serving serving, List<InferenceLog> inferenceLogs) {
 
     if (serving.getKafkaTopic() == null) {
       // nothing to log
       return;
     }
 
-    // Setup the producer for the given project
-    KafkaProducer <String, byte[]> kafkaProducer = null;
+    // Get the shared producer for the given project
+    KafkaProducer<String, byte[]> kafkaProducer;
     try {
-      kafkaProducer = setupProducer(serving.getProject());
-    } catch (IOException | CryptoPasswordNotFoundException e) {
+      kafkaProducer = kafkaInferenceProducerPool.getProducer(serving.getProject());
+    } catch (IOException | CryptoPasswordNotFoundException | RuntimeException e) {
       LOGGER.log(Level.FINE, "Failed to setup the produce for the project: "
           + serving.getProject().getName() , e);
       // We didn't manage to write the log to Kafka, nothing we can do.
+      return;
     }
-    
-    //Get the schema for the topic and the serializer
-    Schema avroSchema = new Schema.Parser().parse(serving.getKafkaTopic().getSubjects().getSchema().getSchema());
-    Injection<GenericRecord, byte[]> recordSerializer = GenericAvroCodecs.toBinary(avroSchema);
-  
-    //Get the version of the schema
-    int schemaVersion = serving.getKafkaTopic().getSubjects().getVersion();
-    
-    // Create the GenericRecord from the avroSchema
-    GenericData.Record inferenceRecord = new GenericData.Record(avroSchema);
-  
-    // Populate the Inference Record with data
-    populateInfererenceRecord(serving, inferenceRequest, responseHttpCode, inferenceResponse, inferenceRecord,
-      schemaVersion);
-
-    // Serialize record to byte
-    byte[] inferenceRecordBytes = recordSerializer.apply(inferenceRecord);
-
-    // Push the record to the topic
-    ProducerRecord<String, byte[]> inferenceKakfaRecord = new ProducerRecord<>(
-        serving.getKafkaTopic().getTopicName(), inferenceRecordBytes);
 
-    try {
-      kafkaProducer.send(inferenceKakfaRecord);
-    } catch (Exception e) {
-      LOGGER.log(Level.FINE, "Cannot write to topic: " + serving.getKafkaTopic().getTopicName(), e);
-      // We didn't manage to write the log to Kafka, nothing we can do.
-    } finally {
-      if(kafkaProducer != null) {
-        kafkaProducer.flush();
-        kafkaProducer.close();
+    //Get the cached schema for the topic and the serializer
+    KafkaInferenceProducerPool.InferenceSchema inferenceSchema =
+      kafkaInferenceProducerPool.getSchema(serving.getKafkaTopic().getSubjects());
+    String topicName = serving.getKafkaTopic().getTopicName();
+
+    for (InferenceLog inferenceLog : inferenceLogs) {
+      // Create the GenericRecord from the avroSchema
+      GenericData.Record inferenceRecord = new GenericData.Record(inferenceSchema.getSchema());
+
+      // Populate the Inference Record with data
+      populateInfererenceRecord(serving, inferenceLog, inferenceRecord, inferenceSchema.getVersion());
+
+      // Serialize record to byte
+      byte[] inferenceRecordBytes = inferenceSchema.getSerializer().apply(inferenceRecord);
+
+      // Push the record to the topic. The send is asynchronous and the producer is shared, so no flush or close here.
+      ProducerRecord<String, byte[]> inferenceKakfaRecord = new ProducerRecord<>(topicName, inferenceRecordBytes);
+
+      try {
+        kafkaProducer.send(inferenceKakfaRecord, (metadata, exception) -> {
+          if (exception != null) {
+            LOGGER.log(Level.FINE, "Cannot write to topic: " + topicName, exception);
+          }
+        });
+      } catch (IllegalStateException e) {
+        // The producer was closed concurrently, drop it so that the next batch creates a new one
+        kafkaInferenceProducerPool.invalidateProducer(serving.getProject());
+        LOGGER.log(Level.FINE, "Cannot write to topic: " + topicName, e);
+        return;
+      } catch (Exception e) {
+        LOGGER.log(Level.FINE, "Cannot write to topic: " + topicName, e);
+        // We didn't manage to write the log to Kafka, nothing we can do.
       }
     }
-
-    // De-materialize certificate
-    certificateMaterializer.removeCertificatesLocal(SERVING_MANAGER_USERNAME, serving.getProject().getName());
   }
-  
+
   /**
    * Specify inference record based on the schema version. To not break backwards-compatibility, changes to the
    * inference schema (addition or removal of fields) should be made in new versions of the schema. This method will
    * populate the inference record with the right data based on the version of the inference schema.
    *
    * @param serving serving creating the inference
-   * @param inferenceRequest inferenceRequest provided by the client
-   * @param responseHttpCode http response code by the serving
-   * @param inferenceResponse http response by the serving
+   * @param inferenceLog inference request, response and http response code of the serving
    * @param inferenceRecord kafka inference record to populate
    * @param schemaVersion version of the inference schema
    */
-  private void populateInfererenceRecord(Serving serving, String inferenceRequest, Integer responseHttpCode,
-    String inferenceResponse, GenericData.Record inferenceRecord, int schemaVersion){
+  private void populateInfererenceRecord(Serving serving, InferenceLog inferenceLog,
+    GenericData.Record inferenceRecord, int schemaVersion){
     if (schemaVersion <= 3) {
       // schema v1
       inferenceRecord.put("modelId", serving.getId());
       inferenceRecord.put("modelName", serving.getName());
       inferenceRecord.put("modelVersion", serving.getModelVersion());
-      inferenceRecord.put("requestTimestamp", System.currentTimeMillis());
-      inferenceRecord.put("responseHttpCode", responseHttpCode);
-      inferenceRecord.put("inferenceRequest", inferenceRequest);
-      inferenceRecord.put("inferenceResponse", inferenceResponse);
+      inferenceRecord.put("requestTimestamp", inferenceLog.getRequestTimestamp());
+      inferenceRecord.put("responseHttpCode", inferenceLog.getResponseHttpCode());
+      inferenceRecord.put("inferenceRequest", inferenceLog.getInferenceRequest());
+      inferenceRecord.put("inferenceResponse", inferenceLog.getInferenceResponse());
     }
     if(schemaVersion == 2){
       inferenceRecord.put("servingType", serving.getModelServer().name());
@@ -165,32 +133,6 @@ public class KafkaInferenceLogger implements InferenceLogger {
     }
   }
 
-
-  private KafkaProducer<String, byte[]> setupProducer(Project project) throws IOException,
-    CryptoPasswordNotFoundException {
-    certificateMaterializer.materializeCertificatesLocal(SERVING_MANAGER_USERNAME, project.getName());
-    CertificateMaterializer.CryptoMaterial cryptoMaterial =
-        certificateMaterializer.getUserMaterial(SERVING_MANAGER_USERNAME, project.getName());
-
-    // Configure TLS for this producer
-    props.setProperty(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, KafkaConst.KAFKA_SECURITY_PROTOCOL);
-    props.setProperty(SslConfigs.SSL_ENDPOINT_IDENTIFICATION_ALGORITHM_CONFIG,
-      KafkaConst.KAFKA_ENDPOINT_IDENTIFICATION_ALGORITHM);
-    props.setProperty(SslConfigs.SSL_TRUSTSTORE_LOCATION_CONFIG,
-        settings.getHopsworksTmpCertDir() + File.separator + HopsUtils.getProjectTruststoreName(project.getName(),
-            SERVING_MANAGER_USERNAME));
-    props.setProperty(SslConfigs.SSL_TRUSTSTORE_PASSWORD_CONFIG, String.valueOf(cryptoMaterial.getPassword()));
-
-    props.setProperty(SslConfigs.SSL_KEYSTORE_LOCATION_CONFIG,
-        settings.getHopsworksTmpCertDir() + File.separator + HopsUtils.getProjectKeystoreName(project.getName(),
-            SERVING_MANAGER_USERNAME));
-    props.setProperty(SslConfigs.SSL_KEYSTORE_PASSWORD_CONFIG, String.valueOf(cryptoMaterial.getPassword()));
-
-    props.setProperty(SslConfigs.SSL_KEY_PASSWORD_CONFIG, String.valueOf(cryptoMaterial.getPassword()));
-
-    return new KafkaProducer<>(props);
-  }
-
   @Override
   public String getClassName() {
     return KafkaInferenceLogger.class.getName();
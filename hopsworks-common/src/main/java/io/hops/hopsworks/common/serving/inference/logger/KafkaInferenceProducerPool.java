@@ -0,0 +1,273 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.serving.inference.logger;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.twitter.bijection.Injection;
+import com.twitter.bijection.avro.GenericAvroCodecs;
+import io.hops.hopsworks.common.dao.kafka.KafkaConst;
+import io.hops.hopsworks.common.kafka.KafkaBrokers;
+import io.hops.hopsworks.common.security.CertificateMaterializer;
+import io.hops.hopsworks.common.util.HopsUtils;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.exceptions.CryptoPasswordNotFoundException;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
+import io.hops.hopsworks.persistence.entity.kafka.schemas.Subjects;
+import io.hops.hopsworks.persistence.entity.project.Project;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.SslConfigs;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Timer;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps one long-lived Kafka producer per project for inference logging, together with the parsed Avro schemas of
+ * the inference topics. Producers hold the project certificates of the serving manager for as long as they live, and
+ * are closed (and the certificates de-materialized) once they have been idle for longer than the configured timeout.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class KafkaInferenceProducerPool {
+
+  private static final Logger LOGGER = Logger.getLogger(KafkaInferenceProducerPool.class.getName());
+
+  private static final long MAX_PRODUCERS = 500;
+  private static final long MAX_SCHEMAS = 1000;
+  private static final long PRODUCER_CLOSE_TIMEOUT_SEC = 5;
+
+  @EJB
+  private Settings settings;
+  @EJB
+  private CertificateMaterializer certificateMaterializer;
+  @EJB
+  private KafkaBrokers kafkaBrokers;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
+
+  // Key is the project name, producers are built with the project specific certificates of the serving manager
+  private Cache<String, KafkaProducer<String, byte[]>> producers;
+  // Key is the id of the subject version. Subjects belong to a project, and the schema of a subject version never
+  // changes once registered
+  private Cache<Integer, InferenceSchema> schemas;
+
+  @PostConstruct
+  public void init() {
+    producers = Caffeine.newBuilder()
+      .maximumSize(MAX_PRODUCERS)
+      .expireAfterAccess(settings.getServingInferenceLoggerProducerIdleTimeout(), TimeUnit.MILLISECONDS)
+      .removalListener(this::onProducerRemoval)
+      // The removal listener calls the CertificateMaterializer EJB, it must run on a container thread
+      .executor(executorService)
+      .recordStats()
+      .build();
+    schemas = Caffeine.newBuilder()
+      .maximumSize(MAX_SCHEMAS)
+      .build();
+    MetricsRegistry.register("inferenceProducerPool", this::getMetrics);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("inferenceProducerPool");
+    producers.invalidateAll();
+    producers.cleanUp();
+  }
+
+  /**
+   * Caffeine evicts idle entries lazily on cache activity. Make sure idle producers are closed also when no
+   * inference requests are coming in.
+   */
+  @Schedule(persistent = false, minute = "*/1", hour = "*")
+  public void evictIdleProducers(Timer timer) {
+    producers.cleanUp();
+  }
+
+  /**
+   * Get the producer of a project, creating it if it does not exist yet.
+   *
+   * @param project the project owning the inference topic
+   * @return a shared producer, callers must not close it
+   */
+  public KafkaProducer<String, byte[]> getProducer(Project project) throws IOException,
+    CryptoPasswordNotFoundException {
+    KafkaProducer<String, byte[]> producer = producers.getIfPresent(project.getName());
+    if (producer != null) {
+      return producer;
+    }
+    try {
+      return producers.get(project.getName(), projectName -> {
+        try {
+          return setupProducer(projectName);
+        } catch (IOException | CryptoPasswordNotFoundException e) {
+          throw new ProducerSetupException(e);
+        }
+      });
+    } catch (ProducerSetupException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw (CryptoPasswordNotFoundException) e.getCause();
+    }
+  }
+
+  /**
+   * Close the producer of a project, if any. Used when the producer failed and should be re-created on next use.
+   *
+   * @param project the project owning the producer
+   */
+  public void invalidateProducer(Project project) {
+    producers.invalidate(project.getName());
+  }
+
+  /**
+   * Get the parsed schema and serializer of an inference topic subject.
+   *
+   * @param subject subject of the inference topic
+   * @return cached schema and serializer
+   */
+  public InferenceSchema getSchema(Subjects subject) {
+    return schemas.get(subject.getId(), k -> {
+      Schema avroSchema = new Schema.Parser().parse(subject.getSchema().getSchema());
+      return new InferenceSchema(avroSchema, GenericAvroCodecs.toBinary(avroSchema), subject.getVersion());
+    });
+  }
+
+  /**
+   * @return hits, misses and evictions of the producer cache, and the number of open producers
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("producers", producers.estimatedSize());
+    metrics.put("producerHits", producers.stats().hitCount());
+    metrics.put("producerMisses", producers.stats().missCount());
+    metrics.put("producerEvictions", producers.stats().evictionCount());
+    metrics.put("schemas", schemas.estimatedSize());
+    return metrics;
+  }
+
+  private KafkaProducer<String, byte[]> setupProducer(String projectName) throws IOException,
+    CryptoPasswordNotFoundException {
+    certificateMaterializer.materializeCertificatesLocal(KafkaInferenceLogger.SERVING_MANAGER_USERNAME, projectName);
+    try {
+      CertificateMaterializer.CryptoMaterial cryptoMaterial =
+        certificateMaterializer.getUserMaterial(KafkaInferenceLogger.SERVING_MANAGER_USERNAME, projectName);
+
+      Properties props = new Properties();
+      props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaBrokers.getKafkaBrokersString());
+      props.put(ProducerConfig.CLIENT_ID_CONFIG, "KafkaServing-" + projectName);
+      props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+      props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+      // Inference logging is best effort, don't let a slow broker block the logging threads
+      props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, String.valueOf(TimeUnit.SECONDS.toMillis(10)));
+      props.put(ProducerConfig.LINGER_MS_CONFIG, "5");
+
+      // Configure TLS for this producer
+      props.setProperty(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, KafkaConst.KAFKA_SECURITY_PROTOCOL);
+      props.setProperty(SslConfigs.SSL_ENDPOINT_IDENTIFICATION_ALGORITHM_CONFIG,
+        KafkaConst.KAFKA_ENDPOINT_IDENTIFICATION_ALGORITHM);
+      props.setProperty(SslConfigs.SSL_TRUSTSTORE_LOCATION_CONFIG,
+        settings.getHopsworksTmpCertDir() + File.separator + HopsUtils.getProjectTruststoreName(projectName,
+          KafkaInferenceLogger.SERVING_MANAGER_USERNAME));
+      props.setProperty(SslConfigs.SSL_TRUSTSTORE_PASSWORD_CONFIG, String.valueOf(cryptoMaterial.getPassword()));
+      props.setProperty(SslConfigs.SSL_KEYSTORE_LOCATION_CONFIG,
+        settings.getHopsworksTmpCertDir() + File.separator + HopsUtils.getProjectKeystoreName(projectName,
+          KafkaInferenceLogger.SERVING_MANAGER_USERNAME));
+      props.setProperty(SslConfigs.SSL_KEYSTORE_PASSWORD_CONFIG, String.valueOf(cryptoMaterial.getPassword()));
+      props.setProperty(SslConfigs.SSL_KEY_PASSWORD_CONFIG, String.valueOf(cryptoMaterial.getPassword()));
+
+      LOGGER.log(Level.FINE, "Creating inference logging producer for project: " + projectName);
+      return new KafkaProducer<>(props);
+    } catch (IOException | CryptoPasswordNotFoundException | RuntimeException e) {
+      certificateMaterializer.removeCertificatesLocal(KafkaInferenceLogger.SERVING_MANAGER_USERNAME, projectName);
+      throw e;
+    }
+  }
+
+  private void onProducerRemoval(String projectName, KafkaProducer<String, byte[]> producer, RemovalCause cause) {
+    LOGGER.log(Level.FINE, "Closing inference logging producer for project: " + projectName + ", cause: " + cause);
+    try {
+      if (producer != null) {
+        // close() flushes the records that are still buffered
+        producer.close(Duration.ofSeconds(PRODUCER_CLOSE_TIMEOUT_SEC));
+      }
+    } catch (Exception e) {
+      LOGGER.log(Level.FINE, "Error closing inference logging producer for project: " + projectName, e);
+    } finally {
+      certificateMaterializer.removeCertificatesLocal(KafkaInferenceLogger.SERVING_MANAGER_USERNAME, projectName);
+    }
+  }
+
+  public static class InferenceSchema {
+    private final Schema schema;
+    private final Injection<GenericRecord, byte[]> serializer;
+    private final int version;
+
+    InferenceSchema(Schema schema, Injection<GenericRecord, byte[]> serializer, int version) {
+      this.schema = schema;
+      this.serializer = serializer;
+      this.version = version;
+    }
+
+    public Schema getSchema() {
+      return schema;
+    }
+
+    public Injection<GenericRecord, byte[]> getSerializer() {
+      return serializer;
+    }
+
+    public int getVersion() {
+      return version;
+    }
+  }
+
+  private static class ProducerSetupException extends RuntimeException {
+    ProducerSetupException(Exception cause) {
+      super(cause);
+    }
+  }
+}
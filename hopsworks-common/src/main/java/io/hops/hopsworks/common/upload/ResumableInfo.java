@@ -40,10 +40,13 @@
 package io.hops.hopsworks.common.upload;
 
 import java.io.File;
-import java.util.HashSet;
+import java.util.BitSet;
 
 public class ResumableInfo {
 
+  //Bounds the memory of the chunk bookkeeping, 2 MB with one bit per chunk
+  public static final int MAX_CHUNKS = 1 << 24;
+
   private int resumableChunkSize;
   private long resumableTotalSize;
   private String resumableIdentifier;
@@ -51,9 +54,11 @@ public class ResumableInfo {
   private String resumableRelativePath;
   private long uploadedContentLength = 0;
   private String resumableFilePath;
+  private final long createdOn = System.currentTimeMillis();
+  private volatile long lastAccessed = createdOn;
 
-  //Chunks uploaded. Private to enable atomically add and check if finished
-  private HashSet<ResumableChunkNumber> uploadedChunks = new HashSet<>();
+  //Chunks uploaded, indexed by chunk number. Private to enable atomically add and check if finished
+  private final BitSet uploadedChunks = new BitSet();
 
   public static class ResumableChunkNumber {
 
@@ -76,7 +81,8 @@ public class ResumableInfo {
   }
 
   public boolean valid() {
-    if (resumableChunkSize < 0 || resumableTotalSize < 0
+    if (resumableChunkSize <= 0 || resumableTotalSize < 0
+            || getTotalChunks() > MAX_CHUNKS
             || HttpUtils.isEmpty(resumableIdentifier)
             || HttpUtils.isEmpty(resumableFilename)
             || HttpUtils.isEmpty(resumableRelativePath)) {
@@ -86,6 +92,30 @@ public class ResumableInfo {
     }
   }
 
+  /**
+   * Upper bound of the number of chunks of the upload. Clients may send the remainder of the file as a last chunk
+   * larger than the chunk size, so an upload can have fewer chunks.
+   * <p/>
+   * @return the number of chunks of chunk size needed to cover the total size
+   */
+  public long getTotalChunks() {
+    if (resumableChunkSize <= 0) {
+      return 0;
+    }
+    long chunks = resumableTotalSize / resumableChunkSize + (resumableTotalSize % resumableChunkSize == 0 ? 0 : 1);
+    return Math.max(1, chunks);
+  }
+
+  /**
+   * Chunk numbers are sent by the client, only numbers from 1 to the number of chunks of the upload are accepted.
+   * <p/>
+   * @param rcn
+   * @return true if the chunk number is in range
+   */
+  public boolean isValidChunk(ResumableChunkNumber rcn) {
+    return rcn.number >= 1 && rcn.number <= getTotalChunks();
+  }
+
   private boolean checkIfUploadFinished() {
     if (uploadedContentLength != resumableTotalSize) {
       return false;
@@ -108,10 +138,14 @@ public class ResumableInfo {
    */
   public synchronized boolean addChunkAndCheckIfFinished(
           ResumableChunkNumber rcn, long contentLength) {
-    if (!uploadedChunks.contains(rcn)) {
+    touch();
+    if (!isValidChunk(rcn)) {
+      return false;
+    }
+    if (!uploadedChunks.get(rcn.number)) {
       uploadedContentLength += contentLength;
+      uploadedChunks.set(rcn.number);
     }
-    uploadedChunks.add(rcn);
     return checkIfUploadFinished();
   }
 
@@ -121,8 +155,16 @@ public class ResumableInfo {
    * @param rcn
    * @return
    */
-  public boolean isUploaded(ResumableChunkNumber rcn) {
-    return uploadedChunks.contains(rcn);
+  public synchronized boolean isUploaded(ResumableChunkNumber rcn) {
+    touch();
+    return isValidChunk(rcn) && uploadedChunks.get(rcn.number);
+  }
+
+  /**
+   * Record activity on the upload, uploads that are not accessed for a while are expired.
+   */
+  public void touch() {
+    lastAccessed = System.currentTimeMillis();
   }
 
   /*
@@ -148,10 +190,18 @@ public class ResumableInfo {
     return this.resumableRelativePath;
   }
 
-  public long getUploadedContentLength() {
+  public synchronized long getUploadedContentLength() {
     return this.uploadedContentLength;
   }
 
+  public long getCreatedOn() {
+    return this.createdOn;
+  }
+
+  public long getLastAccessed() {
+    return this.lastAccessed;
+  }
+
   public String getResumableFilePath() {
     return this.resumableFilePath;
   }
@@ -179,7 +229,7 @@ public class ResumableInfo {
     this.resumableRelativePath = resumableRelativePath;
   }
 
-  public void setUploadedContentLength(long uploadedContentLength) {
+  public synchronized void setUploadedContentLength(long uploadedContentLength) {
     this.uploadedContentLength = uploadedContentLength;
   }
 
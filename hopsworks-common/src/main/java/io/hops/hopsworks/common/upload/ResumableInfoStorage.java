@@ -39,25 +39,63 @@
 
 package io.hops.hopsworks.common.upload;
 
-import java.util.HashMap;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Timer;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registry of the uploads in progress on this instance. Chunks of the same upload are tracked by their ResumableInfo,
+ * so chunks of different uploads never contend with each other.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
 public class ResumableInfoStorage {
 
-  //Single instance
-  private ResumableInfoStorage() {
-  }
-  private static ResumableInfoStorage sInstance;
+  private static final Logger LOGGER = Logger.getLogger(ResumableInfoStorage.class.getName());
 
-  public static synchronized ResumableInfoStorage getInstance() {
-    if (sInstance == null) {
-      sInstance = new ResumableInfoStorage();
-    }
-    return sInstance;
-  }
+  @EJB
+  private Settings settings;
 
   //resumableIdentifier --  ResumableInfo
-  private HashMap<String, ResumableInfo> mMap
-          = new HashMap<String, ResumableInfo>();
+  private final ConcurrentMap<String, ResumableInfo> mMap = new ConcurrentHashMap<>();
+
+  private final AtomicLong uploadedChunks = new AtomicLong();
+  private final AtomicLong uploadedBytes = new AtomicLong();
+  private final AtomicLong finishedUploads = new AtomicLong();
+  private final AtomicLong expiredUploads = new AtomicLong();
+  private volatile long lastUploadThroughput = 0;
+
+  @PostConstruct
+  public void init() {
+    MetricsRegistry.register("resumableUploads", this::getMetrics);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("resumableUploads");
+  }
 
   /**
    * Get ResumableInfo from mMap or Create a new one.
@@ -70,24 +108,16 @@ public class ResumableInfoStorage {
    * @param resumableFilePath
    * @return
    */
-  public synchronized ResumableInfo get(int resumableChunkSize, long resumableTotalSize, String resumableIdentifier,
-                                        String resumableFilename, String resumableRelativePath,
-                                        String resumableFilePath) {
-
-    ResumableInfo info = mMap.get(resumableIdentifier);
-
-    if (info == null) {
-      info = new ResumableInfo();
-
-      info.setResumableChunkSize(resumableChunkSize);
-      info.setResumableTotalSize(resumableTotalSize);
-      info.setResumableIdentifier(resumableIdentifier);
-      info.setResumableFilename(resumableFilename);
-      info.setResumableRelativePath(resumableRelativePath);
-      info.setResumableFilePath(resumableFilePath);
-
-      mMap.put(resumableIdentifier, info);
+  public ResumableInfo get(int resumableChunkSize, long resumableTotalSize, String resumableIdentifier,
+                           String resumableFilename, String resumableRelativePath, String resumableFilePath) {
+    if (resumableIdentifier == null) {
+      // not registered, will fail validation
+      return newInfo(resumableChunkSize, resumableTotalSize, null, resumableFilename, resumableRelativePath,
+        resumableFilePath);
     }
+    ResumableInfo info = mMap.computeIfAbsent(resumableIdentifier, id -> newInfo(resumableChunkSize,
+      resumableTotalSize, id, resumableFilename, resumableRelativePath, resumableFilePath));
+    info.touch();
     return info;
   }
 
@@ -97,6 +127,79 @@ public class ResumableInfoStorage {
    * @param info
    */
   public void remove(ResumableInfo info) {
-    mMap.remove(info.getResumableIdentifier());
+    if (info.getResumableIdentifier() != null) {
+      mMap.remove(info.getResumableIdentifier(), info);
+    }
+  }
+
+  /**
+   * Record a chunk written to the staging file.
+   * <p/>
+   * @param bytes
+   */
+  public void chunkUploaded(long bytes) {
+    uploadedChunks.incrementAndGet();
+    uploadedBytes.addAndGet(bytes);
+  }
+
+  /**
+   * Remove a completed upload.
+   * <p/>
+   * @param info
+   */
+  public void uploadFinished(ResumableInfo info) {
+    remove(info);
+    finishedUploads.incrementAndGet();
+    long millis = Math.max(System.currentTimeMillis() - info.getCreatedOn(), 1);
+    lastUploadThroughput = info.getUploadedContentLength() * 1000 / millis;
+    LOGGER.log(Level.FINE, "Uploaded {0} bytes of {1} in {2} ms, {3} KB/s", new Object[]{
+      info.getUploadedContentLength(), info.getResumableFilename(), millis, lastUploadThroughput / 1024});
+  }
+
+  /**
+   * Uploads abandoned by the client are never completed, drop them together with their partial staging file.
+   */
+  @Schedule(persistent = false, minute = "*/10", hour = "*")
+  public void expireUploads(Timer timer) {
+    long expiredBefore = System.currentTimeMillis() - settings.getUploadExpiryTimeout();
+    Iterator<ResumableInfo> it = mMap.values().iterator();
+    while (it.hasNext()) {
+      ResumableInfo info = it.next();
+      if (info.getLastAccessed() < expiredBefore) {
+        it.remove();
+        expiredUploads.incrementAndGet();
+        File file = new File(info.getResumableFilePath());
+        if (file.exists() && !file.delete()) {
+          LOGGER.log(Level.WARNING, "Could not delete staging file of expired upload: {0}", file);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return uploads in progress, chunks and bytes written, finished and expired uploads, and the throughput in bytes
+   * per second of the last completed upload
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("uploadsInProgress", mMap.size());
+    metrics.put("uploadedChunks", uploadedChunks.get());
+    metrics.put("uploadedBytes", uploadedBytes.get());
+    metrics.put("finishedUploads", finishedUploads.get());
+    metrics.put("expiredUploads", expiredUploads.get());
+    metrics.put("lastUploadThroughput", lastUploadThroughput);
+    return metrics;
+  }
+
+  private ResumableInfo newInfo(int resumableChunkSize, long resumableTotalSize, String resumableIdentifier,
+                                String resumableFilename, String resumableRelativePath, String resumableFilePath) {
+    ResumableInfo info = new ResumableInfo();
+    info.setResumableChunkSize(resumableChunkSize);
+    info.setResumableTotalSize(resumableTotalSize);
+    info.setResumableIdentifier(resumableIdentifier);
+    info.setResumableFilename(resumableFilename);
+    info.setResumableRelativePath(resumableRelativePath);
+    info.setResumableFilePath(resumableFilePath);
+    return info;
   }
 }
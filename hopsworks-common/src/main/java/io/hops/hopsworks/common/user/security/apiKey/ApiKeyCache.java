@@ -0,0 +1,150 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.user.security.apiKey;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
+import io.hops.hopsworks.persistence.entity.user.security.apiKey.ApiKey;
+import io.hops.hopsworks.persistence.entity.user.security.apiKey.ApiScope;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of verified api keys by prefix. Only an immutable copy of the digest, salt, user id and scopes of a key is
+ * cached, never the entity, so the user of a key is still read on every request. Keys are evicted when they are
+ * deleted or their scopes change on this node, and expire after a short time to pick up changes made on other nodes.
+ * <p/>
+ * Invalidations made in a transaction take effect once it completes. Invalidating right away would let a request
+ * reading the not yet committed key cache the deleted key or its old scopes again until the entry expires.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.SUPPORTS)
+public class ApiKeyCache {
+  
+  private static final long MAX_SIZE = 10000;
+  private static final long EXPIRE_AFTER_WRITE_SEC = 60;
+  
+  @Resource
+  private TransactionSynchronizationRegistry txRegistry;
+  
+  private Cache<String, CachedKey> apiKeys;
+  
+  @PostConstruct
+  public void init() {
+    apiKeys = Caffeine.newBuilder()
+      .maximumSize(MAX_SIZE)
+      .expireAfterWrite(EXPIRE_AFTER_WRITE_SEC, TimeUnit.SECONDS)
+      .recordStats()
+      .build();
+    MetricsRegistry.register("apiKeyCache", this::getMetrics);
+  }
+  
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("apiKeyCache");
+  }
+  
+  public CachedKey get(String prefix) {
+    return apiKeys.getIfPresent(prefix);
+  }
+  
+  public void put(ApiKey apiKey, Set<ApiScope> scopes) {
+    apiKeys.put(apiKey.getPrefix(), new CachedKey(apiKey.getSecret(), apiKey.getSalt(), apiKey.getUser().getUid(),
+      scopes));
+  }
+  
+  /**
+   * Evict a key, once the transaction of the caller completes.
+   *
+   * @param apiKey
+   */
+  public void invalidate(ApiKey apiKey) {
+    String prefix = apiKey.getPrefix();
+    if (txRegistry.getTransactionKey() == null) {
+      apiKeys.invalidate(prefix);
+      return;
+    }
+    // Run on rollback as well, an extra miss is harmless
+    txRegistry.registerInterposedSynchronization(new Synchronization() {
+      @Override
+      public void beforeCompletion() {
+      }
+      
+      @Override
+      public void afterCompletion(int status) {
+        apiKeys.invalidate(prefix);
+      }
+    });
+  }
+  
+  /**
+   * @return size, hits and misses of the cache
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("keys", apiKeys.estimatedSize());
+    metrics.put("hits", apiKeys.stats().hitCount());
+    metrics.put("misses", apiKeys.stats().missCount());
+    return metrics;
+  }
+  
+  public static final class CachedKey {
+    private final String secret;
+    private final String salt;
+    private final Integer userId;
+    private final Set<ApiScope> scopes;
+    
+    private CachedKey(String secret, String salt, Integer userId, Set<ApiScope> scopes) {
+      this.secret = secret;
+      this.salt = salt;
+      this.userId = userId;
+      this.scopes = Collections.unmodifiableSet(new HashSet<>(scopes));
+    }
+    
+    public String getSecret() {
+      return secret;
+    }
+    
+    public String getSalt() {
+      return salt;
+    }
+    
+    public Integer getUserId() {
+      return userId;
+    }
+    
+    public Set<ApiScope> getScopes() {
+      return scopes;
+    }
+  }
+}
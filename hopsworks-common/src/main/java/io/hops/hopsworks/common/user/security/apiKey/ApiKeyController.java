@@ -21,6 +21,7 @@ import io.hops.hopsworks.persistence.entity.user.security.apiKey.ApiKeyScope;
 import io.hops.hopsworks.common.dao.user.security.apiKey.ApiKeyScopeFacade;
 import io.hops.hopsworks.persistence.entity.user.security.apiKey.ApiScope;
 import io.hops.hopsworks.persistence.entity.user.Users;
+import io.hops.hopsworks.common.dao.user.UserFacade;
 import io.hops.hopsworks.common.dao.user.security.ua.UserAccountsEmailMessages;
 import io.hops.hopsworks.common.security.utils.Secret;
 import io.hops.hopsworks.common.security.utils.SecurityUtils;
@@ -38,6 +39,8 @@ import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 import javax.mail.Message;
 import javax.mail.MessagingException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
@@ -62,6 +65,10 @@ public class ApiKeyController {
   private SecurityUtils securityUtils;
   @EJB
   private EmailBean emailBean;
+  @EJB
+  private ApiKeyCache apiKeyCache;
+  @EJB
+  private UserFacade userFacade;
   @Inject
   @Any
   private Instance<ApiKeyHandler> apiKeyHandlers;
@@ -159,12 +166,44 @@ public class ApiKeyController {
     if (apiKey == null) {
       throw new ApiKeyException(RESTCodes.ApiKeyErrorCode.KEY_NOT_FOUND, Level.FINE);
     }
+    checkSecret(parts, apiKey.getSalt(), apiKey.getSecret());
+    return apiKey;
+  }
+  
+  /**
+   * Verify a key for authenticating a request. The digest, salt and scopes of the key are cached, but the user is
+   * read on every call so that changes to its roles and status are seen immediately.
+   * @param key
+   * @return
+   * @throws ApiKeyException
+   */
+  public VerifiedApiKey verifyKey(String key) throws ApiKeyException {
+    String[] parts = key.split(Secret.KEY_ID_SEPARATOR_REGEX);
+    if (parts.length < 2) {
+      throw new ApiKeyException(RESTCodes.ApiKeyErrorCode.KEY_NOT_FOUND, Level.FINE);
+    }
+    ApiKeyCache.CachedKey cachedKey = apiKeyCache.get(parts[0]);
+    if (cachedKey == null) {
+      ApiKey apiKey = getApiKey(key);
+      Set<ApiScope> scopes = getScopes(apiKey);
+      apiKeyCache.put(apiKey, scopes);
+      return new VerifiedApiKey(apiKey.getUser(), scopes);
+    }
+    checkSecret(parts, cachedKey.getSalt(), cachedKey.getSecret());
+    Users user = userFacade.find(cachedKey.getUserId());
+    if (user == null) {
+      throw new ApiKeyException(RESTCodes.ApiKeyErrorCode.KEY_NOT_FOUND, Level.FINE);
+    }
+    return new VerifiedApiKey(user, cachedKey.getScopes());
+  }
+  
+  private void checkSecret(String[] parts, String salt, String digest) throws ApiKeyException {
     //___MinLength can be set to 0 b/c no validation is needed if the key was in db
-    Secret secret = new Secret(parts[0], parts[1], apiKey.getSalt());
-    if (!secret.getSha256HexDigest().equals(apiKey.getSecret())) {
+    Secret secret = new Secret(parts[0], parts[1], salt);
+    if (!MessageDigest.isEqual(secret.getSha256HexDigest().getBytes(StandardCharsets.UTF_8),
+      digest.getBytes(StandardCharsets.UTF_8))) {
       throw new ApiKeyException(RESTCodes.ApiKeyErrorCode.KEY_NOT_FOUND, Level.FINE);
     }
-    return apiKey;
   }
   
   /**
@@ -190,6 +229,7 @@ public class ApiKeyController {
     ApiKeyHandler.runApiKeyDeleteHandlers(apiKeyHandlers, apiKey);
     
     apiKeyFacade.remove(apiKey);
+    apiKeyCache.invalidate(apiKey);
     sendDeletedEmail(user, keyName);
   }
   
@@ -202,6 +242,7 @@ public class ApiKeyController {
     for (ApiKey key : keys) {
       ApiKeyHandler.runApiKeyDeleteHandlers(apiKeyHandlers, key); // run delete handlers
       apiKeyFacade.remove(key);
+      apiKeyCache.invalidate(key);
     }
     sendDeletedAllEmail(user);
   }
@@ -224,6 +265,7 @@ public class ApiKeyController {
       apiKey.getApiKeyScopeCollection().addAll(newScopes);
       apiKey.setModified(new Date());
       apiKey = apiKeyFacade.update(apiKey);
+      apiKeyCache.invalidate(apiKey);
       // run api key update handlers
       ApiKeyHandler.runApiKeyCreateHandlers(apiKeyHandlers, apiKey);
     }
@@ -258,6 +300,7 @@ public class ApiKeyController {
       }
       apiKey.setModified(new Date());
       apiKey = apiKeyFacade.update(apiKey);
+      apiKeyCache.invalidate(apiKey);
       // run api key update handlers
       ApiKeyHandler.runApiKeyDeleteHandlers(apiKeyHandlers, apiKey, toRemove);
     } else if (removed && apiKey.getApiKeyScopeCollection().isEmpty()) {
@@ -312,6 +355,7 @@ public class ApiKeyController {
       apiKey.setApiKeyScopeCollection(toKeep);
       apiKey.setModified(new Date());
       apiKey = apiKeyFacade.update(apiKey);
+      apiKeyCache.invalidate(apiKey);
       // run api key handlers
       ApiKeyHandler.runApiKeyCreateHandlers(apiKeyHandlers, apiKey, toAdd);
       ApiKeyHandler.runApiKeyDeleteHandlers(apiKeyHandlers, apiKey, toRemove);
@@ -0,0 +1,43 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.user.security.apiKey;
+
+import io.hops.hopsworks.persistence.entity.user.Users;
+import io.hops.hopsworks.persistence.entity.user.security.apiKey.ApiScope;
+
+import java.util.Set;
+
+/**
+ * An api key whose secret has been verified, with the user read on this request and the scopes of the key.
+ */
+public final class VerifiedApiKey {
+  private final Users user;
+  private final Set<ApiScope> scopes;
+  
+  VerifiedApiKey(Users user, Set<ApiScope> scopes) {
+    this.user = user;
+    this.scopes = scopes;
+  }
+  
+  public Users getUser() {
+    return user;
+  }
+  
+  public Set<ApiScope> getScopes() {
+    return scopes;
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.util;
+
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the file downloads served by this instance.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class DownloadMetrics {
+
+  private final AtomicLong downloads = new AtomicLong();
+  private final AtomicLong rangeRequests = new AtomicLong();
+  private final AtomicLong downloadedBytes = new AtomicLong();
+  private final AtomicLong downloadMillis = new AtomicLong();
+
+  @PostConstruct
+  public void init() {
+    MetricsRegistry.register("downloads", this::getMetrics);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("downloads");
+  }
+
+  /**
+   * Count a request for a byte range of a file, satisfiable or not.
+   */
+  public void rangeRequested() {
+    rangeRequests.incrementAndGet();
+  }
+
+  /**
+   * Count a finished download, complete or aborted by the client.
+   *
+   * @param bytes bytes written to the response
+   * @param millis time spent streaming the file
+   */
+  public void downloaded(long bytes, long millis) {
+    downloads.incrementAndGet();
+    downloadedBytes.addAndGet(bytes);
+    downloadMillis.addAndGet(millis);
+  }
+
+  /**
+   * @return the downloads, range requests, bytes and milliseconds spent streaming, and the average bytes per second
+   * of the downloads
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("downloads", downloads.get());
+    metrics.put("rangeRequests", rangeRequests.get());
+    metrics.put("downloadedBytes", downloadedBytes.get());
+    metrics.put("downloadMillis", downloadMillis.get());
+    metrics.put("bytesPerSecond", downloadedBytes.get() * 1000 / Math.max(downloadMillis.get(), 1));
+    return metrics;
+  }
+}
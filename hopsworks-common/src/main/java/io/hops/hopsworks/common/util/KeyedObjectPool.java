@@ -0,0 +1,468 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool of expensive to open objects, such as connections or clients, that are specific to a key, usually the user
+ * they authenticate as. Borrowed objects must be given back with either {@link #release(Object)}, or
+ * {@link #invalidate(Object)} if an operation failed and the object can not be trusted anymore.
+ * <p/>
+ * Idle objects are reused most recently used first, so that the least used ones age out with
+ * {@link #evictIdle(long)}. An object is only reused if it is not closed, is younger than the max lifetime, was
+ * created with the same credentials and after the last {@link #invalidateKey(String)} of its key, and, if it has been
+ * idle for longer than the validation interval, passes validation. The pool of a key is dropped once it has no
+ * borrowed and no idle objects.
+ *
+ * @param <T> type of the pooled objects, compared by identity
+ */
+public class KeyedObjectPool<T> {
+
+  private static final Logger LOGGER = Logger.getLogger(KeyedObjectPool.class.getName());
+
+  public interface Handler<T> {
+    /**
+     * @return true if the object was closed, cheap check done every time the object is reused
+     */
+    boolean isClosed(T object);
+
+    /**
+     * @return true if the object still works, called before reusing an object idle for longer than the validation
+     * interval
+     */
+    boolean validate(T object);
+
+    void close(T object) throws Exception;
+  }
+
+  public interface Factory<T, E extends Exception> {
+    T create() throws E;
+  }
+
+  private final String name;
+  private final Handler<T> handler;
+  // max borrowed objects per key, 0 for no limit
+  private final IntSupplier maxBorrowedPerKey;
+  // max idle objects per key
+  private final IntSupplier maxIdlePerKey;
+  private final long maxLifetimeMs;
+  private final long validationIntervalMs;
+  private final long borrowTimeoutMs;
+
+  private final ConcurrentMap<String, KeyPool<T>> pools = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Identity<T>, Pooled<T>> borrowed = new ConcurrentHashMap<>();
+  // every object created by the pool and not closed yet, idle or borrowed
+  private final Set<Identity<T>> managed = ConcurrentHashMap.newKeySet();
+
+  private final AtomicLong borrows = new AtomicLong();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong creates = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong waitTimeNanos = new AtomicLong();
+  private final AtomicLong createTimeNanos = new AtomicLong();
+
+  /**
+   * @param name used in log messages
+   * @param handler checks and closes the pooled objects
+   * @param maxBorrowedPerKey max borrowed objects per key, borrowers wait for one to be given back. 0 for no limit
+   * @param maxIdlePerKey max idle objects per key, objects given back beyond it are closed
+   * @param maxLifetimeMs objects older than this are closed instead of being reused. 0 for no limit
+   * @param validationIntervalMs objects idle for longer than this are validated before being reused. 0 to never
+   * validate
+   * @param borrowTimeoutMs how long to wait for an object when the key has maxBorrowedPerKey borrowed objects
+   */
+  public KeyedObjectPool(String name, Handler<T> handler, IntSupplier maxBorrowedPerKey, IntSupplier maxIdlePerKey,
+    long maxLifetimeMs, long validationIntervalMs, long borrowTimeoutMs) {
+    this.name = name;
+    this.handler = handler;
+    this.maxBorrowedPerKey = maxBorrowedPerKey;
+    this.maxIdlePerKey = maxIdlePerKey;
+    this.maxLifetimeMs = maxLifetimeMs;
+    this.validationIntervalMs = validationIntervalMs;
+    this.borrowTimeoutMs = borrowTimeoutMs;
+  }
+
+  /**
+   * Get an object for the key, reusing an idle one if possible.
+   *
+   * @param key
+   * @param credentials identifies the credentials the object is created with, idle objects created with other
+   * credentials are closed. Can be null
+   * @param factory creates a new object if there is no idle one. If it returns null, so does this method
+   * @param onClose run after the object is closed, to release what the factory acquired. Can be null
+   * @return an object that must be given back to the pool once the operation is done
+   * @throws E if the factory failed
+   * @throws TimeoutException if the key had maxBorrowedPerKey borrowed objects for longer than the borrow timeout
+   * @throws InterruptedException if interrupted while waiting for an object
+   */
+  public <E extends Exception> T borrow(String key, String credentials, Factory<T, E> factory, Runnable onClose)
+    throws E, TimeoutException, InterruptedException {
+    KeyPool<T> pool = acquirePool(key);
+    borrows.incrementAndGet();
+    boolean success = false;
+    try {
+      if (pool.permits != null) {
+        long waitStart = System.nanoTime();
+        try {
+          if (!pool.permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("Timed out waiting for a " + name + " of " + key);
+          }
+        } finally {
+          waitTimeNanos.addAndGet(System.nanoTime() - waitStart);
+        }
+      }
+      try {
+        T object = take(pool, credentials);
+        if (object == null) {
+          object = create(key, credentials, factory, onClose, pool);
+        }
+        success = object != null;
+        return object;
+      } finally {
+        if (!success && pool.permits != null) {
+          pool.permits.release();
+        }
+      }
+    } finally {
+      if (!success) {
+        releasePool(key);
+      }
+    }
+  }
+
+  /**
+   * Give an object back to the pool so it can be reused. Objects given back twice are ignored.
+   *
+   * @param object
+   * @return false if the object was not created by the pool, the caller is in charge of closing it
+   */
+  public boolean release(T object) {
+    if (object == null) {
+      return false;
+    }
+    Identity<T> id = new Identity<>(object);
+    Pooled<T> pooled = borrowed.remove(id);
+    if (pooled == null) {
+      return managed.contains(id);
+    }
+    if (isReusable(pooled, pooled.credentials) && reserveIdle(pooled.pool)) {
+      pooled.lastUsed = System.currentTimeMillis();
+      pooled.pool.idle.offerFirst(pooled);
+    } else {
+      close(pooled);
+    }
+    giveBack(pooled);
+    return true;
+  }
+
+  /**
+   * Close a borrowed object that failed, it will not be reused. Objects given back already are ignored.
+   *
+   * @param object
+   */
+  public void invalidate(T object) {
+    if (object == null) {
+      return;
+    }
+    Pooled<T> pooled = borrowed.remove(new Identity<>(object));
+    if (pooled != null) {
+      close(pooled);
+      giveBack(pooled);
+    }
+  }
+
+  /**
+   * Close the idle objects of a key, and the borrowed ones once they are given back. Used when the credentials of the
+   * key are revoked.
+   *
+   * @param key
+   */
+  public void invalidateKey(String key) {
+    KeyPool<T> pool = pools.get(key);
+    if (pool == null) {
+      return;
+    }
+    pool.generation.incrementAndGet();
+    Pooled<T> pooled;
+    while ((pooled = pool.idle.pollFirst()) != null) {
+      pool.idleCount.decrementAndGet();
+      close(pooled);
+    }
+    pools.computeIfPresent(key, (k, p) -> p.users == 0 && p.idle.isEmpty() ? null : p);
+  }
+
+  /**
+   * {@link #invalidateKey(String)} every key accepted by the filter.
+   *
+   * @param filter
+   */
+  public void invalidateKeys(Predicate<String> filter) {
+    for (String key : pools.keySet()) {
+      if (filter.test(key)) {
+        invalidateKey(key);
+      }
+    }
+  }
+
+  /**
+   * Close the objects idle for longer than the timeout, and release what is held by borrowed objects that were
+   * closed by their borrower instead of being given back. Pools of keys left without objects are dropped.
+   *
+   * @param idleTimeoutMs
+   */
+  public void evictIdle(long idleTimeoutMs) {
+    long idleBefore = System.currentTimeMillis() - idleTimeoutMs;
+    for (Map.Entry<String, KeyPool<T>> entry : pools.entrySet()) {
+      KeyPool<T> pool = entry.getValue();
+      Iterator<Pooled<T>> it = pool.idle.descendingIterator();
+      while (it.hasNext()) {
+        Pooled<T> pooled = it.next();
+        // remove() fails if the object was borrowed in the meantime
+        if (pooled.lastUsed < idleBefore && pool.idle.remove(pooled)) {
+          pool.idleCount.decrementAndGet();
+          evictions.incrementAndGet();
+          close(pooled);
+        }
+      }
+    }
+    Iterator<Pooled<T>> borrowedObjects = borrowed.values().iterator();
+    while (borrowedObjects.hasNext()) {
+      Pooled<T> pooled = borrowedObjects.next();
+      if (isClosed(pooled) && borrowed.remove(pooled.id, pooled)) {
+        close(pooled);
+        giveBack(pooled);
+      }
+    }
+    for (String key : pools.keySet()) {
+      pools.computeIfPresent(key, (k, p) -> p.users == 0 && p.idle.isEmpty() ? null : p);
+    }
+  }
+
+  /**
+   * Close all the idle objects.
+   */
+  public void close() {
+    for (KeyPool<T> pool : pools.values()) {
+      Pooled<T> pooled;
+      while ((pooled = pool.idle.pollFirst()) != null) {
+        pool.idleCount.decrementAndGet();
+        close(pooled);
+      }
+    }
+  }
+
+  /**
+   * @return keys, idle and borrowed objects, borrows, reuses, created and evicted objects, and the total time spent
+   * waiting for and creating objects
+   */
+  public Map<String, Number> getMetrics() {
+    int idle = 0;
+    for (KeyPool<T> pool : pools.values()) {
+      idle += pool.idleCount.get();
+    }
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("keys", pools.size());
+    metrics.put("idle", idle);
+    metrics.put("borrowed", borrowed.size());
+    metrics.put("borrows", borrows.get());
+    metrics.put("hits", hits.get());
+    metrics.put("creates", creates.get());
+    metrics.put("evictions", evictions.get());
+    metrics.put("waitTimeMs", TimeUnit.NANOSECONDS.toMillis(waitTimeNanos.get()));
+    metrics.put("createTimeMs", TimeUnit.NANOSECONDS.toMillis(createTimeNanos.get()));
+    return metrics;
+  }
+
+  private T take(KeyPool<T> pool, String credentials) {
+    Pooled<T> pooled;
+    while ((pooled = pool.idle.pollFirst()) != null) {
+      pool.idleCount.decrementAndGet();
+      if (isReusable(pooled, credentials) && isValid(pooled)) {
+        hits.incrementAndGet();
+        borrowed.put(pooled.id, pooled);
+        return pooled.object;
+      }
+      close(pooled);
+    }
+    return null;
+  }
+
+  private <E extends Exception> T create(String key, String credentials, Factory<T, E> factory, Runnable onClose,
+    KeyPool<T> pool) throws E {
+    int generation = pool.generation.get();
+    long start = System.nanoTime();
+    T object;
+    try {
+      object = factory.create();
+    } finally {
+      createTimeNanos.addAndGet(System.nanoTime() - start);
+    }
+    if (object == null) {
+      return null;
+    }
+    creates.incrementAndGet();
+    Pooled<T> pooled = new Pooled<>(key, object, credentials, generation, onClose, pool);
+    managed.add(pooled.id);
+    borrowed.put(pooled.id, pooled);
+    return object;
+  }
+
+  private boolean reserveIdle(KeyPool<T> pool) {
+    int maxIdle = maxIdlePerKey.getAsInt();
+    if (pool.idleCount.incrementAndGet() <= maxIdle) {
+      return true;
+    }
+    pool.idleCount.decrementAndGet();
+    return false;
+  }
+
+  private boolean isReusable(Pooled<T> pooled, String credentials) {
+    return !isClosed(pooled)
+      && pooled.generation == pooled.pool.generation.get()
+      && (maxLifetimeMs <= 0 || System.currentTimeMillis() - pooled.createdOn < maxLifetimeMs)
+      && Objects.equals(pooled.credentials, credentials);
+  }
+
+  private boolean isValid(Pooled<T> pooled) {
+    if (validationIntervalMs <= 0 || System.currentTimeMillis() - pooled.lastUsed < validationIntervalMs) {
+      return true;
+    }
+    try {
+      return handler.validate(pooled.object);
+    } catch (RuntimeException e) {
+      LOGGER.log(Level.FINE, "Discarding broken " + name + " of " + pooled.key, e);
+      return false;
+    }
+  }
+
+  private boolean isClosed(Pooled<T> pooled) {
+    try {
+      return handler.isClosed(pooled.object);
+    } catch (RuntimeException e) {
+      return true;
+    }
+  }
+
+  private void close(Pooled<T> pooled) {
+    managed.remove(pooled.id);
+    try {
+      handler.close(pooled.object);
+    } catch (Exception e) {
+      LOGGER.log(Level.WARNING, "Error closing " + name + " of " + pooled.key + ": " + e);
+    } finally {
+      if (pooled.onClose != null) {
+        pooled.onClose.run();
+      }
+    }
+  }
+
+  private void giveBack(Pooled<T> pooled) {
+    if (pooled.pool.permits != null) {
+      pooled.pool.permits.release();
+    }
+    releasePool(pooled.key);
+  }
+
+  // the number of users of a pool is only changed inside compute, so that a pool is never dropped while in use
+  private KeyPool<T> acquirePool(String key) {
+    return pools.compute(key, (k, p) -> {
+      KeyPool<T> pool = p == null ? new KeyPool<>(maxBorrowedPerKey.getAsInt()) : p;
+      pool.users++;
+      return pool;
+    });
+  }
+
+  private void releasePool(String key) {
+    pools.computeIfPresent(key, (k, p) -> {
+      p.users--;
+      return p;
+    });
+  }
+
+  private static class KeyPool<T> {
+    // most recently used first, so that the least used objects age out
+    private final ConcurrentLinkedDeque<Pooled<T>> idle = new ConcurrentLinkedDeque<>();
+    // size() of the deque is linear, keep the count on the side
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger generation = new AtomicInteger();
+    private final Semaphore permits;
+    // borrowed objects and borrowers waiting for one
+    private int users = 0;
+
+    KeyPool(int maxBorrowed) {
+      this.permits = maxBorrowed > 0 ? new Semaphore(maxBorrowed) : null;
+    }
+  }
+
+  private static class Pooled<T> {
+    private final String key;
+    private final T object;
+    private final Identity<T> id;
+    private final String credentials;
+    private final int generation;
+    private final Runnable onClose;
+    private final KeyPool<T> pool;
+    private final long createdOn = System.currentTimeMillis();
+    private volatile long lastUsed = createdOn;
+
+    Pooled(String key, T object, String credentials, int generation, Runnable onClose, KeyPool<T> pool) {
+      this.key = key;
+      this.object = object;
+      this.id = new Identity<>(object);
+      this.credentials = credentials;
+      this.generation = generation;
+      this.onClose = onClose;
+      this.pool = pool;
+    }
+  }
+
+  // pooled objects may override equals, they are tracked by identity
+  private static final class Identity<T> {
+    private final T object;
+
+    Identity(T object) {
+      this.object = object;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Identity && ((Identity<?>) o).object == object;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(object);
+    }
+  }
+}
@@ -58,8 +58,10 @@ import org.apache.hadoop.yarn.conf.YarnConfiguration;
 import javax.ejb.ConcurrencyManagement;
 import javax.ejb.ConcurrencyManagementType;
 import javax.ejb.EJB;
+import javax.ejb.Schedule;
 import javax.ejb.Singleton;
 import javax.ejb.Startup;
+import javax.ejb.Timer;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
@@ -71,6 +73,7 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -151,8 +154,11 @@ public class Settings implements Serializable {
   private static final String VARIABLE_PROJECT_PAYMENT_TYPE = "yarn_default_payment_type";
   private static final String VARIABLE_HDFS_BASE_STORAGE_POLICY = "hdfs_base_storage_policy";
   private static final String VARIABLE_HDFS_LOG_STORAGE_POLICY = "hdfs_log_storage_policy";
+  private static final String VARIABLE_HDFS_CLIENT_POOL_MAX_IDLE_PER_USER = "hdfs_client_pool_max_idle_per_user";
+  private static final String VARIABLE_HDFS_CLIENT_POOL_IDLE_TIMEOUT = "hdfs_client_pool_idle_timeout";
   private static final String VARIABLE_MAX_NUM_PROJ_PER_USER
       = "max_num_proj_per_user";
+  private static final String VARIABLE_PROJECT_ROLE_CACHE_TTL = "project_role_cache_ttl";
   private static final String VARIABLE_RESERVED_PROJECT_NAMES = "reserved_project_names";
   private static final String VARIABLE_HOPSWORKS_ENTERPRISE = "hopsworks_enterprise";
   private static final String VARIABLE_SPARK_EXECUTOR_MIN_MEMORY = "spark_executor_min_memory";
@@ -164,6 +170,10 @@ public class Settings implements Serializable {
   private static final String VARIABLE_HIVE_SCRATCHDIR_DELAY = "hive_scratchdir_delay";
   private static final String VARIABLE_HIVE_SCRATCHDIR_CLEANER_INTERVAL = "hive_scratchdir_cleaner_interval";
   private static final String VARIABLE_HIVE_DEFAULT_QUOTA = "hive_default_quota";
+  private static final String VARIABLE_HIVE_METASTORE_CLIENT_POOL_MAX_PER_KEY =
+    "hive_metastore_client_pool_max_per_key";
+  private static final String VARIABLE_HIVE_METASTORE_CLIENT_POOL_IDLE_TIMEOUT =
+    "hive_metastore_client_pool_idle_timeout";
 
   private static final String VARIABLE_TWOFACTOR_AUTH = "twofactor_auth";
   private static final String VARIABLE_TWOFACTOR_EXCLUD = "twofactor-excluded-groups";
@@ -186,14 +196,20 @@ public class Settings implements Serializable {
   private static final String VARIABLE_ANACONDA_DEFAULT_REPO = "conda_default_repo";
 
   private static final String VARIABLE_DOWNLOAD_ALLOWED = "download_allowed";
+  private static final String VARIABLE_DOWNLOAD_BUFFER_SIZE = "download_buffer_size";
+  private static final String VARIABLE_DOWNLOAD_READAHEAD = "download_readahead";
+  private static final String VARIABLE_UPLOAD_EXPIRY_TIMEOUT = "upload_expiry_timeout";
+  private static final String VARIABLE_VARIABLES_CHANGE_POLL_ENABLED = "variables_change_poll_enabled";
   private static final String VARIABLE_HOPSEXAMPLES_VERSION = "hopsexamples_version";
 
   private static final String VARIABLE_KAGENT_USER = "kagent_user";
   private static final String VARIABLE_KAGENT_LIVENESS_MONITOR_ENABLED = "kagent_liveness_monitor_enabled";
   private static final String VARIABLE_KAGENT_LIVENESS_THRESHOLD = "kagent_liveness_threshold";
+  private static final String VARIABLE_KAGENT_HEARTBEAT_FLUSH_INTERVAL = "kagent_heartbeat_flush_interval";
   private static final String VARIABLE_RESOURCE_DIRS = "resources";
   private static final String VARIABLE_CERTS_DIRS = "certs_dir";
   private static final String VARIABLE_MAX_STATUS_POLL_RETRY = "max_status_poll_retry";
+  private static final String VARIABLE_YARN_LOG_COPY_MAX_CONCURRENT = "yarn_log_copy_max_concurrent";
   private static final String VARIABLE_CERT_MATER_DELAY = "cert_mater_delay";
   private static final String VARIABLE_WHITELIST_USERS_LOGIN = "whitelist_users";
   private static final String VARIABLE_FIRST_TIME_LOGIN = "first_time_login";
@@ -237,6 +253,12 @@ public class Settings implements Serializable {
   private static final String VARIABLE_SERVING_MONITOR_INT = "serving_monitor_int";
   private static final String VARIABLE_SERVING_CONNECTION_POOL_SIZE = "serving_connection_pool_size";
   private static final String VARIABLE_SERVING_MAX_ROUTE_CONNECTIONS = "serving_max_route_connections";
+  private static final String VARIABLE_SERVING_INFERENCE_LOGGER_PRODUCER_IDLE_TIMEOUT =
+    "serving_inference_logger_producer_idle_timeout";
+  private static final String VARIABLE_SERVING_INFERENCE_LOGGER_QUEUE_SIZE = "serving_inference_logger_queue_size";
+  private static final String VARIABLE_SERVING_INFERENCE_LOGGER_BATCH_SIZE = "serving_inference_logger_batch_size";
+  private static final String VARIABLE_SERVING_INFERENCE_LOGGER_OFFER_TIMEOUT =
+    "serving_inference_logger_offer_timeout";
 
   /*
    * -------------------- TensorBoard ---------------
@@ -304,6 +326,8 @@ public class Settings implements Serializable {
   private static final String VARIABLE_FEATURESTORE_DEFAULT_STORAGE_FORMAT = "featurestore_default_storage_format";
   private static final String VARIABLE_FEATURESTORE_JDBC_URL = "featurestore_jdbc_url";
   private static final String VARIABLE_ONLINE_FEATURESTORE = "featurestore_online_enabled";
+  private static final String VARIABLE_FEATURESTORE_JDBC_POOL_MAX_PER_KEY = "featurestore_jdbc_pool_max_per_key";
+  private static final String VARIABLE_FEATURESTORE_JDBC_POOL_IDLE_TIMEOUT = "featurestore_jdbc_pool_idle_timeout";
   private static final String VARIABLE_FG_PREVIEW_LIMIT = "fg_preview_limit";
   private static final String VARIABLE_ONLINE_FEATURESTORE_TS = "featurestore_online_tablespace";
   private static final String VARIABLE_ONLINEFS_THREAD_NUMBER = "onlinefs_service_thread_number";
@@ -427,158 +451,497 @@ public class Settings implements Serializable {
   private static final String VARIABLE_MANAGED_DOCKER_REGISTRY =
       "managed_docker_registry";
   
-  private String setVar(String varName, String defaultValue) {
-    return setStrVar(varName, defaultValue);
-  }
-
-  private String setStrVar(String varName, String defaultValue) {
-    Optional<Variables> variable = findById(varName);
-    if (variable.isPresent()) {
-      String value = variable.get().getValue();
-      if (!Strings.isNullOrEmpty(value)) {
-        return value;
-      }
+  private Set<String> setStringHashSetLowerCase(String values, String separator, boolean toLowerCase) {
+    StringTokenizer tokenizer = new StringTokenizer(values, separator);
+    HashSet<String> tokens = new HashSet<>(tokenizer.countTokens());
+    while (tokenizer.hasMoreTokens()) {
+      tokens.add(toLowerCase? tokenizer.nextToken().trim().toLowerCase() : tokenizer.nextToken().trim());
     }
-    return defaultValue;
+    return tokens;
   }
 
-  private String setDirVar(String varName, String defaultValue) {
-    Optional<Variables> dirName = findById(varName);
-    if (dirName.isPresent()) {
-      String value = dirName.get().getValue();
-      if (!Strings.isNullOrEmpty(value) && new File(value).isDirectory()) {
-        return value;
-      }
-    }
-    return defaultValue;
-  }
+  // Null until the variables are first read, and after invalidateCache()
+  private volatile CachedVariables cachedVariables = null;
 
-  private String setIpVar(String varName, String defaultValue) {
-    Optional<Variables> variable = findById(varName);
-    if (variable.isPresent()) {
-      String value = variable.get().getValue();
-      if (!Strings.isNullOrEmpty(value) && Ip.validIp(value)) {
-        return value;
-      }
+  /**
+   * Values of the variables, read from all the rows of the variables table at once. A new instance is built every
+   * time the variables are loaded and published with a single write of cachedVariables. It is not modified once
+   * published, so the getters see the variables of one load, never some of an older one, and the fields do not need
+   * to be volatile.
+   */
+  private final class CachedVariables {
+
+    // Rows the variables are read from, by name
+    private final Map<String, Variables> rows;
+    // Values of the rows, used to detect variables changed by other Hopsworks instances
+    private final Map<String, String> values;
+
+    private String TWOFACTOR_AUTH = "false";
+    private String TWOFACTOR_EXCLUDE = "AGENT;CLUSTER_AGENT";
+    private String HOPS_RPC_TLS = "false";
+    private String SPARK_DIR = "/srv/hops/spark";
+    // "/tmp" by default
+    private String STAGING_DIR = "/srv/hops/domains/domain1/staging";
+    // Remember to change this in docker-images as well
+    private String FLINK_DIR = "/srv/hops/flink";
+    private String AIRFLOW_DIR = "/srv/hops/airflow";
+    private String HADOOP_DIR = "/srv/hops/hadoop";
+    private String HIVE_SUPERUSER = "hive";
+    private String ANACONDA_DEFAULT_REPO = "defaults";
+    private String HIVE_WAREHOUSE = "/apps/hive/warehouse";
+    private String HIVE_SCRATCHDIR = "/tmp/hive";
+    private String HIVE_SCRATCHDIR_DELAY = "7d";
+    private String HIVE_SCRATCHDIR_CLEANER_INTERVAL = "24h";
+    private long HIVE_DB_DEFAULT_QUOTA = HdfsConstants.QUOTA_DONT_SET;
+    // max metastore clients opened at the same time for a project user
+    private int HIVE_METASTORE_CLIENT_POOL_MAX_PER_KEY = 5;
+    // idle metastore clients are closed after this time
+    private long HIVE_METASTORE_CLIENT_POOL_IDLE_TIMEOUT = 300000L;
+    private String CERTS_DIR = "/srv/hops/certs-dir";
+    private String HOPSWORKS_INSTALL_DIR = "/srv/hops/domains/domain1";
+    private String SUDOERS_DIR = "/srv/hops/sbin";
+    private String HOPSWORKS_USER = "glassfish";
+    private String HDFS_SUPERUSER = "hdfs";
+    private String SPARK_USER = "spark";
+    private Integer YARN_DEFAULT_QUOTA = 60000;
+    private PaymentType DEFAULT_PAYMENT_TYPE = PaymentType.NOLIMIT;
+    private long HDFS_DEFAULT_QUOTA_MBs = HdfsConstants.QUOTA_DONT_SET;
+    // Set the DIR_ROOT (/Projects) to have DB storage policy, i.e. - small files stored on db
+    private DistributedFileSystemOps.StoragePolicy HDFS_BASE_STORAGE_POLICY
+      = DistributedFileSystemOps.StoragePolicy.SMALL_FILES;
+    // To not fill the SSDs with Logs files that nobody access frequently
+    // We set the StoragePolicy for the LOGS dir to be DEFAULT
+    private DistributedFileSystemOps.StoragePolicy HDFS_LOG_STORAGE_POLICY
+        = DistributedFileSystemOps.StoragePolicy.DEFAULT;
+    // max idle HopsFS clients kept by DfsClientPool for a user
+    private int HDFS_CLIENT_POOL_MAX_IDLE_PER_USER = 4;
+    // idle pooled HopsFS clients are closed after this time
+    private long HDFS_CLIENT_POOL_IDLE_TIMEOUT = 300000L;
+    private Integer MAX_NUM_PROJ_PER_USER = 5;
+    // cached project roles of the users are re-read from the database after this time
+    private long PROJECT_ROLE_CACHE_TTL = 60000L;
+    private String HADOOP_VERSION = "2.8.2";
+    // Spark executor min memory
+    private int SPARK_EXECUTOR_MIN_MEMORY = 1024;
+    private Set<String> RESERVED_PROJECT_NAMES;
+    private String RESERVED_PROJECT_NAMES_STR;
+    // OpenSearch
+    private OpenSearchSettings OPENSEARCH_SETTINGS;
+    private long OpenSearch_LOGS_INDEX_EXPIRATION = 7 * 24 * 60 * 60 * 1000;
+    // CertificateMaterializer service. Delay for deleting crypto material from
+    // the local filesystem. The lower the value the more frequent we reach DB
+    // for materialization
+    // Suffix, defaults to minutes if omitted:
+    // ms: milliseconds
+    // s: seconds
+    // m: minutes (default)
+    // h: hours
+    // d: days
+    private String CERTIFICATE_MATERIALIZER_DELAY = "1m";
+    private String SERVICE_DISCOVERY_DOMAIN = "consul";
+    private String KIBANA_IP = "10.0.2.15";
+    /*
+     * Comma-separated list of user emails that should not be persisted in the
+     * userlogins table for auditing.
+     * kagent -> agent@hops.io
+     */
+    private String WHITELIST_USERS_LOGIN = "agent@hops.io";
+    // Jupyter
+    private String JUPYTER_DIR = "/srv/hops/jupyter";
+    private String JUPYTER_GROUP = "jupyter";
+    private String JUPYTER_ORIGIN_SCHEME = "https";
+    private long JUPYTER_WS_PING_INTERVAL_MS = 10000L;
+    private Integer PROMETHEUS_PORT = 9089;
+    private Integer GIT_MAX_COMMAND_TIMEOUT_MINUTES = 60;
+    private Boolean ENABLE_GIT_READ_ONLY_REPOSITORIES = false;
+    private String GIT_IMAGE_VERSION = "0.3.0";
+    private boolean DOCKER_CGROUP_ENABLED = false;
+    private String DOCKER_CGROUP_MEMORY_LIMIT = "6GB";
+    private String DOCKER_CGROUP_MEMORY_SOFT_LIMIT = "2GB";
+    private Double DOCKER_CGROUP_CPU_QUOTA = 100.0;
+    private Integer DOCKER_CGROUP_CPU_PERIOD = 100000;
+    private String DOCKER_CGROUP_MONITOR_INTERVAL = "10m";
+    private String jupyterShutdownTimerInterval = "30m";
+    private String KAFKA_USER = "kafka";
+    private String KAFKA_DIR = "/srv/kafka";
+    private String ANACONDA_DIR = "/srv/hops/anaconda";
+    private Boolean ANACONDA_ENABLED = true;
+    private Boolean DOWNLOAD_ALLOWED = true;
+    // bytes copied at a time from HDFS to the http response of a download
+    private int DOWNLOAD_BUFFER_SIZE = 1048576;
+    // bytes HDFS reads ahead of the current position of a download
+    private long DOWNLOAD_READAHEAD = 4194304L;
+    // uploads that have not received a chunk for this long are considered abandoned
+    private long UPLOAD_EXPIRY_TIMEOUT = 86400000L;
+    // poll the variables table for changes made through other Hopsworks instances
+    private boolean VARIABLES_CHANGE_POLL_ENABLED = true;
+    /**
+     * kagent liveness monitor settings
+     */
+    private String KAGENT_USER = "kagent";
+    private boolean KAGENT_LIVENESS_MONITOR_ENABLED = false;
+    private String KAGENT_LIVENESS_THRESHOLD = "10s";
+    // Interval at which the host and service state reported by the kagent heartbeats is written to the database
+    private long KAGENT_HEARTBEAT_FLUSH_INTERVAL = 30000L;
+    private RESTLogLevel HOPSWORKS_REST_LOG_LEVEL = RESTLogLevel.PROD;
+    private String FIRST_TIME_LOGIN = "0";
+    private String ADMIN_EMAIL = "admin@hopsworks.ai";
+    private String HOPSWORKS_DEFAULT_SSL_MASTER_PASSWORD = "adminpw";
+    private Integer KAFKA_DEFAULT_NUM_PARTITIONS = 2;
+    private Integer KAFKA_DEFAULT_NUM_REPLICAS = 1;
+    // HOPSWORKS-3158
+    private String HOPSWORKS_PUBLIC_HOST = "";
+    private int FILE_PREVIEW_IMAGE_SIZE = 10000000;
+    private int FILE_PREVIEW_TXT_SIZE = 100;
+    private String RESOURCE_DIRS = ".sparkStaging;spark-warehouse";
+    private int KAFKA_MAX_NUM_TOPICS = 10;
+    private int MAX_STATUS_POLL_RETRY = 5;
+    // aggregated logs of finished applications copied to the project at the same time
+    private int YARN_LOG_COPY_MAX_CONCURRENT = 4;
+    private String PYPI_REST_ENDPOINT = "https://pypi.org/pypi/{package}/json";
+    private String PYPI_INDEXER_TIMER_INTERVAL = "1d";
+    private String PYPI_SIMPLE_ENDPOINT = "https://pypi.org/simple/";
+    private boolean PYPI_INDEXER_TIMER_ENABLED = true;
+    private String PYTHON_LIBRARY_UPDATES_MONITOR_INTERVAL = "1d";
+    private String HOPS_EXAMPLES_VERSION = "0.3.0";
+    private String KRB_AUTH = "false";
+    private String LDAP_AUTH = "false";
+    private boolean IS_KRB_ENABLED = false;
+    private boolean IS_LDAP_ENABLED = false;
+    private String LDAP_GROUP_MAPPING = "";
+    private String LDAP_USER_ID = "uid"; //login name
+    private String LDAP_USER_GIVEN_NAME = "givenName";
+    private String LDAP_USER_SURNAME = "sn";
+    private String LDAP_USER_EMAIL = "mail";
+    private String LDAP_USER_SEARCH_FILTER = "uid=%s";
+    private String LDAP_GROUP_SEARCH_FILTER = "member=%d";
+    private String LDAP_KRB_USER_SEARCH_FILTER = "krbPrincipalName=%s";
+    private String LDAP_ATTR_BINARY = "java.naming.ldap.attributes.binary";
+    private String LDAP_GROUP_TARGET = "cn";
+    private String LDAP_DYNAMIC_GROUP_TARGET = "memberOf";
+    private String LDAP_USER_DN = LDAP_USER_DN_DEFAULT;
+    private String LDAP_GROUP_DN = LDAP_GROUP_DN_DEFAULT;
+    private String LDAP_GROUPS_TARGET = "distinguishedName";
+    private String LDAP_GROUPS_SEARCH_FILTER = "(&(objectCategory=group)(cn=%c))";
+    private String LDAP_GROUP_MEMBERS_SEARCH_FILTER = "(&(objectCategory=user)(memberOf=%d))";
+    private int LDAP_ACCOUNT_STATUS = 1;
+    private String OAUTH_ENABLED = "false";
+    private boolean IS_OAUTH_ENABLED = false;
+    private String OAUTH_GROUP_MAPPING = "";
+    private String OAUTH_REDIRECT_URI = OAUTH_REDIRECT_URI_PATH;
+    private String OAUTH_LOGOUT_REDIRECT_URI = OAUTH_LOGOUT_REDIRECT_URI_PATH;
+    private int OAUTH_ACCOUNT_STATUS = 1;
+    private long LDAP_GROUP_MAPPING_SYNC_INTERVAL = 0;
+    private boolean REMOTE_AUTH_NEED_CONSENT = true;
+    private boolean DISABLE_PASSWORD_LOGIN = false;
+    private boolean DISABLE_REGISTRATION = false;
+    private boolean VALIDATE_REMOTE_USER_EMAIL_VERIFIED = false;
+    private String MANAGED_CLOUD_REDIRECT_URI = "";
+    private String MANAGED_CLOUD_PROVIDER_NAME = "hopsworks.ai";
+    // Special flag to disable only registration UI but not the backend
+    // It is used in managed cloud when user management is MANAGED by hopsworks.ai
+    // Variable value is set during instance initialization by ec2-init
+    private boolean DISABLE_REGISTRATION_UI = false;
+    private boolean serviceKeyRotationEnabled = false;
+    private String serviceKeyRotationInterval = "3d";
+    private int tensorBoardMaxLastAccessed = 1140000;
+    private int sparkUILogsOffset = 512000;
+    // Libraries that should not be uninstallable
+    private Set<String> IMMUTABLE_PYTHON_LIBRARY_NAMES;
+    private String HOPSWORKS_VERSION;
+    private String KUBE_KSERVE_TENSORFLOW_VERSION;
+    private String TENSORFLOW_VERSION;
+    private String OPENSEARCH_VERSION;
+    private String KAFKA_VERSION;
+    private String EPIPE_VERSION;
+    private String FLINK_VERSION;
+    private String SPARK_VERSION;
+    private String TEZ_VERSION;
+    private String HIVE2_VERSION;
+    private String LIVY_VERSION;
+    private String NDB_VERSION;
+    private String FILEBEAT_VERSION;
+    private String KIBANA_VERSION;
+    private String LOGSTASH_VERSION;
+    private String GRAFANA_VERSION;
+    private String ZOOKEEPER_VERSION;
+    private String KUBE_USER = "kubernetes";
+    private String KUBE_HOPSWORKS_USER = "hopsworks";
+    private String KUBEMASTER_URL = "https://192.168.68.102:6443";
+    private String KUBE_CA_CERTFILE = "/srv/hops/certs-dir/certs/ca.cert.pem";
+    private String KUBE_CLIENT_KEYFILE = "/srv/hops/certs-dir/kube/hopsworks/hopsworks.key.pem";
+    private String KUBE_CLIENT_CERTFILE = "/srv/hops/certs-dir/kube/hopsworks/hopsworks.cert.pem";
+    private String KUBE_CLIENT_KEYPASS = "adminpw";
+    private String KUBE_TRUSTSTORE_PATH = "/srv/hops/certs-dir/kube/hopsworks/hopsworks__tstore.jks";
+    private String KUBE_TRUSTSTORE_KEY = "adminpw";
+    private String KUBE_KEYSTORE_PATH = "/srv/hops/certs-dir/kube/hopsworks/hopsworks__kstore.jks";
+    private String KUBE_KEYSTORE_KEY = "adminpw";
+    private String KUBE_PULL_POLICY = "Always";
+    private Integer KUBE_API_MAX_ATTEMPTS = 12;
+    private Boolean ONLINE_FEATURESTORE = false;
+    // max JDBC connections opened at the same time for a database and user, for feature store reads
+    private int FEATURESTORE_JDBC_POOL_MAX_PER_KEY = 5;
+    // idle feature store JDBC connections are closed after this time
+    private long FEATURESTORE_JDBC_POOL_IDLE_TIMEOUT = 300000L;
+    private String ONLINE_FEATURESTORE_TS = "";
+    private Integer ONLINEFS_THREAD_NUMBER = 10;
+    private Integer KUBE_DOCKER_MAX_MEMORY_ALLOCATION = 8192;
+    private Double KUBE_DOCKER_MAX_CORES_ALLOCATION = 4.0;
+    private Integer KUBE_DOCKER_MAX_GPUS_ALLOCATION = 1;
+    private Boolean KUBE_INSTALLED = false;
+    private Boolean KUBE_KSERVE_INSTALLED = false;
+    private String KUBE_SERVING_NODE_LABELS = "";
+    private String KUBE_SERVING_NODE_TOLERATIONS = "";
+    private Integer KUBE_SERVING_MAX_MEMORY_ALLOCATION = -1; // no upper limit
+    private Double KUBE_SERVING_MAX_CORES_ALLOCATION = -1.0;  // no upper limit
+    private Integer KUBE_SERVING_MAX_GPUS_ALLOCATION = -1; // no upper limit
+    // Maximum number of instances. Possible values >=-1 where -1 means no limit.
+    private Integer KUBE_SERVING_MAX_NUM_INSTANCES = -1;
+    // Minimum number of instances. Possible values: >=-1 where -1 means no limit and 0 enforces scale-to-zero
+    // capabilities when available
+    private Integer KUBE_SERVING_MIN_NUM_INSTANCES = -1;
+    private String KUBE_KNATIVE_DOMAIN_NAME = "";
+    //comma seperated list of tainted nodes
+    private String KUBE_TAINTED_NODES = "";
+    private String KUBE_TAINTED_NODES_MONITOR_INTERVAL = "30m";
+    private Boolean HOPSWORKS_ENTERPRISE = false;
+    private boolean ENABLE_DATA_SCIENCE_PROFILE = false;
+    private String SERVING_MONITOR_INT = "30s";
+    private int SERVING_CONNECTION_POOL_SIZE = 40;
+    private int SERVING_MAX_ROUTE_CONNECTIONS = 10;
+    private long SERVING_INFERENCE_LOGGER_PRODUCER_IDLE_TIMEOUT = 600000L;
+    private int SERVING_INFERENCE_LOGGER_QUEUE_SIZE = 10000;
+    private int SERVING_INFERENCE_LOGGER_BATCH_SIZE = 500;
+    // 0 drops the inference log straight away when the queue is full
+    private long SERVING_INFERENCE_LOGGER_OFFER_TIMEOUT = 0L;
+    private int TENSORBOARD_MAX_RELOAD_THREADS = 1;
+    private String JUPYTER_HOST = "localhost";
+    private boolean ENABLE_JUPYTER_PYTHON_KERNEL_NON_KUBERNETES = false;
+    private String JWT_SIGNATURE_ALGORITHM = "HS512";
+    private String JWT_SIGNING_KEY_NAME = "apiKey";
+    private String JWT_ISSUER = "hopsworks@logicalclocks.com";
+    private long JWT_LIFETIME_MS = 1800000l;
+    private int JWT_EXP_LEEWAY_SEC = 900;
+    private long SERVICE_JWT_LIFETIME_MS = 86400000l;
+    private int SERVICE_JWT_EXP_LEEWAY_SEC = 43200;
+    private String SERVICE_MASTER_JWT = "";
+    private String[] RENEW_TOKENS = new String[0];
+    private int CONNECTION_KEEPALIVE_TIMEOUT = 30;
+    private String HIVE_CONF_PATH = "/srv/hops/apache-hive/conf/hive-site.xml";
+    private String FS_PY_JOB_UTIL_PATH = "hdfs:///user/spark/hsfs_util-2.1.0-SNAPSHOT.py";
+    private String FS_JAVA_JOB_UTIL_PATH = "hdfs:///user/spark/hsfs-utils-2.1.0-SNAPSHOT.jar";
+    private String HDFS_FILE_OP_JOB_UTIL = "hdfs:///user/spark/hdfs_file_operations-0.1.0.py";
+    private int HDFS_FILE_OP_JOB_DRIVER_MEM = 2048;
+    private long FEATURESTORE_DB_DEFAULT_QUOTA = HdfsConstants.QUOTA_DONT_SET;
+    private String FEATURESTORE_DB_DEFAULT_STORAGE_FORMAT = "ORC";
+    private boolean ENABLE_REDSHIFT_STORAGE_CONNECTORS = true;
+    private boolean ENABLE_ADLS_STORAGE_CONNECTORS = false;
+    private boolean ENABLE_SNOWFLAKE_STORAGE_CONNECTORS = true;
+    private boolean ENABLE_KAFKA_STORAGE_CONNECTORS = false;
+    private boolean ENABLE_GCS_STORAGE_CONNECTORS = false;
+    private boolean ENABLE_BIGQUERY_STORAGE_CONNECTORS = false;
+    private Boolean LOCALHOST = false;
+    private String CLOUD = "";
+    private String FEATURESTORE_JDBC_URL = "jdbc:mysql://onlinefs.mysql.service.consul:3306/";
+    private Boolean REQUESTS_VERIFY = false;
+    private  Boolean KIBANA_HTTPS_ENABELED = false;
+    private  Boolean KIBANA_MULTI_TENANCY_ENABELED = false;
+    private Provenance.Type PROVENANCE_TYPE = Provenance.Type.MIN;
+    private String PROVENANCE_TYPE_S = PROVENANCE_TYPE.name();
+    private Integer PROVENANCE_CLEANUP_SIZE = 5;
+    private Integer PROVENANCE_GRAPH_MAX_SIZE = 50;
+    private Long PROVENANCE_CLEANER_PERIOD = 3600L; //1h in s
+    private String CLIENT_PATH = "/srv/hops/client.tar.gz";
+    // CLOUD
+    private String CLOUD_EVENTS_ENDPOINT = "";
+    private String CLOUD_EVENTS_ENDPOINT_API_KEY = "";
+    private int FG_PREVIEW_LIMIT = 100;
+    private String YARN_RUNTIME = "docker";
+    private boolean checkNodemanagersStatus = false;
+    private String DOCKER_MOUNTS = 
+        "/srv/hops/hadoop/etc/hadoop,/srv/hops/spark,/srv/hops/flink";
+    private String DOCKER_BASE_IMAGE_PYTHON_NAME = "python38";
+    private String DOCKER_BASE_IMAGE_PYTHON_VERSION = "3.8";
+    private long YARN_APP_UID = 1235L;
+    private KubeType KUBE_TYPE = KubeType.Local;
+    private String DOCKER_NAMESPACE = "";
+    private Boolean MANAGED_DOCKER_REGISTRY = false;
+    private String DOCKER_JOB_MOUNTS_LIST;
+    private Boolean DOCKER_JOB_MOUNT_ALLOWED = true;
+    private Boolean DOCKER_JOB_UID_STRICT = true;
+    private int EXECUTIONS_PER_JOB_LIMIT = 10000;
+    private int EXECUTIONS_CLEANER_BATCH_SIZE = 1000;
+    private int EXECUTIONS_CLEANER_INTERVAL_MS = 600000;
+    private int MAX_ENV_YML_BYTE_SIZE = 20000;
+    private int LIVY_STARTUP_TIMEOUT = 240;
+    private boolean USER_SEARCH_ENABLED = true;
+    /*
+     * When a user try to connect for the first time with OAuth or LDAP
+     * do not create the user if it does not bellong to any group.
+     * This is to avoid having users that belong to no group poluting the users table
+     */
+    private boolean REJECT_REMOTE_USER_NO_GROUP = false;
+    private boolean SKIP_NAMESPACE_CREATION = false;
+    private long QUOTAS_ONLINE_ENABLED_FEATUREGROUPS = -1L;
+    private long QUOTAS_ONLINE_DISABLED_FEATUREGROUPS = -1L;
+    private long QUOTAS_TRAINING_DATASETS = -1L;
+    private long QUOTAS_RUNNING_MODEL_DEPLOYMENTS = -1L;
+    private long QUOTAS_TOTAL_MODEL_DEPLOYMENTS = -1L;
+    private long QUOTAS_MAX_PARALLEL_EXECUTIONS = -1L;
+    private Integer SQL_MAX_SELECT_IN = 100;
+    // The maximum number of http threads in the thread pool is set to 200 by default
+    private int MAX_LONG_RUNNING_HTTP_REQUESTS = 50;
+
+    private CachedVariables(Map<String, Variables> rows) {
+      this.rows = rows;
+      this.values = variableValues(rows);
+      populateVariables();
     }
 
-    return defaultValue;
-  }
-
-  private Boolean setBoolVar(String varName, Boolean defaultValue) {
-    Optional<Variables> variable = findById(varName);
-    if (variable.isPresent()) {
-      String value = variable.get().getValue();
-      if (!Strings.isNullOrEmpty(value)) {
-        return Boolean.parseBoolean(value);
-      }
+    private Optional<Variables> getVariable(String varName) {
+      return Optional.ofNullable(rows.get(varName));
     }
 
-    return defaultValue;
-  }
+    private String setVar(String varName, String defaultValue) {
+      return setStrVar(varName, defaultValue);
+    }
 
-  private Integer setIntVar(String varName, Integer defaultValue) {
-    Optional<Variables> variable = findById(varName);
-    if (variable.isPresent()) {
-      String value = variable.get().getValue();
-      try {
+    private String setStrVar(String varName, String defaultValue) {
+      Optional<Variables> variable = getVariable(varName);
+      if (variable.isPresent()) {
+        String value = variable.get().getValue();
         if (!Strings.isNullOrEmpty(value)) {
-          return Integer.parseInt(value);
+          return value;
         }
-      } catch(NumberFormatException ex){
-        LOGGER.log(Level.WARNING,
-            "Error - not an integer! " + varName + " should be an integer. Value was " + value);
       }
+      return defaultValue;
     }
-    return defaultValue;
-  }
 
-  private Double setDoubleVar(String varName, Double defaultValue) {
-    Optional<Variables> variable = findById(varName);
-    if (variable.isPresent()) {
-      String value = variable.get().getValue();
-      try {
-        if (!Strings.isNullOrEmpty(value)) {
-          return Double.parseDouble(value);
+    private String setDirVar(String varName, String defaultValue) {
+      Optional<Variables> dirName = getVariable(varName);
+      if (dirName.isPresent()) {
+        String value = dirName.get().getValue();
+        if (!Strings.isNullOrEmpty(value) && new File(value).isDirectory()) {
+          return value;
         }
-      } catch(NumberFormatException ex){
-        LOGGER.log(Level.WARNING, "Error - not a double! " + varName + " should be a double. Value was " + value);
       }
+      return defaultValue;
     }
 
-    return defaultValue;
-  }
+    private String setIpVar(String varName, String defaultValue) {
+      Optional<Variables> variable = getVariable(varName);
+      if (variable.isPresent()) {
+        String value = variable.get().getValue();
+        if (!Strings.isNullOrEmpty(value) && Ip.validIp(value)) {
+          return value;
+        }
+      }
 
-  private long setLongVar(String varName, Long defaultValue) {
-    Optional<Variables> variable = findById(varName);
-    if (variable.isPresent()) {
-      String value = variable.get().getValue();
-      try {
+      return defaultValue;
+    }
+
+    private Boolean setBoolVar(String varName, Boolean defaultValue) {
+      Optional<Variables> variable = getVariable(varName);
+      if (variable.isPresent()) {
+        String value = variable.get().getValue();
         if (!Strings.isNullOrEmpty(value)) {
-          return Long.parseLong(value);
+          return Boolean.parseBoolean(value);
         }
-      } catch (NumberFormatException ex) {
-        LOGGER.log(Level.WARNING, "Error - not a long! " + varName + " should be an integer. Value was " + value);
       }
+
+      return defaultValue;
     }
 
-    return defaultValue;
-  }
+    private Integer setIntVar(String varName, Integer defaultValue) {
+      Optional<Variables> variable = getVariable(varName);
+      if (variable.isPresent()) {
+        String value = variable.get().getValue();
+        try {
+          if (!Strings.isNullOrEmpty(value)) {
+            return Integer.parseInt(value);
+          }
+        } catch(NumberFormatException ex){
+          LOGGER.log(Level.WARNING,
+              "Error - not an integer! " + varName + " should be an integer. Value was " + value);
+        }
+      }
+      return defaultValue;
+    }
 
-  private RESTLogLevel setLogLevelVar(String varName, RESTLogLevel defaultValue) {
-    Optional<Variables> variable = findById(varName);
-    if (variable.isPresent()) {
-      String value = variable.get().getValue();
-      if (!Strings.isNullOrEmpty(value)) {
-        return RESTLogLevel.valueOf(value);
+    private Double setDoubleVar(String varName, Double defaultValue) {
+      Optional<Variables> variable = getVariable(varName);
+      if (variable.isPresent()) {
+        String value = variable.get().getValue();
+        try {
+          if (!Strings.isNullOrEmpty(value)) {
+            return Double.parseDouble(value);
+          }
+        } catch(NumberFormatException ex){
+          LOGGER.log(Level.WARNING, "Error - not a double! " + varName + " should be a double. Value was " + value);
+        }
       }
+
+      return defaultValue;
     }
-    return defaultValue;
-  }
 
-  private long setMillisecondVar(String varName, Long defaultValue) {
-    Optional<Variables> variable = findById(varName);
-    if (variable.isPresent()) {
-      String value = variable.get().getValue();
-      if (!Strings.isNullOrEmpty(value)) {
-        long timeValue = getConfTimeValue(value);
-        TimeUnit timeUnit = getConfTimeTimeUnit(value);
-        return timeUnit.toMillis(timeValue);
+    private long setLongVar(String varName, Long defaultValue) {
+      Optional<Variables> variable = getVariable(varName);
+      if (variable.isPresent()) {
+        String value = variable.get().getValue();
+        try {
+          if (!Strings.isNullOrEmpty(value)) {
+            return Long.parseLong(value);
+          }
+        } catch (NumberFormatException ex) {
+          LOGGER.log(Level.WARNING, "Error - not a long! " + varName + " should be an integer. Value was " + value);
+        }
       }
+
+      return defaultValue;
     }
 
-    return defaultValue;
-  }
+    private RESTLogLevel setLogLevelVar(String varName, RESTLogLevel defaultValue) {
+      Optional<Variables> variable = getVariable(varName);
+      if (variable.isPresent()) {
+        String value = variable.get().getValue();
+        if (!Strings.isNullOrEmpty(value)) {
+          return RESTLogLevel.valueOf(value);
+        }
+      }
+      return defaultValue;
+    }
 
-  private PaymentType setPaymentType(String varName, PaymentType defaultValue) {
-    Optional<Variables> variable = findById(varName);
-    if (variable.isPresent()) {
-      String value = variable.get().getValue();
-      if (!Strings.isNullOrEmpty(value)) {
-        return PaymentType.valueOf(value);
+    private long setMillisecondVar(String varName, Long defaultValue) {
+      Optional<Variables> variable = getVariable(varName);
+      if (variable.isPresent()) {
+        String value = variable.get().getValue();
+        if (!Strings.isNullOrEmpty(value)) {
+          long timeValue = getConfTimeValue(value);
+          TimeUnit timeUnit = getConfTimeTimeUnit(value);
+          return timeUnit.toMillis(timeValue);
+        }
       }
+
+      return defaultValue;
     }
-    return defaultValue;
-  }
 
-  private Set<String> setStringHashSetLowerCase(String varName, String defaultValue, String separator) {
-    RESERVED_PROJECT_NAMES_STR = setStrVar(varName, defaultValue);
-    return setStringHashSetLowerCase(RESERVED_PROJECT_NAMES_STR, separator, true);
-  }
-  
-  private Set<String> setStringHashSetLowerCase(String values, String separator, boolean toLowerCase) {
-    StringTokenizer tokenizer = new StringTokenizer(values, separator);
-    HashSet<String> tokens = new HashSet<>(tokenizer.countTokens());
-    while (tokenizer.hasMoreTokens()) {
-      tokens.add(toLowerCase? tokenizer.nextToken().trim().toLowerCase() : tokenizer.nextToken().trim());
+    private PaymentType setPaymentType(String varName, PaymentType defaultValue) {
+      Optional<Variables> variable = getVariable(varName);
+      if (variable.isPresent()) {
+        String value = variable.get().getValue();
+        if (!Strings.isNullOrEmpty(value)) {
+          return PaymentType.valueOf(value);
+        }
+      }
+      return defaultValue;
     }
-    return tokens;
-  }
 
-  private boolean cached = false;
+    private Set<String> setStringHashSetLowerCase(String varName, String defaultValue, String separator) {
+      RESERVED_PROJECT_NAMES_STR = setStrVar(varName, defaultValue);
+      return Settings.this.setStringHashSetLowerCase(RESERVED_PROJECT_NAMES_STR, separator, true);
+    }
 
-  private void populateCache() {
-    if (!cached) {
+    private void populateVariables() {
       ADMIN_EMAIL = setVar(VARIABLE_ADMIN_EMAIL, ADMIN_EMAIL);
       LOCALHOST = setBoolVar(VARIABLE_LOCALHOST, LOCALHOST);
       CLOUD = setStrVar(VARIABLE_CLOUD, CLOUD);
@@ -601,6 +964,10 @@ public class Settings implements Serializable {
       HIVE_SCRATCHDIR_CLEANER_INTERVAL = setStrVar(VARIABLE_HIVE_SCRATCHDIR_CLEANER_INTERVAL,
           HIVE_SCRATCHDIR_CLEANER_INTERVAL);
       HIVE_DB_DEFAULT_QUOTA = setLongVar(VARIABLE_HIVE_DEFAULT_QUOTA, HIVE_DB_DEFAULT_QUOTA);
+      HIVE_METASTORE_CLIENT_POOL_MAX_PER_KEY = setIntVar(VARIABLE_HIVE_METASTORE_CLIENT_POOL_MAX_PER_KEY,
+        HIVE_METASTORE_CLIENT_POOL_MAX_PER_KEY);
+      HIVE_METASTORE_CLIENT_POOL_IDLE_TIMEOUT = setMillisecondVar(VARIABLE_HIVE_METASTORE_CLIENT_POOL_IDLE_TIMEOUT,
+        HIVE_METASTORE_CLIENT_POOL_IDLE_TIMEOUT);
       HADOOP_VERSION = setVar(VARIABLE_HADOOP_VERSION, HADOOP_VERSION);
       JUPYTER_DIR = setDirVar(VARIABLE_JUPYTER_DIR, JUPYTER_DIR);
       JUPYTER_WS_PING_INTERVAL_MS = setMillisecondVar(VARIABLE_JUPYTER_WS_PING_INTERVAL, JUPYTER_WS_PING_INTERVAL_MS);
@@ -651,7 +1018,12 @@ public class Settings implements Serializable {
       HDFS_DEFAULT_QUOTA_MBs = setLongVar(VARIABLE_HDFS_DEFAULT_QUOTA, HDFS_DEFAULT_QUOTA_MBs);
       HDFS_BASE_STORAGE_POLICY = setHdfsStoragePolicy(VARIABLE_HDFS_BASE_STORAGE_POLICY, HDFS_BASE_STORAGE_POLICY);
       HDFS_LOG_STORAGE_POLICY = setHdfsStoragePolicy(VARIABLE_HDFS_LOG_STORAGE_POLICY, HDFS_LOG_STORAGE_POLICY);
+      HDFS_CLIENT_POOL_MAX_IDLE_PER_USER = setIntVar(VARIABLE_HDFS_CLIENT_POOL_MAX_IDLE_PER_USER,
+        HDFS_CLIENT_POOL_MAX_IDLE_PER_USER);
+      HDFS_CLIENT_POOL_IDLE_TIMEOUT = setMillisecondVar(VARIABLE_HDFS_CLIENT_POOL_IDLE_TIMEOUT,
+        HDFS_CLIENT_POOL_IDLE_TIMEOUT);
       MAX_NUM_PROJ_PER_USER = setIntVar(VARIABLE_MAX_NUM_PROJ_PER_USER, MAX_NUM_PROJ_PER_USER);
+      PROJECT_ROLE_CACHE_TTL = setMillisecondVar(VARIABLE_PROJECT_ROLE_CACHE_TTL, PROJECT_ROLE_CACHE_TTL);
       FILE_PREVIEW_IMAGE_SIZE = setIntVar(VARIABLE_FILE_PREVIEW_IMAGE_SIZE, 10000000);
       FILE_PREVIEW_TXT_SIZE = setIntVar(VARIABLE_FILE_PREVIEW_TXT_SIZE, 100);
       ANACONDA_DIR = setDirVar(VARIABLE_ANACONDA_DIR, ANACONDA_DIR);
@@ -662,9 +1034,16 @@ public class Settings implements Serializable {
       KAGENT_LIVENESS_MONITOR_ENABLED = setBoolVar(VARIABLE_KAGENT_LIVENESS_MONITOR_ENABLED,
           KAGENT_LIVENESS_MONITOR_ENABLED);
       KAGENT_LIVENESS_THRESHOLD = setStrVar(VARIABLE_KAGENT_LIVENESS_THRESHOLD, KAGENT_LIVENESS_THRESHOLD);
+      KAGENT_HEARTBEAT_FLUSH_INTERVAL = setMillisecondVar(VARIABLE_KAGENT_HEARTBEAT_FLUSH_INTERVAL,
+          KAGENT_HEARTBEAT_FLUSH_INTERVAL);
       DOWNLOAD_ALLOWED = Boolean.parseBoolean(setStrVar(VARIABLE_DOWNLOAD_ALLOWED, DOWNLOAD_ALLOWED.toString()));
+      DOWNLOAD_BUFFER_SIZE = setIntVar(VARIABLE_DOWNLOAD_BUFFER_SIZE, DOWNLOAD_BUFFER_SIZE);
+      DOWNLOAD_READAHEAD = setLongVar(VARIABLE_DOWNLOAD_READAHEAD, DOWNLOAD_READAHEAD);
+      UPLOAD_EXPIRY_TIMEOUT = setMillisecondVar(VARIABLE_UPLOAD_EXPIRY_TIMEOUT, UPLOAD_EXPIRY_TIMEOUT);
+      VARIABLES_CHANGE_POLL_ENABLED = setBoolVar(VARIABLE_VARIABLES_CHANGE_POLL_ENABLED, VARIABLES_CHANGE_POLL_ENABLED);
       RESOURCE_DIRS = setStrVar(VARIABLE_RESOURCE_DIRS, RESOURCE_DIRS);
       MAX_STATUS_POLL_RETRY = setIntVar(VARIABLE_MAX_STATUS_POLL_RETRY, MAX_STATUS_POLL_RETRY);
+      YARN_LOG_COPY_MAX_CONCURRENT = setIntVar(VARIABLE_YARN_LOG_COPY_MAX_CONCURRENT, YARN_LOG_COPY_MAX_CONCURRENT);
       HOPS_RPC_TLS = setStrVar(VARIABLE_HOPS_RPC_TLS, HOPS_RPC_TLS);
       CERTIFICATE_MATERIALIZER_DELAY = setStrVar(VARIABLE_CERT_MATER_DELAY,
           CERTIFICATE_MATERIALIZER_DELAY);
@@ -719,6 +1098,14 @@ public class Settings implements Serializable {
         SERVING_CONNECTION_POOL_SIZE);
       SERVING_MAX_ROUTE_CONNECTIONS = setIntVar(VARIABLE_SERVING_MAX_ROUTE_CONNECTIONS,
         SERVING_MAX_ROUTE_CONNECTIONS);
+      SERVING_INFERENCE_LOGGER_PRODUCER_IDLE_TIMEOUT = setMillisecondVar(
+        VARIABLE_SERVING_INFERENCE_LOGGER_PRODUCER_IDLE_TIMEOUT, SERVING_INFERENCE_LOGGER_PRODUCER_IDLE_TIMEOUT);
+      SERVING_INFERENCE_LOGGER_QUEUE_SIZE = setIntVar(VARIABLE_SERVING_INFERENCE_LOGGER_QUEUE_SIZE,
+        SERVING_INFERENCE_LOGGER_QUEUE_SIZE);
+      SERVING_INFERENCE_LOGGER_BATCH_SIZE = setIntVar(VARIABLE_SERVING_INFERENCE_LOGGER_BATCH_SIZE,
+        SERVING_INFERENCE_LOGGER_BATCH_SIZE);
+      SERVING_INFERENCE_LOGGER_OFFER_TIMEOUT = setMillisecondVar(VARIABLE_SERVING_INFERENCE_LOGGER_OFFER_TIMEOUT,
+        SERVING_INFERENCE_LOGGER_OFFER_TIMEOUT);
 
       TENSORBOARD_MAX_RELOAD_THREADS = setIntVar(VARIABLE_TENSORBOARD_MAX_RELOAD_THREADS,
           TENSORBOARD_MAX_RELOAD_THREADS);
@@ -760,7 +1147,7 @@ public class Settings implements Serializable {
       KUBE_TAINTED_NODES = setStrVar(VARIABLE_KUBE_TAINTED_NODES, KUBE_TAINTED_NODES);
       KUBE_TAINTED_NODES_MONITOR_INTERVAL = setStrVar(VARIABLE_KUBE_TAINTED_NODES_MONITOR_INTERVAL,
           KUBE_TAINTED_NODES_MONITOR_INTERVAL);
-  
+
       HOPSWORKS_ENTERPRISE = setBoolVar(VARIABLE_HOPSWORKS_ENTERPRISE, HOPSWORKS_ENTERPRISE);
 
       JUPYTER_HOST = setStrVar(VARIABLE_JUPYTER_HOST, JUPYTER_HOST);
@@ -783,21 +1170,25 @@ public class Settings implements Serializable {
           setStrVar(VARIABLE_FEATURESTORE_DEFAULT_STORAGE_FORMAT, FEATURESTORE_DB_DEFAULT_STORAGE_FORMAT);
       FEATURESTORE_JDBC_URL = setStrVar(VARIABLE_FEATURESTORE_JDBC_URL, FEATURESTORE_JDBC_URL);
       ONLINE_FEATURESTORE = setBoolVar(VARIABLE_ONLINE_FEATURESTORE, ONLINE_FEATURESTORE);
+      FEATURESTORE_JDBC_POOL_MAX_PER_KEY = setIntVar(VARIABLE_FEATURESTORE_JDBC_POOL_MAX_PER_KEY,
+        FEATURESTORE_JDBC_POOL_MAX_PER_KEY);
+      FEATURESTORE_JDBC_POOL_IDLE_TIMEOUT = setMillisecondVar(VARIABLE_FEATURESTORE_JDBC_POOL_IDLE_TIMEOUT,
+        FEATURESTORE_JDBC_POOL_IDLE_TIMEOUT);
       ONLINE_FEATURESTORE_TS = setStrVar(VARIABLE_ONLINE_FEATURESTORE_TS, ONLINE_FEATURESTORE_TS);
       ONLINEFS_THREAD_NUMBER = setIntVar(VARIABLE_ONLINEFS_THREAD_NUMBER, ONLINEFS_THREAD_NUMBER);
 
       KIBANA_HTTPS_ENABELED = setBoolVar(VARIABLE_KIBANA_HTTPS_ENABLED,
           KIBANA_HTTPS_ENABELED);
-  
+
       KIBANA_MULTI_TENANCY_ENABELED = setBoolVar(VARIABLE_KIBANA_MULTI_TENANCY_ENABLED,
           KIBANA_MULTI_TENANCY_ENABELED);
-  
+
       RESERVED_PROJECT_NAMES =
         setStringHashSetLowerCase(VARIABLE_RESERVED_PROJECT_NAMES, DEFAULT_RESERVED_PROJECT_NAMES, ",");
-  
+
       CLOUD_EVENTS_ENDPOINT = setStrVar(VARIABLE_CLOUD_EVENTS_ENDPOINT,
           CLOUD_EVENTS_ENDPOINT);
-  
+
       CLOUD_EVENTS_ENDPOINT_API_KEY =
           setStrVar(VARIABLE_CLOUD_EVENTS_ENDPOINT_API_KEY, CLOUD_EVENTS_ENDPOINT_API_KEY);
 
@@ -820,7 +1211,7 @@ public class Settings implements Serializable {
               ENABLE_GCS_STORAGE_CONNECTORS);
       ENABLE_BIGQUERY_STORAGE_CONNECTORS = setBoolVar(VARIABLE_ENABLE_BIGQUERY_STORAGE_CONNECTORS,
               ENABLE_BIGQUERY_STORAGE_CONNECTORS);
-  
+
       YARN_RUNTIME = setStrVar(VARIABLE_YARN_RUNTIME, YARN_RUNTIME);
       DOCKER_MOUNTS = setStrVar(VARIABLE_DOCKER_MOUNTS, DOCKER_MOUNTS);
       DOCKER_JOB_MOUNTS_LIST = setStrVar(VARIABLE_DOCKER_JOB_MOUNTS_LIST, DOCKER_JOB_MOUNTS_LIST);
@@ -838,7 +1229,7 @@ public class Settings implements Serializable {
 
       YARN_APP_UID = setLongVar(VARIABLE_YARN_APP_UID, YARN_APP_UID);
       populateProvenanceCache();
-      
+
       CLIENT_PATH = setStrVar(VARIABLE_CLIENT_PATH, CLIENT_PATH);
       KUBE_TYPE = KubeType.fromString(setStrVar(VARIABLE_KUBE_TYPE, KUBE_TYPE.name));
       DOCKER_NAMESPACE = setStrVar(VARIABLE_DOCKER_NAMESPACE, DOCKER_NAMESPACE);
@@ -847,9 +1238,9 @@ public class Settings implements Serializable {
 
       MAX_ENV_YML_BYTE_SIZE = setIntVar(VARIABLE_MAX_ENV_YML_BYTE_SIZE, MAX_ENV_YML_BYTE_SIZE);
       SPARK_EXECUTOR_MIN_MEMORY = setIntVar(VARIABLE_SPARK_EXECUTOR_MIN_MEMORY, SPARK_EXECUTOR_MIN_MEMORY);
-      
+
       LIVY_STARTUP_TIMEOUT = setIntVar(VARIABLE_LIVY_STARTUP_TIMEOUT, LIVY_STARTUP_TIMEOUT);
-  
+
       USER_SEARCH_ENABLED = setBoolVar(VARIABLE_USER_SEARCH, USER_SEARCH_ENABLED);
       REJECT_REMOTE_USER_NO_GROUP = setBoolVar(VARIABLE_REJECT_REMOTE_USER_NO_GROUP, REJECT_REMOTE_USER_NO_GROUP);
 
@@ -871,7 +1262,7 @@ public class Settings implements Serializable {
           DOCKER_CGROUP_MONITOR_INTERVAL);
 
       PROMETHEUS_PORT = setIntVar(VARIABLE_PROMETHEUS_PORT, PROMETHEUS_PORT);
-  
+
       SKIP_NAMESPACE_CREATION = setBoolVar(VARIABLE_SKIP_NAMESPACE_CREATION,
           SKIP_NAMESPACE_CREATION);
 
@@ -888,7 +1279,7 @@ public class Settings implements Serializable {
           QUOTAS_MAX_PARALLEL_EXECUTIONS);
       QUOTAS_MAX_PARALLEL_EXECUTIONS = setLongVar(VARIABLE_QUOTAS_MAX_PARALLEL_EXECUTIONS,
           QUOTAS_MAX_PARALLEL_EXECUTIONS);
-      
+
       SQL_MAX_SELECT_IN = setIntVar(VARIABLE_SQL_MAX_SELECT_IN, SQL_MAX_SELECT_IN);
 
       ENABLE_JUPYTER_PYTHON_KERNEL_NON_KUBERNETES = setBoolVar(VARIABLE_ENABLE_JUPYTER_PYTHON_KERNEL_NON_KUBERNETES,
@@ -896,20 +1287,161 @@ public class Settings implements Serializable {
 
       MAX_LONG_RUNNING_HTTP_REQUESTS =
         setIntVar(VARIABLE_MAX_LONG_RUNNING_HTTP_REQUESTS, MAX_LONG_RUNNING_HTTP_REQUESTS);
+    }
+
+    private DistributedFileSystemOps.StoragePolicy setHdfsStoragePolicy(String policyName,
+      DistributedFileSystemOps.StoragePolicy defaultPolicy) {
+
+      Optional<Variables> policyOptional = getVariable(policyName);
+      if (!policyOptional.isPresent()) {
+        return defaultPolicy;
+      }
+
+      String existingPolicy = policyOptional.get().getValue();
+      if (!Strings.isNullOrEmpty(existingPolicy)) {
+        try {
+          return DistributedFileSystemOps.StoragePolicy.fromPolicy(existingPolicy);
+        } catch (IllegalArgumentException ex) {
+          LOGGER.warning("Error - not a valid storage policy! Value was:" + existingPolicy);
+          return defaultPolicy;
+        }
+      } else {
+        return defaultPolicy;
+      }
+    }
+
+    private void populateServiceJWTCache() {
+      SERVICE_MASTER_JWT = setStrVar(VARIABLE_SERVICE_MASTER_JWT, SERVICE_MASTER_JWT);
+      String[] renewTokens = new String[NUM_OF_SERVICE_RENEW_TOKENS];
+      for (int i = 0; i < NUM_OF_SERVICE_RENEW_TOKENS; i++) {
+        String variableKey = String.format(SERVICE_RENEW_TOKEN_VARIABLE_TEMPLATE, i);
+        String token = setStrVar(variableKey, "");
+        renewTokens[i] = token;
+      }
+      RENEW_TOKENS = renewTokens;
+    }
+
+    private void populateLDAPCache() {
+      KRB_AUTH = setVar(VARIABLE_KRB_AUTH, KRB_AUTH);
+      LDAP_AUTH = setVar(VARIABLE_LDAP_AUTH, LDAP_AUTH);
+      LDAP_GROUP_MAPPING = setVar(VARIABLE_LDAP_GROUP_MAPPING, LDAP_GROUP_MAPPING);
+      LDAP_USER_ID = setVar(VARIABLE_LDAP_USER_ID, LDAP_USER_ID);
+      LDAP_USER_GIVEN_NAME = setVar(VARIABLE_LDAP_USER_GIVEN_NAME, LDAP_USER_GIVEN_NAME);
+      LDAP_USER_SURNAME = setVar(VARIABLE_LDAP_USER_SURNAME, LDAP_USER_SURNAME);
+      LDAP_USER_EMAIL = setVar(VARIABLE_LDAP_USER_EMAIL, LDAP_USER_EMAIL);
+      LDAP_ACCOUNT_STATUS = setIntVar(VARIABLE_LDAP_ACCOUNT_STATUS, LDAP_ACCOUNT_STATUS);
+      LDAP_USER_SEARCH_FILTER = setVar(VARIABLE_LDAP_USER_SEARCH_FILTER, LDAP_USER_SEARCH_FILTER);
+      LDAP_GROUP_SEARCH_FILTER = setVar(VARIABLE_LDAP_GROUP_SEARCH_FILTER, LDAP_GROUP_SEARCH_FILTER);
+      LDAP_KRB_USER_SEARCH_FILTER = setVar(VARIABLE_LDAP_KRB_USER_SEARCH_FILTER, LDAP_KRB_USER_SEARCH_FILTER);
+      LDAP_ATTR_BINARY = setVar(VARIABLE_LDAP_ATTR_BINARY, LDAP_ATTR_BINARY);
+      LDAP_GROUP_TARGET = setVar(VARIABLE_LDAP_GROUP_TARGET, LDAP_GROUP_TARGET);
+      LDAP_DYNAMIC_GROUP_TARGET = setVar(VARIABLE_LDAP_DYNAMIC_GROUP_TARGET, LDAP_DYNAMIC_GROUP_TARGET);
+      LDAP_USER_DN = setStrVar(VARIABLE_LDAP_USERDN, LDAP_USER_DN_DEFAULT);
+      LDAP_GROUP_DN = setStrVar(VARIABLE_LDAP_GROUPDN, LDAP_GROUP_DN_DEFAULT);
+      LDAP_GROUPS_TARGET = setVar(VARIABLE_LDAP_GROUPS_TARGET, LDAP_GROUPS_TARGET);
+      LDAP_GROUPS_SEARCH_FILTER = setStrVar(VARIABLE_LDAP_GROUPS_SEARCH_FILTER, LDAP_GROUPS_SEARCH_FILTER);
+      LDAP_GROUP_MEMBERS_SEARCH_FILTER =
+        setStrVar(VARIABLE_LDAP_GROUP_MEMBERS_SEARCH_FILTER, LDAP_GROUP_MEMBERS_SEARCH_FILTER);
+      IS_KRB_ENABLED = setBoolVar(VARIABLE_KRB_AUTH, IS_KRB_ENABLED);
+      IS_LDAP_ENABLED = setBoolVar(VARIABLE_LDAP_AUTH, IS_LDAP_ENABLED);
+      OAUTH_ENABLED = setStrVar(VARIABLE_OAUTH_ENABLED, OAUTH_ENABLED);
+      IS_OAUTH_ENABLED = setBoolVar(VARIABLE_OAUTH_ENABLED, IS_OAUTH_ENABLED);
+      OAUTH_REDIRECT_URI = setStrVar(VARIABLE_OAUTH_REDIRECT_URI, OAUTH_REDIRECT_URI);
+      OAUTH_LOGOUT_REDIRECT_URI = setStrVar(VARIABLE_OAUTH_LOGOUT_REDIRECT_URI, OAUTH_LOGOUT_REDIRECT_URI);
+      OAUTH_ACCOUNT_STATUS = setIntVar(VARIABLE_OAUTH_ACCOUNT_STATUS, OAUTH_ACCOUNT_STATUS);
+      OAUTH_GROUP_MAPPING = setStrVar(VARIABLE_OAUTH_GROUP_MAPPING, OAUTH_GROUP_MAPPING);
+
+      REMOTE_AUTH_NEED_CONSENT = setBoolVar(VARIABLE_REMOTE_AUTH_NEED_CONSENT, REMOTE_AUTH_NEED_CONSENT);
+
+      DISABLE_PASSWORD_LOGIN = setBoolVar(VARIABLE_DISABLE_PASSWORD_LOGIN, DISABLE_PASSWORD_LOGIN);
+      DISABLE_REGISTRATION = setBoolVar(VARIABLE_DISABLE_REGISTRATION, DISABLE_REGISTRATION);
+      DISABLE_REGISTRATION_UI = setBoolVar(VARIABLE_DISABLE_REGISTRATION_UI, DISABLE_REGISTRATION_UI);
+
+      LDAP_GROUP_MAPPING_SYNC_INTERVAL = setLongVar(VARIABLE_LDAP_GROUP_MAPPING_SYNC_INTERVAL,
+        LDAP_GROUP_MAPPING_SYNC_INTERVAL);
+
+      VALIDATE_REMOTE_USER_EMAIL_VERIFIED =
+        setBoolVar(VARIABLE_VALIDATE_REMOTE_USER_EMAIL_VERIFIED, VALIDATE_REMOTE_USER_EMAIL_VERIFIED);
+
+      MANAGED_CLOUD_REDIRECT_URI = setStrVar(VARIABLE_MANAGED_CLOUD_REDIRECT_URI, MANAGED_CLOUD_REDIRECT_URI);
+      MANAGED_CLOUD_PROVIDER_NAME = setStrVar(VARIABLE_MANAGED_CLOUD_PROVIDER_NAME, MANAGED_CLOUD_PROVIDER_NAME);
+    }
 
-      cached = true;
+    private void populateProvenanceCache() {
+      PROVENANCE_TYPE_S = setStrVar(VARIABLE_PROVENANCE_TYPE, PROVENANCE_TYPE_S);
+      try {
+        PROVENANCE_TYPE = ProvTypeDTO.provTypeFromString(PROVENANCE_TYPE_S);
+      } catch(ProvenanceException e) {
+        LOGGER.log(Level.WARNING, "unknown prov type:" + PROVENANCE_TYPE_S + ", using default");
+        PROVENANCE_TYPE = Provenance.Type.MIN;
+        PROVENANCE_TYPE_S = PROVENANCE_TYPE.name();
+      }
+      PROVENANCE_GRAPH_MAX_SIZE = setIntVar(VARIABLE_PROVENANCE_GRAPH_MAX_SIZE, PROVENANCE_GRAPH_MAX_SIZE);
+      PROVENANCE_CLEANUP_SIZE = setIntVar(VARIABLE_PROVENANCE_CLEANUP_SIZE, PROVENANCE_CLEANUP_SIZE);
+      PROVENANCE_CLEANER_PERIOD = setLongVar(VARIABLE_PROVENANCE_CLEANER_PERIOD, PROVENANCE_CLEANER_PERIOD);
     }
   }
 
-  private void checkCache() {
-    if (!cached) {
-      populateCache();
+  private Map<String, Variables> findAllVariables() {
+    List<Variables> variables = em.createNamedQuery("Variables.findAll", Variables.class).getResultList();
+    Map<String, Variables> variablesById = new HashMap<>(variables.size() * 2);
+    for (Variables variable : variables) {
+      variablesById.put(variable.getId(), variable);
     }
+    return variablesById;
+  }
+
+  private static Map<String, String> variableValues(Map<String, Variables> variables) {
+    Map<String, String> values = new HashMap<>(variables.size() * 2);
+    variables.forEach((id, variable) -> values.put(id, variable.getValue()));
+    return values;
+  }
+
+  /**
+   * Getters read the variables of the last published CachedVariables without locking. Only the first read, or the
+   * first read after invalidateCache(), loads the variables while holding the monitor of this bean.
+   */
+  private CachedVariables cache() {
+    CachedVariables cache = cachedVariables;
+    if (cache == null) {
+      synchronized (this) {
+        cache = cachedVariables;
+        if (cache == null) {
+          cache = new CachedVariables(findAllVariables());
+          cachedVariables = cache;
+        }
+      }
+    }
+    return cache;
   }
 
   public synchronized void refreshCache() {
-    cached = false;
-    populateCache();
+    cachedVariables = new CachedVariables(findAllVariables());
+  }
+
+  /**
+   * Variables can be changed through any of the Hopsworks instances, only the instance where the change was made
+   * refreshes its cache. Poll the variables table and reload the variables from the fetched rows if any value differs
+   * from the values they were loaded from. The new variables are built without holding the monitor and only replace
+   * the ones they were compared with, so a refresh that happened in the meantime is not overwritten.
+   */
+  @Schedule(persistent = false, minute = "*/1", hour = "*")
+  public void pollVariableChanges(Timer timer) {
+    CachedVariables cache = cachedVariables;
+    if (cache == null || !isVariablesChangePollEnabled()) {
+      return;
+    }
+    Map<String, Variables> variables = findAllVariables();
+    if (variableValues(variables).equals(cache.values)) {
+      return;
+    }
+    CachedVariables reloaded = new CachedVariables(variables);
+    synchronized (this) {
+      if (cachedVariables == cache) {
+        LOGGER.log(Level.INFO, "Variables changed by another instance, refreshing the cache");
+        cachedVariables = reloaded;
+      }
+    }
   }
 
   public synchronized void updateVariable(String variableName, String variableValue, VariablesVisibility visibility) {
@@ -927,7 +1459,7 @@ public class Settings implements Serializable {
    * trigger a read of all variables from the database.
    */
   public synchronized void invalidateCache() {
-    cached = false;
+    cachedVariables = null;
   }
 
   /**
@@ -939,17 +1471,12 @@ public class Settings implements Serializable {
     return GLASSFISH_DIR;
   }
 
-  private String TWOFACTOR_AUTH = "false";
-  private String TWOFACTOR_EXCLUDE = "AGENT;CLUSTER_AGENT";
-
-  public synchronized String getTwoFactorAuth() {
-    checkCache();
-    return TWOFACTOR_AUTH;
+  public String getTwoFactorAuth() {
+    return cache().TWOFACTOR_AUTH;
   }
 
-  public synchronized String getTwoFactorExclude() {
-    checkCache();
-    return TWOFACTOR_EXCLUDE;
+  public String getTwoFactorExclude() {
+    return cache().TWOFACTOR_EXCLUDE;
   }
 
   public enum TwoFactorMode {
@@ -973,17 +1500,13 @@ public class Settings implements Serializable {
     }
   }
 
-  private String HOPS_RPC_TLS = "false";
-
-  public synchronized boolean getHopsRpcTls() {
-    checkCache();
-    return HOPS_RPC_TLS.toLowerCase().equals("true");
+  public boolean getHopsRpcTls() {
+    return cache().HOPS_RPC_TLS.toLowerCase().equals("true");
   }
 
   //Spark executor minimum memory
-  public synchronized int getSparkExecutorMinMemory() {
-    checkCache();
-    return SPARK_EXECUTOR_MIN_MEMORY;
+  public int getSparkExecutorMinMemory() {
+    return cache().SPARK_EXECUTOR_MIN_MEMORY;
   }
 
   public static final String VERIFICATION_PATH = "/validate";
@@ -995,7 +1518,6 @@ public class Settings implements Serializable {
 
   public static final String TENSORBOARD_DIRS = "/tensorboard/";
 
-  private String SPARK_DIR = "/srv/hops/spark";
   public static final String SPARK_EXAMPLES_DIR = "/examples/jars";
   
   public static final String CONVERSION_DIR = "/ipython_conversions/";
@@ -1033,7 +1555,6 @@ public class Settings implements Serializable {
   public static final String SPARK_YARN_DIST_ARCHIVES = "spark.yarn.dist.archives";
   public static final String SPARK_YARN_JARS = "spark.yarn.jars";
 
-
   //Blacklisting properties
   public static final String SPARK_BLACKLIST_ENABLED = "spark.blacklist.enabled";
   public static final String SPARK_BLACKLIST_MAX_TASK_ATTEMPTS_PER_EXECUTOR =
@@ -1117,9 +1638,8 @@ public class Settings implements Serializable {
   public static final String NCCL_SOCKET_NTHREADS = "NCCL_SOCKET_NTHREADS";
   public static final String NCCL_NSOCKS_PERTHREAD = "NCCL_NSOCKS_PERTHREAD";
 
-  public synchronized String getSparkDir() {
-    checkCache();
-    return SPARK_DIR;
+  public String getSparkDir() {
+    return cache().SPARK_DIR;
   }
 
   public synchronized String getSparkConfDir() {
@@ -1130,21 +1650,14 @@ public class Settings implements Serializable {
     return getSparkConfDir() + "/log4j2.properties";
   }
 
-  // "/tmp" by default
-  private String STAGING_DIR = "/srv/hops/domains/domain1/staging";
-
-  public synchronized String getStagingDir() {
-    checkCache();
-    return STAGING_DIR;
+  public String getStagingDir() {
+    return cache().STAGING_DIR;
   }
 
   private final String FLINK_CONF_DIR = "conf";
-  // Remember to change this in docker-images as well
-  private String FLINK_DIR = "/srv/hops/flink";
 
-  public synchronized String getFlinkDir() {
-    checkCache();
-    return FLINK_DIR;
+  public String getFlinkDir() {
+    return cache().FLINK_DIR;
   }
 
   public String getFlinkConfDir() {
@@ -1157,185 +1670,122 @@ public class Settings implements Serializable {
     return getFlinkDir() + File.separator + FLINK_LIB_DIR + File.separator;
   }
 
-  private String AIRFLOW_DIR = "/srv/hops/airflow";
-  public synchronized String getAirflowDir() {
-    checkCache();
-    return AIRFLOW_DIR;
+  public String getAirflowDir() {
+    return cache().AIRFLOW_DIR;
   }
 
-  private String HADOOP_DIR = "/srv/hops/hadoop";
-
   // This returns the unversioned base installation directory for hops-hadoop
   // For example, "/srv/hops/hadoop" - it does not return "/srv/hops/hadoop-2.8.2"
-  public synchronized String getHadoopSymbolicLinkDir() {
-    checkCache();
-    return HADOOP_DIR;
+  public String getHadoopSymbolicLinkDir() {
+    return cache().HADOOP_DIR;
   }
 
-  private String HIVE_SUPERUSER = "hive";
-
-  public synchronized String getHiveSuperUser() {
-    checkCache();
-    return HIVE_SUPERUSER;
+  public String getHiveSuperUser() {
+    return cache().HIVE_SUPERUSER;
   }
 
-  private String ANACONDA_DEFAULT_REPO = "defaults";
-
-  public synchronized String getCondaDefaultRepo() {
-    checkCache();
-    return ANACONDA_DEFAULT_REPO;
+  public String getCondaDefaultRepo() {
+    return cache().ANACONDA_DEFAULT_REPO;
   }
 
-  private String HIVE_WAREHOUSE = "/apps/hive/warehouse";
-
-  public synchronized String getHiveWarehouse() {
-    checkCache();
-    return HIVE_WAREHOUSE;
+  public String getHiveWarehouse() {
+    return cache().HIVE_WAREHOUSE;
   }
 
-  private String HIVE_SCRATCHDIR = "/tmp/hive";
-
-  public synchronized String getHiveScratchdir() {
-    checkCache();
-    return HIVE_SCRATCHDIR;
+  public String getHiveScratchdir() {
+    return cache().HIVE_SCRATCHDIR;
   }
 
-  private String HIVE_SCRATCHDIR_DELAY = "7d";
-
-  public synchronized String getHiveScratchdirDelay() {
-    checkCache();
-    return HIVE_SCRATCHDIR_DELAY;
+  public String getHiveScratchdirDelay() {
+    return cache().HIVE_SCRATCHDIR_DELAY;
   }
 
-  private String HIVE_SCRATCHDIR_CLEANER_INTERVAL = "24h";
+  public String getHiveScratchdirCleanerInterval() {
+    return cache().HIVE_SCRATCHDIR_CLEANER_INTERVAL;
+  }
 
-  public synchronized String getHiveScratchdirCleanerInterval() {
-    checkCache();
-    return HIVE_SCRATCHDIR_CLEANER_INTERVAL;
+  public long getHiveDbDefaultQuota() {
+    return cache().HIVE_DB_DEFAULT_QUOTA;
   }
 
-  private long HIVE_DB_DEFAULT_QUOTA = HdfsConstants.QUOTA_DONT_SET;
-  public synchronized long getHiveDbDefaultQuota() {
-    checkCache();
-    return HIVE_DB_DEFAULT_QUOTA;
+  public int getHiveMetastoreClientPoolMaxPerKey() {
+    return cache().HIVE_METASTORE_CLIENT_POOL_MAX_PER_KEY;
   }
 
-  private String CERTS_DIR = "/srv/hops/certs-dir";
+  public long getHiveMetastoreClientPoolIdleTimeout() {
+    return cache().HIVE_METASTORE_CLIENT_POOL_IDLE_TIMEOUT;
+  }
 
-  public synchronized String getCertsDir() {
-    checkCache();
-    return CERTS_DIR;
+  public String getCertsDir() {
+    return cache().CERTS_DIR;
   }
 
-  public synchronized String getHopsworksMasterEncPasswordFile() {
-    checkCache();
+  public String getHopsworksMasterEncPasswordFile() {
     return getCertsDir() + File.separator + "encryption_master_password";
   }
 
-  private String HOPSWORKS_INSTALL_DIR = "/srv/hops/domains/domain1";
-
-  public synchronized String getHopsworksDomainDir() {
-    checkCache();
-    return HOPSWORKS_INSTALL_DIR;
+  public String getHopsworksDomainDir() {
+    return cache().HOPSWORKS_INSTALL_DIR;
   }
 
-  private String SUDOERS_DIR = "/srv/hops/sbin";
-  public synchronized String getSudoersDir() {
-    checkCache();
-    return SUDOERS_DIR;
+  public String getSudoersDir() {
+    return cache().SUDOERS_DIR;
   }
 
-  private String HOPSWORKS_USER = "glassfish";
-
-  public synchronized String getHopsworksUser() {
-    checkCache();
-    return HOPSWORKS_USER;
+  public String getHopsworksUser() {
+    return cache().HOPSWORKS_USER;
   }
-  private String HDFS_SUPERUSER = "hdfs";
 
-  public synchronized String getHdfsSuperUser() {
-    checkCache();
-    return HDFS_SUPERUSER;
+  public String getHdfsSuperUser() {
+    return cache().HDFS_SUPERUSER;
   }
-  private String SPARK_USER = "spark";
 
-  public synchronized String getSparkUser() {
-    checkCache();
-    return SPARK_USER;
+  public String getSparkUser() {
+    return cache().SPARK_USER;
   }
 
   public String getSparkLog4JPath() {
     return "hdfs:///user/" + getSparkUser() + "/log4j2.properties";
   }
 
-  private Integer YARN_DEFAULT_QUOTA = 60000;
-  public synchronized Integer getYarnDefaultQuota() {
-    checkCache();
-    return YARN_DEFAULT_QUOTA;
+  public Integer getYarnDefaultQuota() {
+    return cache().YARN_DEFAULT_QUOTA;
   }
 
-  private PaymentType DEFAULT_PAYMENT_TYPE = PaymentType.NOLIMIT;
-  public synchronized PaymentType getDefaultPaymentType() {
-    checkCache();
-    return DEFAULT_PAYMENT_TYPE;
+  public PaymentType getDefaultPaymentType() {
+    return cache().DEFAULT_PAYMENT_TYPE;
   }
 
-  private long HDFS_DEFAULT_QUOTA_MBs = HdfsConstants.QUOTA_DONT_SET;
-  public synchronized long getHdfsDefaultQuotaInMBs() {
-    checkCache();
-    return HDFS_DEFAULT_QUOTA_MBs;
+  public long getHdfsDefaultQuotaInMBs() {
+    return cache().HDFS_DEFAULT_QUOTA_MBs;
   }
 
-  // Set the DIR_ROOT (/Projects) to have DB storage policy, i.e. - small files stored on db
-  private DistributedFileSystemOps.StoragePolicy HDFS_BASE_STORAGE_POLICY
-    = DistributedFileSystemOps.StoragePolicy.SMALL_FILES;
-  // To not fill the SSDs with Logs files that nobody access frequently
-  // We set the StoragePolicy for the LOGS dir to be DEFAULT
-  private DistributedFileSystemOps.StoragePolicy HDFS_LOG_STORAGE_POLICY
-      = DistributedFileSystemOps.StoragePolicy.DEFAULT;
-
-  private DistributedFileSystemOps.StoragePolicy setHdfsStoragePolicy(String policyName,
-    DistributedFileSystemOps.StoragePolicy defaultPolicy) {
-
-    Optional<Variables> policyOptional = findById(policyName);
-    if (!policyOptional.isPresent()) {
-      return defaultPolicy;
-    }
+  public DistributedFileSystemOps.StoragePolicy getHdfsBaseStoragePolicy() {
+    return cache().HDFS_BASE_STORAGE_POLICY;
+  }
 
-    String existingPolicy = policyOptional.get().getValue();
-    if (!Strings.isNullOrEmpty(existingPolicy)) {
-      try {
-        return DistributedFileSystemOps.StoragePolicy.fromPolicy(existingPolicy);
-      } catch (IllegalArgumentException ex) {
-        LOGGER.warning("Error - not a valid storage policy! Value was:" + existingPolicy);
-        return defaultPolicy;
-      }
-    } else {
-      return defaultPolicy;
-    }
+  public DistributedFileSystemOps.StoragePolicy getHdfsLogStoragePolicy() {
+    return cache().HDFS_LOG_STORAGE_POLICY;
   }
 
-  public synchronized DistributedFileSystemOps.StoragePolicy getHdfsBaseStoragePolicy() {
-    checkCache();
-    return HDFS_BASE_STORAGE_POLICY;
+  public int getHdfsClientPoolMaxIdlePerUser() {
+    return cache().HDFS_CLIENT_POOL_MAX_IDLE_PER_USER;
   }
 
-  public synchronized DistributedFileSystemOps.StoragePolicy getHdfsLogStoragePolicy() {
-    checkCache();
-    return HDFS_LOG_STORAGE_POLICY;
+  public long getHdfsClientPoolIdleTimeout() {
+    return cache().HDFS_CLIENT_POOL_IDLE_TIMEOUT;
   }
 
-  private Integer MAX_NUM_PROJ_PER_USER = 5;
-  public synchronized Integer getMaxNumProjPerUser() {
-    checkCache();
-    return MAX_NUM_PROJ_PER_USER;
+  public Integer getMaxNumProjPerUser() {
+    return cache().MAX_NUM_PROJ_PER_USER;
   }
 
-  private String HADOOP_VERSION = "2.8.2";
+  public long getProjectRoleCacheTtl() {
+    return cache().PROJECT_ROLE_CACHE_TTL;
+  }
 
-  public synchronized String getHadoopVersion() {
-    checkCache();
-    return HADOOP_VERSION;
+  public String getHadoopVersion() {
+    return cache().HADOOP_VERSION;
   }
 
   //Hadoop locations
@@ -1395,8 +1845,6 @@ public class Settings implements Serializable {
   public static final String SPARK_BLACKLISTED_PROPS
       = "conf/spark-blacklisted-properties.txt";
   public static final String SPARK_HADOOP_FS_PERMISSIONS_UMASK_DEFAULT = "0007";
-  // Spark executor min memory
-  private int SPARK_EXECUTOR_MIN_MEMORY = 1024;
 
   //Flink constants
   public static final String HOPS_DEEP_LEARNING_TOUR_DATA = "tensorflow_demo/data";
@@ -1484,23 +1932,19 @@ public class Settings implements Serializable {
     "REGEXP, RLIKE, ROLLBACK, START, CACHE, CONSTRAINT, FOREIGN, PRIMARY, REFERENCES, DAYOFWEEK, EXTRACT, FLOOR, " +
     "INTEGER, PRECISION, VIEWS, TIME, NUMERIC, SYNC";
   
-  private Set<String> RESERVED_PROJECT_NAMES;
-  private String RESERVED_PROJECT_NAMES_STR;
-  
-  public synchronized Set<String> getReservedProjectNames() {
-    checkCache();
-    RESERVED_PROJECT_NAMES = RESERVED_PROJECT_NAMES != null ? RESERVED_PROJECT_NAMES : new HashSet<>();
-    RESERVED_PROJECT_NAMES.addAll(getReservedHiveNames());
-    return RESERVED_PROJECT_NAMES;
+  public Set<String> getReservedProjectNames() {
+    CachedVariables cache = cache();
+    cache.RESERVED_PROJECT_NAMES = cache.RESERVED_PROJECT_NAMES != null ? cache.RESERVED_PROJECT_NAMES : new HashSet<>();
+    cache.RESERVED_PROJECT_NAMES.addAll(getReservedHiveNames());
+    return cache.RESERVED_PROJECT_NAMES;
   }
   
   public synchronized Set<String> getReservedHiveNames() {
     return setStringHashSetLowerCase(DEFAULT_RESERVED_HIVE_NAMES, ",", true);
   }
   
-  public synchronized String getProjectNameReservedWords() {
-    checkCache();
-    return (RESERVED_PROJECT_NAMES_STR + ", " + DEFAULT_RESERVED_HIVE_NAMES).toLowerCase();
+  public String getProjectNameReservedWords() {
+    return (cache().RESERVED_PROJECT_NAMES_STR + ", " + DEFAULT_RESERVED_HIVE_NAMES).toLowerCase();
   }
   
   //Only for unit test
@@ -1508,124 +1952,88 @@ public class Settings implements Serializable {
     return (DEFAULT_RESERVED_PROJECT_NAMES + ", " + DEFAULT_RESERVED_HIVE_NAMES).toLowerCase();
   }
   
-  // OpenSearch
-  OpenSearchSettings OPENSEARCH_SETTINGS;
-  
-  public synchronized List<String> getOpenSearchIps(){
-    checkCache();
-    return OPENSEARCH_SETTINGS.getOpenSearchIps();
+  public List<String> getOpenSearchIps(){
+    return cache().OPENSEARCH_SETTINGS.getOpenSearchIps();
   }
   
-  public synchronized int getOpenSearchPort() {
-    checkCache();
-    return OPENSEARCH_SETTINGS.getOpenSearchPort();
+  public int getOpenSearchPort() {
+    return cache().OPENSEARCH_SETTINGS.getOpenSearchPort();
   }
   
-  public synchronized int getOpenSearchRESTPort() {
-    checkCache();
-    return OPENSEARCH_SETTINGS.getOpenSearchRESTPort();
+  public int getOpenSearchRESTPort() {
+    return cache().OPENSEARCH_SETTINGS.getOpenSearchRESTPort();
   }
   
-  public synchronized String getOpenSearchEndpoint() {
-    checkCache();
-    return OPENSEARCH_SETTINGS.getOpenSearchEndpoint();
+  public String getOpenSearchEndpoint() {
+    return cache().OPENSEARCH_SETTINGS.getOpenSearchEndpoint();
   }
 
-  public synchronized String getOpenSearchRESTEndpoint() {
-    checkCache();
-    return OPENSEARCH_SETTINGS.getOpenSearchRESTEndpoint();
+  public String getOpenSearchRESTEndpoint() {
+    return cache().OPENSEARCH_SETTINGS.getOpenSearchRESTEndpoint();
   }
   
-  public synchronized boolean isOpenSearchSecurityEnabled() {
-    checkCache();
-    return OPENSEARCH_SETTINGS.isOpenSearchSecurityEnabled();
+  public boolean isOpenSearchSecurityEnabled() {
+    return cache().OPENSEARCH_SETTINGS.isOpenSearchSecurityEnabled();
   }
   
-  public synchronized boolean isOpenSearchHTTPSEnabled() {
-    checkCache();
-    return OPENSEARCH_SETTINGS.isHttpsEnabled();
+  public boolean isOpenSearchHTTPSEnabled() {
+    return cache().OPENSEARCH_SETTINGS.isHttpsEnabled();
   }
   
-  public synchronized String getOpenSearchAdminUser() {
-    checkCache();
-    return OPENSEARCH_SETTINGS.getAdminUser();
+  public String getOpenSearchAdminUser() {
+    return cache().OPENSEARCH_SETTINGS.getAdminUser();
   }
 
-  public synchronized String getOpenSearchServiceLogUser() {
-    checkCache();
-    return OPENSEARCH_SETTINGS.getServiceLogUser();
+  public String getOpenSearchServiceLogUser() {
+    return cache().OPENSEARCH_SETTINGS.getServiceLogUser();
   }
   
-  public synchronized String getOpenSearchAdminPassword() {
-    checkCache();
-    return OPENSEARCH_SETTINGS.getAdminPassword();
+  public String getOpenSearchAdminPassword() {
+    return cache().OPENSEARCH_SETTINGS.getAdminPassword();
   }
   
-  public synchronized boolean isOpenSearchJWTEnabled() {
-    checkCache();
-    return OPENSEARCH_SETTINGS.isOpenSearchJWTEnabled();
+  public boolean isOpenSearchJWTEnabled() {
+    return cache().OPENSEARCH_SETTINGS.isOpenSearchJWTEnabled();
   }
   
-  public synchronized String getOpenSearchJwtUrlParameter() {
-    checkCache();
-    return OPENSEARCH_SETTINGS.getOpenSearchJWTURLParameter();
+  public String getOpenSearchJwtUrlParameter() {
+    return cache().OPENSEARCH_SETTINGS.getOpenSearchJWTURLParameter();
   }
   
-  public synchronized long getOpenSearchJwtExpMs() {
-    checkCache();
-    return OPENSEARCH_SETTINGS.getOpenSearchJWTExpMs();
+  public long getOpenSearchJwtExpMs() {
+    return cache().OPENSEARCH_SETTINGS.getOpenSearchJWTExpMs();
   }
   
-  public synchronized Integer getOpenSearchDefaultScrollPageSize() {
-    checkCache();
-    return OPENSEARCH_SETTINGS.getDefaultScrollPageSize();
+  public Integer getOpenSearchDefaultScrollPageSize() {
+    return cache().OPENSEARCH_SETTINGS.getDefaultScrollPageSize();
   }
   
-  public synchronized Integer getOpenSearchMaxScrollPageSize() {
-    checkCache();
-    return OPENSEARCH_SETTINGS.getMaxScrollPageSize();
+  public Integer getOpenSearchMaxScrollPageSize() {
+    return cache().OPENSEARCH_SETTINGS.getMaxScrollPageSize();
   }
 
-  private long OpenSearch_LOGS_INDEX_EXPIRATION = 7 * 24 * 60 * 60 * 1000;
-
-  public synchronized long getOpenSearchLogsIndexExpiration() {
-    checkCache();
-    return OpenSearch_LOGS_INDEX_EXPIRATION;
+  public long getOpenSearchLogsIndexExpiration() {
+    return cache().OpenSearch_LOGS_INDEX_EXPIRATION;
   }
 
   public static final long JOB_LOGS_DISPLAY_SIZE = 1000000;
 
-  // CertificateMaterializer service. Delay for deleting crypto material from
-  // the local filesystem. The lower the value the more frequent we reach DB
-  // for materialization
-  // Suffix, defaults to minutes if omitted:
-  // ms: milliseconds
-  // s: seconds
-  // m: minutes (default)
-  // h: hours
-  // d: days
-  private String CERTIFICATE_MATERIALIZER_DELAY = "1m";
-
-  public synchronized String getCertificateMaterializerDelay() {
-    checkCache();
-    return CERTIFICATE_MATERIALIZER_DELAY;
+  public String getCertificateMaterializerDelay() {
+    return cache().CERTIFICATE_MATERIALIZER_DELAY;
   }
 
-  private String SERVICE_DISCOVERY_DOMAIN = "consul";
-  public synchronized String getServiceDiscoveryDomain() {
-    checkCache();
-    return SERVICE_DISCOVERY_DOMAIN;
+  public String getServiceDiscoveryDomain() {
+    return cache().SERVICE_DISCOVERY_DOMAIN;
   }
 
   // Kibana
   public static final String KIBANA_INDEX_PREFIX = ".kibana";
   
-  private String KIBANA_IP = "10.0.2.15";
   private static final int KIBANA_PORT = 5601;
 
-  public synchronized String getKibanaUri() {
-    checkCache();
-    return (KIBANA_HTTPS_ENABELED ? "https" : "http") + "://" + KIBANA_IP +
+  public String getKibanaUri() {
+    CachedVariables cache = cache();
+    return (cache.KIBANA_HTTPS_ENABELED ? "https" : "http") + "://" + cache.KIBANA_IP +
         ":" + KIBANA_PORT;
   }
   
@@ -1634,148 +2042,94 @@ public class Settings implements Serializable {
   }
   
   public String getKibanaAppUri(String jwtToken) {
-    return  getKibanaAppUri() + OPENSEARCH_SETTINGS.getOpenSearchJWTURLParameter() + "=" + jwtToken + "&";
+    return  getKibanaAppUri() + cache().OPENSEARCH_SETTINGS.getOpenSearchJWTURLParameter() + "=" + jwtToken + "&";
   }
 
-  /*
-   * Comma-separated list of user emails that should not be persisted in the
-   * userlogins table for auditing.
-   * kagent -> agent@hops.io
-   */
-  private String WHITELIST_USERS_LOGIN = "agent@hops.io";
-
-  public synchronized String getWhitelistUsersLogin() {
-    checkCache();
-    return WHITELIST_USERS_LOGIN;
+  public String getWhitelistUsersLogin() {
+    return cache().WHITELIST_USERS_LOGIN;
   }
 
-  // Jupyter
-  private String JUPYTER_DIR = "/srv/hops/jupyter";
-
-  public synchronized String getJupyterDir() {
-    checkCache();
-    return JUPYTER_DIR;
+  public String getJupyterDir() {
+    return cache().JUPYTER_DIR;
   }
 
-  private String JUPYTER_GROUP = "jupyter";
-
-  public synchronized String getJupyterGroup() {
-    checkCache();
-    return JUPYTER_GROUP;
+  public String getJupyterGroup() {
+    return cache().JUPYTER_GROUP;
   }
 
-  private String JUPYTER_ORIGIN_SCHEME = "https";
-
-  public synchronized String getJupyterOriginScheme() {
-    checkCache();
-    return JUPYTER_ORIGIN_SCHEME;
+  public String getJupyterOriginScheme() {
+    return cache().JUPYTER_ORIGIN_SCHEME;
   }
 
-  private long JUPYTER_WS_PING_INTERVAL_MS = 10000L;
-
-  public synchronized long getJupyterWSPingInterval() {
-    checkCache();
-    return JUPYTER_WS_PING_INTERVAL_MS;
+  public long getJupyterWSPingInterval() {
+    return cache().JUPYTER_WS_PING_INTERVAL_MS;
 
   }
 
-  private Integer PROMETHEUS_PORT = 9089;
-  public synchronized Integer getPrometheusPort() {
-    checkCache();
-    return PROMETHEUS_PORT;
+  public Integer getPrometheusPort() {
+    return cache().PROMETHEUS_PORT;
   }
 
   //Git
   private String GIT_DIR = "/srv/hops/git";
 
-  public synchronized String getGitDir() {
-    checkCache();
+  public String getGitDir() {
     return GIT_DIR;
   }
 
-  private Integer GIT_MAX_COMMAND_TIMEOUT_MINUTES = 60;
-  public synchronized long getGitJwtExpMs() {
-    checkCache();
-    return GIT_MAX_COMMAND_TIMEOUT_MINUTES * 60 * 1000;
+  public long getGitJwtExpMs() {
+    return cache().GIT_MAX_COMMAND_TIMEOUT_MINUTES * 60 * 1000;
   }
 
-  private Boolean ENABLE_GIT_READ_ONLY_REPOSITORIES = false;
-  public synchronized Boolean getEnableGitReadOnlyRepositories() {
-    checkCache();
-    return ENABLE_GIT_READ_ONLY_REPOSITORIES;
+  public Boolean getEnableGitReadOnlyRepositories() {
+    return cache().ENABLE_GIT_READ_ONLY_REPOSITORIES;
   }
 
-  private String GIT_IMAGE_VERSION = "0.3.0";
-  public synchronized String getGitImageName() {
-    checkCache();
-    return "git:" + GIT_IMAGE_VERSION;
+  public String getGitImageName() {
+    return "git:" + cache().GIT_IMAGE_VERSION;
   }
 
-  private boolean DOCKER_CGROUP_ENABLED = false;
-  public synchronized boolean isDockerCgroupEnabled() {
-    checkCache();
-    return DOCKER_CGROUP_ENABLED;
+  public boolean isDockerCgroupEnabled() {
+    return cache().DOCKER_CGROUP_ENABLED;
   }
 
-  private String DOCKER_CGROUP_MEMORY_LIMIT = "6GB";
-  public synchronized String getDockerCgroupMemoryLimit() {
-    checkCache();
-    return DOCKER_CGROUP_MEMORY_LIMIT;
+  public String getDockerCgroupMemoryLimit() {
+    return cache().DOCKER_CGROUP_MEMORY_LIMIT;
   }
 
-  private String DOCKER_CGROUP_MEMORY_SOFT_LIMIT = "2GB";
-  public synchronized String getDockerCgroupSoftLimit() {
-    checkCache();
-    return DOCKER_CGROUP_MEMORY_SOFT_LIMIT;
+  public String getDockerCgroupSoftLimit() {
+    return cache().DOCKER_CGROUP_MEMORY_SOFT_LIMIT;
   }
 
-  private Double DOCKER_CGROUP_CPU_QUOTA = 100.0;
-  public synchronized Double getDockerCgroupCpuQuota() {
-    checkCache();
-    return DOCKER_CGROUP_CPU_QUOTA;
+  public Double getDockerCgroupCpuQuota() {
+    return cache().DOCKER_CGROUP_CPU_QUOTA;
   }
 
-  private Integer DOCKER_CGROUP_CPU_PERIOD = 100000;
-  public synchronized Integer getDockerCgroupCpuPeriod() {
-    checkCache();
-    return DOCKER_CGROUP_CPU_PERIOD;
+  public Integer getDockerCgroupCpuPeriod() {
+    return cache().DOCKER_CGROUP_CPU_PERIOD;
   }
 
-  private String DOCKER_CGROUP_MONITOR_INTERVAL = "10m";
-  public synchronized String getDockerCgroupIntervalMonitor() {
-    checkCache();
-    return DOCKER_CGROUP_MONITOR_INTERVAL;
+  public String getDockerCgroupIntervalMonitor() {
+    return cache().DOCKER_CGROUP_MONITOR_INTERVAL;
   }
 
-
   // Service key rotation interval
   private static final String JUPYTER_SHUTDOWN_TIMER_INTERVAL = "jupyter_shutdown_timer_interval";
-  private String jupyterShutdownTimerInterval = "30m";
 
-  public synchronized String getJupyterShutdownTimerInterval() {
-    checkCache();
-    return jupyterShutdownTimerInterval;
+  public String getJupyterShutdownTimerInterval() {
+    return cache().jupyterShutdownTimerInterval;
   }
 
-  private String KAFKA_USER = "kafka";
-
-  public synchronized String getKafkaUser() {
-    checkCache();
-    return KAFKA_USER;
+  public String getKafkaUser() {
+    return cache().KAFKA_USER;
   }
 
-  private String KAFKA_DIR = "/srv/kafka";
-
-  public synchronized String getKafkaDir() {
-    checkCache();
-    return KAFKA_DIR;
+  public String getKafkaDir() {
+    return cache().KAFKA_DIR;
   }
 
-  private String ANACONDA_DIR = "/srv/hops/anaconda";
-
-  public synchronized String getAnacondaDir() {
-    checkCache();
-    return ANACONDA_DIR;
+  public String getAnacondaDir() {
+    return cache().ANACONDA_DIR;
   }
 
   private String condaEnvName = "theenv";
@@ -1793,64 +2147,60 @@ public class Settings implements Serializable {
     return condaEnvName;
   }
   
-  private Boolean ANACONDA_ENABLED = true;
+  public Boolean isAnacondaEnabled() {
+    return cache().ANACONDA_ENABLED;
+  }
 
-  public synchronized Boolean isAnacondaEnabled() {
-    checkCache();
-    return ANACONDA_ENABLED;
+  public Boolean isDownloadAllowed() {
+    return cache().DOWNLOAD_ALLOWED;
   }
 
-  private Boolean DOWNLOAD_ALLOWED = true;
-  public synchronized Boolean isDownloadAllowed() {
-    checkCache();
-    return DOWNLOAD_ALLOWED;
+  public int getDownloadBufferSize() {
+    return cache().DOWNLOAD_BUFFER_SIZE;
   }
 
-  /**
-   * kagent liveness monitor settings
-   */
-  private String KAGENT_USER = "kagent";
-  public synchronized String getKagentUser() {
-    checkCache();
-    return KAGENT_USER;
+  public long getDownloadReadahead() {
+    return cache().DOWNLOAD_READAHEAD;
   }
 
-  private boolean KAGENT_LIVENESS_MONITOR_ENABLED = false;
-  public synchronized boolean isKagentLivenessMonitorEnabled() {
-    checkCache();
-    return KAGENT_LIVENESS_MONITOR_ENABLED;
+  public long getUploadExpiryTimeout() {
+    return cache().UPLOAD_EXPIRY_TIMEOUT;
   }
 
-  private String KAGENT_LIVENESS_THRESHOLD = "10s";
-  public synchronized String getKagentLivenessThreshold() {
-    checkCache();
-    return KAGENT_LIVENESS_THRESHOLD;
+  public boolean isVariablesChangePollEnabled() {
+    return cache().VARIABLES_CHANGE_POLL_ENABLED;
   }
 
-  private RESTLogLevel HOPSWORKS_REST_LOG_LEVEL = RESTLogLevel.PROD;
+  public String getKagentUser() {
+    return cache().KAGENT_USER;
+  }
 
-  public synchronized RESTLogLevel getHopsworksRESTLogLevel() {
-    checkCache();
-    return HOPSWORKS_REST_LOG_LEVEL;
+  public boolean isKagentLivenessMonitorEnabled() {
+    return cache().KAGENT_LIVENESS_MONITOR_ENABLED;
   }
 
-  private String FIRST_TIME_LOGIN = "0";
+  public String getKagentLivenessThreshold() {
+    return cache().KAGENT_LIVENESS_THRESHOLD;
+  }
 
-  public synchronized String getFirstTimeLogin() {
-    checkCache();
-    return FIRST_TIME_LOGIN;
+  public long getKagentHeartbeatFlushInterval() {
+    return cache().KAGENT_HEARTBEAT_FLUSH_INTERVAL;
   }
 
+  public RESTLogLevel getHopsworksRESTLogLevel() {
+    return cache().HOPSWORKS_REST_LOG_LEVEL;
+  }
 
-  private String ADMIN_EMAIL = "admin@hopsworks.ai";
+  public String getFirstTimeLogin() {
+    return cache().FIRST_TIME_LOGIN;
+  }
 
-  public synchronized String getAdminEmail() {
-    checkCache();
-    return ADMIN_EMAIL;
+  public String getAdminEmail() {
+    return cache().ADMIN_EMAIL;
   }
   
   public synchronized boolean isDefaultAdminPasswordChanged() {
-    Users user = userFacade.findByEmail(ADMIN_EMAIL);
+    Users user = userFacade.findByEmail(cache().ADMIN_EMAIL);
     if (user != null) {
       String DEFAULT_ADMIN_PWD = "12fa520ec8f65d3a6feacfa97a705e622e1fea95b80b521ec016e43874dfed5a";
       return !DEFAULT_ADMIN_PWD.equals(user.getPassword());
@@ -1858,32 +2208,20 @@ public class Settings implements Serializable {
     return false;
   }
 
-  private String HOPSWORKS_DEFAULT_SSL_MASTER_PASSWORD = "adminpw";
-
-  public synchronized String getHopsworksMasterPasswordSsl() {
-    checkCache();
-    return HOPSWORKS_DEFAULT_SSL_MASTER_PASSWORD;
+  public String getHopsworksMasterPasswordSsl() {
+    return cache().HOPSWORKS_DEFAULT_SSL_MASTER_PASSWORD;
   }
 
-  private Integer KAFKA_DEFAULT_NUM_PARTITIONS = 2;
-  private Integer KAFKA_DEFAULT_NUM_REPLICAS = 1;
-
-  public synchronized Integer getKafkaDefaultNumPartitions() {
-    checkCache();
-    return KAFKA_DEFAULT_NUM_PARTITIONS;
+  public Integer getKafkaDefaultNumPartitions() {
+    return cache().KAFKA_DEFAULT_NUM_PARTITIONS;
   }
 
-  public synchronized Integer getKafkaDefaultNumReplicas() {
-    checkCache();
-    return KAFKA_DEFAULT_NUM_REPLICAS;
+  public Integer getKafkaDefaultNumReplicas() {
+    return cache().KAFKA_DEFAULT_NUM_REPLICAS;
   }
 
-  // HOPSWORKS-3158
-  private String HOPSWORKS_PUBLIC_HOST = "";
-  
   public String getHopsworksPublicHost() {
-    checkCache();
-    return HOPSWORKS_PUBLIC_HOST;
+    return cache().HOPSWORKS_PUBLIC_HOST;
   }  
 
   // Hopsworks
@@ -1960,8 +2298,6 @@ public class Settings implements Serializable {
   public static final String HOPSWORKS_OPENSEARCH_ENDPOINT_PROPERTY = "hopsworks.opensearch.endpoint";
   public static final String HOPSWORKS_DOMAIN_CA_TRUSTSTORE_PROPERTY = "hopsworks.domain.truststore";
 
-  private int FILE_PREVIEW_IMAGE_SIZE = 10000000;
-  private int FILE_PREVIEW_TXT_SIZE = 100;
   public static final int FILE_PREVIEW_TXT_SIZE_BYTES = 1024 * 384;
   public static final String README_TEMPLATE = "*This is an auto-generated README.md"
       + " file for your Dataset!*\n"
@@ -2013,9 +2349,8 @@ public class Settings implements Serializable {
    *
    * @return file size
    */
-  public synchronized int getFilePreviewImageSize() {
-    checkCache();
-    return FILE_PREVIEW_IMAGE_SIZE;
+  public int getFilePreviewImageSize() {
+    return cache().FILE_PREVIEW_IMAGE_SIZE;
   }
 
   /**
@@ -2023,9 +2358,8 @@ public class Settings implements Serializable {
    *
    * @return file size
    */
-  public synchronized int getFilePreviewTxtSize() {
-    checkCache();
-    return FILE_PREVIEW_TXT_SIZE;
+  public int getFilePreviewTxtSize() {
+    return cache().FILE_PREVIEW_TXT_SIZE;
   }
 
   //Project creation: default datasets
@@ -2079,11 +2413,9 @@ public class Settings implements Serializable {
   }
 
   public static final String JUPYTER_PIDS = "/tmp/jupyterNotebookServer.pids";
-  private String RESOURCE_DIRS = ".sparkStaging;spark-warehouse";
 
-  public synchronized String getResourceDirs() {
-    checkCache();
-    return RESOURCE_DIRS;
+  public String getResourceDirs() {
+    return cache().RESOURCE_DIRS;
   }
 
   public Settings() {
@@ -2198,18 +2530,16 @@ public class Settings implements Serializable {
     }
   }
 
-  private int KAFKA_MAX_NUM_TOPICS = 10;
-
-  public synchronized int getKafkaMaxNumTopics() {
-    checkCache();
-    return KAFKA_MAX_NUM_TOPICS;
+  public int getKafkaMaxNumTopics() {
+    return cache().KAFKA_MAX_NUM_TOPICS;
   }
 
-  private int MAX_STATUS_POLL_RETRY = 5;
+  public int getMaxStatusPollRetry() {
+    return cache().MAX_STATUS_POLL_RETRY;
+  }
 
-  public synchronized int getMaxStatusPollRetry() {
-    checkCache();
-    return MAX_STATUS_POLL_RETRY;
+  public int getYarnLogCopyMaxConcurrent() {
+    return cache().YARN_LOG_COPY_MAX_CONCURRENT;
   }
 
   /**
@@ -2239,49 +2569,30 @@ public class Settings implements Serializable {
     return aggregatedLogPath;
   }
 
-  private String PYPI_REST_ENDPOINT = "https://pypi.org/pypi/{package}/json";
-
-  public synchronized String getPyPiRESTEndpoint() {
-    checkCache();
-    return PYPI_REST_ENDPOINT;
+  public String getPyPiRESTEndpoint() {
+    return cache().PYPI_REST_ENDPOINT;
   }
 
-  private String PYPI_INDEXER_TIMER_INTERVAL = "1d";
-
-  public synchronized String getPyPiIndexerTimerInterval() {
-    checkCache();
-    return PYPI_INDEXER_TIMER_INTERVAL;
+  public String getPyPiIndexerTimerInterval() {
+    return cache().PYPI_INDEXER_TIMER_INTERVAL;
   }
 
-  private String PYPI_SIMPLE_ENDPOINT = "https://pypi.org/simple/";
-
-  public synchronized String getPyPiSimpleEndpoint() {
-    checkCache();
-    return PYPI_SIMPLE_ENDPOINT;
+  public String getPyPiSimpleEndpoint() {
+    return cache().PYPI_SIMPLE_ENDPOINT;
   }
 
-  private boolean PYPI_INDEXER_TIMER_ENABLED = true;
-
-  public synchronized boolean isPyPiIndexerTimerEnabled() {
-    checkCache();
-    return PYPI_INDEXER_TIMER_ENABLED;
+  public boolean isPyPiIndexerTimerEnabled() {
+    return cache().PYPI_INDEXER_TIMER_ENABLED;
   }
 
-  private String PYTHON_LIBRARY_UPDATES_MONITOR_INTERVAL = "1d";
-
-  public synchronized String getPythonLibraryUpdatesMonitorInterval() {
-    checkCache();
-    return PYTHON_LIBRARY_UPDATES_MONITOR_INTERVAL;
+  public String getPythonLibraryUpdatesMonitorInterval() {
+    return cache().PYTHON_LIBRARY_UPDATES_MONITOR_INTERVAL;
   }
 
-  private String HOPS_EXAMPLES_VERSION = "0.3.0";
-
-  public synchronized String getHopsExamplesSparkFilename() {
-    checkCache();
-    return "hops-examples-spark-" + HOPS_EXAMPLES_VERSION + ".jar";
+  public String getHopsExamplesSparkFilename() {
+    return "hops-examples-spark-" + cache().HOPS_EXAMPLES_VERSION + ".jar";
   }
 
-
   //Dela START
   private static final String VARIABLE_HOPSWORKS_PUBLIC_HOST = "hopsworks_public_host";
 
@@ -2289,21 +2600,10 @@ public class Settings implements Serializable {
 
   public static final String README_FILE = "README.md";
   
-  public synchronized Boolean isDelaEnabled() {
-    checkCache();
+  public Boolean isDelaEnabled() {
     return DELA_ENABLED;
   }
   
-  private void populateServiceJWTCache() {
-    SERVICE_MASTER_JWT = setStrVar(VARIABLE_SERVICE_MASTER_JWT, SERVICE_MASTER_JWT);
-    RENEW_TOKENS = new String[NUM_OF_SERVICE_RENEW_TOKENS];
-    for (int i = 0; i < NUM_OF_SERVICE_RENEW_TOKENS; i++) {
-      String variableKey = String.format(SERVICE_RENEW_TOKEN_VARIABLE_TEMPLATE, i);
-      String token = setStrVar(variableKey, "");
-      RENEW_TOKENS[i] = token;
-    }
-  }
-  
   //************************************************ZOOKEEPER********************************************************
   public static final int ZOOKEEPER_SESSION_TIMEOUT_MS = 30 * 1000;//30 seconds
   //Zookeeper END
@@ -2354,207 +2654,101 @@ public class Settings implements Serializable {
   private static final String VARIABLE_MANAGED_CLOUD_REDIRECT_URI = "managed_cloud_redirect_uri";
   private static final String VARIABLE_MANAGED_CLOUD_PROVIDER_NAME = "managed_cloud_provider_name";
   
-  private String KRB_AUTH = "false";
-  private String LDAP_AUTH = "false";
-  private boolean IS_KRB_ENABLED = false;
-  private boolean IS_LDAP_ENABLED = false;
-  private String LDAP_GROUP_MAPPING = "";
-  private String LDAP_USER_ID = "uid"; //login name
-  private String LDAP_USER_GIVEN_NAME = "givenName";
-  private String LDAP_USER_SURNAME = "sn";
-  private String LDAP_USER_EMAIL = "mail";
-  private String LDAP_USER_SEARCH_FILTER = "uid=%s";
-  private String LDAP_GROUP_SEARCH_FILTER = "member=%d";
-  private String LDAP_KRB_USER_SEARCH_FILTER = "krbPrincipalName=%s";
-  private String LDAP_ATTR_BINARY = "java.naming.ldap.attributes.binary";
-  private String LDAP_GROUP_TARGET = "cn";
-  private String LDAP_DYNAMIC_GROUP_TARGET = "memberOf";
   private String LDAP_USER_DN_DEFAULT = "";
   private String LDAP_GROUP_DN_DEFAULT = "";
-  private String LDAP_USER_DN = LDAP_USER_DN_DEFAULT;
-  private String LDAP_GROUP_DN = LDAP_GROUP_DN_DEFAULT;
-  private String LDAP_GROUPS_TARGET = "distinguishedName";
-  private String LDAP_GROUPS_SEARCH_FILTER = "(&(objectCategory=group)(cn=%c))";
-  private String LDAP_GROUP_MEMBERS_SEARCH_FILTER = "(&(objectCategory=user)(memberOf=%d))";
-  private int LDAP_ACCOUNT_STATUS = 1;
-  private String OAUTH_ENABLED = "false";
-  private boolean IS_OAUTH_ENABLED = false;
-  private String OAUTH_GROUP_MAPPING = "";
   private String OAUTH_REDIRECT_URI_PATH = "hopsworks/callback";
   private String OAUTH_LOGOUT_REDIRECT_URI_PATH = "hopsworks/";
-  private String OAUTH_REDIRECT_URI = OAUTH_REDIRECT_URI_PATH;
-  private String OAUTH_LOGOUT_REDIRECT_URI = OAUTH_LOGOUT_REDIRECT_URI_PATH;
-  private int OAUTH_ACCOUNT_STATUS = 1;
-  private long LDAP_GROUP_MAPPING_SYNC_INTERVAL = 0;
-  
-  private boolean REMOTE_AUTH_NEED_CONSENT = true;
-  
-  private boolean DISABLE_PASSWORD_LOGIN = false;
-  private boolean DISABLE_REGISTRATION = false;
-  private boolean VALIDATE_REMOTE_USER_EMAIL_VERIFIED = false;
-
-  private String MANAGED_CLOUD_REDIRECT_URI = "";
-  private String MANAGED_CLOUD_PROVIDER_NAME = "hopsworks.ai";
-  
-  private void populateLDAPCache() {
-    KRB_AUTH = setVar(VARIABLE_KRB_AUTH, KRB_AUTH);
-    LDAP_AUTH = setVar(VARIABLE_LDAP_AUTH, LDAP_AUTH);
-    LDAP_GROUP_MAPPING = setVar(VARIABLE_LDAP_GROUP_MAPPING, LDAP_GROUP_MAPPING);
-    LDAP_USER_ID = setVar(VARIABLE_LDAP_USER_ID, LDAP_USER_ID);
-    LDAP_USER_GIVEN_NAME = setVar(VARIABLE_LDAP_USER_GIVEN_NAME, LDAP_USER_GIVEN_NAME);
-    LDAP_USER_SURNAME = setVar(VARIABLE_LDAP_USER_SURNAME, LDAP_USER_SURNAME);
-    LDAP_USER_EMAIL = setVar(VARIABLE_LDAP_USER_EMAIL, LDAP_USER_EMAIL);
-    LDAP_ACCOUNT_STATUS = setIntVar(VARIABLE_LDAP_ACCOUNT_STATUS, LDAP_ACCOUNT_STATUS);
-    LDAP_USER_SEARCH_FILTER = setVar(VARIABLE_LDAP_USER_SEARCH_FILTER, LDAP_USER_SEARCH_FILTER);
-    LDAP_GROUP_SEARCH_FILTER = setVar(VARIABLE_LDAP_GROUP_SEARCH_FILTER, LDAP_GROUP_SEARCH_FILTER);
-    LDAP_KRB_USER_SEARCH_FILTER = setVar(VARIABLE_LDAP_KRB_USER_SEARCH_FILTER, LDAP_KRB_USER_SEARCH_FILTER);
-    LDAP_ATTR_BINARY = setVar(VARIABLE_LDAP_ATTR_BINARY, LDAP_ATTR_BINARY);
-    LDAP_GROUP_TARGET = setVar(VARIABLE_LDAP_GROUP_TARGET, LDAP_GROUP_TARGET);
-    LDAP_DYNAMIC_GROUP_TARGET = setVar(VARIABLE_LDAP_DYNAMIC_GROUP_TARGET, LDAP_DYNAMIC_GROUP_TARGET);
-    LDAP_USER_DN = setStrVar(VARIABLE_LDAP_USERDN, LDAP_USER_DN_DEFAULT);
-    LDAP_GROUP_DN = setStrVar(VARIABLE_LDAP_GROUPDN, LDAP_GROUP_DN_DEFAULT);
-    LDAP_GROUPS_TARGET = setVar(VARIABLE_LDAP_GROUPS_TARGET, LDAP_GROUPS_TARGET);
-    LDAP_GROUPS_SEARCH_FILTER = setStrVar(VARIABLE_LDAP_GROUPS_SEARCH_FILTER, LDAP_GROUPS_SEARCH_FILTER);
-    LDAP_GROUP_MEMBERS_SEARCH_FILTER =
-      setStrVar(VARIABLE_LDAP_GROUP_MEMBERS_SEARCH_FILTER, LDAP_GROUP_MEMBERS_SEARCH_FILTER);
-    IS_KRB_ENABLED = setBoolVar(VARIABLE_KRB_AUTH, IS_KRB_ENABLED);
-    IS_LDAP_ENABLED = setBoolVar(VARIABLE_LDAP_AUTH, IS_LDAP_ENABLED);
-    OAUTH_ENABLED = setStrVar(VARIABLE_OAUTH_ENABLED, OAUTH_ENABLED);
-    IS_OAUTH_ENABLED = setBoolVar(VARIABLE_OAUTH_ENABLED, IS_OAUTH_ENABLED);
-    OAUTH_REDIRECT_URI = setStrVar(VARIABLE_OAUTH_REDIRECT_URI, OAUTH_REDIRECT_URI);
-    OAUTH_LOGOUT_REDIRECT_URI = setStrVar(VARIABLE_OAUTH_LOGOUT_REDIRECT_URI, OAUTH_LOGOUT_REDIRECT_URI);
-    OAUTH_ACCOUNT_STATUS = setIntVar(VARIABLE_OAUTH_ACCOUNT_STATUS, OAUTH_ACCOUNT_STATUS);
-    OAUTH_GROUP_MAPPING = setStrVar(VARIABLE_OAUTH_GROUP_MAPPING, OAUTH_GROUP_MAPPING);
-  
-    REMOTE_AUTH_NEED_CONSENT = setBoolVar(VARIABLE_REMOTE_AUTH_NEED_CONSENT, REMOTE_AUTH_NEED_CONSENT);
-    
-    DISABLE_PASSWORD_LOGIN = setBoolVar(VARIABLE_DISABLE_PASSWORD_LOGIN, DISABLE_PASSWORD_LOGIN);
-    DISABLE_REGISTRATION = setBoolVar(VARIABLE_DISABLE_REGISTRATION, DISABLE_REGISTRATION);
-    DISABLE_REGISTRATION_UI = setBoolVar(VARIABLE_DISABLE_REGISTRATION_UI, DISABLE_REGISTRATION_UI);
   
-    LDAP_GROUP_MAPPING_SYNC_INTERVAL = setLongVar(VARIABLE_LDAP_GROUP_MAPPING_SYNC_INTERVAL,
-      LDAP_GROUP_MAPPING_SYNC_INTERVAL);
-  
-    VALIDATE_REMOTE_USER_EMAIL_VERIFIED =
-      setBoolVar(VARIABLE_VALIDATE_REMOTE_USER_EMAIL_VERIFIED, VALIDATE_REMOTE_USER_EMAIL_VERIFIED);
-    
-    MANAGED_CLOUD_REDIRECT_URI = setStrVar(VARIABLE_MANAGED_CLOUD_REDIRECT_URI, MANAGED_CLOUD_REDIRECT_URI);
-    MANAGED_CLOUD_PROVIDER_NAME = setStrVar(VARIABLE_MANAGED_CLOUD_PROVIDER_NAME, MANAGED_CLOUD_PROVIDER_NAME);
+  public String getKRBAuthStatus() {
+    return cache().KRB_AUTH;
   }
 
-  public synchronized String getKRBAuthStatus() {
-    checkCache();
-    return KRB_AUTH;
+  public String getLDAPAuthStatus() {
+    return cache().LDAP_AUTH;
   }
 
-  public synchronized String getLDAPAuthStatus() {
-    checkCache();
-    return LDAP_AUTH;
+  public  boolean isKrbEnabled() {
+    return cache().IS_KRB_ENABLED;
   }
 
-  public synchronized  boolean isKrbEnabled() {
-    checkCache();
-    return IS_KRB_ENABLED;
+  public  boolean isLdapEnabled() {
+    return cache().IS_LDAP_ENABLED;
   }
 
-  public synchronized  boolean isLdapEnabled() {
-    checkCache();
-    return IS_LDAP_ENABLED;
+  public String getLdapGroupMapping() {
+    return cache().LDAP_GROUP_MAPPING;
   }
 
-  public synchronized String getLdapGroupMapping() {
-    checkCache();
-    return LDAP_GROUP_MAPPING;
+  public String getLdapUserId() {
+    return cache().LDAP_USER_ID;
   }
 
-  public synchronized String getLdapUserId() {
-    checkCache();
-    return LDAP_USER_ID;
+  public String getLdapUserGivenName() {
+    return cache().LDAP_USER_GIVEN_NAME;
   }
 
-  public synchronized String getLdapUserGivenName() {
-    checkCache();
-    return LDAP_USER_GIVEN_NAME;
+  public String getLdapUserSurname() {
+    return cache().LDAP_USER_SURNAME;
   }
 
-  public synchronized String getLdapUserSurname() {
-    checkCache();
-    return LDAP_USER_SURNAME;
+  public String getLdapUserMail() {
+    return cache().LDAP_USER_EMAIL;
   }
 
-  public synchronized String getLdapUserMail() {
-    checkCache();
-    return LDAP_USER_EMAIL;
+  public String getLdapUserSearchFilter() {
+    return cache().LDAP_USER_SEARCH_FILTER;
   }
 
-  public synchronized String getLdapUserSearchFilter() {
-    checkCache();
-    return LDAP_USER_SEARCH_FILTER;
+  public String getLdapGroupSearchFilter() {
+    return cache().LDAP_GROUP_SEARCH_FILTER;
   }
 
-  public synchronized String getLdapGroupSearchFilter() {
-    checkCache();
-    return LDAP_GROUP_SEARCH_FILTER;
+  public String getKrbUserSearchFilter() {
+    return cache().LDAP_KRB_USER_SEARCH_FILTER;
   }
 
-  public synchronized String getKrbUserSearchFilter() {
-    checkCache();
-    return LDAP_KRB_USER_SEARCH_FILTER;
+  public String getLdapAttrBinary() {
+    return cache().LDAP_ATTR_BINARY;
   }
 
-  public synchronized String getLdapAttrBinary() {
-    checkCache();
-    return LDAP_ATTR_BINARY;
+  public String getLdapGroupTarget() {
+    return cache().LDAP_GROUP_TARGET;
   }
 
-  public synchronized String getLdapGroupTarget() {
-    checkCache();
-    return LDAP_GROUP_TARGET;
+  public String getLdapDynGroupTarget() {
+    return cache().LDAP_DYNAMIC_GROUP_TARGET;
   }
 
-  public synchronized String getLdapDynGroupTarget() {
-    checkCache();
-    return LDAP_DYNAMIC_GROUP_TARGET;
+  public String getLdapUserDN() {
+    return cache().LDAP_USER_DN;
   }
 
-  public synchronized String getLdapUserDN() {
-    checkCache();
-    return LDAP_USER_DN;
+  public String getLdapGroupDN() {
+    return cache().LDAP_GROUP_DN;
   }
 
-  public synchronized String getLdapGroupDN() {
-    checkCache();
-    return LDAP_GROUP_DN;
-  }
-
-  public synchronized int getLdapAccountStatus() {
-    checkCache();
-    return LDAP_ACCOUNT_STATUS;
+  public int getLdapAccountStatus() {
+    return cache().LDAP_ACCOUNT_STATUS;
   }
   
-  public synchronized String getLdapGroupsTarget() {
-    checkCache();
-    return LDAP_GROUPS_TARGET;
+  public String getLdapGroupsTarget() {
+    return cache().LDAP_GROUPS_TARGET;
   }
   
-  public synchronized String getLdapGroupsSearchFilter() {
-    checkCache();
-    return LDAP_GROUPS_SEARCH_FILTER;
+  public String getLdapGroupsSearchFilter() {
+    return cache().LDAP_GROUPS_SEARCH_FILTER;
   }
   
-  public synchronized String getLdapGroupMembersFilter() {
-    checkCache();
-    return LDAP_GROUP_MEMBERS_SEARCH_FILTER;
+  public String getLdapGroupMembersFilter() {
+    return cache().LDAP_GROUP_MEMBERS_SEARCH_FILTER;
   }
 
-  public synchronized  boolean isOAuthEnabled() {
-    checkCache();
-    return IS_OAUTH_ENABLED;
+  public  boolean isOAuthEnabled() {
+    return cache().IS_OAUTH_ENABLED;
   }
 
-  public synchronized String getOAuthGroupMapping() {
-    checkCache();
-    return OAUTH_GROUP_MAPPING;
+  public String getOAuthGroupMapping() {
+    return cache().OAUTH_GROUP_MAPPING;
   }
   
   public void updateOAuthGroupMapping(String mapping) {
@@ -2569,23 +2763,21 @@ public class Settings implements Serializable {
    * when using oauth for hopsworks.ai we need to first redirect to hopsworks.ai
    * which then redirect to hopsworks.
    */
-  public synchronized String getOauthRedirectUri(String providerName, boolean skipManagedCloud) {
-    checkCache();
-    if (MANAGED_CLOUD_REDIRECT_URI.isEmpty() || skipManagedCloud || !Objects.equals(MANAGED_CLOUD_PROVIDER_NAME,
+  public String getOauthRedirectUri(String providerName, boolean skipManagedCloud) {
+    CachedVariables cache = cache();
+    if (cache.MANAGED_CLOUD_REDIRECT_URI.isEmpty() || skipManagedCloud || !Objects.equals(cache.MANAGED_CLOUD_PROVIDER_NAME,
       providerName)) {
-      return OAUTH_REDIRECT_URI;
+      return cache.OAUTH_REDIRECT_URI;
     }
-    return MANAGED_CLOUD_REDIRECT_URI;
+    return cache.MANAGED_CLOUD_REDIRECT_URI;
   }
   
-  public synchronized String getManagedCloudRedirectUri() {
-    checkCache();
-    return MANAGED_CLOUD_REDIRECT_URI;
+  public String getManagedCloudRedirectUri() {
+    return cache().MANAGED_CLOUD_REDIRECT_URI;
   }
   
-  public synchronized String getManagedCloudProviderName() {
-    checkCache();
-    return MANAGED_CLOUD_PROVIDER_NAME;
+  public String getManagedCloudProviderName() {
+    return cache().MANAGED_CLOUD_PROVIDER_NAME;
   }
   
   public void updateOauthRedirectUri(String uri) {
@@ -2593,9 +2785,8 @@ public class Settings implements Serializable {
             VariablesVisibility.ADMIN);
   }
   
-  public synchronized String getOauthLogoutRedirectUri() {
-    checkCache();
-    return OAUTH_LOGOUT_REDIRECT_URI;
+  public String getOauthLogoutRedirectUri() {
+    return cache().OAUTH_LOGOUT_REDIRECT_URI;
   }
   
   public void addPathAndupdateOauthLogoutRedirectUri(String uri) {
@@ -2611,23 +2802,20 @@ public class Settings implements Serializable {
     updateVariableInternal(VARIABLE_MANAGED_CLOUD_REDIRECT_URI, uri , VariablesVisibility.ADMIN);
   }
   
-  public synchronized int getOAuthAccountStatus() {
-    checkCache();
-    return OAUTH_ACCOUNT_STATUS;
+  public int getOAuthAccountStatus() {
+    return cache().OAUTH_ACCOUNT_STATUS;
   }
   
   public void updateOAuthAccountStatus(Integer val) {
     updateVariableInternal(VARIABLE_OAUTH_ACCOUNT_STATUS, val.toString(), VariablesVisibility.ADMIN);
   }
   
-  public synchronized  boolean shouldValidateEmailVerified() {
-    checkCache();
-    return VALIDATE_REMOTE_USER_EMAIL_VERIFIED;
+  public  boolean shouldValidateEmailVerified() {
+    return cache().VALIDATE_REMOTE_USER_EMAIL_VERIFIED;
   }
   
-  public synchronized  boolean remoteAuthNeedConsent() {
-    checkCache();
-    return REMOTE_AUTH_NEED_CONSENT;
+  public  boolean remoteAuthNeedConsent() {
+    return cache().REMOTE_AUTH_NEED_CONSENT;
   }
   
   public void updateRemoteAuthNeedConsent(boolean needConsent) {
@@ -2690,71 +2878,54 @@ public class Settings implements Serializable {
     return VARIABLE_LDAP_GROUPDN;
   }
   
-  public synchronized  boolean isPasswordLoginDisabled() {
-    checkCache();
-    return DISABLE_PASSWORD_LOGIN;
+  public  boolean isPasswordLoginDisabled() {
+    return cache().DISABLE_PASSWORD_LOGIN;
   }
   
-  public synchronized  boolean isRegistrationDisabled() {
-    checkCache();
-    return DISABLE_REGISTRATION;
+  public  boolean isRegistrationDisabled() {
+    return cache().DISABLE_REGISTRATION;
   }
   
   public void updateRegistrationDisabled(boolean disable) {
     updateVariableInternal(VARIABLE_DISABLE_REGISTRATION, Boolean.toString(disable), VariablesVisibility.ADMIN);
   }
 
-  // Special flag to disable only registration UI but not the backend
-  // It is used in managed cloud when user management is MANAGED by hopsworks.ai
-  // Variable value is set during instance initialization by ec2-init
-  private boolean DISABLE_REGISTRATION_UI = false;
-  public synchronized boolean isRegistrationUIDisabled() {
-    checkCache();
-    return isRegistrationDisabled() || DISABLE_REGISTRATION_UI;
+  public boolean isRegistrationUIDisabled() {
+    return isRegistrationDisabled() || cache().DISABLE_REGISTRATION_UI;
   }
 
-  public synchronized long ldapGroupMappingSyncInterval() {
-    checkCache();
-    return LDAP_GROUP_MAPPING_SYNC_INTERVAL;
+  public long ldapGroupMappingSyncInterval() {
+    return cache().LDAP_GROUP_MAPPING_SYNC_INTERVAL;
   }
   
-  
   //----------------------------END remote user------------------------------------
 
   // Service key rotation enabled
   private static final String SERVICE_KEY_ROTATION_ENABLED_KEY = "service_key_rotation_enabled";
-  private boolean serviceKeyRotationEnabled = false;
 
-  public synchronized boolean isServiceKeyRotationEnabled() {
-    checkCache();
-    return serviceKeyRotationEnabled;
+  public boolean isServiceKeyRotationEnabled() {
+    return cache().serviceKeyRotationEnabled;
   }
 
   // Service key rotation interval
   private static final String SERVICE_KEY_ROTATION_INTERVAL_KEY = "service_key_rotation_interval";
-  private String serviceKeyRotationInterval = "3d";
 
-  public synchronized String getServiceKeyRotationInterval() {
-    checkCache();
-    return serviceKeyRotationInterval;
+  public String getServiceKeyRotationInterval() {
+    return cache().serviceKeyRotationInterval;
   }
 
  // TensorBoard kill rotation interval in milliseconds (should be lower than the TensorBoardKillTimer)
   private static final String TENSORBOARD_MAX_LAST_ACCESSED = "tensorboard_max_last_accessed";
-  private int tensorBoardMaxLastAccessed = 1140000;
 
-  public synchronized int getTensorBoardMaxLastAccessed() {
-    checkCache();
-    return tensorBoardMaxLastAccessed;
+  public int getTensorBoardMaxLastAccessed() {
+    return cache().tensorBoardMaxLastAccessed;
   }
 
   // TensorBoard kill rotation interval in milliseconds
   private static final String SPARK_UI_LOGS_OFFSET = "spark_ui_logs_offset";
-  private int sparkUILogsOffset = 512000;
 
-  public synchronized int getSparkUILogsOffset() {
-    checkCache();
-    return sparkUILogsOffset;
+  public int getSparkUILogsOffset() {
+    return cache().sparkUILogsOffset;
   }
 
   public Long getConfTimeValue(String configurationTime) {
@@ -2781,391 +2952,265 @@ public class Settings implements Serializable {
     return new HashSet<>(Splitter.on(separator).trimResults().splitToList(csv));
   }
 
-  // Libraries that should not be uninstallable
-  private Set<String> IMMUTABLE_PYTHON_LIBRARY_NAMES;
   private static final String VARIABLE_IMMUTABLE_PYTHON_LIBRARY_NAMES = "preinstalled_python_lib_names";
   private static final String DEFAULT_IMMUTABLE_PYTHON_LIBRARY_NAMES = "pydoop, pyspark, jupyterlab, sparkmagic, " +
       "hdfscontents, pyjks, hops-apache-beam, pyopenssl";
 
-  public synchronized Set<String> getImmutablePythonLibraryNames() {
-    checkCache();
-    return IMMUTABLE_PYTHON_LIBRARY_NAMES;
+  public Set<String> getImmutablePythonLibraryNames() {
+    return cache().IMMUTABLE_PYTHON_LIBRARY_NAMES;
   }
 
-  private String HOPSWORKS_VERSION;
-
-  public synchronized String getHopsworksVersion() {
-    checkCache();
-    return HOPSWORKS_VERSION;
+  public String getHopsworksVersion() {
+    return cache().HOPSWORKS_VERSION;
   }
 
-  private String KUBE_KSERVE_TENSORFLOW_VERSION;
-
-  public synchronized String getKServeTensorflowVersion() {
-    checkCache();
-    return KUBE_KSERVE_TENSORFLOW_VERSION;
+  public String getKServeTensorflowVersion() {
+    return cache().KUBE_KSERVE_TENSORFLOW_VERSION;
   }
 
-  private String TENSORFLOW_VERSION;
-
-  public synchronized String getTensorflowVersion() {
-    checkCache();
-    return TENSORFLOW_VERSION;
+  public String getTensorflowVersion() {
+    return cache().TENSORFLOW_VERSION;
   }
 
-  private String OPENSEARCH_VERSION;
-
-  public synchronized String getOpenSearchVersion() {
-    checkCache();
-    return OPENSEARCH_VERSION;
+  public String getOpenSearchVersion() {
+    return cache().OPENSEARCH_VERSION;
   }
 
-  private String KAFKA_VERSION;
-
-  public synchronized String getKafkaVersion() {
-    checkCache();
-    return KAFKA_VERSION;
+  public String getKafkaVersion() {
+    return cache().KAFKA_VERSION;
   }
 
-  private String EPIPE_VERSION;
-
-  public synchronized String getEpipeVersion() {
-    checkCache();
-    return EPIPE_VERSION;
+  public String getEpipeVersion() {
+    return cache().EPIPE_VERSION;
   }
 
-  private String FLINK_VERSION;
-
-  public synchronized String getFlinkVersion() {
-    checkCache();
-    return FLINK_VERSION;
+  public String getFlinkVersion() {
+    return cache().FLINK_VERSION;
   }
 
-  private String SPARK_VERSION;
-
-  public synchronized String getSparkVersion() {
-    checkCache();
-    return SPARK_VERSION;
+  public String getSparkVersion() {
+    return cache().SPARK_VERSION;
   }
 
-  private String TEZ_VERSION;
-
-  public synchronized String getTezVersion() {
-    checkCache();
-    return TEZ_VERSION;
+  public String getTezVersion() {
+    return cache().TEZ_VERSION;
   }
 
-  private String HIVE2_VERSION;
-
-  public synchronized String getHive2Version() {
-    checkCache();
-    return HIVE2_VERSION;
+  public String getHive2Version() {
+    return cache().HIVE2_VERSION;
   }
 
-  private String LIVY_VERSION;
-
-  public synchronized String getLivyVersion() {
-    checkCache();
-    return LIVY_VERSION;
+  public String getLivyVersion() {
+    return cache().LIVY_VERSION;
   }
 
-  private String NDB_VERSION;
-
-  public synchronized String getNdbVersion() {
-    checkCache();
-    return NDB_VERSION;
+  public String getNdbVersion() {
+    return cache().NDB_VERSION;
   }
 
-  private String FILEBEAT_VERSION;
-
-  public synchronized String getFilebeatVersion() {
-    checkCache();
-    return FILEBEAT_VERSION;
+  public String getFilebeatVersion() {
+    return cache().FILEBEAT_VERSION;
   }
 
-  private String KIBANA_VERSION;
-
-  public synchronized String getKibanaVersion() {
-    checkCache();
-    return KIBANA_VERSION;
+  public String getKibanaVersion() {
+    return cache().KIBANA_VERSION;
   }
 
-  private String LOGSTASH_VERSION;
-
-  public synchronized String getLogstashVersion() {
-    checkCache();
-    return LOGSTASH_VERSION;
+  public String getLogstashVersion() {
+    return cache().LOGSTASH_VERSION;
   }
 
-  private String GRAFANA_VERSION;
-
-  public synchronized String getGrafanaVersion() {
-    checkCache();
-    return GRAFANA_VERSION;
+  public String getGrafanaVersion() {
+    return cache().GRAFANA_VERSION;
   }
 
-  private String ZOOKEEPER_VERSION;
-
-  public synchronized String getZookeeperVersion() {
-    checkCache();
-    return ZOOKEEPER_VERSION;
+  public String getZookeeperVersion() {
+    return cache().ZOOKEEPER_VERSION;
   }
 
   // -------------------------------- Kubernetes ----------------------------------------------//
-  private String KUBE_USER = "kubernetes";
 
-  public synchronized String getKubeUser() {
-    checkCache();
-    return KUBE_USER;
+  public String getKubeUser() {
+    return cache().KUBE_USER;
   }
   
-  private String KUBE_HOPSWORKS_USER = "hopsworks";
-  
-  public synchronized String getKubeHopsworksUser() {
-    checkCache();
-    return KUBE_HOPSWORKS_USER;
+  public String getKubeHopsworksUser() {
+    return cache().KUBE_HOPSWORKS_USER;
   }
 
-  private String KUBEMASTER_URL = "https://192.168.68.102:6443";
-
-  public synchronized String getKubeMasterUrl() {
-    checkCache();
-    return KUBEMASTER_URL;
+  public String getKubeMasterUrl() {
+    return cache().KUBEMASTER_URL;
   }
 
-  private String KUBE_CA_CERTFILE = "/srv/hops/certs-dir/certs/ca.cert.pem";
-
-  public synchronized String getKubeCaCertfile() {
-    checkCache();
-    return KUBE_CA_CERTFILE;
+  public String getKubeCaCertfile() {
+    return cache().KUBE_CA_CERTFILE;
   }
 
-  private String KUBE_CLIENT_KEYFILE = "/srv/hops/certs-dir/kube/hopsworks/hopsworks.key.pem";
-
-  public synchronized String getKubeClientKeyfile() {
-    checkCache();
-    return KUBE_CLIENT_KEYFILE;
+  public String getKubeClientKeyfile() {
+    return cache().KUBE_CLIENT_KEYFILE;
   }
 
-  private String KUBE_CLIENT_CERTFILE = "/srv/hops/certs-dir/kube/hopsworks/hopsworks.cert.pem";
-
-  public synchronized String getKubeClientCertfile() {
-    checkCache();
-    return KUBE_CLIENT_CERTFILE;
+  public String getKubeClientCertfile() {
+    return cache().KUBE_CLIENT_CERTFILE;
   }
 
-  private String KUBE_CLIENT_KEYPASS = "adminpw";
-
-  public synchronized String getKubeClientKeypass() {
-    checkCache();
-    return KUBE_CLIENT_KEYPASS;
+  public String getKubeClientKeypass() {
+    return cache().KUBE_CLIENT_KEYPASS;
   }
 
-  private String KUBE_TRUSTSTORE_PATH = "/srv/hops/certs-dir/kube/hopsworks/hopsworks__tstore.jks";
-
-  public synchronized String getKubeTruststorePath() {
-    checkCache();
-    return KUBE_TRUSTSTORE_PATH;
+  public String getKubeTruststorePath() {
+    return cache().KUBE_TRUSTSTORE_PATH;
   }
 
-  private String KUBE_TRUSTSTORE_KEY = "adminpw";
-
-  public synchronized String getKubeTruststoreKey() {
-    checkCache();
-    return KUBE_TRUSTSTORE_KEY;
+  public String getKubeTruststoreKey() {
+    return cache().KUBE_TRUSTSTORE_KEY;
   }
 
-  private String KUBE_KEYSTORE_PATH = "/srv/hops/certs-dir/kube/hopsworks/hopsworks__kstore.jks";
-
-  public synchronized String getKubeKeystorePath() {
-    checkCache();
-    return KUBE_KEYSTORE_PATH;
+  public String getKubeKeystorePath() {
+    return cache().KUBE_KEYSTORE_PATH;
   }
 
-  private String KUBE_KEYSTORE_KEY = "adminpw";
-
-  public synchronized String getKubeKeystoreKey() {
-    checkCache();
-    return KUBE_KEYSTORE_KEY;
+  public String getKubeKeystoreKey() {
+    return cache().KUBE_KEYSTORE_KEY;
   }
 
-  private String KUBE_PULL_POLICY = "Always";
-  public synchronized String getKubeImagePullPolicy() {
-    checkCache();
-    return KUBE_PULL_POLICY;
+  public String getKubeImagePullPolicy() {
+    return cache().KUBE_PULL_POLICY;
   }
 
-  private Integer KUBE_API_MAX_ATTEMPTS = 12;
-  public synchronized Integer getKubeAPIMaxAttempts() {
-    checkCache();
-    return KUBE_API_MAX_ATTEMPTS;
+  public Integer getKubeAPIMaxAttempts() {
+    return cache().KUBE_API_MAX_ATTEMPTS;
   }
   
-  private Boolean ONLINE_FEATURESTORE = false;
-  
-  public synchronized Boolean isOnlineFeaturestore() {
-    checkCache();
-    return ONLINE_FEATURESTORE;
+  public Boolean isOnlineFeaturestore() {
+    return cache().ONLINE_FEATURESTORE;
   }
 
-  private String ONLINE_FEATURESTORE_TS = "";
-  public synchronized String getOnlineFeatureStoreTableSpace() {
-    checkCache();
-    return ONLINE_FEATURESTORE_TS;
+  public int getFeaturestoreJdbcPoolMaxPerKey() {
+    return cache().FEATURESTORE_JDBC_POOL_MAX_PER_KEY;
   }
 
-  private Integer ONLINEFS_THREAD_NUMBER = 10;
-  public synchronized  Integer getOnlineFsThreadNumber() {
-    checkCache();
-    return ONLINEFS_THREAD_NUMBER;
+  public long getFeaturestoreJdbcPoolIdleTimeout() {
+    return cache().FEATURESTORE_JDBC_POOL_IDLE_TIMEOUT;
   }
 
-  private Integer KUBE_DOCKER_MAX_MEMORY_ALLOCATION = 8192;
-  public synchronized Integer getKubeDockerMaxMemoryAllocation() {
-    checkCache();
-    return KUBE_DOCKER_MAX_MEMORY_ALLOCATION;
+  public String getOnlineFeatureStoreTableSpace() {
+    return cache().ONLINE_FEATURESTORE_TS;
   }
 
-  private Double KUBE_DOCKER_MAX_CORES_ALLOCATION = 4.0;
-  public synchronized Double getKubeDockerMaxCoresAllocation() {
-    checkCache();
-    return KUBE_DOCKER_MAX_CORES_ALLOCATION;
+  public  Integer getOnlineFsThreadNumber() {
+    return cache().ONLINEFS_THREAD_NUMBER;
   }
 
-  private Integer KUBE_DOCKER_MAX_GPUS_ALLOCATION = 1;
-  public synchronized Integer getKubeDockerMaxGpusAllocation() {
-    checkCache();
-    return KUBE_DOCKER_MAX_GPUS_ALLOCATION;
+  public Integer getKubeDockerMaxMemoryAllocation() {
+    return cache().KUBE_DOCKER_MAX_MEMORY_ALLOCATION;
+  }
+
+  public Double getKubeDockerMaxCoresAllocation() {
+    return cache().KUBE_DOCKER_MAX_CORES_ALLOCATION;
+  }
+
+  public Integer getKubeDockerMaxGpusAllocation() {
+    return cache().KUBE_DOCKER_MAX_GPUS_ALLOCATION;
   }
   
-  private Boolean KUBE_INSTALLED = false;
-  public synchronized Boolean getKubeInstalled() {
-    checkCache();
-    return KUBE_INSTALLED;
+  public Boolean getKubeInstalled() {
+    return cache().KUBE_INSTALLED;
   }
   
-  private Boolean KUBE_KSERVE_INSTALLED = false;
-  public synchronized Boolean getKubeKServeInstalled() {
-    checkCache();
-    return KUBE_KSERVE_INSTALLED;
+  public Boolean getKubeKServeInstalled() {
+    return cache().KUBE_KSERVE_INSTALLED;
   }
   
-  private String KUBE_SERVING_NODE_LABELS = "";
-  public synchronized String getKubeServingNodeLabels() {
-    checkCache();
-    return KUBE_SERVING_NODE_LABELS;
+  public String getKubeServingNodeLabels() {
+    return cache().KUBE_SERVING_NODE_LABELS;
   }
   
-  private String KUBE_SERVING_NODE_TOLERATIONS = "";
-  public synchronized String getKubeServingNodeTolerations() {
-    checkCache();
-    return KUBE_SERVING_NODE_TOLERATIONS;
+  public String getKubeServingNodeTolerations() {
+    return cache().KUBE_SERVING_NODE_TOLERATIONS;
   }
   
-  private Integer KUBE_SERVING_MAX_MEMORY_ALLOCATION = -1; // no upper limit
-  public synchronized Integer getKubeServingMaxMemoryAllocation() {
-    checkCache();
-    return KUBE_SERVING_MAX_MEMORY_ALLOCATION;
+  public Integer getKubeServingMaxMemoryAllocation() {
+    return cache().KUBE_SERVING_MAX_MEMORY_ALLOCATION;
   }
   
-  private Double KUBE_SERVING_MAX_CORES_ALLOCATION = -1.0;  // no upper limit
-  public synchronized Double getKubeServingMaxCoresAllocation() {
-    checkCache();
-    return KUBE_SERVING_MAX_CORES_ALLOCATION;
+  public Double getKubeServingMaxCoresAllocation() {
+    return cache().KUBE_SERVING_MAX_CORES_ALLOCATION;
   }
   
-  private Integer KUBE_SERVING_MAX_GPUS_ALLOCATION = -1; // no upper limit
-  public synchronized Integer getKubeServingMaxGpusAllocation() {
-    checkCache();
-    return KUBE_SERVING_MAX_GPUS_ALLOCATION;
+  public Integer getKubeServingMaxGpusAllocation() {
+    return cache().KUBE_SERVING_MAX_GPUS_ALLOCATION;
   }
   
-  // Maximum number of instances. Possible values >=-1 where -1 means no limit.
-  private Integer KUBE_SERVING_MAX_NUM_INSTANCES = -1;
-  public synchronized Integer getKubeServingMaxNumInstances() {
-    checkCache();
-    return KUBE_SERVING_MAX_NUM_INSTANCES;
+  public Integer getKubeServingMaxNumInstances() {
+    return cache().KUBE_SERVING_MAX_NUM_INSTANCES;
   }
   
-  // Minimum number of instances. Possible values: >=-1 where -1 means no limit and 0 enforces scale-to-zero
-  // capabilities when available
-  private Integer KUBE_SERVING_MIN_NUM_INSTANCES = -1;
-  public synchronized Integer getKubeServingMinNumInstances() {
-    checkCache();
-    return KUBE_SERVING_MIN_NUM_INSTANCES;
+  public Integer getKubeServingMinNumInstances() {
+    return cache().KUBE_SERVING_MIN_NUM_INSTANCES;
   }
   
-  private String KUBE_KNATIVE_DOMAIN_NAME = "";
-  public synchronized String getKubeKnativeDomainName() {
-    checkCache();
-    return KUBE_KNATIVE_DOMAIN_NAME;
+  public String getKubeKnativeDomainName() {
+    return cache().KUBE_KNATIVE_DOMAIN_NAME;
+  }
+
+  public String getKubeTaintedNodes() {
+    return cache().KUBE_TAINTED_NODES;
   }
 
-  //comma seperated list of tainted nodes
-  private String KUBE_TAINTED_NODES = "";
-  public synchronized String getKubeTaintedNodes() {
-    checkCache();
-    return KUBE_TAINTED_NODES;
+  public String getKubeTaintedMonitorInterval() {
+    return cache().KUBE_TAINTED_NODES_MONITOR_INTERVAL;
   }
 
-  private String KUBE_TAINTED_NODES_MONITOR_INTERVAL = "30m";
-  public synchronized String getKubeTaintedMonitorInterval() {
-    checkCache();
-    return KUBE_TAINTED_NODES_MONITOR_INTERVAL;
+  public Boolean getHopsworksEnterprise() {
+    return cache().HOPSWORKS_ENTERPRISE;
   }
 
-  private Boolean HOPSWORKS_ENTERPRISE = false;
-  public synchronized Boolean getHopsworksEnterprise() {
-    checkCache();
-    return HOPSWORKS_ENTERPRISE;
+  public boolean getEnableDataScienceProfile() {
+    return cache().ENABLE_DATA_SCIENCE_PROFILE;
   }
 
-  private boolean ENABLE_DATA_SCIENCE_PROFILE = false;
-  public synchronized boolean getEnableDataScienceProfile() {
-    checkCache();
-    return ENABLE_DATA_SCIENCE_PROFILE;
+  public String getServingMonitorInt() {
+    return cache().SERVING_MONITOR_INT;
   }
 
-  private String SERVING_MONITOR_INT = "30s";
+  public int getServingConnectionPoolSize() {
+    return cache().SERVING_CONNECTION_POOL_SIZE;
+  }
 
-  public synchronized String getServingMonitorInt() {
-    checkCache();
-    return SERVING_MONITOR_INT;
+  public int getServingMaxRouteConnections() {
+    return cache().SERVING_MAX_ROUTE_CONNECTIONS;
   }
 
-  private int SERVING_CONNECTION_POOL_SIZE = 40;
-  public synchronized int getServingConnectionPoolSize() {
-    checkCache();
-    return SERVING_CONNECTION_POOL_SIZE;
+  public long getServingInferenceLoggerProducerIdleTimeout() {
+    return cache().SERVING_INFERENCE_LOGGER_PRODUCER_IDLE_TIMEOUT;
   }
 
-  private int SERVING_MAX_ROUTE_CONNECTIONS = 10;
-  public synchronized int getServingMaxRouteConnections() {
-    checkCache();
-    return SERVING_MAX_ROUTE_CONNECTIONS;
+  public int getServingInferenceLoggerQueueSize() {
+    return cache().SERVING_INFERENCE_LOGGER_QUEUE_SIZE;
   }
 
-  private int TENSORBOARD_MAX_RELOAD_THREADS = 1;
-  public synchronized int getTensorBoardMaxReloadThreads() {
-    checkCache();
-    return TENSORBOARD_MAX_RELOAD_THREADS;
+  public int getServingInferenceLoggerBatchSize() {
+    return cache().SERVING_INFERENCE_LOGGER_BATCH_SIZE;
   }
 
-  private String JUPYTER_HOST = "localhost";
+  public long getServingInferenceLoggerOfferTimeout() {
+    return cache().SERVING_INFERENCE_LOGGER_OFFER_TIMEOUT;
+  }
 
-  public synchronized String getJupyterHost() {
-    checkCache();
-    return JUPYTER_HOST;
+  public int getTensorBoardMaxReloadThreads() {
+    return cache().TENSORBOARD_MAX_RELOAD_THREADS;
   }
 
-  private boolean ENABLE_JUPYTER_PYTHON_KERNEL_NON_KUBERNETES = false;
+  public String getJupyterHost() {
+    return cache().JUPYTER_HOST;
+  }
 
-  public synchronized boolean isPythonKernelEnabled() {
-    checkCache();
+  public boolean isPythonKernelEnabled() {
     if(getKubeInstalled()) {
       return true;
     }
-    return ENABLE_JUPYTER_PYTHON_KERNEL_NON_KUBERNETES;
+    return cache().ENABLE_JUPYTER_PYTHON_KERNEL_NON_KUBERNETES;
   }
 
   //These dependencies were collected by installing jupyterlab in a new environment
@@ -3178,74 +3223,53 @@ public class Settings implements Serializable {
       "packaging", "webencodings", "bleach", "testpath", "nbformat", "nest-asyncio", "async-generator",
       "nbclient", "nbconvert", "notebook", "json5", "jupyterlab-server", "jupyterlab", "sparkmagic");
 
-  private String JWT_SIGNATURE_ALGORITHM = "HS512";
-  private String JWT_SIGNING_KEY_NAME = "apiKey";
-  private String JWT_ISSUER = "hopsworks@logicalclocks.com";
-
-  private long JWT_LIFETIME_MS = 1800000l;
-  private int JWT_EXP_LEEWAY_SEC = 900;
-
-  private long SERVICE_JWT_LIFETIME_MS = 86400000l;
-  private int SERVICE_JWT_EXP_LEEWAY_SEC = 43200;
-
-  public synchronized String getJWTSignatureAlg() {
-    checkCache();
-    return JWT_SIGNATURE_ALGORITHM;
+  public String getJWTSignatureAlg() {
+    return cache().JWT_SIGNATURE_ALGORITHM;
   }
 
-  public synchronized long getJWTLifetimeMs() {
-    checkCache();
-    return JWT_LIFETIME_MS;
+  public long getJWTLifetimeMs() {
+    return cache().JWT_LIFETIME_MS;
   }
 
-  public synchronized int getJWTExpLeewaySec() {
-    checkCache();
-    return JWT_EXP_LEEWAY_SEC;
+  public int getJWTExpLeewaySec() {
+    return cache().JWT_EXP_LEEWAY_SEC;
   }
 
-  public synchronized long getJWTLifetimeMsPlusLeeway() {
-    checkCache();
-    return JWT_LIFETIME_MS + (JWT_EXP_LEEWAY_SEC * 1000L);
+  public long getJWTLifetimeMsPlusLeeway() {
+    CachedVariables cache = cache();
+    return cache.JWT_LIFETIME_MS + (cache.JWT_EXP_LEEWAY_SEC * 1000L);
   }
 
-  public synchronized long getServiceJWTLifetimeMS() {
-    checkCache();
-    return SERVICE_JWT_LIFETIME_MS;
+  public long getServiceJWTLifetimeMS() {
+    return cache().SERVICE_JWT_LIFETIME_MS;
   }
 
-  public synchronized int getServiceJWTExpLeewaySec() {
-    checkCache();
-    return SERVICE_JWT_EXP_LEEWAY_SEC;
+  public int getServiceJWTExpLeewaySec() {
+    return cache().SERVICE_JWT_EXP_LEEWAY_SEC;
   }
 
-  public synchronized String getJWTSigningKeyName() {
-    checkCache();
-    return JWT_SIGNING_KEY_NAME;
+  public String getJWTSigningKeyName() {
+    return cache().JWT_SIGNING_KEY_NAME;
   }
 
-  public synchronized String getJWTIssuer() {
-    checkCache();
-    return JWT_ISSUER;
+  public String getJWTIssuer() {
+    return cache().JWT_ISSUER;
   }
 
-  private String SERVICE_MASTER_JWT = "";
-  public synchronized String getServiceMasterJWT() {
-    checkCache();
-    return SERVICE_MASTER_JWT;
+  public String getServiceMasterJWT() {
+    return cache().SERVICE_MASTER_JWT;
   }
 
   public synchronized void setServiceMasterJWT(String JWT) {
     updateVariableInternal(VARIABLE_SERVICE_MASTER_JWT, JWT, VariablesVisibility.ADMIN);
     em.flush();
-    SERVICE_MASTER_JWT = JWT;
+    refreshCache();
   }
 
   private final int NUM_OF_SERVICE_RENEW_TOKENS = 5;
   private final static String SERVICE_RENEW_TOKEN_VARIABLE_TEMPLATE = "service_renew_token_%d";
-  private String[] RENEW_TOKENS = new String[0];
-  public synchronized String[] getServiceRenewJWTs() {
-    checkCache();
-    return RENEW_TOKENS;
+  public String[] getServiceRenewJWTs() {
+    return cache().RENEW_TOKENS;
   }
 
   public synchronized void setServiceRenewJWTs(String[] renewTokens) {
@@ -3253,127 +3277,91 @@ public class Settings implements Serializable {
       String variableKey = String.format(SERVICE_RENEW_TOKEN_VARIABLE_TEMPLATE, i);
       updateVariableInternal(variableKey, renewTokens[i], VariablesVisibility.ADMIN);
     }
-    RENEW_TOKENS = renewTokens;
+    refreshCache();
   }
 
-  private int CONNECTION_KEEPALIVE_TIMEOUT = 30;
-  public synchronized int getConnectionKeepAliveTimeout() {
-    checkCache();
-    return CONNECTION_KEEPALIVE_TIMEOUT;
+  public int getConnectionKeepAliveTimeout() {
+    return cache().CONNECTION_KEEPALIVE_TIMEOUT;
   }
 
   private int MAGGY_CLEANUP_INTERVAL = 24 * 60 * 1000;
-  public synchronized int getMaggyCleanupInterval() {
-    checkCache();
+  public int getMaggyCleanupInterval() {
     return MAGGY_CLEANUP_INTERVAL;
   }
 
-  private String HIVE_CONF_PATH = "/srv/hops/apache-hive/conf/hive-site.xml";
-  public synchronized String getHiveConfPath() {
-    checkCache();
-    return HIVE_CONF_PATH;
+  public String getHiveConfPath() {
+    return cache().HIVE_CONF_PATH;
   }
 
-  private String FS_PY_JOB_UTIL_PATH = "hdfs:///user/spark/hsfs_util-2.1.0-SNAPSHOT.py";
-  public synchronized String getFSPyJobUtilPath() {
-    checkCache();
-    return FS_PY_JOB_UTIL_PATH;
+  public String getFSPyJobUtilPath() {
+    return cache().FS_PY_JOB_UTIL_PATH;
   }
 
-  private String FS_JAVA_JOB_UTIL_PATH = "hdfs:///user/spark/hsfs-utils-2.1.0-SNAPSHOT.jar";
-  public synchronized String getFSJavaJobUtilPath() {
-    checkCache();
-    return FS_JAVA_JOB_UTIL_PATH;
+  public String getFSJavaJobUtilPath() {
+    return cache().FS_JAVA_JOB_UTIL_PATH;
   }
   
-  private String HDFS_FILE_OP_JOB_UTIL = "hdfs:///user/spark/hdfs_file_operations-0.1.0.py";
-  public synchronized String getHdfsFileOpJobUtil() {
-    checkCache();
-    return HDFS_FILE_OP_JOB_UTIL;
+  public String getHdfsFileOpJobUtil() {
+    return cache().HDFS_FILE_OP_JOB_UTIL;
   }
 
-  private int HDFS_FILE_OP_JOB_DRIVER_MEM = 2048;
-  public synchronized int getHdfsFileOpJobDriverMemory() {
-    checkCache();
-    return HDFS_FILE_OP_JOB_DRIVER_MEM;
+  public int getHdfsFileOpJobDriverMemory() {
+    return cache().HDFS_FILE_OP_JOB_DRIVER_MEM;
   }
-  private long FEATURESTORE_DB_DEFAULT_QUOTA = HdfsConstants.QUOTA_DONT_SET;
-  public synchronized long getFeaturestoreDbDefaultQuota() {
-    checkCache();
-    return FEATURESTORE_DB_DEFAULT_QUOTA;
+  public long getFeaturestoreDbDefaultQuota() {
+    return cache().FEATURESTORE_DB_DEFAULT_QUOTA;
   }
 
-  private String FEATURESTORE_DB_DEFAULT_STORAGE_FORMAT = "ORC";
-
-  public synchronized String getFeaturestoreDbDefaultStorageFormat() {
-    checkCache();
-    return FEATURESTORE_DB_DEFAULT_STORAGE_FORMAT;
+  public String getFeaturestoreDbDefaultStorageFormat() {
+    return cache().FEATURESTORE_DB_DEFAULT_STORAGE_FORMAT;
   }
 
   // Storage connectors
 
-  private boolean ENABLE_REDSHIFT_STORAGE_CONNECTORS = true;
-  public synchronized boolean isRedshiftStorageConnectorsEnabled() {
-    checkCache();
-    return ENABLE_REDSHIFT_STORAGE_CONNECTORS;
+  public boolean isRedshiftStorageConnectorsEnabled() {
+    return cache().ENABLE_REDSHIFT_STORAGE_CONNECTORS;
   }
 
-  private boolean ENABLE_ADLS_STORAGE_CONNECTORS = false;
-  public synchronized boolean isAdlsStorageConnectorsEnabled() {
-    checkCache();
-    return ENABLE_ADLS_STORAGE_CONNECTORS;
+  public boolean isAdlsStorageConnectorsEnabled() {
+    return cache().ENABLE_ADLS_STORAGE_CONNECTORS;
   }
 
-  private boolean ENABLE_SNOWFLAKE_STORAGE_CONNECTORS = true;
-  public synchronized boolean isSnowflakeStorageConnectorsEnabled() {
-    checkCache();
-    return ENABLE_SNOWFLAKE_STORAGE_CONNECTORS;
+  public boolean isSnowflakeStorageConnectorsEnabled() {
+    return cache().ENABLE_SNOWFLAKE_STORAGE_CONNECTORS;
   }
 
-  private boolean ENABLE_KAFKA_STORAGE_CONNECTORS = false;
-  public synchronized boolean isKafkaStorageConnectorsEnabled() {
-    checkCache();
-    return ENABLE_KAFKA_STORAGE_CONNECTORS;
+  public boolean isKafkaStorageConnectorsEnabled() {
+    return cache().ENABLE_KAFKA_STORAGE_CONNECTORS;
   }
 
-  private boolean ENABLE_GCS_STORAGE_CONNECTORS = false;
-  public synchronized boolean isGcsStorageConnectorsEnabled() {
-    checkCache();
-    return ENABLE_GCS_STORAGE_CONNECTORS;
+  public boolean isGcsStorageConnectorsEnabled() {
+    return cache().ENABLE_GCS_STORAGE_CONNECTORS;
   }
 
-  private boolean ENABLE_BIGQUERY_STORAGE_CONNECTORS = false;
-  public synchronized boolean isBigqueryStorageConnectorsEnabled() {
-    checkCache();
-    return ENABLE_BIGQUERY_STORAGE_CONNECTORS;
+  public boolean isBigqueryStorageConnectorsEnabled() {
+    return cache().ENABLE_BIGQUERY_STORAGE_CONNECTORS;
   }
 
   // End - Storage connectors
 
-  private Boolean LOCALHOST = false;
-
-  public synchronized Boolean isLocalHost() {
-    checkCache();
-    return LOCALHOST;
+  public Boolean isLocalHost() {
+    return cache().LOCALHOST;
   }
 
-  private String CLOUD = "";
-
-  public synchronized String getCloudProvider() {
-    checkCache();
-    return CLOUD;
+  public String getCloudProvider() {
+    return cache().CLOUD;
   }
 
   public Boolean isCloud() {
     return !getCloudProvider().isEmpty();
   }
 
-  public synchronized CLOUD_TYPES getCloudType() {
-    checkCache();
-    if (CLOUD.isEmpty()) {
+  public CLOUD_TYPES getCloudType() {
+    CachedVariables cache = cache();
+    if (cache.CLOUD.isEmpty()) {
       return CLOUD_TYPES.NONE;
     }
-    return CLOUD_TYPES.fromString(CLOUD);
+    return CLOUD_TYPES.fromString(cache.CLOUD);
   }
   
   public static enum CLOUD_TYPES {
@@ -3391,34 +3379,24 @@ public class Settings implements Serializable {
     return isCloud() || isLocalHost();
   }
   
-  private String FEATURESTORE_JDBC_URL = "jdbc:mysql://onlinefs.mysql.service.consul:3306/";
-  
-  public synchronized String getFeaturestoreJdbcUrl() {
-    checkCache();
-    return FEATURESTORE_JDBC_URL;
+  public String getFeaturestoreJdbcUrl() {
+    return cache().FEATURESTORE_JDBC_URL;
   }
   
-  private Boolean REQUESTS_VERIFY = false;
-  
   /**
    * Whether to verify HTTP requests in hops-util-py. Accepted values are "true", "false"
    *
    */
-  public synchronized Boolean getRequestsVerify() {
-    checkCache();
-    return REQUESTS_VERIFY;
+  public Boolean getRequestsVerify() {
+    return cache().REQUESTS_VERIFY;
   }
   
-  private  Boolean KIBANA_HTTPS_ENABELED = false;
-  public synchronized Boolean isKibanaHTTPSEnabled() {
-    checkCache();
-    return KIBANA_HTTPS_ENABELED;
+  public Boolean isKibanaHTTPSEnabled() {
+    return cache().KIBANA_HTTPS_ENABELED;
   }
   
-  private  Boolean KIBANA_MULTI_TENANCY_ENABELED = false;
-  public synchronized Boolean isKibanaMultiTenancyEnabled() {
-    checkCache();
-    return KIBANA_MULTI_TENANCY_ENABELED;
+  public Boolean isKibanaMultiTenancyEnabled() {
+    return cache().KIBANA_MULTI_TENANCY_ENABELED;
   }
   
   public static final int OPENSEARCH_KIBANA_NO_CONNECTIONS = 5;
@@ -3430,290 +3408,189 @@ public class Settings implements Serializable {
   private static final String VARIABLE_PROVENANCE_CLEANER_PERIOD = "provenance_cleaner_period";
   
   public static final String PROV_FILE_INDEX_SUFFIX = "__file_prov";
-  private Provenance.Type PROVENANCE_TYPE = Provenance.Type.MIN;
-  private String PROVENANCE_TYPE_S = PROVENANCE_TYPE.name();
-  private Integer PROVENANCE_CLEANUP_SIZE = 5;
-  private Integer PROVENANCE_GRAPH_MAX_SIZE = 50;
-  private Long PROVENANCE_CLEANER_PERIOD = 3600L; //1h in s
   public static final Integer PROVENANCE_OPENSEARCH_PAGE_DEFAULT_SIZE = 1000;
   
   public String getProvFileIndex(Long projectIId) {
     return projectIId.toString() + Settings.PROV_FILE_INDEX_SUFFIX;
   }
   
-  private void populateProvenanceCache() {
-    PROVENANCE_TYPE_S = setStrVar(VARIABLE_PROVENANCE_TYPE, PROVENANCE_TYPE_S);
-    try {
-      PROVENANCE_TYPE = ProvTypeDTO.provTypeFromString(PROVENANCE_TYPE_S);
-    } catch(ProvenanceException e) {
-      LOGGER.log(Level.WARNING, "unknown prov type:" + PROVENANCE_TYPE_S + ", using default");
-      PROVENANCE_TYPE = Provenance.Type.MIN;
-      PROVENANCE_TYPE_S = PROVENANCE_TYPE.name();
-    }
-    PROVENANCE_GRAPH_MAX_SIZE = setIntVar(VARIABLE_PROVENANCE_GRAPH_MAX_SIZE, PROVENANCE_GRAPH_MAX_SIZE);
-    PROVENANCE_CLEANUP_SIZE = setIntVar(VARIABLE_PROVENANCE_CLEANUP_SIZE, PROVENANCE_CLEANUP_SIZE);
-    PROVENANCE_CLEANER_PERIOD = setLongVar(VARIABLE_PROVENANCE_CLEANER_PERIOD, PROVENANCE_CLEANER_PERIOD);
-  }
-  
-  public synchronized Provenance.Type getProvType() {
-    checkCache();
-    return PROVENANCE_TYPE;
+  public Provenance.Type getProvType() {
+    return cache().PROVENANCE_TYPE;
   }
 
-  public synchronized Integer getProvenanceGraphMaxSize() {
-    checkCache();
-    return PROVENANCE_GRAPH_MAX_SIZE;
+  public Integer getProvenanceGraphMaxSize() {
+    return cache().PROVENANCE_GRAPH_MAX_SIZE;
   }
 
-  public synchronized Integer getProvCleanupSize() {
-    checkCache();
-    return PROVENANCE_CLEANUP_SIZE;
+  public Integer getProvCleanupSize() {
+    return cache().PROVENANCE_CLEANUP_SIZE;
   }
 
-  public synchronized Long getProvCleanerPeriod() {
-    checkCache();
-    return PROVENANCE_CLEANER_PERIOD;
+  public Long getProvCleanerPeriod() {
+    return cache().PROVENANCE_CLEANER_PERIOD;
   }
 
   //------------------------------ END PROVENANCE --------------------------------------------//
   
-  private String CLIENT_PATH = "/srv/hops/client.tar.gz";
-  public synchronized String getClientPath() {
-    checkCache();
-    return CLIENT_PATH;
+  public String getClientPath() {
+    return cache().CLIENT_PATH;
   }
   
-  // CLOUD
-  private String CLOUD_EVENTS_ENDPOINT = "";
-  
-  public synchronized String getCloudEventsEndPoint() {
-    checkCache();
-    return CLOUD_EVENTS_ENDPOINT;
+  public String getCloudEventsEndPoint() {
+    return cache().CLOUD_EVENTS_ENDPOINT;
   }
   
-  private String CLOUD_EVENTS_ENDPOINT_API_KEY = "";
-  
-  public synchronized String getCloudEventsEndPointAPIKey() {
-    checkCache();
-    return CLOUD_EVENTS_ENDPOINT_API_KEY;
+  public String getCloudEventsEndPointAPIKey() {
+    return cache().CLOUD_EVENTS_ENDPOINT_API_KEY;
   }
 
-  private int FG_PREVIEW_LIMIT = 100;
-  public synchronized int getFGPreviewLimit() {
-    checkCache();
-    return FG_PREVIEW_LIMIT;
+  public int getFGPreviewLimit() {
+    return cache().FG_PREVIEW_LIMIT;
   }
 
   public static final String FEATURESTORE_INDEX = "featurestore";
   public static final String FEATURESTORE_PROJECT_ID_FIELD = "project_id";
 
   //-----------------------------YARN DOCKER-------------------------------------------------//
-  private static String YARN_RUNTIME = "docker";
   
-  public synchronized String getYarnRuntime(){
-    checkCache();
-    return YARN_RUNTIME;
+  public String getYarnRuntime(){
+    return cache().YARN_RUNTIME;
   }
 
   //----------------------------YARN NODEMANAGER--------------------------------------------//
-  private boolean checkNodemanagersStatus = false;
-  public synchronized boolean isCheckingForNodemanagerStatusEnabled() {
-    checkCache();
-    return checkNodemanagersStatus;
+  public boolean isCheckingForNodemanagerStatusEnabled() {
+    return cache().checkNodemanagersStatus;
   }
 
-  private static String DOCKER_MOUNTS = 
-      "/srv/hops/hadoop/etc/hadoop,/srv/hops/spark,/srv/hops/flink";
-  
-  public synchronized String getDockerMounts() {
-    checkCache();
+  public String getDockerMounts() {
     String result = "";
-    for(String mountPoint: DOCKER_MOUNTS.split(",")){
+    for(String mountPoint: cache().DOCKER_MOUNTS.split(",")){
       result += mountPoint + ":" + mountPoint + ":ro,";
     }
     return result.substring(0, result.length() - 1);
   }
 
-  private String DOCKER_BASE_IMAGE_PYTHON_NAME = "python38";
-
-  public synchronized String getBaseDockerImagePythonName() {
-    checkCache();
+  public String getBaseDockerImagePythonName() {
+    CachedVariables cache = cache();
     if(isManagedDockerRegistry()){
-      return DOCKER_BASE_NON_PYTHON_IMAGE + ":" + DOCKER_BASE_IMAGE_PYTHON_NAME +
-          "_" + HOPSWORKS_VERSION;
+      return DOCKER_BASE_NON_PYTHON_IMAGE + ":" + cache.DOCKER_BASE_IMAGE_PYTHON_NAME +
+          "_" + cache.HOPSWORKS_VERSION;
     }else{
-      return DOCKER_BASE_IMAGE_PYTHON_NAME + ":" + HOPSWORKS_VERSION;
+      return cache.DOCKER_BASE_IMAGE_PYTHON_NAME + ":" + cache.HOPSWORKS_VERSION;
     }
   }
 
-  private String DOCKER_BASE_IMAGE_PYTHON_VERSION = "3.8";
-
-  public synchronized String getDockerBaseImagePythonVersion() {
-    checkCache();
-    return DOCKER_BASE_IMAGE_PYTHON_VERSION;
+  public String getDockerBaseImagePythonVersion() {
+    return cache().DOCKER_BASE_IMAGE_PYTHON_VERSION;
   }
 
   private final static String DOCKER_BASE_NON_PYTHON_IMAGE = "base";
-  public synchronized String getBaseNonPythonDockerImage() {
-    return DOCKER_BASE_NON_PYTHON_IMAGE + ":" + HOPSWORKS_VERSION;
+  public String getBaseNonPythonDockerImage() {
+    return DOCKER_BASE_NON_PYTHON_IMAGE + ":" + cache().HOPSWORKS_VERSION;
   }
 
-  private long YARN_APP_UID = 1235L;
   public long getYarnAppUID() {
-    checkCache();
-    return YARN_APP_UID;
+    return cache().YARN_APP_UID;
   }
   //-----------------------------END YARN DOCKER-------------------------------------------------//
   
-  private KubeType KUBE_TYPE = KubeType.Local;
-  public synchronized KubeType getKubeType() {
-    checkCache();
-    return KUBE_TYPE;
+  public KubeType getKubeType() {
+    return cache().KUBE_TYPE;
   }
   
-  private String DOCKER_NAMESPACE = "";
-  public synchronized String getDockerNamespace(){
-    checkCache();
-    return DOCKER_NAMESPACE;
+  public String getDockerNamespace(){
+    return cache().DOCKER_NAMESPACE;
   }
   
-  private Boolean MANAGED_DOCKER_REGISTRY = false;
-  public synchronized Boolean isManagedDockerRegistry(){
-    checkCache();
-    return MANAGED_DOCKER_REGISTRY && isCloud();
+  public Boolean isManagedDockerRegistry(){
+    return cache().MANAGED_DOCKER_REGISTRY && isCloud();
   }
 
-  public synchronized String getBaseNonPythonDockerImageWithNoTag(){
-    checkCache();
+  public String getBaseNonPythonDockerImageWithNoTag(){
     return DOCKER_BASE_NON_PYTHON_IMAGE;
   }
 
-  private String DOCKER_JOB_MOUNTS_LIST;
-  public synchronized List<String> getDockerMountsList(){
-    checkCache();
-    return Arrays.asList(DOCKER_JOB_MOUNTS_LIST.split(","));
+  public List<String> getDockerMountsList(){
+    return Arrays.asList(cache().DOCKER_JOB_MOUNTS_LIST.split(","));
   }
 
-  private Boolean DOCKER_JOB_MOUNT_ALLOWED = true;
-  public synchronized Boolean isDockerJobMountAllowed(){
-    checkCache();
-    return DOCKER_JOB_MOUNT_ALLOWED;
+  public Boolean isDockerJobMountAllowed(){
+    return cache().DOCKER_JOB_MOUNT_ALLOWED;
   }
 
-  private Boolean DOCKER_JOB_UID_STRICT = true;
-  public synchronized Boolean isDockerJobUidStrict(){
-    checkCache();
-    return DOCKER_JOB_UID_STRICT;
+  public Boolean isDockerJobUidStrict(){
+    return cache().DOCKER_JOB_UID_STRICT;
   }
 
-  private int EXECUTIONS_PER_JOB_LIMIT = 10000;
-  public synchronized int getExecutionsPerJobLimit(){
-    checkCache();
-    return EXECUTIONS_PER_JOB_LIMIT;
+  public int getExecutionsPerJobLimit(){
+    return cache().EXECUTIONS_PER_JOB_LIMIT;
   }
 
-  private int EXECUTIONS_CLEANER_BATCH_SIZE = 1000;
-  public synchronized int getExecutionsCleanerBatchSize(){
-    checkCache();
-    return EXECUTIONS_CLEANER_BATCH_SIZE;
+  public int getExecutionsCleanerBatchSize(){
+    return cache().EXECUTIONS_CLEANER_BATCH_SIZE;
   }
 
-  private int EXECUTIONS_CLEANER_INTERVAL_MS = 600000;
-  public synchronized int getExecutionsCleanerInterval(){
-    checkCache();
-    return EXECUTIONS_CLEANER_INTERVAL_MS;
+  public int getExecutionsCleanerInterval(){
+    return cache().EXECUTIONS_CLEANER_INTERVAL_MS;
   }
 
-  private int MAX_ENV_YML_BYTE_SIZE = 20000;
-  public synchronized int getMaxEnvYmlByteSize() {
-    checkCache();
-    return MAX_ENV_YML_BYTE_SIZE;
+  public int getMaxEnvYmlByteSize() {
+    return cache().MAX_ENV_YML_BYTE_SIZE;
   }
   
-  private int LIVY_STARTUP_TIMEOUT = 240;
-  public synchronized int getLivyStartupTimeout() {
-    checkCache();
-    return LIVY_STARTUP_TIMEOUT;
+  public int getLivyStartupTimeout() {
+    return cache().LIVY_STARTUP_TIMEOUT;
   }
   
-  private boolean USER_SEARCH_ENABLED = true;
-  public synchronized boolean isUserSearchEnabled() {
-    checkCache();
-    return USER_SEARCH_ENABLED;
+  public boolean isUserSearchEnabled() {
+    return cache().USER_SEARCH_ENABLED;
   }
   
-  /*
-   * When a user try to connect for the first time with OAuth or LDAP
-   * do not create the user if it does not bellong to any group.
-   * This is to avoid having users that belong to no group poluting the users table
-   */
-  private boolean REJECT_REMOTE_USER_NO_GROUP = false;
-  public synchronized boolean getRejectRemoteNoGroup() {
-    checkCache();
-    return REJECT_REMOTE_USER_NO_GROUP;
+  public boolean getRejectRemoteNoGroup() {
+    return cache().REJECT_REMOTE_USER_NO_GROUP;
   }
   
   public void updateRejectRemoteNoGroup(boolean reject) {
     updateVariableInternal(VARIABLE_REJECT_REMOTE_USER_NO_GROUP, Boolean.toString(reject), VariablesVisibility.ADMIN);
   }
   
-  private boolean SKIP_NAMESPACE_CREATION = false;
-  public synchronized boolean shouldSkipNamespaceCreation() {
-    checkCache();
-    return SKIP_NAMESPACE_CREATION;
+  public boolean shouldSkipNamespaceCreation() {
+    return cache().SKIP_NAMESPACE_CREATION;
   }
 
-  private long QUOTAS_ONLINE_ENABLED_FEATUREGROUPS = -1L;
-  public synchronized long getQuotasOnlineEnabledFeaturegroups() {
-    checkCache();
-    return QUOTAS_ONLINE_ENABLED_FEATUREGROUPS;
+  public long getQuotasOnlineEnabledFeaturegroups() {
+    return cache().QUOTAS_ONLINE_ENABLED_FEATUREGROUPS;
   }
 
-  private long QUOTAS_ONLINE_DISABLED_FEATUREGROUPS = -1L;
-  public synchronized long getQuotasOnlineDisabledFeaturegroups() {
-    checkCache();
-    return QUOTAS_ONLINE_DISABLED_FEATUREGROUPS;
+  public long getQuotasOnlineDisabledFeaturegroups() {
+    return cache().QUOTAS_ONLINE_DISABLED_FEATUREGROUPS;
   }
 
-  private long QUOTAS_TRAINING_DATASETS = -1L;
-  public synchronized long getQuotasTrainingDatasets() {
-    checkCache();
-    return QUOTAS_TRAINING_DATASETS;
+  public long getQuotasTrainingDatasets() {
+    return cache().QUOTAS_TRAINING_DATASETS;
   }
 
-  private long QUOTAS_RUNNING_MODEL_DEPLOYMENTS = -1L;
-  public synchronized long getQuotasRunningModelDeployments() {
-    checkCache();
-    return QUOTAS_RUNNING_MODEL_DEPLOYMENTS;
+  public long getQuotasRunningModelDeployments() {
+    return cache().QUOTAS_RUNNING_MODEL_DEPLOYMENTS;
   }
 
-  private long QUOTAS_TOTAL_MODEL_DEPLOYMENTS = -1L;
-  public synchronized long getQuotasTotalModelDeployments() {
-    checkCache();
-    return QUOTAS_TOTAL_MODEL_DEPLOYMENTS;
+  public long getQuotasTotalModelDeployments() {
+    return cache().QUOTAS_TOTAL_MODEL_DEPLOYMENTS;
   }
 
-  private long QUOTAS_MAX_PARALLEL_EXECUTIONS = -1L;
-  public synchronized long getQuotasMaxParallelExecutions() {
-    checkCache();
-    return QUOTAS_MAX_PARALLEL_EXECUTIONS;
+  public long getQuotasMaxParallelExecutions() {
+    return cache().QUOTAS_MAX_PARALLEL_EXECUTIONS;
   }
 
   private static final String VARIABLE_SQL_MAX_SELECT_IN = "sql_max_select_in";
-  private Integer SQL_MAX_SELECT_IN = 100;
   /**
    * For performance reasons SELECT ... WHERE col_name IN (.. , ..) queries should not have an unbounded in array.
    */
-  public synchronized Integer getSQLMaxSelectIn() {
-    checkCache();
-    return SQL_MAX_SELECT_IN;
+  public Integer getSQLMaxSelectIn() {
+    return cache().SQL_MAX_SELECT_IN;
   }
 
-  // The maximum number of http threads in the thread pool is set to 200 by default
-  private int MAX_LONG_RUNNING_HTTP_REQUESTS = 50;
-
-  public synchronized int getMaxLongRunningHttpRequests() {
-    checkCache();
-    return MAX_LONG_RUNNING_HTTP_REQUESTS;
+  public int getMaxLongRunningHttpRequests() {
+    return cache().MAX_LONG_RUNNING_HTTP_REQUESTS;
   }
 }
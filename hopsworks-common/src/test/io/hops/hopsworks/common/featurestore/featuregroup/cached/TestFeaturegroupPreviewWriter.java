@@ -0,0 +1,106 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.featurestore.featuregroup.cached;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+public class TestFeaturegroupPreviewWriter {
+
+  @Test
+  public void testWriteTypedRows() throws Exception {
+    ResultSetMetaData rsmd = Mockito.mock(ResultSetMetaData.class);
+    Mockito.when(rsmd.getColumnCount()).thenReturn(4);
+    mockColumn(rsmd, 1, "fg_1.id", Types.BIGINT, "BIGINT");
+    mockColumn(rsmd, 2, "fg_1.price", Types.DECIMAL, "DECIMAL");
+    mockColumn(rsmd, 3, "fg_1.active", Types.BOOLEAN, "BOOLEAN");
+    mockColumn(rsmd, 4, "fg_1.name", Types.VARCHAR, "VARCHAR");
+
+    ResultSet rs = Mockito.mock(ResultSet.class);
+    Mockito.when(rs.getMetaData()).thenReturn(rsmd);
+    Mockito.when(rs.next()).thenReturn(true, true, false);
+    Mockito.when(rs.getLong(1)).thenReturn(1L, 0L);
+    Mockito.when(rs.getBigDecimal(2)).thenReturn(new BigDecimal("2.50"), null);
+    Mockito.when(rs.getBoolean(3)).thenReturn(true, false);
+    Mockito.when(rs.getObject(4)).thenReturn("a", null);
+    // getLong(1), getBoolean(3) of the second row are null
+    Mockito.when(rs.wasNull()).thenReturn(false, false, true, true);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long rows = new FeaturegroupPreviewWriter(out).read(rs);
+
+    Assert.assertEquals(2, rows);
+    Assert.assertEquals("{\"columns\":[{\"name\":\"id\",\"type\":\"BIGINT\"},"
+        + "{\"name\":\"price\",\"type\":\"DECIMAL\"},{\"name\":\"active\",\"type\":\"BOOLEAN\"},"
+        + "{\"name\":\"name\",\"type\":\"VARCHAR\"}],"
+        + "\"rows\":[[1,2.50,true,\"a\"],[null,null,null,null]]}",
+      new String(out.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testWriteOnlyOnce() throws Exception {
+    ResultSetMetaData rsmd = Mockito.mock(ResultSetMetaData.class);
+    ResultSet rs = Mockito.mock(ResultSet.class);
+    Mockito.when(rs.getMetaData()).thenReturn(rsmd);
+
+    FeaturegroupPreviewWriter writer = new FeaturegroupPreviewWriter(new ByteArrayOutputStream());
+    writer.read(rs);
+    writer.read(rs);
+  }
+
+  @Test
+  public void testFailureLeavesJsonOpen() throws Exception {
+    ResultSetMetaData rsmd = Mockito.mock(ResultSetMetaData.class);
+    Mockito.when(rsmd.getColumnCount()).thenReturn(1);
+    mockColumn(rsmd, 1, "fg_1.id", Types.BIGINT, "BIGINT");
+
+    ResultSet rs = Mockito.mock(ResultSet.class);
+    Mockito.when(rs.getMetaData()).thenReturn(rsmd);
+    Mockito.when(rs.next()).thenReturn(true).thenThrow(new SQLException("connection lost"));
+    Mockito.when(rs.getLong(1)).thenReturn(1L);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    FeaturegroupPreviewWriter writer = new FeaturegroupPreviewWriter(out);
+    Assert.assertTrue(writer.isRetryable());
+    try {
+      writer.read(rs);
+      Assert.fail("The SQLException should be thrown");
+    } catch (SQLException e) {
+      // expected
+    }
+
+    Assert.assertFalse(writer.isRetryable());
+    Assert.assertEquals("{\"columns\":[{\"name\":\"id\",\"type\":\"BIGINT\"}],\"rows\":[[1]",
+      new String(out.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  private void mockColumn(ResultSetMetaData rsmd, int column, String label, int type, String typeName)
+      throws Exception {
+    Mockito.when(rsmd.getColumnLabel(column)).thenReturn(label);
+    Mockito.when(rsmd.getColumnType(column)).thenReturn(type);
+    Mockito.when(rsmd.getColumnTypeName(column)).thenReturn(typeName);
+  }
+}
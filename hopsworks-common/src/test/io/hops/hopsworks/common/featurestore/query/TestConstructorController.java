@@ -1226,4 +1226,131 @@ public class TestConstructorController {
 
     Assert.assertEquals(startRequest, query.getLeftFeatureGroupStartTimestamp());
   }
+
+  @Test
+  public void testConstruct_cacheHitReturnsSameSql() throws Exception {
+    ConstructedQueryCache cache = new ConstructedQueryCache();
+    cache.init();
+    ConstructorController cachedTarget = new ConstructorController(featuregroupController,
+        cachedFeaturegroupController, filterController, new JoinController(new ConstructorController()), cache);
+
+    // generation modifies the features of the query, every call gets its own
+    FsQueryDTO uncached = target.construct(makeJoinQuery(JoinType.INNER), false, false, project, user);
+    FsQueryDTO miss = cachedTarget.construct(makeJoinQuery(JoinType.INNER), false, false, project, user);
+    FsQueryDTO hit = cachedTarget.construct(makeJoinQuery(JoinType.INNER), false, false, project, user);
+
+    Assert.assertEquals(1L, cache.getMetrics().get("misses"));
+    Assert.assertEquals(1L, cache.getMetrics().get("hits"));
+    Assert.assertEquals(uncached.getQuery(), miss.getQuery());
+    Assert.assertEquals(uncached.getQueryOnline(), miss.getQueryOnline());
+    Assert.assertEquals(miss.getQuery(), hit.getQuery());
+    Assert.assertEquals(miss.getQueryOnline(), hit.getQueryOnline());
+    Assert.assertEquals(miss.getPitQuery(), hit.getPitQuery());
+  }
+
+  @Test
+  public void testConstruct_cacheMissOnDifferentQuery() throws Exception {
+    ConstructedQueryCache cache = new ConstructedQueryCache();
+    cache.init();
+    ConstructorController cachedTarget = new ConstructorController(featuregroupController,
+        cachedFeaturegroupController, filterController, new JoinController(new ConstructorController()), cache);
+
+    FsQueryDTO inner = cachedTarget.construct(makeJoinQuery(JoinType.INNER), false, false, project, user);
+    FsQueryDTO left = cachedTarget.construct(makeJoinQuery(JoinType.LEFT), false, false, project, user);
+
+    Assert.assertEquals(0L, cache.getMetrics().get("hits"));
+    Assert.assertNotEquals(inner.getQuery(), left.getQuery());
+    Assert.assertEquals(target.construct(makeJoinQuery(JoinType.LEFT), false, false, project, user).getQuery(),
+        left.getQuery());
+  }
+
+  @Test
+  public void testFingerprint_sameQuery() {
+    ConstructedQueryCache cache = new ConstructedQueryCache();
+    Assert.assertEquals(cache.fingerprint(makeJoinQuery(JoinType.INNER), false, false),
+        cache.fingerprint(makeJoinQuery(JoinType.INNER), false, false));
+    Assert.assertNotEquals(cache.fingerprint(makeJoinQuery(JoinType.INNER), false, false),
+        cache.fingerprint(makeJoinQuery(JoinType.INNER), true, false));
+    Assert.assertNotEquals(cache.fingerprint(makeJoinQuery(JoinType.INNER), true, false),
+        cache.fingerprint(makeJoinQuery(JoinType.INNER), true, true));
+  }
+
+  @Test
+  public void testFingerprint_changesWithFeatures() {
+    ConstructedQueryCache cache = new ConstructedQueryCache();
+    String base = cache.fingerprint(makeJoinQuery(JoinType.INNER), false, false);
+
+    Query moreFeatures = makeJoinQuery(JoinType.INNER);
+    moreFeatures.getFeatures().add(new Feature("ft2", "fg1", "Float", null, null));
+    Assert.assertNotEquals(base, cache.fingerprint(moreFeatures, false, false));
+
+    Query otherType = makeJoinQuery(JoinType.INNER);
+    otherType.getFeatures().get(0).setType("Double");
+    Assert.assertNotEquals(base, cache.fingerprint(otherType, false, false));
+
+    Query withDefault = makeJoinQuery(JoinType.INNER);
+    withDefault.getFeatures().get(0).setDefaultValue("0");
+    Assert.assertNotEquals(base, cache.fingerprint(withDefault, false, false));
+  }
+
+  @Test
+  public void testFingerprint_changesWithFilters() {
+    ConstructedQueryCache cache = new ConstructedQueryCache();
+    String base = cache.fingerprint(makeJoinQuery(JoinType.INNER), false, false);
+
+    Query filtered = makeJoinQuery(JoinType.INNER);
+    FilterLogic filter = new FilterLogic(SqlFilterLogic.SINGLE);
+    filter.setLeftFilter(new Filter(Arrays.asList(filtered.getFeatures().get(0)), SqlCondition.EQUALS, "10"));
+    filtered.setFilter(filter);
+    String filteredFingerprint = cache.fingerprint(filtered, false, false);
+    Assert.assertNotEquals(base, filteredFingerprint);
+
+    Query otherValue = makeJoinQuery(JoinType.INNER);
+    FilterLogic otherFilter = new FilterLogic(SqlFilterLogic.SINGLE);
+    otherFilter.setLeftFilter(new Filter(Arrays.asList(otherValue.getFeatures().get(0)), SqlCondition.EQUALS, "11"));
+    otherValue.setFilter(otherFilter);
+    Assert.assertNotEquals(filteredFingerprint, cache.fingerprint(otherValue, false, false));
+
+    Query otherCondition = makeJoinQuery(JoinType.INNER);
+    FilterLogic conditionFilter = new FilterLogic(SqlFilterLogic.SINGLE);
+    conditionFilter.setLeftFilter(new Filter(Arrays.asList(otherCondition.getFeatures().get(0)),
+        SqlCondition.GREATER_THAN, "10"));
+    otherCondition.setFilter(conditionFilter);
+    Assert.assertNotEquals(filteredFingerprint, cache.fingerprint(otherCondition, false, false));
+  }
+
+  @Test
+  public void testFingerprint_changesWithJoins() {
+    ConstructedQueryCache cache = new ConstructedQueryCache();
+    String base = cache.fingerprint(makeJoinQuery(JoinType.INNER), false, false);
+
+    Assert.assertNotEquals(base, cache.fingerprint(makeJoinQuery(JoinType.LEFT), false, false));
+
+    Query noJoin = makeJoinQuery(JoinType.INNER);
+    noJoin.setJoins(null);
+    Assert.assertNotEquals(base, cache.fingerprint(noJoin, false, false));
+
+    Query otherFeatureGroup = makeJoinQuery(JoinType.INNER);
+    otherFeatureGroup.getJoins().get(0).getRightQuery().setFeaturegroup(fg3);
+    Assert.assertNotEquals(base, cache.fingerprint(otherFeatureGroup, false, false));
+
+    Query prefixed = makeJoinQuery(JoinType.INNER);
+    prefixed.getJoins().get(0).setPrefix("right_");
+    Assert.assertNotEquals(base, cache.fingerprint(prefixed, false, false));
+  }
+
+  private Query makeJoinQuery(JoinType joinType) {
+    List<Feature> availableLeft = new ArrayList<>();
+    availableLeft.add(new Feature("ft1", "fg1", "Float", null, null));
+
+    List<Feature> availableRight = new ArrayList<>();
+    availableRight.add(new Feature("ft1", "fg0", "Float", null, null));
+
+    Query rightQuery = new Query("fs1", "project_fs1", fg2, "fg0", availableRight, availableRight);
+    Query leftQuery = new Query("fs1", "project_fs1", fg1, "fg1", new ArrayList<>(availableLeft), availableLeft);
+    Join join = new Join(leftQuery, rightQuery, availableLeft, availableRight, joinType, null,
+        singleEqualsJoinOperator);
+    leftQuery.setJoins(new ArrayList<>(Arrays.asList(join)));
+    return leftQuery;
+  }
 }
@@ -0,0 +1,183 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.jobs.yarn;
+
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.persistence.entity.jobs.configuration.history.JobFinalStatus;
+import io.hops.hopsworks.persistence.entity.jobs.description.Jobs;
+import io.hops.hopsworks.persistence.entity.jobs.history.Execution;
+import io.hops.hopsworks.persistence.entity.project.Project;
+import org.apache.hadoop.yarn.api.records.LogAggregationStatus;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.enterprise.concurrent.ManagedExecutorService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+public class TestYarnLogCopyScheduler {
+
+  private Settings settings;
+  private YarnExecutionFinalizer execFinalizer;
+  private ManagedExecutorService executorService;
+  private YarnLogCopyScheduler scheduler;
+
+  // Copies handed to the executor and not run yet
+  private final List<Runnable> submitted = new ArrayList<>();
+  // Ids of the executions in the order their logs were copied
+  private final List<Integer> copied = new ArrayList<>();
+  // Log aggregation status of the executions, SUCCEEDED if absent
+  private final Map<Integer, LogAggregationStatus> aggregation = new HashMap<>();
+
+  @Before
+  public void setup() {
+    settings = Mockito.mock(Settings.class);
+    Mockito.when(settings.getYarnLogCopyMaxConcurrent()).thenReturn(1);
+    execFinalizer = Mockito.mock(YarnExecutionFinalizer.class);
+    Mockito.when(execFinalizer.getLogAggregationStatus(Mockito.anyList())).thenAnswer(invocation -> {
+      List<Execution> execs = invocation.getArgument(0);
+      List<LogAggregationStatus> statuses = new ArrayList<>();
+      for (Execution exec : execs) {
+        statuses.add(aggregation.getOrDefault(exec.getId(), LogAggregationStatus.SUCCEEDED));
+      }
+      return statuses;
+    });
+    Mockito.when(execFinalizer.copyLogs(Mockito.any(Execution.class), Mockito.any())).thenAnswer(invocation -> {
+      copied.add(((Execution) invocation.getArgument(0)).getId());
+      return 10L;
+    });
+    executorService = Mockito.mock(ManagedExecutorService.class);
+    Mockito.when(executorService.submit(Mockito.any(Runnable.class))).thenAnswer(invocation -> {
+      submitted.add(invocation.getArgument(0));
+      return null;
+    });
+    scheduler = new YarnLogCopyScheduler(settings, execFinalizer, executorService);
+  }
+
+  @Test
+  public void testRoundRobinBetweenProjects() {
+    scheduler.submit(execution(1, "a", JobFinalStatus.SUCCEEDED));
+    scheduler.submit(execution(2, "a", JobFinalStatus.SUCCEEDED));
+    scheduler.submit(execution(3, "a", JobFinalStatus.SUCCEEDED));
+    scheduler.submit(execution(4, "a", JobFinalStatus.SUCCEEDED));
+    scheduler.submit(execution(5, "b", JobFinalStatus.SUCCEEDED));
+    scheduler.submit(execution(6, "c", JobFinalStatus.SUCCEEDED));
+    scheduler.submit(execution(7, "b", JobFinalStatus.SUCCEEDED));
+    scheduler.checkLogAggregation(null);
+
+    Assert.assertEquals(1, submitted.size());
+    Assert.assertEquals(6, scheduler.getMetrics().get("queued"));
+    runAll();
+
+    Assert.assertEquals(Arrays.asList(1, 5, 6, 2, 7, 3, 4), copied);
+  }
+
+  @Test
+  public void testFailedExecutionsFirst() {
+    scheduler.submit(execution(1, "a", JobFinalStatus.SUCCEEDED));
+    scheduler.submit(execution(2, "a", JobFinalStatus.SUCCEEDED));
+    scheduler.submit(execution(3, "b", JobFinalStatus.SUCCEEDED));
+    scheduler.submit(execution(4, "b", JobFinalStatus.FAILED));
+    scheduler.submit(execution(5, "c", JobFinalStatus.KILLED));
+    scheduler.submit(execution(6, "b", JobFinalStatus.KILLED));
+    scheduler.checkLogAggregation(null);
+    runAll();
+
+    Assert.assertEquals(Arrays.asList(4, 5, 6, 1, 3, 2), copied);
+  }
+
+  @Test
+  public void testMaxConcurrent() throws Exception {
+    Mockito.when(settings.getYarnLogCopyMaxConcurrent()).thenReturn(2);
+    List<Future<Void>> results = new ArrayList<>();
+    for (int i = 1; i <= 5; i++) {
+      results.add(scheduler.submit(execution(i, "a", JobFinalStatus.SUCCEEDED)));
+    }
+    scheduler.checkLogAggregation(null);
+
+    Assert.assertEquals(2, submitted.size());
+    Assert.assertEquals(2, scheduler.getMetrics().get("running"));
+    Assert.assertEquals(3, scheduler.getMetrics().get("queued"));
+    Assert.assertFalse(results.get(2).isDone());
+
+    submitted.remove(0).run();
+    Assert.assertEquals(2, submitted.size());
+    Assert.assertTrue(results.get(0).isDone());
+    results.get(0).get();
+
+    runAll();
+    Assert.assertEquals(Arrays.asList(1, 2, 3, 4, 5), copied);
+    Assert.assertEquals(0, scheduler.getMetrics().get("running"));
+    Assert.assertEquals(0, scheduler.getMetrics().get("queued"));
+    Assert.assertEquals(5L, scheduler.getMetrics().get("completedCopies"));
+    Assert.assertEquals(50L, scheduler.getMetrics().get("copiedBytes"));
+  }
+
+  @Test
+  public void testWaitForAggregationOutsideSlots() {
+    aggregation.put(1, LogAggregationStatus.RUNNING);
+    aggregation.put(2, LogAggregationStatus.NOT_START);
+    scheduler.submit(execution(1, "a", JobFinalStatus.SUCCEEDED));
+    scheduler.submit(execution(2, "a", JobFinalStatus.SUCCEEDED));
+    scheduler.submit(execution(3, "b", JobFinalStatus.SUCCEEDED));
+    Assert.assertEquals(3, scheduler.getMetrics().get("aggregating"));
+    Assert.assertTrue(submitted.isEmpty());
+
+    scheduler.checkLogAggregation(null);
+    Assert.assertEquals(2, scheduler.getMetrics().get("aggregating"));
+    runAll();
+    Assert.assertEquals(Arrays.asList(3), copied);
+    Mockito.verify(execFinalizer).copyLogs(Mockito.any(Execution.class), Mockito.eq(LogAggregationStatus.SUCCEEDED));
+
+    aggregation.put(1, LogAggregationStatus.TIME_OUT);
+    scheduler.checkLogAggregation(null);
+    runAll();
+    Assert.assertEquals(Arrays.asList(3, 1), copied);
+
+    // NOT_START is given up on after MAX_NOT_START_RETRIES checks
+    for (int i = 2; i <= YarnLogUtil.MAX_NOT_START_RETRIES; i++) {
+      scheduler.checkLogAggregation(null);
+    }
+    Assert.assertEquals(1, scheduler.getMetrics().get("aggregating"));
+    scheduler.checkLogAggregation(null);
+    runAll();
+    Assert.assertEquals(Arrays.asList(3, 1, 2), copied);
+    Assert.assertEquals(0, scheduler.getMetrics().get("aggregating"));
+    Mockito.verify(execFinalizer, Mockito.times(3)).finalizeLogCopy(Mockito.any(Execution.class));
+  }
+
+  private void runAll() {
+    while (!submitted.isEmpty()) {
+      submitted.remove(0).run();
+    }
+  }
+
+  private Execution execution(int id, String projectName, JobFinalStatus finalStatus) {
+    Jobs job = new Jobs();
+    job.setProject(new Project(projectName));
+    Execution execution = new Execution();
+    execution.setId(id);
+    execution.setJob(job);
+    execution.setFinalStatus(finalStatus);
+    return execution;
+  }
+}
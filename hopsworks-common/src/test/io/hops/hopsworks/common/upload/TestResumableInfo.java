@@ -0,0 +1,112 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.upload;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+public class TestResumableInfo {
+  
+  private static final int CHUNK_SIZE = 100;
+  private static final long TOTAL_SIZE = 250;
+  
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+  
+  private File stagingFile;
+  private ResumableInfo info;
+  
+  @Before
+  public void setup() throws Exception {
+    stagingFile = tmpFolder.newFile("file.csv.temp");
+    info = newInfo(CHUNK_SIZE, TOTAL_SIZE);
+  }
+  
+  @Test
+  public void testTotalChunks() {
+    Assert.assertEquals(3, info.getTotalChunks());
+    Assert.assertEquals(2, newInfo(CHUNK_SIZE, 200).getTotalChunks());
+    Assert.assertEquals(1, newInfo(CHUNK_SIZE, 0).getTotalChunks());
+  }
+  
+  @Test
+  public void testFinishedWhenAllChunksUploaded() {
+    Assert.assertFalse(info.addChunkAndCheckIfFinished(chunk(2), 100));
+    Assert.assertFalse(info.addChunkAndCheckIfFinished(chunk(3), 50));
+    Assert.assertTrue(info.addChunkAndCheckIfFinished(chunk(1), 100));
+    Assert.assertEquals(TOTAL_SIZE, info.getUploadedContentLength());
+    Assert.assertFalse(stagingFile.exists());
+    Assert.assertTrue(new File(tmpFolder.getRoot(), "file.csv").exists());
+  }
+  
+  @Test
+  public void testDuplicateChunkIsCountedOnce() {
+    Assert.assertFalse(info.addChunkAndCheckIfFinished(chunk(1), 100));
+    Assert.assertFalse(info.addChunkAndCheckIfFinished(chunk(1), 100));
+    Assert.assertEquals(100, info.getUploadedContentLength());
+    Assert.assertTrue(info.isUploaded(chunk(1)));
+    Assert.assertFalse(info.isUploaded(chunk(2)));
+  }
+  
+  @Test
+  public void testOutOfRangeChunksAreRejected() {
+    Assert.assertFalse(info.isValidChunk(chunk(0)));
+    Assert.assertFalse(info.isValidChunk(chunk(-1)));
+    Assert.assertFalse(info.isValidChunk(chunk(4)));
+    Assert.assertFalse(info.isValidChunk(chunk(Integer.MAX_VALUE)));
+    Assert.assertTrue(info.isValidChunk(chunk(3)));
+    
+    Assert.assertFalse(info.addChunkAndCheckIfFinished(chunk(Integer.MAX_VALUE), 100));
+    Assert.assertFalse(info.addChunkAndCheckIfFinished(chunk(0), 100));
+    Assert.assertFalse(info.isUploaded(chunk(Integer.MAX_VALUE)));
+    Assert.assertEquals(0, info.getUploadedContentLength());
+  }
+  
+  @Test
+  public void testValid() {
+    Assert.assertTrue(info.valid());
+    Assert.assertFalse(newInfo(0, TOTAL_SIZE).valid());
+    Assert.assertFalse(newInfo(-1, TOTAL_SIZE).valid());
+    Assert.assertFalse(newInfo(CHUNK_SIZE, -1).valid());
+  }
+  
+  @Test
+  public void testTooManyChunksIsInvalid() {
+    Assert.assertTrue(newInfo(1, ResumableInfo.MAX_CHUNKS).valid());
+    Assert.assertFalse(newInfo(1, ResumableInfo.MAX_CHUNKS + 1L).valid());
+    Assert.assertFalse(newInfo(1, Long.MAX_VALUE).valid());
+  }
+  
+  private ResumableInfo newInfo(int chunkSize, long totalSize) {
+    ResumableInfo resumableInfo = new ResumableInfo();
+    resumableInfo.setResumableChunkSize(chunkSize);
+    resumableInfo.setResumableTotalSize(totalSize);
+    resumableInfo.setResumableIdentifier("250-filecsv");
+    resumableInfo.setResumableFilename("file.csv");
+    resumableInfo.setResumableRelativePath("file.csv");
+    resumableInfo.setResumableFilePath(stagingFile.getAbsolutePath());
+    return resumableInfo;
+  }
+  
+  private ResumableInfo.ResumableChunkNumber chunk(int number) {
+    return new ResumableInfo.ResumableChunkNumber(number);
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.util;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestKeyedObjectPool {
+  
+  private static final String KEY = "project__user";
+  
+  private final AtomicInteger closed = new AtomicInteger();
+  private boolean valid = true;
+  private int maxBorrowed = 1;
+  private int maxIdle = Integer.MAX_VALUE;
+  private KeyedObjectPool<Connection> pool;
+  
+  @Before
+  public void setup() {
+    pool = newPool(0);
+  }
+  
+  @Test
+  public void testReleasedObjectIsReused() throws Exception {
+    Connection first = pool.borrow(KEY, null, Connection::new, null);
+    Assert.assertTrue(pool.release(first));
+    Connection second = pool.borrow(KEY, null, Connection::new, null);
+    Assert.assertSame(first, second);
+    Assert.assertEquals(1L, pool.getMetrics().get("hits"));
+    Assert.assertEquals(1L, pool.getMetrics().get("creates"));
+  }
+  
+  @Test
+  public void testObjectOfOtherCredentialsIsNotReused() throws Exception {
+    Connection first = pool.borrow(KEY, "v1", Connection::new, null);
+    pool.release(first);
+    Connection second = pool.borrow(KEY, "v2", Connection::new, null);
+    Assert.assertNotEquals(first, second);
+    Assert.assertTrue(first.closed);
+  }
+  
+  @Test
+  public void testInvalidatedObjectIsClosed() throws Exception {
+    Connection first = pool.borrow(KEY, null, Connection::new, closed::incrementAndGet);
+    pool.invalidate(first);
+    Assert.assertTrue(first.closed);
+    Assert.assertEquals(1, closed.get());
+    // given back already, ignored
+    pool.release(first);
+    Connection second = pool.borrow(KEY, null, Connection::new, null);
+    Assert.assertNotEquals(first, second);
+  }
+  
+  @Test
+  public void testInvalidateKeyClosesIdleAndBorrowedObjects() throws Exception {
+    maxBorrowed = 2;
+    pool = newPool(0);
+    Connection idle = pool.borrow(KEY, null, Connection::new, null);
+    Connection borrowed = pool.borrow(KEY, null, Connection::new, null);
+    pool.release(idle);
+    pool.invalidateKey(KEY);
+    Assert.assertTrue(idle.closed);
+    Assert.assertFalse(borrowed.closed);
+    pool.release(borrowed);
+    Assert.assertTrue(borrowed.closed);
+  }
+  
+  @Test
+  public void testInvalidateKeysOnlyClosesMatchingKeys() throws Exception {
+    Connection matching = pool.borrow(KEY + ":db1", null, Connection::new, null);
+    Connection other = pool.borrow("other:db1", null, Connection::new, null);
+    pool.release(matching);
+    pool.release(other);
+    pool.invalidateKeys(key -> key.startsWith(KEY + ":"));
+    Assert.assertTrue(matching.closed);
+    Assert.assertFalse(other.closed);
+  }
+  
+  @Test
+  public void testBorrowWaitsForMaxBorrowed() throws Exception {
+    Connection first = pool.borrow(KEY, null, Connection::new, null);
+    try {
+      pool.borrow(KEY, null, Connection::new, null);
+      Assert.fail("Borrowed more than the max borrowed objects of the key");
+    } catch (TimeoutException e) {
+      // expected
+    }
+    // other keys are not limited
+    pool.release(pool.borrow("other", null, Connection::new, null));
+    pool.release(first);
+    Assert.assertSame(first, pool.borrow(KEY, null, Connection::new, null));
+  }
+  
+  @Test
+  public void testFailedCreateGivesPermitBack() throws Exception {
+    try {
+      pool.borrow(KEY, null, () -> {
+        throw new IOException("unreachable");
+      }, null);
+      Assert.fail("Factory exception not thrown");
+    } catch (IOException e) {
+      // expected
+    }
+    Assert.assertNotNull(pool.borrow(KEY, null, Connection::new, null));
+  }
+  
+  @Test
+  public void testObjectsBeyondMaxIdleAreClosed() throws Exception {
+    maxBorrowed = 0;
+    maxIdle = 1;
+    pool = newPool(0);
+    Connection first = pool.borrow(KEY, null, Connection::new, null);
+    Connection second = pool.borrow(KEY, null, Connection::new, null);
+    pool.release(first);
+    pool.release(second);
+    Assert.assertFalse(first.closed);
+    Assert.assertTrue(second.closed);
+    Assert.assertEquals(1, pool.getMetrics().get("idle"));
+  }
+  
+  @Test
+  public void testBrokenIdleObjectIsNotReused() throws Exception {
+    pool = newPool(1);
+    Connection first = pool.borrow(KEY, null, Connection::new, null);
+    pool.release(first);
+    Thread.sleep(5);
+    valid = false;
+    Connection second = pool.borrow(KEY, null, Connection::new, null);
+    Assert.assertNotEquals(first, second);
+    Assert.assertTrue(first.closed);
+  }
+  
+  @Test
+  public void testEvictIdleDropsEmptyKeys() throws Exception {
+    Connection first = pool.borrow(KEY, null, Connection::new, closed::incrementAndGet);
+    pool.release(first);
+    pool.evictIdle(-1);
+    Assert.assertTrue(first.closed);
+    Assert.assertEquals(1, closed.get());
+    Assert.assertEquals(0, pool.getMetrics().get("keys"));
+  }
+  
+  @Test
+  public void testEvictIdleReleasesObjectsClosedByBorrower() throws Exception {
+    Connection first = pool.borrow(KEY, null, Connection::new, closed::incrementAndGet);
+    first.closed = true;
+    pool.evictIdle(Long.MAX_VALUE);
+    Assert.assertEquals(1, closed.get());
+    Assert.assertEquals(0, pool.getMetrics().get("borrowed"));
+    Assert.assertEquals(0, pool.getMetrics().get("keys"));
+    Assert.assertNotNull(pool.borrow(KEY, null, Connection::new, null));
+  }
+  
+  @Test
+  public void testReleaseOfUnknownObject() {
+    Assert.assertFalse(pool.release(new Connection()));
+  }
+  
+  private KeyedObjectPool<Connection> newPool(long validationIntervalMs) {
+    KeyedObjectPool.Handler<Connection> handler = new KeyedObjectPool.Handler<Connection>() {
+      @Override
+      public boolean isClosed(Connection connection) {
+        return connection.closed;
+      }
+      
+      @Override
+      public boolean validate(Connection connection) {
+        return valid;
+      }
+      
+      @Override
+      public void close(Connection connection) {
+        connection.closed = true;
+      }
+    };
+    return new KeyedObjectPool<>("connection", handler, () -> maxBorrowed, () -> maxIdle, 0, validationIntervalMs, 10);
+  }
+  
+  private static class Connection {
+    private volatile boolean closed = false;
+  }
+}
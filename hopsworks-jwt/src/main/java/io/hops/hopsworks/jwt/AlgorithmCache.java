@@ -0,0 +1,101 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.jwt;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Singleton;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of the algorithms built from the signing keys, so that verifying a token does not look up and decode its
+ * signing key every time. Entries are invalidated when signing keys are removed on this node, and expire after a
+ * short time to pick up keys removed by other nodes.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class AlgorithmCache {
+  
+  private static final long MAX_SIZE = 10000;
+  private static final long EXPIRE_AFTER_WRITE_SEC = 60;
+  private static final String KEY_SEPARATOR = ":";
+  
+  private Cache<String, Algorithm> algorithms;
+  
+  @PostConstruct
+  public void init() {
+    algorithms = Caffeine.newBuilder()
+      .maximumSize(MAX_SIZE)
+      .expireAfterWrite(EXPIRE_AFTER_WRITE_SEC, TimeUnit.SECONDS)
+      .recordStats()
+      .build();
+    MetricsRegistry.register("jwtAlgorithmCache", this::getMetrics);
+  }
+  
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("jwtAlgorithmCache");
+  }
+  
+  public Algorithm get(SignatureAlgorithm algorithm, String keyId) {
+    return algorithms.getIfPresent(toKey(algorithm, keyId));
+  }
+  
+  public void put(SignatureAlgorithm algorithm, String keyId, Algorithm alg) {
+    algorithms.put(toKey(algorithm, keyId), alg);
+  }
+  
+  /**
+   * Invalidate the algorithms built with the given signing key, for all signature algorithms.
+   * @param keyId
+   */
+  public void invalidate(String keyId) {
+    if (keyId == null) {
+      return;
+    }
+    String suffix = KEY_SEPARATOR + keyId;
+    algorithms.asMap().keySet().removeIf(key -> key.endsWith(suffix));
+  }
+  
+  public void invalidateAll() {
+    algorithms.invalidateAll();
+  }
+  
+  /**
+   * @return size, hits and misses of the cache
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("algorithms", algorithms.estimatedSize());
+    metrics.put("hits", algorithms.stats().hitCount());
+    metrics.put("misses", algorithms.stats().missCount());
+    metrics.put("hitRate", algorithms.stats().hitRate());
+    return metrics;
+  }
+  
+  private String toKey(SignatureAlgorithm algorithm, String keyId) {
+    return algorithm.name() + KEY_SEPARATOR + keyId;
+  }
+}
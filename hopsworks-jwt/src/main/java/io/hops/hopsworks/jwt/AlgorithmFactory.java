@@ -36,6 +36,8 @@ public class AlgorithmFactory {
 
   @EJB
   private JwtSigningKeyFacade jwtSigningKeyFacade;
+  @EJB
+  private AlgorithmCache algorithmCache;
 
   public Algorithm getAlgorithm(DecodedJWT jwt) throws SigningKeyNotFoundException {
     return getAlgorithm(jwt.getAlgorithm(), jwt.getKeyId());
@@ -51,6 +53,15 @@ public class AlgorithmFactory {
   }
 
   public Algorithm getAlgorithm(SignatureAlgorithm algorithm, String keyId) throws SigningKeyNotFoundException {
+    Algorithm alg = algorithmCache.get(algorithm, keyId);
+    if (alg == null) {
+      alg = buildAlgorithm(algorithm, keyId);
+      algorithmCache.put(algorithm, keyId, alg);
+    }
+    return alg;
+  }
+
+  private Algorithm buildAlgorithm(SignatureAlgorithm algorithm, String keyId) throws SigningKeyNotFoundException {
     switch (algorithm) {
       case ES256:
         return getES256Algorithm(keyId);
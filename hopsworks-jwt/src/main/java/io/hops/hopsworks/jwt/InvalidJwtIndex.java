@@ -0,0 +1,215 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.hops.hopsworks.jwt.dao.InvalidJwtFacade;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
+import io.hops.hopsworks.persistence.entity.jwt.InvalidJwt;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.Timer;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory index of the invalidated jwt ids, so that checking if a token is invalidated does not need a database
+ * query for every request. The index is loaded at startup and updated when tokens are invalidated or cleaned up on
+ * this node. It is reloaded periodically from the database to pick up tokens invalidated by other nodes.
+ * <p/>
+ * A token that is not in the index is still checked against the database, at most once every DB_CHECK_INTERVAL_SEC
+ * per token, so a token invalidated on another node is rejected within that interval instead of at the next reload.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class InvalidJwtIndex {
+  
+  private final static Logger LOGGER = Logger.getLogger(InvalidJwtIndex.class.getName());
+  
+  private static final long DB_CHECK_INTERVAL_SEC = 5;
+  private static final long MAX_CHECKED = 100000;
+  
+  @EJB
+  private InvalidJwtFacade invalidJwtFacade;
+  @Resource
+  private TransactionSynchronizationRegistry txRegistry;
+  
+  // jti -> entry. Entries are only removed once they expire, so entries added while reloading are never lost
+  private final Map<String, Entry> invalidJwts = new ConcurrentHashMap<>();
+  // jti of the tokens found valid in the database in the last DB_CHECK_INTERVAL_SEC
+  private Cache<String, Boolean> checked;
+  private final AtomicLong lookups = new AtomicLong();
+  private final AtomicLong positives = new AtomicLong();
+  private final AtomicLong dbChecks = new AtomicLong();
+  
+  @PostConstruct
+  public void init() {
+    checked = Caffeine.newBuilder()
+      .maximumSize(MAX_CHECKED)
+      .expireAfterWrite(DB_CHECK_INTERVAL_SEC, TimeUnit.SECONDS)
+      .build();
+    reload();
+    MetricsRegistry.register("invalidJwtIndex", this::getMetrics);
+  }
+  
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("invalidJwtIndex");
+  }
+  
+  @Schedule(persistent = false, second = "*/30", minute = "*", hour = "*")
+  public void reload(Timer timer) {
+    reload();
+  }
+  
+  /**
+   * Add the tokens invalidated on other nodes to the index, and remove the expired ones. The index is updated in
+   * place, tokens invalidated on this node while the database is read are kept.
+   */
+  public void reload() {
+    try {
+      for (InvalidJwt invalidJwt : invalidJwtFacade.findAll()) {
+        invalidJwts.putIfAbsent(invalidJwt.getJti(), new Entry(invalidJwt.getExpirationTime(),
+          invalidJwt.getRenewableForSec()));
+      }
+    } catch (Exception ex) {
+      LOGGER.log(Level.WARNING, "Failed to load invalidated tokens, keeping the current index", ex);
+    }
+    prune();
+  }
+  
+  /**
+   * Check if a token is invalidated. Tokens in the index are invalidated, the others are checked against the
+   * database if they were not checked in the last DB_CHECK_INTERVAL_SEC.
+   *
+   * @param jti
+   * @return true if the token is invalidated
+   */
+  public boolean isInvalidated(String jti) {
+    lookups.incrementAndGet();
+    if (jti == null) {
+      return false;
+    }
+    if (invalidJwts.containsKey(jti)) {
+      positives.incrementAndGet();
+      return true;
+    }
+    if (checked.getIfPresent(jti) != null) {
+      return false;
+    }
+    dbChecks.incrementAndGet();
+    InvalidJwt invalidJwt = invalidJwtFacade.find(jti);
+    if (invalidJwt != null) {
+      // Invalidated on another node
+      add(jti, invalidJwt.getExpirationTime(), invalidJwt.getRenewableForSec());
+      positives.incrementAndGet();
+      return true;
+    }
+    checked.put(jti, Boolean.TRUE);
+    return false;
+  }
+  
+  /**
+   * Persist an invalidated token and add it to the index once the transaction commits, a rolled back invalidation
+   * is not in the index.
+   *
+   * @param jti
+   * @param expirationTime
+   * @param renewableForSec
+   */
+  @TransactionAttribute(TransactionAttributeType.REQUIRED)
+  public void invalidate(String jti, Date expirationTime, int renewableForSec) {
+    invalidJwtFacade.persist(new InvalidJwt(jti, expirationTime, renewableForSec));
+    txRegistry.registerInterposedSynchronization(new Synchronization() {
+      @Override
+      public void beforeCompletion() {
+      }
+
+      @Override
+      public void afterCompletion(int status) {
+        if (status == Status.STATUS_COMMITTED) {
+          add(jti, expirationTime, renewableForSec);
+        }
+      }
+    });
+  }
+  
+  public void add(String jti, Date expirationTime, int renewableForSec) {
+    invalidJwts.put(jti, new Entry(expirationTime, renewableForSec));
+    checked.invalidate(jti);
+  }
+  
+  public void remove(String jti) {
+    invalidJwts.remove(jti);
+  }
+  
+  /**
+   * Remove the entries of tokens that are past their expiration and renewal time, they can not be verified anyway.
+   * @return number of entries removed
+   */
+  public int prune() {
+    long now = System.currentTimeMillis();
+    int sizeBefore = invalidJwts.size();
+    invalidJwts.values().removeIf(entry -> entry.expiresOn < now);
+    return sizeBefore - invalidJwts.size();
+  }
+  
+  public int size() {
+    return invalidJwts.size();
+  }
+  
+  /**
+   * @return size of the index, number of lookups, invalidated tokens found and database checks
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("invalidatedTokens", invalidJwts.size());
+    metrics.put("lookups", lookups.get());
+    metrics.put("positives", positives.get());
+    metrics.put("databaseChecks", dbChecks.get());
+    return metrics;
+  }
+  
+  private static class Entry {
+    private final long expiresOn;
+    
+    Entry(Date expirationTime, int renewableForSec) {
+      this.expiresOn = expirationTime.getTime() + renewableForSec * 1000L;
+    }
+  }
+}
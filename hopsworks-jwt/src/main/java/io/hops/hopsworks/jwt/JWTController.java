@@ -72,6 +72,12 @@ public class JWTController {
   private AlgorithmFactory algorithmFactory;
   @EJB
   private JwtSigningKeyFacade jwtSigningKeyFacade;
+  @EJB
+  private AlgorithmCache algorithmCache;
+  @EJB
+  private InvalidJwtIndex invalidJwtIndex;
+  @EJB
+  private VerifiedTokenCache verifiedTokenCache;
 
   /**
    * Create a jwt.
@@ -307,9 +313,16 @@ public class JWTController {
    */
   public DecodedJWT verifyToken(String token, String issuer, Set<String> audiences, Set<String> roles) throws
     SigningKeyNotFoundException, VerificationException, AccessException {
-    JsonWebToken jwt = new JsonWebToken(JWT.decode(token));
-    issuer = issuer == null || issuer.isEmpty() ? jwt.getIssuer() : issuer;
-    DecodedJWT djwt = verifyToken(token, issuer, jwt.getExpLeeway(), algorithmFactory.getAlgorithm(jwt));
+    DecodedJWT djwt = verifiedTokenCache.get(token, issuer);
+    JsonWebToken jwt;
+    if (djwt == null) {
+      jwt = new JsonWebToken(JWT.decode(token));
+      String verifyIssuer = issuer == null || issuer.isEmpty() ? jwt.getIssuer() : issuer;
+      djwt = verifyToken(token, verifyIssuer, jwt.getExpLeeway(), algorithmFactory.getAlgorithm(jwt));
+      verifiedTokenCache.put(token, issuer, djwt, jwt.getExpLeeway());
+    } else {
+      jwt = new JsonWebToken(djwt);
+    }
 
     if (isTokenInvalidated(djwt)) {
       throw new VerificationException("Invalidated token.");
@@ -367,8 +380,7 @@ public class JWTController {
   }
 
   private boolean isTokenInvalidated(String id) {
-    InvalidJwt invalidJwt = invalidJwtFacade.find(id);
-    return invalidJwt != null;
+    return invalidJwtIndex.isInvalidated(id);
   }
 
   /**
@@ -619,8 +631,7 @@ public class JWTController {
 
   private void invalidateJWT(String id, Date exp, int leeway) throws InvalidationException {
     try {
-      InvalidJwt invalidJwt = new InvalidJwt(id, exp, leeway);
-      invalidJwtFacade.persist(invalidJwt);
+      invalidJwtIndex.invalidate(id, exp, leeway);
     } catch (Exception e) {
       throw new InvalidationException("Could not persist token.", e.getCause());
     }
@@ -690,7 +701,10 @@ public class JWTController {
    */
   public JwtSigningKey createNewSigningKey(String keyName, SignatureAlgorithm alg) throws NoSuchAlgorithmException,
       DuplicateSigningKeyException {
-    return jwtSigningKeyFacade.createNewSigningKey(keyName, alg);
+    JwtSigningKey signingKey = jwtSigningKeyFacade.createNewSigningKey(keyName, alg);
+    // Ids can be reused after a key is deleted
+    algorithmCache.invalidate(signingKey.getId().toString());
+    return signingKey;
   }
 
   /**
@@ -699,7 +713,13 @@ public class JWTController {
    * @param keyName a unique name given to signing key when created.
    */
   public void deleteSigningKey(String keyName) {
-    jwtSigningKeyFacade.remove(keyName);
+    JwtSigningKey signingKey = jwtSigningKeyFacade.findByName(keyName);
+    if (signingKey == null) {
+      return;
+    }
+    jwtSigningKeyFacade.remove(signingKey);
+    algorithmCache.invalidate(signingKey.getId().toString());
+    verifiedTokenCache.invalidateAll();
   }
 
   public JwtSigningKey findSigningKeyById(Integer id) {
@@ -718,9 +738,11 @@ public class JWTController {
     for (InvalidJwt expiredToken : expiredTokens) {
       if (passedRenewal(expiredToken.getExpirationTime(), expiredToken.getRenewableForSec())) {
         invalidJwtFacade.remove(expiredToken);
+        invalidJwtIndex.remove(expiredToken.getJti());
         count++;
       }
     }
+    invalidJwtIndex.prune();
     return count;
   }
   
@@ -731,6 +753,7 @@ public class JWTController {
     if (jwtSigningKey != null && jwtSigningKey.getCreatedOn().before(cal.getTime())) {
       removeMarkedKeys();//remove if there is an old marked but not deleted.
       jwtSigningKeyFacade.renameSigningKey(jwtSigningKey, Constants.OLD_ONE_TIME_JWT_SIGNING_KEY_NAME);
+      algorithmCache.invalidate(jwtSigningKey.getId().toString());
       try {
         jwtSigningKeyFacade.getOrCreateSigningKey(Constants.ONE_TIME_JWT_SIGNING_KEY_NAME, SignatureAlgorithm.HS256);
       } catch (NoSuchAlgorithmException ex) {
@@ -745,6 +768,8 @@ public class JWTController {
     JwtSigningKey jwtSigningKey = jwtSigningKeyFacade.findByName(Constants.OLD_ONE_TIME_JWT_SIGNING_KEY_NAME);
     if (jwtSigningKey != null) {
       jwtSigningKeyFacade.remove(jwtSigningKey);
+      algorithmCache.invalidate(jwtSigningKey.getId().toString());
+      verifiedTokenCache.invalidateAll();
     }
   }
   
@@ -0,0 +1,149 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.jwt;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.hops.hopsworks.persistence.cache.MetricsRegistry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of tokens whose signature, issuer and expiration have already been verified. Tokens are stored by their
+ * SHA-256 digest and the issuer they were verified against. An entry never outlives the token expiration plus its
+ * leeway, and is capped to a short time so that signing keys removed by other nodes are picked up. Callers must still
+ * check if a cached token has been invalidated.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class VerifiedTokenCache {
+  
+  private static final long MAX_SIZE = 20000;
+  private static final long MAX_TTL_MS = TimeUnit.SECONDS.toMillis(60);
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+  
+  private Cache<String, CachedToken> tokens;
+  
+  @PostConstruct
+  public void init() {
+    tokens = Caffeine.newBuilder()
+      .maximumSize(MAX_SIZE)
+      .expireAfter(new TokenExpiry())
+      .recordStats()
+      .build();
+    MetricsRegistry.register("verifiedTokenCache", this::getMetrics);
+  }
+  
+  @PreDestroy
+  public void destroy() {
+    MetricsRegistry.unregister("verifiedTokenCache");
+  }
+  
+  /**
+   * @param token
+   * @param issuer the issuer the token was verified against, can be null
+   * @return the verified token or null if it is not in the cache
+   */
+  public DecodedJWT get(String token, String issuer) {
+    CachedToken cachedToken = tokens.getIfPresent(toKey(token, issuer));
+    if (cachedToken == null || cachedToken.expiresOn < System.currentTimeMillis()) {
+      return null;
+    }
+    return cachedToken.jwt;
+  }
+  
+  /**
+   * @param token
+   * @param issuer the issuer the token was verified against, can be null
+   * @param jwt the verified token
+   * @param expLeeway expiration leeway in seconds the token was verified with
+   */
+  public void put(String token, String issuer, DecodedJWT jwt, int expLeeway) {
+    if (jwt.getExpiresAt() == null) {
+      // Only cache tokens that expire
+      return;
+    }
+    long expiresOn = Math.min(jwt.getExpiresAt().getTime() + expLeeway * 1000L,
+      System.currentTimeMillis() + MAX_TTL_MS);
+    tokens.put(toKey(token, issuer), new CachedToken(jwt, expiresOn));
+  }
+  
+  public void invalidateAll() {
+    tokens.invalidateAll();
+  }
+  
+  /**
+   * @return size, hits and misses of the cache
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("tokens", tokens.estimatedSize());
+    metrics.put("hits", tokens.stats().hitCount());
+    metrics.put("misses", tokens.stats().missCount());
+    metrics.put("hitRate", tokens.stats().hitRate());
+    return metrics;
+  }
+  
+  private String toKey(String token, String issuer) {
+    try {
+      byte[] digest = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest) + (issuer == null ? "" : issuer);
+    } catch (NoSuchAlgorithmException e) {
+      // SHA-256 is available on every JVM
+      throw new IllegalStateException(e);
+    }
+  }
+  
+  private static class CachedToken {
+    private final DecodedJWT jwt;
+    private final long expiresOn;
+    
+    CachedToken(DecodedJWT jwt, long expiresOn) {
+      this.jwt = jwt;
+      this.expiresOn = expiresOn;
+    }
+  }
+  
+  private static class TokenExpiry implements Expiry<String, CachedToken> {
+    @Override
+    public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+      return TimeUnit.MILLISECONDS.toNanos(Math.max(value.expiresOn - System.currentTimeMillis(), 0));
+    }
+    
+    @Override
+    public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+    
+    @Override
+    public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
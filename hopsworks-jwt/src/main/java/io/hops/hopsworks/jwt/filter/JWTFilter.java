@@ -74,25 +74,30 @@ public abstract class JWTFilter implements ContainerRequestFilter {
     }
 
     String token = authorizationHeader.substring(BEARER.length()).trim();
-    DecodedJWT jwt = JWT.decode(token);
-    Claim expLeewayClaim = jwt.getClaim(EXPIRY_LEEWAY);
     String issuer = getIssuer();
-    int expLeeway = expLeewayClaim.asInt();
-    try {
-      Algorithm algorithm = getAlgorithm(jwt);
-      JWTVerifier verifier = JWT.require(algorithm)
-          .withIssuer(issuer == null || issuer.isEmpty() ? jwt.getIssuer() : issuer)
-          .acceptExpiresAt(expLeeway == 0 ? DEFAULT_EXPIRY_LEEWAY : expLeeway)
-          .build();
-      jwt = verifier.verify(token);
-    } catch (Exception exception) {
-      LOGGER.log(Level.FINE, "JWT Verification Exception: {0}", exception.getMessage());
-      responseEntity = responseEntity(Response.Status.UNAUTHORIZED, exception.getMessage());
-      // remove cookie
-      NewCookie newCookie = ProxyAuthHelper.getNewCookieForLogout();
-      requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED).cookie(newCookie)
-        .header(HttpHeaders.WWW_AUTHENTICATE, WWW_AUTHENTICATE_VALUE).entity(responseEntity).build());
-      return;
+    DecodedJWT jwt = getVerifiedToken(token, issuer);
+    if (jwt == null) {
+      jwt = JWT.decode(token);
+      Claim expLeewayClaim = jwt.getClaim(EXPIRY_LEEWAY);
+      int expLeeway = expLeewayClaim.asInt();
+      expLeeway = expLeeway == 0 ? DEFAULT_EXPIRY_LEEWAY : expLeeway;
+      try {
+        Algorithm algorithm = getAlgorithm(jwt);
+        JWTVerifier verifier = JWT.require(algorithm)
+            .withIssuer(issuer == null || issuer.isEmpty() ? jwt.getIssuer() : issuer)
+            .acceptExpiresAt(expLeeway)
+            .build();
+        jwt = verifier.verify(token);
+      } catch (Exception exception) {
+        LOGGER.log(Level.FINE, "JWT Verification Exception: {0}", exception.getMessage());
+        responseEntity = responseEntity(Response.Status.UNAUTHORIZED, exception.getMessage());
+        // remove cookie
+        NewCookie newCookie = ProxyAuthHelper.getNewCookieForLogout();
+        requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED).cookie(newCookie)
+          .header(HttpHeaders.WWW_AUTHENTICATE, WWW_AUTHENTICATE_VALUE).entity(responseEntity).build());
+        return;
+      }
+      tokenVerified(token, issuer, jwt, expLeeway);
     }
 
     if (!isTokenValid(jwt)) {
@@ -143,6 +148,29 @@ public abstract class JWTFilter implements ContainerRequestFilter {
 
   public abstract Algorithm getAlgorithm(DecodedJWT jwt) throws SigningKeyNotFoundException;
 
+  /**
+   * Get a token that was already verified against the given issuer, to skip verifying its signature again.
+   * Invalidation, roles and audience are still checked for the returned token.
+   *
+   * @param token
+   * @param issuer
+   * @return the verified token or null if it needs to be verified
+   */
+  public DecodedJWT getVerifiedToken(String token, String issuer) {
+    return null;
+  }
+
+  /**
+   * Called after the signature, issuer and expiration of a token have been verified.
+   *
+   * @param token
+   * @param issuer
+   * @param jwt
+   * @param expLeeway expiration leeway in seconds the token was verified with
+   */
+  public void tokenVerified(String token, String issuer, DecodedJWT jwt, int expLeeway) {
+  }
+
   public abstract Set<String> allowedRoles();
 
   public abstract Set<String> acceptedTokens();
@@ -0,0 +1,87 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.persistence.cache;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.tools.profiler.SessionProfilerAdapter;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the second level cache hits and misses of the cached kthfsPU entities, per entity. Set as
+ * eclipselink.profiler in persistence.xml, it only listens to the cache hit and miss events so it does not time the
+ * queries like PerformanceMonitor does.
+ */
+public class EntityCacheProfiler extends SessionProfilerAdapter {
+
+  /**
+   * Milliseconds after which cached entities are read again from the database. Bounds how long changes made outside
+   * of this persistence unit, or on other instances without cache coordination, stay invisible.
+   */
+  public static final int EXPIRY_MS = 60000;
+
+  // Key is the entity name
+  private static final ConcurrentMap<String, Counters> COUNTERS = new ConcurrentHashMap<>();
+
+  @Override
+  public void occurred(String operationName, DatabaseQuery query, AbstractSession session) {
+    if (query == null || query.getReferenceClass() == null) {
+      return;
+    }
+    ClassDescriptor descriptor = query.getDescriptor();
+    if (descriptor == null || descriptor.isIsolated()) {
+      // Not a cached entity
+      return;
+    }
+    if (SessionProfiler.CacheHits.equals(operationName)) {
+      getCounters(query).hits.increment();
+    } else if (SessionProfiler.CacheMisses.equals(operationName)) {
+      getCounters(query).misses.increment();
+    }
+  }
+
+  /**
+   * @return hits and misses per entity name, since the persistence unit was deployed
+   */
+  public static Map<String, Counters> getCounters() {
+    return new TreeMap<>(COUNTERS);
+  }
+
+  private Counters getCounters(DatabaseQuery query) {
+    return COUNTERS.computeIfAbsent(query.getReferenceClass().getSimpleName(), k -> new Counters());
+  }
+
+  public static class Counters {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public long getHits() {
+      return hits.sum();
+    }
+
+    public long getMisses() {
+      return misses.sum();
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2023, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.persistence.cache;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Metrics of the internal caches, pools and queues of this instance. Each of them registers itself once it is
+ * initialized and unregisters when it is destroyed, so whoever reads the metrics does not need to know them. It lives
+ * next to EntityCacheProfiler because every module that has such a component depends on this one.
+ */
+public final class MetricsRegistry {
+
+  private static final Logger LOGGER = Logger.getLogger(MetricsRegistry.class.getName());
+
+  // Key is the name the metrics are reported under
+  private static final ConcurrentMap<String, Supplier<Map<String, Number>>> SOURCES = new ConcurrentHashMap<>();
+
+  private MetricsRegistry() {
+  }
+
+  /**
+   * Register the metrics of a component, replacing the ones registered under the same name.
+   *
+   * @param name name the metrics are reported under
+   * @param metrics reads the current metrics, called on every read so it must be cheap
+   */
+  public static void register(String name, Supplier<Map<String, Number>> metrics) {
+    SOURCES.put(name, metrics);
+  }
+
+  /**
+   * @param name
+   */
+  public static void unregister(String name) {
+    SOURCES.remove(name);
+  }
+
+  /**
+   * @return the metrics of every registered component, by name
+   */
+  public static Map<String, Map<String, Number>> getMetrics() {
+    Map<String, Map<String, Number>> metrics = new TreeMap<>();
+    for (Map.Entry<String, Supplier<Map<String, Number>>> source : SOURCES.entrySet()) {
+      try {
+        metrics.put(source.getKey(), source.getValue().get());
+      } catch (RuntimeException e) {
+        // a component being destroyed must not fail the others
+        LOGGER.log(Level.FINE, "Could not read the metrics of " + source.getKey(), e);
+      }
+    }
+    return metrics;
+  }
+}
@@ -67,6 +67,10 @@ import javax.xml.bind.annotation.XmlRootElement;
   @NamedQuery(name = "UserCerts.findUserProjectCert",
           query
           = "SELECT u FROM UserCerts u WHERE u.userCertsPK.username = :username "
+          + "AND u.userCertsPK.projectname = :projectname"),
+  @NamedQuery(name = "UserCerts.findUserProjectKeyPwd",
+          query
+          = "SELECT u.userKeyPwd FROM UserCerts u WHERE u.userCertsPK.username = :username "
           + "AND u.userCertsPK.projectname = :projectname")})
 public class UserCerts implements Serializable {
 
@@ -16,9 +16,13 @@
 
 package io.hops.hopsworks.persistence.entity.featurestore;
 
+import io.hops.hopsworks.persistence.cache.EntityCacheProfiler;
 import io.hops.hopsworks.persistence.entity.project.Project;
 
+import org.eclipse.persistence.annotations.Cache;
+import org.eclipse.persistence.annotations.CacheCoordinationType;
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -41,6 +45,8 @@ import java.util.Date;
  * An instance of this class represents a row in the database.
  */
 @Entity
+@Cacheable
+@Cache(coordinationType = CacheCoordinationType.INVALIDATE_CHANGED_OBJECTS, expiry = EntityCacheProfiler.EXPIRY_MS)
 @Table(name = "feature_store", catalog = "hopsworks")
 @XmlRootElement
 @NamedQueries({
@@ -38,6 +38,7 @@
  */
 package io.hops.hopsworks.persistence.entity.project;
 
+import io.hops.hopsworks.persistence.cache.EntityCacheProfiler;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.hops.hopsworks.persistence.entity.dataset.Dataset;
 import io.hops.hopsworks.persistence.entity.dataset.DatasetSharedWith;
@@ -56,8 +57,12 @@ import io.hops.hopsworks.persistence.entity.tensorflow.TensorBoard;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.persistence.entity.user.activity.Activity;
 
+import org.eclipse.persistence.annotations.Cache;
+import org.eclipse.persistence.annotations.CacheCoordinationType;
+import org.eclipse.persistence.annotations.Noncacheable;
 import javax.persistence.Basic;
 import javax.persistence.CascadeType;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -89,6 +94,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Entity
+@Cacheable
+@Cache(coordinationType = CacheCoordinationType.INVALIDATE_CHANGED_OBJECTS, expiry = EntityCacheProfiler.EXPIRY_MS)
 @Table(name = "project", catalog = "hopsworks")
 @XmlRootElement
 @NamedQueries({
@@ -113,34 +120,46 @@ import java.util.Map;
       query = "SELECT t FROM Project t where LOWER(t.name) = LOWER(:name)")})
 public class Project implements Serializable {
 
+  // The collections are not kept with the cached project. Their rows are persisted and removed through the facades
+  // without updating the collections, and access checks such as membership and shared datasets must see the change
+  @Noncacheable
   @OneToMany(cascade = CascadeType.ALL,
       mappedBy = "project")
   private Collection<ProjectTeam> projectTeamCollection;
+  @Noncacheable
   @OneToMany(cascade = CascadeType.ALL,
       mappedBy = "project")
   private Collection<Activity> activityCollection;
+  @Noncacheable
   @OneToMany(cascade = CascadeType.ALL,
       mappedBy = "project")
   private Collection<ProjectServices> projectServicesCollection;
+  @Noncacheable
   @OneToMany(cascade = CascadeType.ALL,
       mappedBy = "project", fetch = FetchType.LAZY)
   private Collection<Dataset> datasetCollection;
+  @Noncacheable
   @OneToMany(cascade = CascadeType.ALL,
     mappedBy = "project", fetch = FetchType.LAZY)
   private Collection<DatasetSharedWith> datasetSharedWithCollection;
+  @Noncacheable
   @OneToMany(cascade = CascadeType.ALL,
       mappedBy = "projectId")
   private Collection<CondaCommands> condaCommandsCollection;
+  @Noncacheable
   @OneToMany(cascade = CascadeType.ALL,
       mappedBy = "project")
   private Collection<Serving> servingCollection;
+  @Noncacheable
   @OneToMany(cascade = CascadeType.ALL,
           mappedBy = "project")
   private Collection<TensorBoard> tensorBoardCollection;
+  @Noncacheable
   @OneToMany(cascade = CascadeType.ALL,
     mappedBy = "project",
     orphanRemoval=true)
   private Collection<DefaultJobConfiguration> defaultJobConfigurationCollection;
+  @Noncacheable
   @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY,
       mappedBy = "project")
   private Collection<Jobs> jobsCollection;
@@ -217,6 +236,7 @@ public class Project implements Serializable {
   @OneToOne(optional = false)
   private Inode inode;
 
+  @Noncacheable
   @JoinTable(name = "hopsworks.project_pythondeps",
       joinColumns
       = {
@@ -229,10 +249,12 @@ public class Project implements Serializable {
   @ManyToMany(fetch = FetchType.LAZY)
   private Collection<PythonDep> pythonDepCollection;
 
+  @Noncacheable
   @OneToMany(cascade = CascadeType.ALL,
       mappedBy = "projectId")
   private Collection<JupyterProject> jupyterProjectCollection;
 
+  @Noncacheable
   @OneToMany(cascade = CascadeType.ALL, mappedBy = "project")
   private Collection<ProjectServiceAlert> projectServiceAlerts;
 